@@ -0,0 +1,21 @@
+package edu.dosw.application.dto.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationStatsResponse {
+    private String userId;
+    private long totalNotifications;
+    private long unreadNotifications;
+    private long readNotifications;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byType;
+    private Map<String, Long> byDay;
+}
@@ -1,12 +1,18 @@
 package edu.dosw.application.ports;
 
+import edu.dosw.application.dto.query.NotificationPageResponse;
 import edu.dosw.application.dto.query.NotificationResponse;
+import edu.dosw.application.dto.query.NotificationStatsResponse;
 import java.util.List;
 import java.util.Optional;
 
 public interface NotificationQueryPort {
     List<NotificationResponse> getByUserId(String userId);
+    NotificationPageResponse getPageByUserId(String userId, String status, String type, String cursor, int limit);
     Optional<NotificationResponse> getById(String id);
     void markAsRead(String id);
+    long markAllAsRead(String userId);
     List<NotificationResponse> getUnreadByUserId(String userId); // Nuevo método
+    long getUnreadCount(String userId);
+    NotificationStatsResponse getStatsByUserId(String userId, Integer days);
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.DeliveryAttempt;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Registra el resultado de un envio de email: agrega el intento a {@code deliveryAttempts}, programa
+ * el siguiente reintento segun {@link EmailRetryPolicy} y mantiene el contador de no leidas. Lo usan
+ * tanto el primer envio como {@link EmailRetryService}.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailAttemptRecorder {
+
+    private final NotificationRepositoryPort notificationRepositoryPort;
+    private final UnreadCounterPort unreadCounterPort;
+    private final WebSocketEmitterPort webSocketEmitterPort;
+    private final DeliveryPipelinePort deliveryPipelinePort;
+    private final EmailRetryPolicy emailRetryPolicy;
+
+    public DeliveryAttempt record(Notification notification, EmailSendResult result) {
+        DeliveryAttempt attempt = notification.addDeliveryAttempt(Channel.EMAIL, result.isSuccessful(),
+                result.isSuccessful() ? null : Objects.requireNonNullElse(result.getError(), "Error sending email"));
+        LocalDateTime nextAttemptAt = result.isSuccessful()
+                ? null
+                : emailRetryPolicy.nextAttemptAt(notification.countDeliveryAttempts(Channel.EMAIL), attempt.getTimestamp())
+                        .orElse(null);
+        notification.setNextAttemptAt(nextAttemptAt);
+        Optional<NotificationStatus> previousStatus = notificationRepositoryPort.appendDeliveryAttempt(
+                notification.getId().getValue(), attempt, notification.getStatus(), nextAttemptAt);
+
+        // Un envio fallido saca la notificacion de las no leidas y un reintento exitoso la devuelve. Se
+        // compara con el estado persistido: si el usuario ya la leyo el estado no cambia y el contador tampoco
+        if (previousStatus.isPresent() && previousStatus.get().isUnread() != notification.getStatus().isUnread()) {
+            boolean wasUnread = previousStatus.get().isUnread();
+            String userId = notification.getUserId();
+            unreadCounterPort.adjust(userId, wasUnread ? -1 : 1);
+            deliveryPipelinePort.submit(Channel.WEB_SOCKET,
+                    () -> webSocketEmitterPort.emitUnreadCount(userId, unreadCounterPort.getUnreadCount(userId)));
+        }
+        return attempt;
+    }
+}
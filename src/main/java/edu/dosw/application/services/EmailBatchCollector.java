@@ -0,0 +1,116 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.EmailServicePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Agrupa los emails que llegan en rafagas y los entrega en lotes a {@link EmailServicePort#sendBatch}.
+ * Un lote sale cuando alcanza el tamaño maximo o cuando vence la ventana de espera, lo que ocurra primero;
+ * el envio corre en la etapa de email del pipeline, nunca en el hilo que encola.
+ */
+@Slf4j
+@Service
+public class EmailBatchCollector {
+
+    private final EmailServicePort emailServicePort;
+    private final DeliveryPipelinePort deliveryPipelinePort;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private List<PendingEmail> pending = new ArrayList<>();
+
+    public EmailBatchCollector(EmailServicePort emailServicePort,
+                               DeliveryPipelinePort deliveryPipelinePort,
+                               @Value("${notifications.email.batch.max-size:50}") int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.emailServicePort = emailServicePort;
+        this.deliveryPipelinePort = deliveryPipelinePort;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Encola un email; {@code onResult} se invoca con el resultado de ese mensaje cuando se envia su lote.
+     */
+    public void enqueue(EmailMessage message, Consumer<EmailSendResult> onResult) {
+        List<PendingEmail> batch = null;
+        synchronized (lock) {
+            pending.add(new PendingEmail(message, onResult));
+            if (pending.size() >= maxBatchSize) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            submit(batch);
+        }
+    }
+
+    // Hilo propio: la ventana del lote no espera a los jobs que bloquean contra Mongo
+    @Scheduled(fixedDelayString = "${notifications.email.batch.max-delay-ms:200}", scheduler = "emailBatchScheduler")
+    public void flush() {
+        List<PendingEmail> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = drain();
+        }
+        submit(batch);
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private List<PendingEmail> drain() {
+        List<PendingEmail> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        return batch;
+    }
+
+    private void submit(List<PendingEmail> batch) {
+        deliveryPipelinePort.submit(Channel.EMAIL, () -> send(batch));
+    }
+
+    private void send(List<PendingEmail> batch) {
+        List<EmailMessage> messages = batch.stream().map(PendingEmail::getMessage).toList();
+        List<EmailSendResult> results;
+        try {
+            results = emailServicePort.sendBatch(messages);
+        } catch (Exception e) {
+            log.error("Error sending email batch of {} messages: {}", batch.size(), e.getMessage(), e);
+            results = null;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            EmailSendResult result = results != null && i < results.size()
+                    ? results.get(i)
+                    : EmailSendResult.failure("Error sending email");
+            try {
+                batch.get(i).getOnResult().accept(result);
+            } catch (Exception e) {
+                log.error("Error recording email result for {}: {}", batch.get(i).getMessage().getTo(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class PendingEmail {
+        EmailMessage message;
+        Consumer<EmailSendResult> onResult;
+    }
+}
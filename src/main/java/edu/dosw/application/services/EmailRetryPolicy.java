@@ -0,0 +1,71 @@
+package edu.dosw.application.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calcula cuando toca el siguiente intento de email. El retardo crece exponencialmente desde
+ * {@code initialBackoff} hasta {@code maxBackoff} con "equal jitter": la mitad fija y la otra mitad
+ * aleatoria, para que los reintentos tras un throttling de Gmail no lleguen todos a la vez.
+ */
+@Component
+public class EmailRetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration deliveryGrace;
+
+    public EmailRetryPolicy(@Value("${notifications.email.retry.max-attempts:5}") int maxAttempts,
+                            @Value("${notifications.email.retry.initial-backoff-ms:60000}") long initialBackoffMs,
+                            @Value("${notifications.email.retry.max-backoff-ms:3600000}") long maxBackoffMs,
+                            @Value("${notifications.email.retry.delivery-grace-ms:300000}") long deliveryGraceMs) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(Math.max(initialBackoffMs, maxBackoffMs));
+        this.deliveryGrace = Duration.ofMillis(deliveryGraceMs);
+    }
+
+    /**
+     * Momento del siguiente intento despues de {@code attempts} intentos fallidos, o vacio si ya se
+     * alcanzo el maximo y la notificacion queda en FAILED definitivamente.
+     */
+    public Optional<LocalDateTime> nextAttemptAt(int attempts, LocalDateTime now) {
+        if (attempts >= maxAttempts) {
+            return Optional.empty();
+        }
+        long backoffMs = backoff(attempts).toMillis();
+        long half = backoffMs / 2;
+        long jittered = half + ThreadLocalRandom.current().nextLong(backoffMs - half + 1);
+        return Optional.of(now.plus(Duration.ofMillis(jittered)));
+    }
+
+    /**
+     * Plazo para el primer envio. Si el proceso se cae con el email aun en el lote, el reintento
+     * lo recoge cuando vence este plazo.
+     */
+    public LocalDateTime deliveryDeadline(LocalDateTime createdAt) {
+        return createdAt.plus(deliveryGrace);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    // Tope sin jitter: initial * 2^(attempts-1), limitado a maxBackoff sin desbordar
+    Duration backoff(int attempts) {
+        int exponent = Math.max(0, attempts - 1);
+        if (exponent >= 62 || initialBackoff.toMillis() > (maxBackoff.toMillis() >> exponent)) {
+            return maxBackoff;
+        }
+        return Duration.ofMillis(initialBackoff.toMillis() << exponent);
+    }
+}
@@ -0,0 +1,128 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.EmailServicePort;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.OutboxPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reintenta los emails de notificaciones FAILED o PENDING cuyo {@code nextAttemptAt} ya vencio.
+ * Las notificaciones se reclaman con una concesion en el repositorio, asi varias replicas pueden
+ * ejecutar el barrido sin enviar dos veces el mismo email. Las que aun tienen su email en el outbox
+ * se dejan al relay, y se reenvia el email renderizado al crearlas.
+ */
+@Slf4j
+@Service
+public class EmailRetryService {
+
+    private final NotificationRepositoryPort notificationRepositoryPort;
+    private final OutboxPort outboxPort;
+    private final EmailServicePort emailServicePort;
+    private final DeliveryPipelinePort deliveryPipelinePort;
+    private final EmailAttemptRecorder emailAttemptRecorder;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+
+    public EmailRetryService(NotificationRepositoryPort notificationRepositoryPort,
+                             OutboxPort outboxPort,
+                             EmailServicePort emailServicePort,
+                             DeliveryPipelinePort deliveryPipelinePort,
+                             EmailAttemptRecorder emailAttemptRecorder,
+                             @Value("${notifications.email.retry.enabled:true}") boolean enabled,
+                             @Value("${notifications.email.retry.batch-size:50}") int batchSize,
+                             @Value("${notifications.email.retry.lease-ms:300000}") long leaseMs) {
+        this.notificationRepositoryPort = notificationRepositoryPort;
+        this.outboxPort = outboxPort;
+        this.emailServicePort = emailServicePort;
+        this.deliveryPipelinePort = deliveryPipelinePort;
+        this.emailAttemptRecorder = emailAttemptRecorder;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.email.retry.poll-interval-ms:30000}")
+    public void retryDueEmails() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> claimed;
+        try {
+            claimed = notificationRepositoryPort.claimDueEmailRetries(now, now.plus(lease), batchSize);
+        } catch (Exception e) {
+            log.error("Error claiming notifications for email retry: {}", e.getMessage(), e);
+            return;
+        }
+        List<Notification> due = withoutPendingOutboxEmail(claimed);
+        if (due.isEmpty()) {
+            return;
+        }
+        log.info("Retrying email for {} notifications", due.size());
+        deliveryPipelinePort.submit(Channel.EMAIL, () -> resend(due));
+    }
+
+    // El relay todavia puede enviar estas; quedan con la concesion y se revisan cuando venza
+    private List<Notification> withoutPendingOutboxEmail(List<Notification> claimed) {
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        Set<String> pending = outboxPort.findNotificationsWithPendingEmail(
+                claimed.stream().map(notification -> notification.getId().getValue()).toList());
+        if (pending.isEmpty()) {
+            return claimed;
+        }
+        log.debug("Skipping email retry for {} notifications still in the outbox", pending.size());
+        return claimed.stream()
+                .filter(notification -> !pending.contains(notification.getId().getValue()))
+                .toList();
+    }
+
+    private void resend(List<Notification> notifications) {
+        List<EmailSendResult> results;
+        try {
+            results = emailServicePort.sendBatch(notifications.stream().map(EmailRetryService::emailFor).toList());
+        } catch (Exception e) {
+            log.error("Error resending email batch of {} messages: {}", notifications.size(), e.getMessage(), e);
+            results = null;
+        }
+
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            EmailSendResult result = results != null && i < results.size()
+                    ? results.get(i)
+                    : EmailSendResult.failure("Error sending email");
+            try {
+                emailAttemptRecorder.record(notification, result);
+                if (!result.isSuccessful() && notification.getNextAttemptAt() == null) {
+                    log.warn("Giving up on email for notification {} after {} attempts",
+                            notification.getId().getValue(), notification.countDeliveryAttempts(Channel.EMAIL));
+                }
+            } catch (Exception e) {
+                log.error("Error recording email retry for notification {}: {}",
+                        notification.getId().getValue(), e.getMessage(), e);
+            }
+        }
+    }
+
+    // Notificaciones anteriores a guardar el email renderizado se reenvian en texto plano
+    private static EmailMessage emailFor(Notification notification) {
+        return notification.getRenderedEmail() != null
+                ? notification.getRenderedEmail()
+                : EmailMessage.plainText(notification);
+    }
+}
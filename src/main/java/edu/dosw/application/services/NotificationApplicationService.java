@@ -1,8 +1,9 @@
 package edu.dosw.application.services;
 
 import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.domain.ports.EmailTemplatePort;
 import edu.dosw.domain.ports.NotificationRepositoryPort;
-import edu.dosw.domain.ports.EmailServicePort;
+import edu.dosw.domain.ports.UnreadCounterPort;
 import edu.dosw.domain.ports.WebSocketEmitterPort;
 import edu.dosw.application.dto.command.NotificationCommand;
 import edu.dosw.application.dto.command.PasswordResetNotificationCommand;
@@ -14,6 +15,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Slf4j
@@ -21,8 +29,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class NotificationApplicationService implements EventServicePort {
 
+    private static final Locale EMAIL_LOCALE = Locale.forLanguageTag("es");
+    private static final DateTimeFormatter LOGIN_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy 'a las' HH:mm");
+    private static final DateTimeFormatter PAYMENT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     private final NotificationRepositoryPort notificationRepositoryPort;
-    private final EmailServicePort emailServicePort;
+    private final UnreadCounterPort unreadCounterPort;
+    private final EmailTemplatePort emailTemplatePort;
+    private final EmailRetryPolicy emailRetryPolicy;
+    private final OutboxRelay outboxRelay;
     private final WebSocketEmitterPort webSocketEmitterPort;
 
     @Override
@@ -32,21 +47,16 @@ public class NotificationApplicationService implements EventServicePort {
             log.info("Processing login for user: {}, email: {}", command.getUserId(), command.getEmail());
 
             Notification notification = createLoginNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
-
-            boolean emailSuccessful = emailServicePort.sendHtmlEmail(
-                    command.getEmail(),
-                    " Nueva Actividad de Inicio de Sesión - ECI Express",
-                    buildLoginEmailHtml(command.getName(), command.getIp())
-            );
+            EmailMessage email = emailTemplatePort.render(command.getEmail(),
+                    NotificationType.SECURITY_LOGIN, null, EMAIL_LOCALE, Map.of(
+                            "name", Objects.toString(command.getName(), ""),
+                            "ip", Objects.toString(command.getIp(), ""),
+                            "date", LocalDateTime.now().format(LOGIN_DATE_FORMAT)));
+            Notification savedNotification = persist(awaitingEmail(notification, email));
 
-            savedNotification.addDeliveryAttempt(Channel.EMAIL, emailSuccessful,
-                    emailSuccessful ? null : "Error sending email");
+            publish(savedNotification, email);
 
-            notificationRepositoryPort.save(savedNotification);
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
-
-            log.info("Login notification processed successfully: {}", savedNotification.getId().getValue());
+            log.info("Login notification accepted for delivery: {}", savedNotification.getId().getValue());
 
         } catch (Exception e) {
             log.error("Error processing login notification: {}", e.getMessage(), e);
@@ -61,11 +71,11 @@ public class NotificationApplicationService implements EventServicePort {
             log.info("Processing new order notification: {}", command.getOrderId());
 
             Notification notification = createNewOrderNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
+            Notification savedNotification = persist(notification);
 
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
+            publish(savedNotification, null);
 
-            log.info("New order notification processed successfully: {}", command.getOrderId());
+            log.info("New order notification accepted for delivery: {}", command.getOrderId());
 
         } catch (Exception e) {
             log.error("Error processing new order notification: {}", e.getMessage(), e);
@@ -80,16 +90,12 @@ public class NotificationApplicationService implements EventServicePort {
             log.info("Processing order status change: {}", command.getOrderStatus());
 
             Notification notification = createOrderStatusNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
-
-            boolean emailSuccessful = emailServicePort.sendNotificationEmail(savedNotification);
-            savedNotification.addDeliveryAttempt(Channel.EMAIL, emailSuccessful,
-                    emailSuccessful ? null : "Error sending email");
+            EmailMessage email = EmailMessage.plainText(notification);
+            Notification savedNotification = persist(awaitingEmail(notification, email));
 
-            notificationRepositoryPort.save(savedNotification);
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
+            publish(savedNotification, email);
 
-            log.info("Order status notification processed successfully: {}", command.getOrderId());
+            log.info("Order status notification accepted for delivery: {}", command.getOrderId());
 
         } catch (Exception e) {
             log.error("Error processing order status notification: {}", e.getMessage(), e);
@@ -104,21 +110,15 @@ public class NotificationApplicationService implements EventServicePort {
             log.info("Processing password reset request for: {}", command.getEmail());
 
             Notification notification = createPasswordResetNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
+            EmailMessage email = emailTemplatePort.render(command.getEmail(),
+                    NotificationType.SECURITY_PASSWORD_RESET, "request", EMAIL_LOCALE, Map.of(
+                            "name", Objects.toString(command.getName(), ""),
+                            "verificationCode", Objects.toString(command.getVerificationCode(), "")));
+            Notification savedNotification = persist(awaitingEmail(notification, email));
 
-            boolean emailSuccessful = emailServicePort.sendHtmlEmail(
-                    command.getEmail(),
-                    "Código de Verificación - Recuperación de Contraseña",
-                    buildPasswordResetEmailHtml(command.getName(), command.getVerificationCode())
-            );
+            publish(savedNotification, email);
 
-            savedNotification.addDeliveryAttempt(Channel.EMAIL, emailSuccessful,
-                    emailSuccessful ? null : "Error sending email");
-
-            notificationRepositoryPort.save(savedNotification);
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
-
-            log.info("Password reset notification processed successfully for: {}", command.getEmail());
+            log.info("Password reset notification accepted for delivery for: {}", command.getEmail());
 
         } catch (Exception e) {
             log.error("Error processing password reset notification: {}", e.getMessage(), e);
@@ -133,11 +133,11 @@ public class NotificationApplicationService implements EventServicePort {
             log.info("Processing password reset verification for: {}", command.getEmail());
 
             Notification notification = createPasswordResetVerifiedNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
+            Notification savedNotification = persist(notification);
 
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
+            publish(savedNotification, null);
 
-            log.info("Password reset verification processed successfully for: {}", command.getEmail());
+            log.info("Password reset verification accepted for delivery for: {}", command.getEmail());
 
         } catch (Exception e) {
             log.error("Error processing password reset verification: {}", e.getMessage(), e);
@@ -152,21 +152,14 @@ public class NotificationApplicationService implements EventServicePort {
             log.info("Processing password reset completion for: {}", command.getEmail());
 
             Notification notification = createPasswordResetCompletedNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
-
-            boolean emailSuccessful = emailServicePort.sendHtmlEmail(
-                    command.getEmail(),
-                    "Contraseña Actualizada Exitosamente",
-                    buildPasswordResetCompletedEmailHtml(command.getName())
-            );
-
-            savedNotification.addDeliveryAttempt(Channel.EMAIL, emailSuccessful,
-                    emailSuccessful ? null : "Error sending email");
+            EmailMessage email = emailTemplatePort.render(command.getEmail(),
+                    NotificationType.SECURITY_PASSWORD_RESET, "completed", EMAIL_LOCALE, Map.of(
+                            "name", Objects.toString(command.getName(), "")));
+            Notification savedNotification = persist(awaitingEmail(notification, email));
 
-            notificationRepositoryPort.save(savedNotification);
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
+            publish(savedNotification, email);
 
-            log.info("Password reset completion processed successfully for: {}", command.getEmail());
+            log.info("Password reset completion accepted for delivery for: {}", command.getEmail());
 
         } catch (Exception e) {
             log.error("Error processing password reset completion: {}", e.getMessage(), e);
@@ -182,21 +175,18 @@ public class NotificationApplicationService implements EventServicePort {
                     command.getOrderId(), command.getUserId(), command.getAmount());
 
             Notification notification = createPaymentCompletedNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
+            EmailMessage email = emailTemplatePort.render(command.getEmail(),
+                    NotificationType.PAYMENT_COMPLETED, null, EMAIL_LOCALE, Map.of(
+                            "name", Objects.toString(command.getName(), ""),
+                            "orderId", Objects.toString(command.getOrderId(), ""),
+                            "amount", String.format("%.2f", command.getAmount()),
+                            "paymentMethod", Objects.toString(command.getPaymentMethod(), ""),
+                            "date", LocalDateTime.now().format(PAYMENT_DATE_FORMAT)));
+            Notification savedNotification = persist(awaitingEmail(notification, email));
 
-            boolean emailSuccessful = emailServicePort.sendHtmlEmail(
-                    command.getEmail(),
-                    "Pago Completado Exitosamente - Orden #" + command.getOrderId(),
-                    buildPaymentCompletedEmailHtml(command.getName(), command.getOrderId(), command.getAmount(), command.getPaymentMethod())
-            );
+            publish(savedNotification, email);
 
-            savedNotification.addDeliveryAttempt(Channel.EMAIL, emailSuccessful,
-                    emailSuccessful ? null : "Error sending email");
-
-            notificationRepositoryPort.save(savedNotification);
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
-
-            log.info("Payment completed notification processed successfully - Order: {}", command.getOrderId());
+            log.info("Payment completed notification accepted for delivery - Order: {}", command.getOrderId());
 
         } catch (Exception e) {
             log.error("Error processing payment completed notification: {}", e.getMessage(), e);
@@ -212,21 +202,16 @@ public class NotificationApplicationService implements EventServicePort {
                     command.getOrderId(), command.getUserId());
 
             Notification notification = createPaymentFailedNotification(command);
-            Notification savedNotification = notificationRepositoryPort.save(notification);
-
-            boolean emailSuccessful = emailServicePort.sendHtmlEmail(
-                    command.getEmail(),
-                    "Problema con tu Pago - Orden #" + command.getOrderId(),
-                    buildPaymentFailedEmailHtml(command.getName(), command.getOrderId(), command.getPaymentMethod())
-            );
-
-            savedNotification.addDeliveryAttempt(Channel.EMAIL, emailSuccessful,
-                    emailSuccessful ? null : "Error sending email");
+            EmailMessage email = emailTemplatePort.render(command.getEmail(),
+                    NotificationType.PAYMENT_FAILED, null, EMAIL_LOCALE, Map.of(
+                            "name", Objects.toString(command.getName(), ""),
+                            "orderId", Objects.toString(command.getOrderId(), ""),
+                            "paymentMethod", Objects.toString(command.getPaymentMethod(), "")));
+            Notification savedNotification = persist(awaitingEmail(notification, email));
 
-            notificationRepositoryPort.save(savedNotification);
-            webSocketEmitterPort.emitUserNotification(command.getUserId(), savedNotification);
+            publish(savedNotification, email);
 
-            log.info("Payment failed notification processed successfully - Order: {}", command.getOrderId());
+            log.info("Payment failed notification accepted for delivery - Order: {}", command.getOrderId());
 
         } catch (Exception e) {
             log.error("Error processing payment failed notification: {}", e.getMessage(), e);
@@ -234,6 +219,39 @@ public class NotificationApplicationService implements EventServicePort {
         }
     }
 
+    private Notification persist(Notification notification) {
+        Notification savedNotification = notificationRepositoryPort.save(notification);
+        if (savedNotification.getStatus().isUnread()) {
+            unreadCounterPort.adjust(savedNotification.getUserId(), 1);
+        }
+        return savedNotification;
+    }
+
+    // Si el primer envio nunca llega a registrarse, EmailRetryService la recoge al vencer este plazo
+    // y reenvia el mismo email que se guarda aqui
+    private Notification awaitingEmail(Notification notification, EmailMessage email) {
+        notification.setNextAttemptAt(emailRetryPolicy.deliveryDeadline(notification.getCreatedAt()));
+        notification.setRenderedEmail(email);
+        return notification;
+    }
+
+    // La notificación ya está persistida; el outbox guarda sus efectos antes de ejecutarlos.
+    // Sin sesion WebSocket abierta solo sale el email; la notificacion se conserva igual para
+    // reenviarla cuando el cliente reanude la sesion
+    private void publish(Notification notification, EmailMessage email) {
+        webSocketEmitterPort.retainForResume(notification);
+        List<OutboxMessage> messages = new ArrayList<>(2);
+        if (email != null) {
+            messages.add(OutboxMessage.email(notification, email));
+        }
+        if (webSocketEmitterPort.isUserConnected(notification.getUserId())) {
+            messages.add(OutboxMessage.webSocket(notification));
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        outboxRelay.publish(notification, messages);
+    }
 
     private Notification createPaymentCompletedNotification(PaymentCommand command) {
         return Notification.builder()
@@ -278,78 +296,6 @@ public class NotificationApplicationService implements EventServicePort {
         );
     }
 
-
-    private String buildPaymentCompletedEmailHtml(String name, String orderId, Double amount, String paymentMethod) {
-        return "<!DOCTYPE html>\n" +
-                "<html>\n" +
-                "<head>\n" +
-                "    <style>\n" +
-                "        body { font-family: Arial, sans-serif; background-color: #f4f4f4; padding: 20px; }\n" +
-                "        .container { background-color: white; padding: 30px; border-radius: 10px; max-width: 600px; margin: 0 auto; }\n" +
-                "        .success { color: #059669; font-weight: bold; font-size: 24px; }\n" +
-                "        .amount { font-size: 32px; font-weight: bold; color: #2563eb; text-align: center; margin: 20px 0; }\n" +
-                "        .details { background-color: #f8fafc; padding: 15px; border-radius: 5px; margin: 20px 0; }\n" +
-                "        .footer { margin-top: 30px; font-size: 12px; color: #666; }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "<body>\n" +
-                "    <div class=\"container\">\n" +
-                "        <h2>Hola " + name + ",</h2>\n" +
-                "        <p class=\"success\">¡Pago Completado Exitosamente!</p>\n" +
-                "        <div class=\"amount\">$" + String.format("%.2f", amount) + " COP</div>\n" +
-                "        <div class=\"details\">\n" +
-                "            <p><strong>Número de Orden:</strong> #" + orderId + "</p>\n" +
-                "            <p><strong>Método de Pago:</strong> " + paymentMethod + "</p>\n" +
-                "            <p><strong>Fecha:</strong> " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) + "</p>\n" +
-                "        </div>\n" +
-                "        <p>Tu pago ha sido procesado correctamente. Ahora puedes hacer seguimiento a tu orden.</p>\n" +
-                "        <div class=\"footer\">\n" +
-                "            <p>Saludos,<br>El equipo de ECI Express</p>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "</body>\n" +
-                "</html>";
-    }
-
-    private String buildPaymentFailedEmailHtml(String name, String orderId, String paymentMethod) {
-        return "<!DOCTYPE html>\n" +
-                "<html>\n" +
-                "<head>\n" +
-                "    <style>\n" +
-                "        body { font-family: Arial, sans-serif; background-color: #f4f4f4; padding: 20px; }\n" +
-                "        .container { background-color: white; padding: 30px; border-radius: 10px; max-width: 600px; margin: 0 auto; }\n" +
-                "        .error { color: #dc2626; font-weight: bold; font-size: 24px; }\n" +
-                "        .details { background-color: #fef2f2; padding: 15px; border-radius: 5px; margin: 20px 0; }\n" +
-                "        .action { background-color: #2563eb; color: white; padding: 12px 24px; text-decoration: none; border-radius: 5px; display: inline-block; margin: 10px 0; }\n" +
-                "        .footer { margin-top: 30px; font-size: 12px; color: #666; }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "<body>\n" +
-                "    <div class=\"container\">\n" +
-                "        <h2>Hola " + name + ",</h2>\n" +
-                "        <p class=\"error\">Problema con tu Pago</p>\n" +
-                "        <div class=\"details\">\n" +
-                "            <p><strong>Número de Orden:</strong> #" + orderId + "</p>\n" +
-                "            <p><strong>Método de Pago:</strong> " + paymentMethod + "</p>\n" +
-                "            <p>Lo sentimos, hubo un problema al procesar tu pago. Esto puede deberse a:</p>\n" +
-                "            <ul>\n" +
-                "                <li>Fondos insuficientes</li>\n" +
-                "                <li>Información de la tarjeta incorrecta</li>\n" +
-                "                <li>Problemas temporales del sistema</li>\n" +
-                "            </ul>\n" +
-                "        </div>\n" +
-                "        <p>Por favor intenta nuevamente o utiliza otro método de pago.</p>\n" +
-                "        <a href=\"#\" class=\"action\">Reintentar Pago</a>\n" +
-                "        <div class=\"footer\">\n" +
-                "            <p>Si necesitas ayuda, contáctanos a soporte@eciexpress.com</p>\n" +
-                "            <p>Saludos,<br>El equipo de ECI Express</p>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "</body>\n" +
-                "</html>";
-    }
-
-
     private Notification createPasswordResetNotification(PasswordResetNotificationCommand command) {
         return Notification.builder()
                 .id(new NotificationId(UUID.randomUUID().toString()))
@@ -457,178 +403,4 @@ public class NotificationApplicationService implements EventServicePort {
         };
     }
 
-    private String buildPasswordResetEmailHtml(String name, String verificationCode) {
-        return "<!DOCTYPE html>\n" +
-                "<html>\n" +
-                "<head>\n" +
-                "    <style>\n" +
-                "        body { font-family: Arial, sans-serif; background-color: #f4f4f4; padding: 20px; }\n" +
-                "        .container { background-color: white; padding: 30px; border-radius: 10px; max-width: 600px; margin: 0 auto; }\n" +
-                "        .code { font-size: 32px; font-weight: bold; color: #FFB44D; text-align: center; margin: 20px 0; }\n" +
-                "        .footer { margin-top: 30px; font-size: 12px; color: #666; }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "<body>\n" +
-                "    <div class=\"container\">\n" +
-                "        <h2>Hola " + name + ",</h2>\n" +
-                "        <p>Has solicitado recuperar tu contraseña. Usa el siguiente código de verificación:</p>\n" +
-                "        <div class=\"code\">" + verificationCode + "</div>\n" +
-                "        <p>Este código expirará en 15 minutos.</p>\n" +
-                "        <p>Si no solicitaste este cambio, por favor ignora este mensaje.</p>\n" +
-                "        <div class=\"footer\">\n" +
-                "            <p>Saludos,<br>El equipo de ECI Express</p>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "</body>\n" +
-                "</html>";
-    }
-
-    private String buildPasswordResetCompletedEmailHtml(String name) {
-        return "<!DOCTYPE html>\n" +
-                "<html>\n" +
-                "<head>\n" +
-                "    <style>\n" +
-                "        body { font-family: Arial, sans-serif; background-color: #f4f4f4; padding: 20px; }\n" +
-                "        .container { background-color: white; padding: 30px; border-radius: 10px; max-width: 600px; margin: 0 auto; }\n" +
-                "        .success { color: #FFB44D; font-weight: bold; }\n" +
-                "        .footer { margin-top: 30px; font-size: 12px; color: #666; }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "<body>\n" +
-                "    <div class=\"container\">\n" +
-                "        <h2>Hola " + name + ",</h2>\n" +
-                "        <p class=\"success\">Tu contraseña ha sido actualizada exitosamente.</p>\n" +
-                "        <p>Si realizaste este cambio, no necesitas hacer nada más.</p>\n" +
-                "        <p>Si no reconoces esta actividad, por favor contacta a soporte inmediatamente.</p>\n" +
-                "        <div class=\"footer\">\n" +
-                "            <p>Saludos,<br>El equipo de ECI Express</p>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "</body>\n" +
-                "</html>";
-    }
-
-    private String buildLoginEmailHtml(String name, String ip) {
-        return "<!DOCTYPE html>\n" +
-                "<html>\n" +
-                "<head>\n" +
-                "    <style>\n" +
-                "        body { \n" +
-                "            font-family: 'Arial', sans-serif; \n" +
-                "            background-color: #f8f9fa; \n" +
-                "            padding: 20px; \n" +
-                "            margin: 0;\n" +
-                "        }\n" +
-                "        .container { \n" +
-                "            background-color: white; \n" +
-                "            padding: 40px; \n" +
-                "            border-radius: 12px; \n" +
-                "            max-width: 600px; \n" +
-                "            margin: 0 auto; \n" +
-                "            box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);\n" +
-                "            border-left: 5px solid #FFB44D;\n" +
-                "        }\n" +
-                "        .header { \n" +
-                "            color: #FFB44D; \n" +
-                "            font-weight: bold; \n" +
-                "            font-size: 28px; \n" +
-                "            margin-bottom: 20px;\n" +
-                "            text-align: center;\n" +
-                "        }\n" +
-                "        .highlight { \n" +
-                "            color: #FFB44D; \n" +
-                "            font-weight: bold; \n" +
-                "        }\n" +
-                "        .security-box { \n" +
-                "            background-color: #FFF9F0; \n" +
-                "            border: 2px solid #FFB44D;\n" +
-                "            border-radius: 8px; \n" +
-                "            padding: 20px; \n" +
-                "            margin: 20px 0;\n" +
-                "        }\n" +
-                "        .info-item { \n" +
-                "            margin: 10px 0; \n" +
-                "            font-size: 16px; \n" +
-                "        }\n" +
-                "        .warning { \n" +
-                "            background-color: #FFF3E0; \n" +
-                "            border-left: 4px solid #FFB44D;\n" +
-                "            padding: 15px; \n" +
-                "            margin: 20px 0;\n" +
-                "            border-radius: 4px;\n" +
-                "        }\n" +
-                "        .footer { \n" +
-                "            margin-top: 30px; \n" +
-                "            font-size: 14px; \n" +
-                "            color: #666; \n" +
-                "            text-align: center;\n" +
-                "            border-top: 1px solid #eee;\n" +
-                "            padding-top: 20px;\n" +
-                "        }\n" +
-                "        .logo { \n" +
-                "            color: #FFB44D; \n" +
-                "            font-weight: bold; \n" +
-                "            font-size: 20px; \n" +
-                "            margin-bottom: 20px;\n" +
-                "            text-align: center;\n" +
-                "        }\n" +
-                "        .button { \n" +
-                "            background-color: #FFB44D; \n" +
-                "            color: white; \n" +
-                "            padding: 12px 30px; \n" +
-                "            text-decoration: none; \n" +
-                "            border-radius: 6px; \n" +
-                "            display: inline-block; \n" +
-                "            margin: 20px 0; \n" +
-                "            font-weight: bold;\n" +
-                "            text-align: center;\n" +
-                "        }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "<body>\n" +
-                "    <div class=\"container\">\n" +
-                "        <div class=\"logo\">ECI EXPRESS</div>\n" +
-                "        <div class=\"header\"> Actividad de Inicio de Sesión Detectada</div>\n" +
-                "        \n" +
-                "        <h2>Hola <span class=\"highlight\">" + name + "</span>,</h2>\n" +
-                "        \n" +
-                "        <p>Hemos detectado un nuevo inicio de sesión en tu cuenta. Aquí están los detalles:</p>\n" +
-                "        \n" +
-                "        <div class=\"security-box\">\n" +
-                "            <div class=\"info-item\">\n" +
-                "                <strong> Dirección IP:</strong> <span class=\"highlight\">" + ip + "</span>\n" +
-                "            </div>\n" +
-                "            <div class=\"info-item\">\n" +
-                "                <strong> Fecha y Hora:</strong> " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy 'a las' HH:mm")) + "\n" +
-                "            </div>\n" +
-                "            <div class=\"info-item\">\n" +
-                "                <strong> Ubicación:</strong> Aproximada basada en la IP\n" +
-                "            </div>\n" +
-                "        </div>\n" +
-                "        \n" +
-                "        <div class=\"warning\">\n" +
-                "            <strong>¿No reconoces esta actividad?</strong>\n" +
-                "            <p>Si no iniciaste sesión recientemente, tu cuenta podría estar en riesgo. Te recomendamos:</p>\n" +
-                "            <ul>\n" +
-                "                <li>Cambiar tu contraseña inmediatamente</li>\n" +
-                "                <li>Revisar los dispositivos conectados a tu cuenta</li>\n" +
-                "                <li>Contactar a soporte si necesitas ayuda</li>\n" +
-                "            </ul>\n" +
-                "        </div>\n" +
-                "        \n" +
-                "        <div style=\"text-align: center;\">\n" +
-                "            <a href=\"#\" class=\"button\">Verificar Actividad de la Cuenta</a>\n" +
-                "        </div>\n" +
-                "        \n" +
-                "        <p>Si realizaste este inicio de sesión, puedes ignorar este mensaje con tranquilidad.</p>\n" +
-                "        \n" +
-                "        <div class=\"footer\">\n" +
-                "            <p>💛 Por tu seguridad, el equipo de <strong>ECI Express</strong></p>\n" +
-                "            <p>Si tienes alguna pregunta, contáctanos a <a href=\"mailto:soporte@eciexpress.com\" style=\"color: #FFB44D;\">soporte@eciexpress.com</a></p>\n" +
-                "            <p style=\"font-size: 12px; margin-top: 10px;\">Este es un mensaje automático, por favor no respondas a este correo.</p>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "</body>\n" +
-                "</html>";
-    }
 }
\ No newline at end of file
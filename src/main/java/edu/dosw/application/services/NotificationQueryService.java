@@ -2,11 +2,25 @@ package edu.dosw.application.services;
 
 import edu.dosw.application.ports.NotificationQueryPort;
 import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
+import edu.dosw.application.dto.query.NotificationPageResponse;
 import edu.dosw.application.dto.query.NotificationResponse;
+import edu.dosw.application.dto.query.NotificationStatsResponse;
 import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.NotificationCursor;
+import edu.dosw.domain.model.ValueObject.NotificationStats;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -14,7 +28,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class NotificationQueryService implements NotificationQueryPort {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final NotificationRepositoryPort notificationRepositoryPort;
+    private final UnreadCounterPort unreadCounterPort;
+    private final WebSocketEmitterPort webSocketEmitterPort;
 
     @Override
     public List<NotificationResponse> getByUserId(String userId) {
@@ -24,6 +43,23 @@ public class NotificationQueryService implements NotificationQueryPort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public NotificationPageResponse getPageByUserId(String userId, String status, String type, String cursor, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Se pide un elemento extra para saber si existe una pagina siguiente sin un count aparte
+        List<Notification> notifications = notificationRepositoryPort.findPageByUserId(
+                userId, normalize(status), normalize(type), decodeCursor(cursor), pageSize + 1);
+
+        boolean hasMore = notifications.size() > pageSize;
+        List<Notification> page = hasMore ? notifications.subList(0, pageSize) : notifications;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        return NotificationPageResponse.builder()
+                .items(page.stream().map(this::toResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     @Override
     public Optional<NotificationResponse> getById(String id) {
         return notificationRepositoryPort.findById(id)
@@ -32,11 +68,27 @@ public class NotificationQueryService implements NotificationQueryPort {
 
     @Override
     public void markAsRead(String id) {
-        Optional<Notification> notificationOpt = notificationRepositoryPort.findById(id);
-        notificationOpt.ifPresent(notification -> {
-            notification.markAsRead();
-            notificationRepositoryPort.save(notification);
-        });
+        notificationRepositoryPort.markRead(id)
+                .filter(receipt -> receipt.getPreviousStatus().isUnread())
+                .ifPresent(receipt -> {
+                    unreadCounterPort.adjust(receipt.getUserId(), -1);
+                    emitUnreadCount(receipt.getUserId());
+                });
+    }
+
+    @Override
+    public long markAllAsRead(String userId) {
+        long updated = notificationRepositoryPort.markAllRead(userId);
+        if (updated > 0) {
+            unreadCounterPort.invalidate(userId);
+            emitUnreadCount(userId);
+        }
+        return updated;
+    }
+
+    @Override
+    public long getUnreadCount(String userId) {
+        return unreadCounterPort.getUnreadCount(userId);
     }
 
     @Override
@@ -49,6 +101,54 @@ public class NotificationQueryService implements NotificationQueryPort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public NotificationStatsResponse getStatsByUserId(String userId, Integer days) {
+        LocalDateTime dailySince = days == null ? null : LocalDate.now().minusDays(days - 1L).atStartOfDay();
+        NotificationStats stats = notificationRepositoryPort.aggregateStatsByUserId(userId, dailySince);
+
+        Map<String, Long> byStatus = stats.getCountByStatus();
+        Map<String, Long> byDay = null;
+        if (stats.getCountByDay() != null) {
+            byDay = new LinkedHashMap<>();
+            for (Map.Entry<LocalDate, Long> entry : stats.getCountByDay().entrySet()) {
+                byDay.put(entry.getKey().toString(), entry.getValue());
+            }
+        }
+
+        return NotificationStatsResponse.builder()
+                .userId(userId)
+                .totalNotifications(byStatus.values().stream().mapToLong(Long::longValue).sum())
+                .unreadNotifications(byStatus.getOrDefault(NotificationStatus.SENT.name(), 0L)
+                        + byStatus.getOrDefault(NotificationStatus.PENDING.name(), 0L))
+                .readNotifications(byStatus.getOrDefault(NotificationStatus.READ.name(), 0L))
+                .byStatus(byStatus)
+                .byType(stats.getCountByType())
+                .byDay(byDay)
+                .build();
+    }
+
+    private String normalize(String filter) {
+        return filter == null || filter.isBlank() ? null : filter.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static String encodeCursor(Notification notification) {
+        String raw = notification.getCreatedAt() + "|" + notification.getId().getValue();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static NotificationCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new NotificationCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + cursor, e);
+        }
+    }
+
     private NotificationResponse toResponse(Notification notification) {
         return NotificationResponse.builder()
                 .id(notification.getId().getValue())
@@ -63,4 +163,8 @@ public class NotificationQueryService implements NotificationQueryPort {
                 .metadata(notification.getMetadata())
                 .build();
     }
+
+    private void emitUnreadCount(String userId) {
+        webSocketEmitterPort.emitUnreadCount(userId, unreadCounterPort.getUnreadCount(userId));
+    }
 }
\ No newline at end of file
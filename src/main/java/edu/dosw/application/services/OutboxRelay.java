@@ -0,0 +1,188 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.OutboxMessage;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.OutboxPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ejecuta los efectos secundarios de las notificaciones a traves del outbox. {@link #publish} persiste
+ * los mensajes con una concesion inicial y los entrega enseguida; el mensaje solo se borra cuando su
+ * efecto termino. Si el proceso cae antes, la concesion vence y {@link #relayDue} lo reclama desde
+ * cualquier replica y lo vuelve a entregar.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private static final String DIRECT = "direct";
+    private static final String RELAY = "relay";
+
+    private final OutboxPort outboxPort;
+    private final NotificationRepositoryPort notificationRepositoryPort;
+    private final EmailBatchCollector emailBatchCollector;
+    private final EmailAttemptRecorder emailAttemptRecorder;
+    private final WebSocketEmitterPort webSocketEmitterPort;
+    private final UnreadCounterPort unreadCounterPort;
+    private final DeliveryPipelinePort deliveryPipelinePort;
+    private final MeterRegistry meterRegistry;
+    private final boolean relayEnabled;
+    private final int batchSize;
+    private final int maxDeliveries;
+    private final Duration lease;
+
+    private final Timer lagTimer;
+    private final Counter claimedCounter;
+    private final Counter discardedCounter;
+
+    public OutboxRelay(OutboxPort outboxPort,
+                       NotificationRepositoryPort notificationRepositoryPort,
+                       EmailBatchCollector emailBatchCollector,
+                       EmailAttemptRecorder emailAttemptRecorder,
+                       WebSocketEmitterPort webSocketEmitterPort,
+                       UnreadCounterPort unreadCounterPort,
+                       DeliveryPipelinePort deliveryPipelinePort,
+                       MeterRegistry meterRegistry,
+                       @Value("${notifications.outbox.relay.enabled:true}") boolean relayEnabled,
+                       @Value("${notifications.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${notifications.outbox.relay.max-deliveries:10}") int maxDeliveries,
+                       @Value("${notifications.outbox.lease-ms:60000}") long leaseMs) {
+        this.outboxPort = outboxPort;
+        this.notificationRepositoryPort = notificationRepositoryPort;
+        this.emailBatchCollector = emailBatchCollector;
+        this.emailAttemptRecorder = emailAttemptRecorder;
+        this.webSocketEmitterPort = webSocketEmitterPort;
+        this.unreadCounterPort = unreadCounterPort;
+        this.deliveryPipelinePort = deliveryPipelinePort;
+        this.meterRegistry = meterRegistry;
+        this.relayEnabled = relayEnabled;
+        this.batchSize = batchSize;
+        this.maxDeliveries = maxDeliveries;
+        this.lease = Duration.ofMillis(leaseMs);
+
+        this.lagTimer = Timer.builder("notifications.outbox.lag")
+                .description("Time from outbox append until the side effect completed")
+                .register(meterRegistry);
+        this.claimedCounter = Counter.builder("notifications.outbox.claimed")
+                .description("Outbox messages reclaimed by the relay after their lease expired")
+                .register(meterRegistry);
+        this.discardedCounter = Counter.builder("notifications.outbox.discarded").register(meterRegistry);
+    }
+
+    /**
+     * Persiste los mensajes de la notificacion ya guardada y los entrega sin esperar al relay. Con
+     * write-behind el outbox escribe los mensajes en el mismo flush que la notificacion, despues de
+     * ella: un mensaje que sobrevive a una caida siempre encuentra su notificacion en Mongo.
+     */
+    public void publish(Notification notification, List<OutboxMessage> messages) {
+        LocalDateTime availableAt = LocalDateTime.now().plus(lease);
+        messages.forEach(message -> message.setAvailableAt(availableAt));
+        outboxPort.append(messages);
+        for (OutboxMessage message : messages) {
+            deliver(notification, message, DIRECT);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.relay.poll-interval-ms:5000}")
+    public void relayDue() {
+        if (!relayEnabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> claimed;
+        try {
+            claimed = outboxPort.claimDue(now, now.plus(lease), batchSize);
+        } catch (Exception e) {
+            log.error("Error claiming outbox messages: {}", e.getMessage(), e);
+            return;
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+        claimedCounter.increment(claimed.size());
+        log.info("Relaying {} outbox messages with expired lease", claimed.size());
+
+        for (OutboxMessage message : claimed) {
+            try {
+                relay(message);
+            } catch (Exception e) {
+                log.error("Error relaying outbox message {}: {}", message.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void relay(OutboxMessage message) {
+        if (message.getDeliveries() > maxDeliveries) {
+            log.error("Discarding outbox message {} for notification {} after {} deliveries",
+                    message.getId(), message.getNotificationId(), message.getDeliveries());
+            discard(message);
+            return;
+        }
+        Optional<Notification> notification = notificationRepositoryPort.findById(message.getNotificationId());
+        if (notification.isEmpty()) {
+            log.warn("Discarding outbox message {}: notification {} not found", message.getId(), message.getNotificationId());
+            discard(message);
+            return;
+        }
+        // El envio pudo registrarse antes de la caida sin llegar a borrar el mensaje
+        if (message.getChannel() == Channel.EMAIL && notification.get().countDeliveryAttempts(Channel.EMAIL) > 0) {
+            complete(message, RELAY);
+            return;
+        }
+        deliver(notification.get(), message, RELAY);
+    }
+
+    private void deliver(Notification notification, OutboxMessage message, String path) {
+        switch (message.getChannel()) {
+            case EMAIL -> emailBatchCollector.enqueue(message.getEmail(), result -> {
+                emailAttemptRecorder.record(notification, result);
+                complete(message, path);
+            });
+            case WEB_SOCKET -> deliveryPipelinePort.submit(Channel.WEB_SOCKET, () -> {
+                String userId = message.getUserId();
+                webSocketEmitterPort.emitUserNotification(userId, notification);
+                // Se envía el valor absoluto del contador para que el cliente no dependa del orden de los frames
+                webSocketEmitterPort.emitUnreadCount(userId, unreadCounterPort.getUnreadCount(userId));
+                complete(message, path);
+            });
+            default -> {
+                log.warn("Outbox channel {} is not supported, discarding message {}", message.getChannel(), message.getId());
+                discard(message);
+            }
+        }
+    }
+
+    private void complete(OutboxMessage message, String path) {
+        try {
+            outboxPort.complete(message.getId());
+        } catch (Exception e) {
+            // El efecto ya ocurrio; el mensaje se reentregara al vencer la concesion
+            log.error("Error completing outbox message {}: {}", message.getId(), e.getMessage(), e);
+            return;
+        }
+        lagTimer.record(Duration.between(message.getCreatedAt(), LocalDateTime.now()));
+        meterRegistry.counter("notifications.outbox.relayed",
+                "channel", message.getChannel().name(), "path", path).increment();
+    }
+
+    private void discard(OutboxMessage message) {
+        outboxPort.complete(message.getId());
+        discardedCounter.increment();
+    }
+}
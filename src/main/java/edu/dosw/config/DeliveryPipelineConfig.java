@@ -0,0 +1,37 @@
+package edu.dosw.config;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.infrastructure.delivery.BoundedDeliveryStage;
+import edu.dosw.infrastructure.delivery.DeliveryPipeline;
+import edu.dosw.infrastructure.delivery.OverflowPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class DeliveryPipelineConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public DeliveryPipeline deliveryPipeline(
+            MeterRegistry meterRegistry,
+            @Value("${notifications.delivery.email.workers:4}") int emailWorkers,
+            @Value("${notifications.delivery.email.queue-capacity:500}") int emailQueueCapacity,
+            @Value("${notifications.delivery.websocket.workers:2}") int webSocketWorkers,
+            @Value("${notifications.delivery.websocket.queue-capacity:1000}") int webSocketQueueCapacity,
+            @Value("${notifications.delivery.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${notifications.delivery.offer-timeout-ms:5000}") long offerTimeoutMs,
+            @Value("${notifications.delivery.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+
+        BoundedDeliveryStage emailStage = new BoundedDeliveryStage("email",
+                emailWorkers, emailQueueCapacity, overflowPolicy, offerTimeoutMs, meterRegistry);
+        BoundedDeliveryStage webSocketStage = new BoundedDeliveryStage("websocket",
+                webSocketWorkers, webSocketQueueCapacity, overflowPolicy, offerTimeoutMs, meterRegistry);
+
+        return new DeliveryPipeline(
+                Map.of(Channel.EMAIL, emailStage, Channel.WEB_SOCKET, webSocketStage),
+                shutdownTimeoutMs);
+    }
+}
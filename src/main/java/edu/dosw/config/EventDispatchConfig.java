@@ -0,0 +1,19 @@
+package edu.dosw.config;
+
+import edu.dosw.infrastructure.event.PartitionedEventDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventDispatchConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public PartitionedEventDispatcher partitionedEventDispatcher(
+            MeterRegistry meterRegistry,
+            @Value("${notifications.events.partitions:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int partitions,
+            @Value("${notifications.events.partition-queue-capacity:256}") int partitionQueueCapacity) {
+        return new PartitionedEventDispatcher(partitions, partitionQueueCapacity, meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package edu.dosw.config;
+
+import edu.dosw.infrastructure.event.idempotency.EventDeduplicator;
+import edu.dosw.infrastructure.event.idempotency.MongoProcessedEventStore;
+import edu.dosw.infrastructure.event.idempotency.ProcessedEventStore;
+import edu.dosw.infrastructure.event.idempotency.RedisProcessedEventStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class EventIdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notifications.events.idempotency.store", havingValue = "redis")
+    public ProcessedEventStore redisProcessedEventStore(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${notifications.events.idempotency.redis.key-prefix:notifications:events:processed:}") String keyPrefix,
+            @Value("${notifications.events.idempotency.ttl-ms:86400000}") long ttlMs) {
+        return new RedisProcessedEventStore(stringRedisTemplate, keyPrefix, Duration.ofMillis(ttlMs));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "notifications.events.idempotency.store", havingValue = "mongo")
+    public ProcessedEventStore mongoProcessedEventStore(
+            MongoTemplate mongoTemplate,
+            @Value("${notifications.events.idempotency.ttl-ms:86400000}") long ttlMs) {
+        return new MongoProcessedEventStore(mongoTemplate, Duration.ofMillis(ttlMs));
+    }
+
+    // store=none (por defecto) deja solo la ventana en memoria
+    @Bean
+    public EventDeduplicator eventDeduplicator(
+            ObjectProvider<ProcessedEventStore> processedEventStore,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.events.idempotency.window-size:100000}") long windowSize,
+            @Value("${notifications.events.idempotency.ttl-ms:86400000}") long ttlMs) {
+        return new EventDeduplicator(windowSize, Duration.ofMillis(ttlMs), processedEventStore.getIfAvailable(), meterRegistry);
+    }
+}
@@ -1,17 +1,36 @@
 package edu.dosw.config;
 
+import edu.dosw.infrastructure.email.PooledJavaMailSender;
+import edu.dosw.infrastructure.email.SmtpConnectionPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import java.time.Duration;
 import java.util.Properties;
 
 @Configuration
 public class MailConfig {
 
     @Bean
-    public JavaMailSender javaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    public JavaMailSender javaMailSender(
+            MeterRegistry meterRegistry,
+            @Value("${notifications.email.smtp-pool.enabled:true}") boolean poolEnabled,
+            @Value("${notifications.email.smtp-pool.max-connections:4}") int maxConnections,
+            @Value("${notifications.email.smtp-pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${notifications.email.smtp-pool.validate-after-idle-ms:5000}") long validateAfterIdleMs,
+            @Value("${notifications.email.smtp-pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+
+        JavaMailSenderImpl mailSender = poolEnabled
+                ? new PooledJavaMailSender(SmtpConnectionPool.Settings.builder()
+                        .maxConnections(maxConnections)
+                        .maxMessagesPerConnection(maxMessagesPerConnection)
+                        .validateAfterIdle(Duration.ofMillis(validateAfterIdleMs))
+                        .borrowTimeout(Duration.ofMillis(borrowTimeoutMs))
+                        .build(), meterRegistry)
+                : new JavaMailSenderImpl();
 
         mailSender.setHost("smtp.gmail.com");
         mailSender.setPort(587);
@@ -35,4 +54,4 @@ public class MailConfig {
 
         return mailSender;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package edu.dosw.config;
+
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.infrastructure.event.GeneralEventListener;
+import edu.dosw.infrastructure.event.RedisStreamEventConsumer;
+import edu.dosw.infrastructure.event.deadletter.DeadLetterQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "redis.streams.enabled", havingValue = "true")
+public class RedisStreamConfig {
+
+    @Bean
+    public RedisStreamEventConsumer redisStreamEventConsumer(
+            StringRedisTemplate stringRedisTemplate,
+            GeneralEventListener generalEventListener,
+            NotificationRepositoryPort notificationRepositoryPort,
+            DeadLetterQueue deadLetterQueue,
+            MeterRegistry meterRegistry,
+            @Value("${redis.streams.key:events.stream}") String streamKey,
+            @Value("${redis.streams.group:notifications-service}") String group,
+            @Value("${redis.streams.consumer-name:${HOSTNAME:notifications-${random.uuid}}}") String consumerName,
+            @Value("${redis.streams.batch-size:50}") int batchSize,
+            @Value("${redis.streams.block-timeout-ms:2000}") long blockTimeoutMs,
+            @Value("${redis.streams.claim-min-idle-ms:60000}") long claimMinIdleMs,
+            @Value("${redis.streams.claim-interval-ms:30000}") long claimIntervalMs,
+            @Value("${redis.streams.max-deliveries:5}") int maxDeliveries) {
+
+        RedisStreamEventConsumer.Settings settings = RedisStreamEventConsumer.Settings.builder()
+                .streamKey(streamKey)
+                .group(group)
+                .consumerName(consumerName)
+                .batchSize(batchSize)
+                .blockTimeout(Duration.ofMillis(blockTimeoutMs))
+                .claimMinIdle(Duration.ofMillis(claimMinIdleMs))
+                .claimInterval(Duration.ofMillis(claimIntervalMs))
+                .maxDeliveries(maxDeliveries)
+                .build();
+
+        return new RedisStreamEventConsumer(stringRedisTemplate, generalEventListener,
+                notificationRepositoryPort, deadLetterQueue, settings, meterRegistry);
+    }
+}
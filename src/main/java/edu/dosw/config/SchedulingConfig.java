@@ -0,0 +1,41 @@
+package edu.dosw.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Los jobs {@code @Scheduled} comparten {@code taskScheduler}; varios bloquean contra Mongo (flush del
+ * write-behind, relay del outbox, reintentos). Los flush de ventana corta usan su propio hilo para que
+ * su intervalo no dependa del job mas lento.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // Con el broker STOMP hay otro TaskScheduler en el contexto: sin este bean por nombre los jobs
+    // caerian en un scheduler local de un solo hilo
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${notifications.scheduling.pool-size:8}") int poolSize) {
+        return scheduler("scheduling-", poolSize);
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler frameFlushScheduler() {
+        return scheduler("ws-frame-flush-", 1);
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler emailBatchScheduler() {
+        return scheduler("email-batch-flush-", 1);
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
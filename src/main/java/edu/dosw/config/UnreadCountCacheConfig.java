@@ -0,0 +1,46 @@
+package edu.dosw.config;
+
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.infrastructure.cache.LocalUnreadCountStore;
+import edu.dosw.infrastructure.cache.RedisUnreadCountStore;
+import edu.dosw.infrastructure.cache.UnreadCountCache;
+import edu.dosw.infrastructure.cache.UnreadCountStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class UnreadCountCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notifications.unread-cache.store", havingValue = "local", matchIfMissing = true)
+    public UnreadCountStore localUnreadCountStore(
+            @Value("${notifications.unread-cache.maximum-size:100000}") long maximumSize,
+            @Value("${notifications.unread-cache.expire-after-access-ms:3600000}") long expireAfterAccessMs) {
+        return new LocalUnreadCountStore(maximumSize, Duration.ofMillis(expireAfterAccessMs));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "notifications.unread-cache.store", havingValue = "redis")
+    public UnreadCountStore redisUnreadCountStore(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${notifications.unread-cache.redis.key-prefix:notifications:unread:}") String keyPrefix,
+            @Value("${notifications.unread-cache.expire-after-access-ms:3600000}") long ttlMs,
+            @Value("${notifications.unread-cache.maximum-size:100000}") long maxTrackedUsers) {
+        return new RedisUnreadCountStore(stringRedisTemplate, keyPrefix, Duration.ofMillis(ttlMs), maxTrackedUsers);
+    }
+
+    @Bean
+    public UnreadCountCache unreadCountCache(
+            UnreadCountStore unreadCountStore,
+            NotificationRepositoryPort notificationRepositoryPort,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.unread-cache.reconcile-batch-size:500}") int reconcileBatchSize) {
+        return new UnreadCountCache(unreadCountStore, notificationRepositoryPort, reconcileBatchSize, meterRegistry);
+    }
+}
@@ -1,20 +1,60 @@
 package edu.dosw.config;
 
 
+import edu.dosw.infrastructure.websocket.SlowConsumerMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final MeterRegistry meterRegistry;
+    private final ChannelSettings inbound;
+    private final ChannelSettings outbound;
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+    private final int messageSizeLimit;
+
+    public WebSocketConfig(MeterRegistry meterRegistry,
+                           @Value("${notifications.websocket.inbound.core-pool-size:4}") int inboundCorePoolSize,
+                           @Value("${notifications.websocket.inbound.max-pool-size:8}") int inboundMaxPoolSize,
+                           @Value("${notifications.websocket.inbound.queue-capacity:1000}") int inboundQueueCapacity,
+                           @Value("${notifications.websocket.outbound.core-pool-size:4}") int outboundCorePoolSize,
+                           @Value("${notifications.websocket.outbound.max-pool-size:8}") int outboundMaxPoolSize,
+                           @Value("${notifications.websocket.outbound.queue-capacity:5000}") int outboundQueueCapacity,
+                           @Value("${notifications.websocket.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                           @Value("${notifications.websocket.send-buffer-size-limit:262144}") int sendBufferSizeLimit,
+                           @Value("${notifications.websocket.message-size-limit:65536}") int messageSizeLimit) {
+        this.meterRegistry = meterRegistry;
+        this.inbound = new ChannelSettings(inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity);
+        this.outbound = new ChannelSettings(outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity);
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
+        // Con varios hilos de salida los frames de una misma sesion podrian adelantarse entre si
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -23,4 +63,72 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
-}
\ No newline at end of file
+
+    // Cola llena: el hilo de transporte del cliente ejecuta la tarea y frena su propio ritmo
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("inbound", inbound, new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    // Aqui el productor es un hilo de scheduler (flush de frames, relay del outbox): ejecutar el envio en
+    // el llamador lo frenaria por un cliente lento, asi que la tarea se rechaza. El rechazo se lanza para
+    // que la cola ordenada de la sesion (preservePublishOrder) pase al siguiente mensaje; el frame
+    // rechazado no se reenvia y el cliente solo lo ve al recargar su bandeja por REST
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("outbound", outbound, rejecting("outbound")));
+    }
+
+    // Un cliente que no drena su buffer a tiempo se desconecta en vez de retener hilos de salida
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(handler -> new SlowConsumerMonitor(handler, meterRegistry));
+    }
+
+    // Spring inicializa y detiene el executor: pasa a ser el bean del canal
+    private ThreadPoolTaskExecutor channelExecutor(String channel, ChannelSettings settings,
+                                                   RejectedExecutionHandler rejectionHandler) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(settings.getCorePoolSize());
+        executor.setMaxPoolSize(settings.getMaxPoolSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setThreadNamePrefix("ws-" + channel + "-");
+        executor.setRejectedExecutionHandler(rejectionHandler);
+
+        Gauge.builder("notifications.websocket.channel.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Messages waiting in the STOMP channel executor queue")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("notifications.websocket.channel.queue.capacity", executor, e -> settings.getQueueCapacity())
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("notifications.websocket.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // Contar y abortar: descartar en silencio dejaria atascada la cola ordenada de la sesion
+    private RejectedExecutionHandler rejecting(String channel) {
+        Counter rejected = Counter.builder("notifications.websocket.channel.rejected")
+                .description("Messages rejected because the STOMP channel executor queue was full")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+        return (task, pool) -> {
+            rejected.increment();
+            log.warn("STOMP {} channel queue full ({} queued), rejecting message", channel, pool.getQueue().size());
+            abort.rejectedExecution(task, pool);
+        };
+    }
+
+    @lombok.Value
+    private static class ChannelSettings {
+        int corePoolSize;
+        int maxPoolSize;
+        int queueCapacity;
+    }
+}
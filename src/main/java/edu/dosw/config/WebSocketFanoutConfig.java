@@ -0,0 +1,59 @@
+package edu.dosw.config;
+
+import edu.dosw.infrastructure.websocket.LocalWebSocketFanout;
+import edu.dosw.infrastructure.websocket.RedisWebSocketFanout;
+import edu.dosw.infrastructure.websocket.WebSocketFanout;
+import edu.dosw.infrastructure.websocket.WebSocketSessionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class WebSocketFanoutConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notifications.websocket.fanout", havingValue = "local", matchIfMissing = true)
+    public WebSocketFanout localWebSocketFanout(SimpMessagingTemplate messagingTemplate,
+                                                WebSocketSessionRegistry sessionRegistry) {
+        return new LocalWebSocketFanout(messagingTemplate, sessionRegistry);
+    }
+
+    // Contenedor propio: el de eventos puede estar deshabilitado y las suscripciones por shard cambian en caliente
+    @Bean
+    @ConditionalOnProperty(name = "notifications.websocket.fanout", havingValue = "redis")
+    public RedisMessageListenerContainer webSocketRelayContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "notifications.websocket.fanout", havingValue = "redis")
+    public WebSocketFanout redisWebSocketFanout(
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer webSocketRelayContainer,
+            SimpMessagingTemplate messagingTemplate,
+            WebSocketSessionRegistry sessionRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.websocket.relay.node-id:${HOSTNAME:${random.uuid}}}") String nodeId,
+            @Value("${notifications.websocket.relay.key-prefix:notifications:ws:}") String keyPrefix,
+            @Value("${notifications.websocket.relay.shards:64}") int shards,
+            @Value("${notifications.websocket.relay.presence-ttl-ms:90000}") long presenceTtlMs) {
+        RedisWebSocketFanout.Settings settings = RedisWebSocketFanout.Settings.builder()
+                .nodeId(nodeId)
+                .keyPrefix(keyPrefix)
+                .shards(shards)
+                .presenceTtl(Duration.ofMillis(presenceTtlMs))
+                .build();
+        return new RedisWebSocketFanout(stringRedisTemplate, webSocketRelayContainer, messagingTemplate,
+                sessionRegistry, settings, meterRegistry);
+    }
+}
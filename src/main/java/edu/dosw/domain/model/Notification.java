@@ -24,14 +24,26 @@ public class Notification {
     private LocalDateTime createdAt;
     private LocalDateTime readAt;
     private String metadata;
+    // Proximo reintento de email; null cuando no queda nada por enviar
+    private LocalDateTime nextAttemptAt;
+    // Email tal como se renderizo al crearla; los reintentos lo reenvian sin volver a la plantilla
+    private EmailMessage renderedEmail;
 
-    public void addDeliveryAttempt(Channel channel, boolean successful, String error) {
-        this.deliveryAttempts.add(new DeliveryAttempt(channel, successful, error, LocalDateTime.now()));
+    public DeliveryAttempt addDeliveryAttempt(Channel channel, boolean successful, String error) {
+        DeliveryAttempt attempt = new DeliveryAttempt(channel, successful, error, LocalDateTime.now());
+        this.deliveryAttempts.add(attempt);
         if (successful) {
             this.status = NotificationStatus.SENT;
         } else {
             this.status = NotificationStatus.FAILED;
         }
+        return attempt;
+    }
+
+    public int countDeliveryAttempts(Channel channel) {
+        return (int) this.deliveryAttempts.stream()
+                .filter(attempt -> attempt.getChannel() == channel)
+                .count();
     }
 
     public void markAsRead() {
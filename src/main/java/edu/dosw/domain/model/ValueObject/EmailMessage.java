@@ -0,0 +1,28 @@
+package edu.dosw.domain.model.ValueObject;
+
+import edu.dosw.domain.model.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EmailMessage {
+    private String to;
+    private String subject;
+    private String body;
+    private boolean html;
+
+    public static EmailMessage html(String to, String subject, String htmlContent) {
+        return new EmailMessage(to, subject, htmlContent, true);
+    }
+
+    public static EmailMessage plainText(Notification notification) {
+        return new EmailMessage(notification.getUserEmail(), notification.getTitle(), String.format(
+                "%s%n%n%s%n%nDate: %s%nType: %s%n%nThank you,%nECI Express Team",
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.getCreatedAt(),
+                notification.getType().name()
+        ), false);
+    }
+}
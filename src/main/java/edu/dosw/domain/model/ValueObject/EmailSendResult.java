@@ -0,0 +1,19 @@
+package edu.dosw.domain.model.ValueObject;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EmailSendResult {
+    private boolean successful;
+    private String error;
+
+    public static EmailSendResult success() {
+        return new EmailSendResult(true, null);
+    }
+
+    public static EmailSendResult failure(String error) {
+        return new EmailSendResult(false, error);
+    }
+}
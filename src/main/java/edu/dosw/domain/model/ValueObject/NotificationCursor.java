@@ -0,0 +1,12 @@
+package edu.dosw.domain.model.ValueObject;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class NotificationCursor {
+    private LocalDateTime createdAt;
+    private String id;
+}
@@ -0,0 +1,14 @@
+package edu.dosw.domain.model.ValueObject;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class NotificationStats {
+    private Map<String, Long> countByStatus;
+    private Map<String, Long> countByType;
+    private Map<LocalDate, Long> countByDay;
+}
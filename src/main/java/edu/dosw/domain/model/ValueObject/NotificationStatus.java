@@ -4,5 +4,9 @@ public enum NotificationStatus {
     PENDING,
     SENT,
     READ,
-    FAILED
-}
\ No newline at end of file
+    FAILED;
+
+    public boolean isUnread() {
+        return this == PENDING || this == SENT;
+    }
+}
@@ -0,0 +1,47 @@
+package edu.dosw.domain.model.ValueObject;
+
+import edu.dosw.domain.model.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Efecto secundario pendiente de una notificacion (un email o un frame WebSocket). Se persiste junto
+ * con la notificacion y se borra cuando el efecto se ejecuto; {@code availableAt} marca desde cuando
+ * el relay puede reclamarlo.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class OutboxMessage {
+    private String id;
+    private String notificationId;
+    private String userId;
+    private Channel channel;
+    private EmailMessage email;
+    private int deliveries;
+    private LocalDateTime createdAt;
+    private LocalDateTime availableAt;
+
+    public static OutboxMessage email(Notification notification, EmailMessage email) {
+        return create(notification, Channel.EMAIL, email);
+    }
+
+    public static OutboxMessage webSocket(Notification notification) {
+        return create(notification, Channel.WEB_SOCKET, null);
+    }
+
+    private static OutboxMessage create(Notification notification, Channel channel, EmailMessage email) {
+        return OutboxMessage.builder()
+                .id(UUID.randomUUID().toString())
+                .notificationId(notification.getId().getValue())
+                .userId(notification.getUserId())
+                .channel(channel)
+                .email(email)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package edu.dosw.domain.model.ValueObject;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ReadReceipt {
+    private String notificationId;
+    private String userId;
+    private NotificationStatus previousStatus;
+    private LocalDateTime readAt;
+}
@@ -0,0 +1,7 @@
+package edu.dosw.domain.ports;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+
+public interface DeliveryPipelinePort {
+    void submit(Channel channel, Runnable task);
+}
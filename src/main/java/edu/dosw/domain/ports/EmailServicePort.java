@@ -1,8 +1,16 @@
 package edu.dosw.domain.ports;
 
 import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import java.util.List;
 
 public interface EmailServicePort {
     boolean sendNotificationEmail(Notification notification);
     boolean sendHtmlEmail(String to, String subject, String htmlContent);
-}
\ No newline at end of file
+
+    /**
+     * Envia todos los mensajes sobre una misma sesion SMTP. El resultado i corresponde al mensaje i.
+     */
+    List<EmailSendResult> sendBatch(List<EmailMessage> messages);
+}
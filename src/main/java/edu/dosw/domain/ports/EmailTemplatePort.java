@@ -0,0 +1,15 @@
+package edu.dosw.domain.ports;
+
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.NotificationType;
+import java.util.Locale;
+import java.util.Map;
+
+public interface EmailTemplatePort {
+
+    /**
+     * Renderiza asunto y cuerpo HTML de la plantilla (tipo, variante, locale); {@code variant} puede ser null.
+     * Los valores de {@code variables} se escapan como HTML en el cuerpo.
+     */
+    EmailMessage render(String to, NotificationType type, String variant, Locale locale, Map<String, String> variables);
+}
@@ -1,15 +1,32 @@
 package edu.dosw.domain.ports;
 
 import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.DeliveryAttempt;
+import edu.dosw.domain.model.ValueObject.NotificationCursor;
+import edu.dosw.domain.model.ValueObject.NotificationStats;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.domain.model.ValueObject.ReadReceipt;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface NotificationRepositoryPort {
     Notification save(Notification notification);
+    List<Notification> saveAll(List<Notification> notifications);
+    // Estado previo, presente solo si el nuevo estado se aplico (no se aplica sobre una notificacion READ)
+    Optional<NotificationStatus> appendDeliveryAttempt(String id, DeliveryAttempt attempt, NotificationStatus newStatus, LocalDateTime nextAttemptAt);
+    List<Notification> claimDueEmailRetries(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+    Optional<ReadReceipt> markRead(String id);
+    long markAllRead(String userId);
+    void flushPendingWrites();
     Optional<Notification> findById(String id);
     List<Notification> findByUserId(String userId);
+    List<Notification> findPageByUserId(String userId, String status, String type, NotificationCursor after, int limit);
+    List<Notification> findByUserIdAfter(String userId, NotificationCursor after, int limit);
     List<Notification> findPendingNotifications();
     List<Notification> findByUserIdAndStatus(String userId, String status);
     boolean existsByUserIdAndType(String userId, String type);
     long countByUserIdAndStatus(String userId, String status);
-}
\ No newline at end of file
+    long countUnreadByUserId(String userId);
+    NotificationStats aggregateStatsByUserId(String userId, LocalDateTime dailySince);
+}
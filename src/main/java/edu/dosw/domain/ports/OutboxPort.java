@@ -0,0 +1,15 @@
+package edu.dosw.domain.ports;
+
+import edu.dosw.domain.model.ValueObject.OutboxMessage;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface OutboxPort {
+    void append(List<OutboxMessage> messages);
+    List<OutboxMessage> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+    void complete(String id);
+    // Notificaciones (de las dadas) cuyo email sigue en el outbox, entregado o por entregar por el relay
+    Set<String> findNotificationsWithPendingEmail(Collection<String> notificationIds);
+}
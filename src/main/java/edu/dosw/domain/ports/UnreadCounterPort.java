@@ -0,0 +1,7 @@
+package edu.dosw.domain.ports;
+
+public interface UnreadCounterPort {
+    long getUnreadCount(String userId);
+    void adjust(String userId, long delta);
+    void invalidate(String userId);
+}
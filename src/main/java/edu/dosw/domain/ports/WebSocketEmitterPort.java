@@ -5,8 +5,11 @@ import java.util.List;
 
 public interface WebSocketEmitterPort {
     void emitUserNotification(String userId, Notification notification);
+    // Conserva la notificacion para reenviarla cuando el usuario reanude su sesion, este conectado o no
+    void retainForResume(Notification notification);
     void emitGlobalNotification(Notification notification);
     void emitBatchNotifications(List<Notification> notifications);
+    void emitUnreadCount(String userId, long unreadCount);
     boolean isUserConnected(String userId);
     int getConnectedUsersCount();
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package edu.dosw.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+
+public class LocalUnreadCountStore implements UnreadCountStore {
+
+    private final Cache<String, Long> counts;
+
+    public LocalUnreadCountStore(long maximumSize, Duration expireAfterAccess) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    @Override
+    public OptionalLong get(String userId) {
+        Long count = counts.getIfPresent(userId);
+        return count == null ? OptionalLong.empty() : OptionalLong.of(count);
+    }
+
+    @Override
+    public void put(String userId, long count) {
+        counts.put(userId, count);
+    }
+
+    @Override
+    public void adjustIfPresent(String userId, long delta) {
+        counts.asMap().computeIfPresent(userId, (key, count) -> Math.max(0, count + delta));
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        counts.invalidate(userId);
+    }
+
+    @Override
+    public Collection<String> trackedUsers() {
+        return List.copyOf(counts.asMap().keySet());
+    }
+}
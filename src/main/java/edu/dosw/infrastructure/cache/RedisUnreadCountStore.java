@@ -0,0 +1,79 @@
+package edu.dosw.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Contadores compartidos entre replicas. El ajuste es un script para que INCRBY no cree la clave
+ * cuando expiro: una clave ausente significa "cargar de Mongo", no "cero".
+ */
+public class RedisUnreadCountStore implements UnreadCountStore {
+
+    private static final RedisScript<Long> ADJUST_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then "
+                    + "local value = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "if value < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') value = 0 end "
+                    + "return value "
+                    + "end "
+                    + "return nil",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final Duration ttl;
+    private final Cache<String, Boolean> trackedUsers;
+
+    public RedisUnreadCountStore(StringRedisTemplate redisTemplate, String keyPrefix, Duration ttl, long maxTrackedUsers) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+        this.trackedUsers = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    @Override
+    public OptionalLong get(String userId) {
+        String value = redisTemplate.opsForValue().get(key(userId));
+        if (value == null) {
+            return OptionalLong.empty();
+        }
+        trackedUsers.put(userId, Boolean.TRUE);
+        return OptionalLong.of(Long.parseLong(value));
+    }
+
+    @Override
+    public void put(String userId, long count) {
+        redisTemplate.opsForValue().set(key(userId), Long.toString(count), ttl);
+        trackedUsers.put(userId, Boolean.TRUE);
+    }
+
+    @Override
+    public void adjustIfPresent(String userId, long delta) {
+        redisTemplate.execute(ADJUST_IF_PRESENT, List.of(key(userId)), Long.toString(delta));
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        redisTemplate.delete(key(userId));
+        trackedUsers.invalidate(userId);
+    }
+
+    @Override
+    public Collection<String> trackedUsers() {
+        return List.copyOf(trackedUsers.asMap().keySet());
+    }
+
+    private String key(String userId) {
+        return keyPrefix + userId;
+    }
+}
@@ -0,0 +1,111 @@
+package edu.dosw.infrastructure.cache;
+
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.OptionalLong;
+
+/**
+ * Contador de no leidas por usuario. Se ajusta con los eventos de creacion/lectura y solo consulta
+ * Mongo en un miss o al reconciliar; la reconciliacion corrige los ajustes perdidos por carreras.
+ */
+@Slf4j
+public class UnreadCountCache implements UnreadCounterPort {
+
+    private final UnreadCountStore store;
+    private final NotificationRepositoryPort notificationRepositoryPort;
+    private final int reconcileBatchSize;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter reconciledCounter;
+    private final Counter driftCounter;
+    private final DistributionSummary driftMagnitude;
+
+    public UnreadCountCache(UnreadCountStore store, NotificationRepositoryPort notificationRepositoryPort,
+                            int reconcileBatchSize, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.notificationRepositoryPort = notificationRepositoryPort;
+        this.reconcileBatchSize = reconcileBatchSize;
+
+        this.hitCounter = Counter.builder("notifications.unread_cache.requests").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("notifications.unread_cache.requests").tag("result", "miss").register(meterRegistry);
+        this.reconciledCounter = Counter.builder("notifications.unread_cache.reconciled").register(meterRegistry);
+        this.driftCounter = Counter.builder("notifications.unread_cache.drift")
+                .description("Cached unread counters corrected by reconciliation")
+                .register(meterRegistry);
+        this.driftMagnitude = DistributionSummary.builder("notifications.unread_cache.drift.magnitude")
+                .description("Absolute difference between cached and stored unread counts")
+                .register(meterRegistry);
+        Gauge.builder("notifications.unread_cache.tracked_users", store, s -> s.trackedUsers().size())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long getUnreadCount(String userId) {
+        OptionalLong cached = store.get(userId);
+        if (cached.isPresent()) {
+            hitCounter.increment();
+            return cached.getAsLong();
+        }
+        missCounter.increment();
+        long count = notificationRepositoryPort.countUnreadByUserId(userId);
+        store.put(userId, count);
+        return count;
+    }
+
+    @Override
+    public void adjust(String userId, long delta) {
+        if (delta != 0) {
+            store.adjustIfPresent(userId, delta);
+        }
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        store.invalidate(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.unread-cache.reconcile-interval-ms:60000}",
+            initialDelayString = "${notifications.unread-cache.reconcile-interval-ms:60000}")
+    public void scheduledReconcile() {
+        try {
+            int corrected = reconcile();
+            if (corrected > 0) {
+                log.info("Reconciliacion de no leidas: {} contadores corregidos", corrected);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error reconciling unread counters: {}", e.getMessage());
+        }
+    }
+
+    /** Compara hasta reconcileBatchSize contadores con Mongo y devuelve cuantos se corrigieron. */
+    public int reconcile() {
+        int corrected = 0;
+        int checked = 0;
+        for (String userId : store.trackedUsers()) {
+            if (checked++ >= reconcileBatchSize) {
+                break;
+            }
+            OptionalLong cached = store.get(userId);
+            if (cached.isEmpty()) {
+                continue;
+            }
+            long actual = notificationRepositoryPort.countUnreadByUserId(userId);
+            reconciledCounter.increment();
+            if (actual != cached.getAsLong()) {
+                driftCounter.increment();
+                driftMagnitude.record(Math.abs(actual - cached.getAsLong()));
+                store.put(userId, actual);
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+}
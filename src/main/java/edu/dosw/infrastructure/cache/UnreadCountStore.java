@@ -0,0 +1,15 @@
+package edu.dosw.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.OptionalLong;
+
+/** Almacen de contadores de no leidas por usuario: local a la replica o compartido en Redis. */
+public interface UnreadCountStore {
+    OptionalLong get(String userId);
+    void put(String userId, long count);
+    /** Ajusta solo si el contador ya esta cargado; si no, la siguiente lectura lo carga de Mongo. */
+    void adjustIfPresent(String userId, long delta);
+    void invalidate(String userId);
+    /** Usuarios que esta replica conoce, para la reconciliacion periodica. */
+    Collection<String> trackedUsers();
+}
@@ -0,0 +1,145 @@
+package edu.dosw.infrastructure.delivery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool of workers in front of a bounded queue. When the queue is full the
+ * configured {@link OverflowPolicy} decides whether the producer waits, runs the
+ * task itself or the task is dropped.
+ */
+@Slf4j
+public class BoundedDeliveryStage {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMs;
+
+    private final Counter submittedCounter;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public BoundedDeliveryStage(String name, int workers, int queueCapacity,
+                                OverflowPolicy overflowPolicy, long offerTimeoutMs,
+                                MeterRegistry meterRegistry) {
+        this.name = name;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory(name),
+                rejectionHandler());
+        this.executor.prestartAllCoreThreads();
+
+        this.submittedCounter = counter(meterRegistry, "submitted");
+        this.completedCounter = counter(meterRegistry, "completed");
+        this.failedCounter = counter(meterRegistry, "failed");
+        this.rejectedCounter = counter(meterRegistry, "rejected");
+
+        Gauge.builder("notifications.delivery.queue.depth", executor, e -> e.getQueue().size())
+                .description("Tasks waiting in the delivery stage queue")
+                .tag("stage", name)
+                .register(meterRegistry);
+        Gauge.builder("notifications.delivery.queue.capacity", executor,
+                        e -> e.getQueue().size() + e.getQueue().remainingCapacity())
+                .tag("stage", name)
+                .register(meterRegistry);
+        Gauge.builder("notifications.delivery.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("stage", name)
+                .register(meterRegistry);
+    }
+
+    public void submit(Runnable task) {
+        submittedCounter.increment();
+        executor.execute(() -> runSafely(task));
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void shutdown(long timeoutMs) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Delivery stage {} did not drain in {} ms, {} tasks discarded",
+                        name, timeoutMs, executor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+            completedCounter.increment();
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Error in delivery stage {}: {}", name, e.getMessage(), e);
+        }
+    }
+
+    private RejectedExecutionHandler rejectionHandler() {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                reject("stage is shut down");
+                return;
+            }
+            switch (overflowPolicy) {
+                case CALLER_RUNS -> task.run();
+                case BLOCK -> {
+                    try {
+                        if (!pool.getQueue().offer(task, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                            reject("queue still full after " + offerTimeoutMs + " ms");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        reject("interrupted while waiting for queue space");
+                    }
+                }
+                case DROP -> reject("queue full");
+            }
+        };
+    }
+
+    private void reject(String reason) {
+        rejectedCounter.increment();
+        log.warn("Delivery task rejected by stage {}: {}", name, reason);
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notifications.delivery.tasks")
+                .tag("stage", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "delivery-" + name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
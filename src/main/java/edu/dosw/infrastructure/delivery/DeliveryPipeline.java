@@ -0,0 +1,40 @@
+package edu.dosw.infrastructure.delivery;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Slf4j
+public class DeliveryPipeline implements DeliveryPipelinePort {
+
+    private final Map<Channel, BoundedDeliveryStage> stages;
+    private final long shutdownTimeoutMs;
+
+    public DeliveryPipeline(Map<Channel, BoundedDeliveryStage> stages, long shutdownTimeoutMs) {
+        this.stages = new EnumMap<>(stages);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    @Override
+    public void submit(Channel channel, Runnable task) {
+        BoundedDeliveryStage stage = stages.get(channel);
+        if (stage == null) {
+            log.warn("No delivery stage configured for channel {}, running inline", channel);
+            task.run();
+            return;
+        }
+        stage.submit(task);
+    }
+
+    public int getQueueDepth(Channel channel) {
+        BoundedDeliveryStage stage = stages.get(channel);
+        return stage != null ? stage.getQueueDepth() : 0;
+    }
+
+    public void shutdown() {
+        stages.values().forEach(stage -> stage.shutdown(shutdownTimeoutMs));
+    }
+}
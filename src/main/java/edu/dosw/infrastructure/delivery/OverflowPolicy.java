@@ -0,0 +1,10 @@
+package edu.dosw.infrastructure.delivery;
+
+public enum OverflowPolicy {
+    /** Blocks the producer until the queue has room or the offer timeout expires. */
+    BLOCK,
+    /** Runs the task on the producer thread, slowing intake down to the stage's pace. */
+    CALLER_RUNS,
+    /** Discards the task and counts it as rejected. */
+    DROP
+}
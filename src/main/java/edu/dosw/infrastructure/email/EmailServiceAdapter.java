@@ -2,8 +2,12 @@ package edu.dosw.infrastructure.email;
 
 import edu.dosw.domain.ports.EmailServicePort;
 import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
@@ -11,12 +15,17 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EmailServiceAdapter implements EmailServicePort {
 
+    private static final String FROM_ADDRESS = "manuelalejandro.guarnizo@gmail.com";
+
     private final JavaMailSender mailSender;
 
     @Override
@@ -32,10 +41,10 @@ public class EmailServiceAdapter implements EmailServicePort {
             log.debug("Sending to: {}", userEmail);
 
             SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("manuelalejandro.guarnizo@gmail.com");
+            message.setFrom(FROM_ADDRESS);
             message.setTo(userEmail);
             message.setSubject(notification.getTitle());
-            message.setText(buildEmailText(notification));
+            message.setText(EmailMessage.plainText(notification).getBody());
 
             mailSender.send(message);
             log.info("GMAIL SUCCESS - Email sent to: {}", userEmail);
@@ -69,13 +78,63 @@ public class EmailServiceAdapter implements EmailServicePort {
         }
     }
 
-    private String buildEmailText(Notification notification) {
-        return String.format(
-                "%s%n%n%s%n%nDate: %s%nType: %s%n%nThank you,%nECI Express Team",
-                notification.getTitle(),
-                notification.getMessage(),
-                notification.getCreatedAt(),
-                notification.getType().name()
-        );
+    @Override
+    public List<EmailSendResult> sendBatch(List<EmailMessage> messages) {
+        List<EmailSendResult> results = new ArrayList<>(messages.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        for (EmailMessage message : messages) {
+            try {
+                mimeMessages.add(toMimeMessage(message));
+                results.add(EmailSendResult.success());
+            } catch (MessagingException e) {
+                mimeMessages.add(null);
+                results.add(EmailSendResult.failure(e.getMessage()));
+            }
+        }
+
+        MimeMessage[] sendable = mimeMessages.stream().filter(m -> m != null).toArray(MimeMessage[]::new);
+        if (sendable.length == 0) {
+            return results;
+        }
+        try {
+            mailSender.send(sendable);
+        } catch (MailSendException e) {
+            // Spring reporta los fallos por mensaje; sin detalle se asume que fallo todo el lote
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (int i = 0; i < mimeMessages.size(); i++) {
+                MimeMessage mimeMessage = mimeMessages.get(i);
+                if (mimeMessage == null) {
+                    continue;
+                }
+                Exception failure = failedMessages.isEmpty() ? e : failedMessages.get(mimeMessage);
+                if (failure != null) {
+                    results.set(i, EmailSendResult.failure(failure.getMessage()));
+                }
+            }
+        } catch (MailException e) {
+            for (int i = 0; i < mimeMessages.size(); i++) {
+                if (mimeMessages.get(i) != null) {
+                    results.set(i, EmailSendResult.failure(e.getMessage()));
+                }
+            }
+        }
+
+        long failed = results.stream().filter(result -> !result.isSuccessful()).count();
+        if (failed > 0) {
+            log.error("Email batch finished with {} of {} messages failed", failed, messages.size());
+        } else {
+            log.info("Email batch of {} messages sent successfully", messages.size());
+        }
+        return results;
+    }
+
+    private MimeMessage toMimeMessage(EmailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isHtml(), "UTF-8");
+        helper.setFrom(FROM_ADDRESS);
+        helper.setTo(message.getTo());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), message.isHtml());
+        return mimeMessage;
     }
 }
@@ -0,0 +1,105 @@
+package edu.dosw.infrastructure.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link JavaMailSenderImpl} que envia sobre conexiones de un {@link SmtpConnectionPool} en lugar de
+ * abrir y cerrar una sesion SMTP por cada llamada a {@code send}.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements AutoCloseable {
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final SmtpConnectionPool pool;
+
+    public PooledJavaMailSender(SmtpConnectionPool.Settings settings, MeterRegistry meterRegistry) {
+        this.pool = new SmtpConnectionPool(this::connectTransport, settings, meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        SmtpConnectionPool.PooledConnection connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                Object original = (originalMessages != null ? originalMessages[i] : mimeMessages[i]);
+                if (connection == null) {
+                    try {
+                        connection = pool.borrow();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (MessagingException ex) {
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+
+                MimeMessage mimeMessage = mimeMessages[i];
+                Address[] addresses;
+                try {
+                    addresses = prepare(mimeMessage);
+                } catch (MessagingException ex) {
+                    failedMessages.put(original, ex);
+                    continue;
+                }
+
+                try {
+                    connection.send(mimeMessage, addresses);
+                } catch (SendFailedException ex) {
+                    // Rechazo de destinatarios o del mensaje: la sesion SMTP sigue siendo valida
+                    failedMessages.put(original, ex);
+                } catch (MessagingException ex) {
+                    failedMessages.put(original, ex);
+                    pool.release(connection, true);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                pool.release(connection, false);
+            }
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    public SmtpConnectionPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private static Address[] prepare(MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Conserva el Message-ID explicito que saveChanges() reemplaza
+            mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+        }
+        Address[] addresses = mimeMessage.getAllRecipients();
+        return (addresses != null ? addresses : new Address[0]);
+    }
+}
@@ -0,0 +1,193 @@
+package edu.dosw.infrastructure.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de conexiones SMTP ya autenticadas. Evita pagar TCP + STARTTLS + AUTH en cada envio:
+ * las conexiones se reutilizan (LIFO, para mantener calientes las mas recientes), se validan con
+ * NOOP cuando llevan tiempo ociosas y se reciclan tras un numero maximo de mensajes.
+ */
+@Slf4j
+public class SmtpConnectionPool implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface TransportFactory {
+        Transport connect() throws MessagingException;
+    }
+
+    private final TransportFactory transportFactory;
+    private final Settings settings;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final Counter openedCounter;
+    private final MeterRegistry meterRegistry;
+    private final Timer borrowTimer;
+
+    public SmtpConnectionPool(TransportFactory transportFactory, Settings settings, MeterRegistry meterRegistry) {
+        if (settings.getMaxConnections() <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        this.transportFactory = transportFactory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxConnections(), true);
+        this.meterRegistry = meterRegistry;
+        this.openedCounter = Counter.builder("notifications.email.smtp.connections.opened").register(meterRegistry);
+        this.borrowTimer = Timer.builder("notifications.email.smtp.borrow").register(meterRegistry);
+        Gauge.builder("notifications.email.smtp.connections.open", openConnections, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("notifications.email.smtp.connections.idle", idle, BlockingDeque::size)
+                .register(meterRegistry);
+        Gauge.builder("notifications.email.smtp.connections.leased", permits,
+                        p -> settings.getMaxConnections() - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Entrega una conexion exclusiva al llamador; debe devolverse siempre con {@link #release}.
+     */
+    public PooledConnection borrow() throws MessagingException {
+        if (closed) {
+            throw new MessagingException("SMTP connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection after "
+                        + settings.getBorrowTimeout().toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        } finally {
+            borrowTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            PooledConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (isHealthy(connection)) {
+                    return connection;
+                }
+                discard(connection, "unhealthy");
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve la conexion al pool. Las marcadas como rotas o que alcanzaron el maximo de mensajes se cierran.
+     */
+    public void release(PooledConnection connection, boolean broken) {
+        try {
+            if (broken) {
+                discard(connection, "broken");
+            } else if (connection.getMessagesSent() >= settings.getMaxMessagesPerConnection()) {
+                discard(connection, "recycled");
+            } else if (closed) {
+                discard(connection, "shutdown");
+            } else {
+                connection.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            discard(connection, "shutdown");
+        }
+    }
+
+    private PooledConnection open() throws MessagingException {
+        Transport transport = transportFactory.connect();
+        openConnections.incrementAndGet();
+        openedCounter.increment();
+        log.debug("Nueva conexion SMTP abierta ({} abiertas)", openConnections.get());
+        return new PooledConnection(transport);
+    }
+
+    private boolean isHealthy(PooledConnection connection) {
+        // Conexiones usadas hace poco se asumen vivas; NOOP cuesta un round-trip
+        if (System.nanoTime() - connection.lastUsedNanos < settings.getValidateAfterIdle().toNanos()) {
+            return true;
+        }
+        // En SMTPTransport isConnected() envia NOOP y valida la respuesta 250
+        boolean healthy = connection.transport.isConnected();
+        meterRegistry.counter("notifications.email.smtp.health_checks", "result", healthy ? "ok" : "failed")
+                .increment();
+        return healthy;
+    }
+
+    private void discard(PooledConnection connection, String reason) {
+        openConnections.decrementAndGet();
+        meterRegistry.counter("notifications.email.smtp.connections.closed", "reason", reason).increment();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error cerrando conexion SMTP ({}): {}", reason, e.getMessage());
+        }
+    }
+
+    public static final class PooledConnection {
+        private final Transport transport;
+        private int messagesSent;
+        private volatile long lastUsedNanos;
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+            this.lastUsedNanos = System.nanoTime();
+        }
+
+        public void send(MimeMessage message, Address[] recipients) throws MessagingException {
+            messagesSent++;
+            transport.sendMessage(message, recipients);
+        }
+
+        public int getMessagesSent() {
+            return messagesSent;
+        }
+    }
+
+    @lombok.Value
+    @lombok.Builder
+    public static class Settings {
+        int maxConnections;
+        int maxMessagesPerConnection;
+        Duration validateAfterIdle;
+        Duration borrowTimeout;
+    }
+}
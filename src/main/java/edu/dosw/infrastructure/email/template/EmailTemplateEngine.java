@@ -0,0 +1,153 @@
+package edu.dosw.infrastructure.email.template;
+
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.NotificationType;
+import edu.dosw.domain.ports.EmailTemplatePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Carga y compila las plantillas de email una sola vez al arrancar. Cada archivo se llama
+ * {@code <tipo>[.<variante>]_<locale>.html} y empieza con una linea {@code Subject: ...} seguida de
+ * una linea en blanco y el cuerpo HTML. El render usa buffers reutilizables de un pool acotado.
+ */
+@Slf4j
+@Component
+public class EmailTemplateEngine implements EmailTemplatePort {
+
+    static final String SUBJECT_PREFIX = "Subject:";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<String, EmailTemplate> templates;
+    private final Locale defaultLocale;
+    private final BlockingQueue<StringBuilder> buffers;
+
+    public EmailTemplateEngine(@Value("${notifications.email.templates.location:classpath*:templates/email/*.html}") String location,
+                               @Value("${notifications.email.templates.default-locale:es}") String defaultLocale,
+                               @Value("${notifications.email.templates.buffer-pool-size:16}") int bufferPoolSize) {
+        this.defaultLocale = Locale.forLanguageTag(defaultLocale);
+        this.buffers = new ArrayBlockingQueue<>(Math.max(1, bufferPoolSize));
+        this.templates = load(location);
+        log.info("{} plantillas de email compiladas desde {}", templates.size(), location);
+    }
+
+    @Override
+    public EmailMessage render(String to, NotificationType type, String variant, Locale locale, Map<String, String> variables) {
+        EmailTemplate template = resolve(type, variant, locale);
+        StringBuilder buffer = acquireBuffer();
+        try {
+            template.getBody().renderTo(buffer, variables, true);
+            String body = buffer.toString();
+            buffer.setLength(0);
+            template.getSubject().renderTo(buffer, variables, false);
+            return EmailMessage.html(to, buffer.toString(), body);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    // Orden de busqueda: locale exacto, solo idioma y por ultimo el locale por defecto
+    private EmailTemplate resolve(NotificationType type, String variant, Locale locale) {
+        Locale requested = locale != null ? locale : defaultLocale;
+        EmailTemplate template = templates.get(key(type, variant, requested.toLanguageTag()));
+        if (template == null) {
+            template = templates.get(key(type, variant, requested.getLanguage()));
+        }
+        if (template == null) {
+            template = templates.get(key(type, variant, defaultLocale.toLanguageTag()));
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("No email template for " + type
+                    + (variant != null ? "." + variant : "") + " and locale " + requested.toLanguageTag());
+        }
+        return template;
+    }
+
+    private StringBuilder acquireBuffer() {
+        StringBuilder buffer = buffers.poll();
+        return buffer != null ? buffer : new StringBuilder(4096);
+    }
+
+    private void releaseBuffer(StringBuilder buffer) {
+        // Buffers que crecieron demasiado no se retienen para no fijar memoria
+        if (buffer.capacity() <= MAX_RETAINED_BUFFER) {
+            buffer.setLength(0);
+            buffers.offer(buffer);
+        }
+    }
+
+    private static Map<String, EmailTemplate> load(String location) {
+        Map<String, EmailTemplate> loaded = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+                String filename = resource.getFilename();
+                if (filename == null) {
+                    continue;
+                }
+                String source = resource.getContentAsString(StandardCharsets.UTF_8);
+                String key = keyFromFilename(filename);
+                if (loaded.put(key, parse(filename, source)) != null) {
+                    throw new IllegalStateException("Duplicate email template " + filename);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load email templates from " + location, e);
+        }
+        return Map.copyOf(loaded);
+    }
+
+    static EmailTemplate parse(String filename, String source) {
+        String normalized = source.replace("\r\n", "\n");
+        int headerEnd = normalized.indexOf("\n\n");
+        if (!normalized.startsWith(SUBJECT_PREFIX) || headerEnd < 0) {
+            throw new IllegalStateException("Email template " + filename + " must start with a Subject line and a blank line");
+        }
+        String subject = normalized.substring(SUBJECT_PREFIX.length(), headerEnd).trim();
+        String body = normalized.substring(headerEnd + 2);
+        if (body.endsWith("\n")) {
+            body = body.substring(0, body.length() - 1);
+        }
+        return new EmailTemplate(CompiledTemplate.compile(subject), CompiledTemplate.compile(body));
+    }
+
+    static String keyFromFilename(String filename) {
+        String name = filename.endsWith(".html") ? filename.substring(0, filename.length() - 5) : filename;
+        int localeSeparator = name.lastIndexOf('_');
+        if (localeSeparator < 0) {
+            throw new IllegalStateException("Email template " + filename + " has no locale suffix");
+        }
+        String locale = Locale.forLanguageTag(name.substring(localeSeparator + 1)).toLanguageTag();
+        String typeAndVariant = name.substring(0, localeSeparator);
+        int variantSeparator = typeAndVariant.indexOf('.');
+        String typeName = variantSeparator < 0 ? typeAndVariant : typeAndVariant.substring(0, variantSeparator);
+        String variant = variantSeparator < 0 ? null : typeAndVariant.substring(variantSeparator + 1);
+        NotificationType type;
+        try {
+            type = NotificationType.valueOf(typeName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Email template " + filename + " does not match a NotificationType", e);
+        }
+        return key(type, variant, locale);
+    }
+
+    private static String key(NotificationType type, String variant, String languageTag) {
+        return type.name() + '|' + (variant != null ? variant : "") + '|' + languageTag;
+    }
+
+    @lombok.Value
+    static class EmailTemplate {
+        CompiledTemplate subject;
+        CompiledTemplate body;
+    }
+}
@@ -0,0 +1,94 @@
+package edu.dosw.infrastructure.event;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import edu.dosw.infrastructure.event.GeneralEventListener.EventWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Lee el sobre del evento en streaming y enlaza {@code data} directamente a la clase concreta segun
+ * {@code eventType}, sin pasar por un Map generico ni por {@code convertValue}. Si {@code data} llega
+ * antes que {@code eventType} sus tokens se guardan en un {@link TokenBuffer} y se enlazan al final.
+ * Tipos sin clase registrada, o readers sin el atributo {@link #DATA_TYPES_ATTRIBUTE}, conservan
+ * {@code data} como estructura generica.
+ */
+public class EventWrapperDeserializer extends StdDeserializer<EventWrapper> {
+
+    /**
+     * Atributo del reader con el {@code Map<String, Class<?>>} de clases por tipo de evento; lo
+     * aporta {@link edu.dosw.infrastructure.event.handlers.EventHandlerRegistry#dataTypes()}.
+     */
+    public static final String DATA_TYPES_ATTRIBUTE = EventWrapperDeserializer.class.getName() + ".dataTypes";
+
+    public EventWrapperDeserializer() {
+        super(EventWrapper.class);
+    }
+
+    @Override
+    public EventWrapper deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        EventWrapper wrapper = new EventWrapper();
+        TokenBuffer pendingData = null;
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "eventId" -> wrapper.setEventId(text(parser, value));
+                case "eventType" -> wrapper.setEventType(text(parser, value));
+                case "timestamp" -> wrapper.setTimestamp(text(parser, value));
+                case "version" -> wrapper.setVersion(text(parser, value));
+                case "data" -> {
+                    if (wrapper.getEventType() != null) {
+                        wrapper.setData(readData(parser, context, wrapper.getEventType()));
+                    } else {
+                        pendingData = context.bufferAsCopyOfValue(parser);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            return (EventWrapper) context.handleUnexpectedToken(EventWrapper.class, parser);
+        }
+        if (pendingData != null) {
+            try (JsonParser buffered = pendingData.asParserOnFirstToken()) {
+                wrapper.setData(readData(buffered, context, wrapper.getEventType()));
+            }
+        }
+        return wrapper;
+    }
+
+    private static Object readData(JsonParser parser, DeserializationContext context, String eventType) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Class<?> type = dataType(context, eventType);
+        return context.readValue(parser, context.constructType(type));
+    }
+
+    private static Class<?> dataType(DeserializationContext context, String eventType) {
+        if (eventType == null || !(context.getAttribute(DATA_TYPES_ATTRIBUTE) instanceof Map<?, ?> dataTypes)) {
+            return Object.class;
+        }
+        return dataTypes.get(eventType) instanceof Class<?> type ? type : Object.class;
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+}
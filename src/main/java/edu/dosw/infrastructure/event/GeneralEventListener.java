@@ -1,276 +1,180 @@
 package edu.dosw.infrastructure.event;
 
-import edu.dosw.application.ports.EventServicePort;
-import edu.dosw.application.dto.command.LoginEventCommand;
-import edu.dosw.application.dto.command.NotificationCommand;
-import edu.dosw.application.dto.command.PasswordResetNotificationCommand;
-import edu.dosw.application.dto.command.PaymentCommand;
-import lombok.RequiredArgsConstructor;
+import edu.dosw.infrastructure.event.deadletter.DeadLetterQueue;
+import edu.dosw.infrastructure.event.handlers.EventHandlerRegistry;
+import edu.dosw.infrastructure.event.idempotency.EventDeduplicator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.io.IOException;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class GeneralEventListener implements MessageListener {
 
-    private final EventServicePort eventServicePort;
-    private final ObjectMapper objectMapper;
+    private static final String[] PARTITION_KEY_FIELDS = {"userId", "clientId", "orderId", "email"};
+
+    private final ObjectReader eventReader;
+    private final EventHandlerRegistry handlerRegistry;
+    private final PartitionedEventDispatcher eventDispatcher;
+    private final EventDeduplicator eventDeduplicator;
+    private final DeadLetterQueue deadLetterQueue;
+    private final Counter failedCounter;
+
+    public GeneralEventListener(ObjectMapper objectMapper,
+                                EventHandlerRegistry handlerRegistry,
+                                PartitionedEventDispatcher eventDispatcher,
+                                EventDeduplicator eventDeduplicator,
+                                DeadLetterQueue deadLetterQueue,
+                                MeterRegistry meterRegistry) {
+        // El reader lleva la tabla de tipos para que data se enlace a la clase de su handler
+        this.eventReader = objectMapper.readerFor(EventWrapper.class)
+                .withAttribute(EventWrapperDeserializer.DATA_TYPES_ATTRIBUTE, handlerRegistry.dataTypes());
+        this.handlerRegistry = handlerRegistry;
+        this.eventDispatcher = eventDispatcher;
+        this.eventDeduplicator = eventDeduplicator;
+        this.deadLetterQueue = deadLetterQueue;
+        // Mismo contador que el dispatcher: la falla se atrapa aqui y no llega a la tarea de la particion
+        this.failedCounter = Counter.builder("notifications.events.failed").register(meterRegistry);
+    }
 
     @Override
     public void onMessage(Message message, byte[] pattern) {
         String channel = new String(pattern);
-        String body = new String(message.getBody());
+        byte[] body = message.getBody();
+        log.info("Evento recibido - Canal: {}", channel);
 
+        EventWrapper eventWrapper;
         try {
-            log.info("Evento recibido - Canal: {}", channel);
-
-            EventWrapper eventWrapper = objectMapper.readValue(body, EventWrapper.class);
-
-            log.info("Procesando evento - Tipo: {}, ID: {}",
-                    eventWrapper.getEventType(), eventWrapper.getEventId());
-
-            switch (eventWrapper.getEventType()) {
-                case "login.success":
-                    handleLoginSuccess(eventWrapper);
-                    break;
-                case "order.new":
-                    handleNewOrder(eventWrapper);
-                    break;
-                case "order.status.change":
-                    handleOrderStatusChange(eventWrapper);
-                    break;
-                case "user.registered":
-                    handleUserRegistered(eventWrapper);
-                    break;
-                case "password.reset.requested":
-                    handlePasswordResetRequested(eventWrapper);
-                    break;
-                case "password.reset.verified":
-                    handlePasswordResetVerified(eventWrapper);
-                    break;
-                case "password.reset.completed":
-                    handlePasswordResetCompleted(eventWrapper);
-                    break;
-                case "payment.completed":
-                    handlePaymentCompleted(eventWrapper);
-                    break;
-                case "payment.failed":
-                    handlePaymentFailed(eventWrapper);
-                    break;
-                default:
-                    log.warn("Tipo de evento no manejado: {}", eventWrapper.getEventType());
-                    handleUnknownEvent(eventWrapper);
-            }
-
-            log.info("Evento procesado - Tipo: {}, ID: {}",
-                    eventWrapper.getEventType(), eventWrapper.getEventId());
-
-        } catch (Exception e) {
-            log.error("Error procesando evento del canal {}: {}", channel, e.getMessage(), e);
-            log.error("Body del evento problemático: {}", body);
+            eventWrapper = eventReader.readValue(body);
+        } catch (IOException e) {
+            log.error("Evento ilegible en el canal {} ({} bytes): {}", channel, body.length, e.getMessage());
+            deadLetterQueue.quarantine(channel, body, e);
+            return;
         }
-    }
-
-    private void handleLoginSuccess(EventWrapper wrapper) {
-        try {
-            LoginEventData data = objectMapper.convertValue(wrapper.getData(), LoginEventData.class);
-
-            LoginEventCommand command = new LoginEventCommand();
-            command.setUserId(data.getUserId());
-            command.setEmail(data.getEmail());
-            command.setName(data.getName());
-            command.setIp(data.getIp());
-
-            eventServicePort.processSuccessfulLogin(command);
-
-            log.info("Notificación de login procesada para: {}", data.getEmail());
-
-        } catch (Exception e) {
-            log.error("Error en handleLoginSuccess: {}", e.getMessage(), e);
+        if (!eventDeduplicator.tryClaim(eventWrapper.getEventId())) {
+            log.info("Evento duplicado descartado - Tipo: {}, ID: {}",
+                    eventWrapper.getEventType(), eventWrapper.getEventId());
+            return;
         }
-    }
 
-    private void handleNewOrder(EventWrapper wrapper) {
         try {
-            OrderEventData data = objectMapper.convertValue(wrapper.getData(), OrderEventData.class);
-
-            NotificationCommand command = new NotificationCommand();
-            command.setUserId(data.getUserId());
-            command.setOrderId(data.getOrderId());
-
-            eventServicePort.processNewOrder(command);
-
-            log.info("Notificación de nueva orden procesada: {}", data.getOrderId());
-
-        } catch (Exception e) {
-            log.error("Error en handleNewOrder: {}", e.getMessage(), e);
+            eventDispatcher.dispatch(partitionKey(eventWrapper), () -> processClaimed(channel, body, eventWrapper));
+        } catch (RuntimeException e) {
+            eventDeduplicator.release(eventWrapper.getEventId());
+            failed(channel, body, eventWrapper, e);
         }
     }
 
-    private void handleOrderStatusChange(EventWrapper wrapper) {
-        try {
-            OrderStatusEventData data = objectMapper.convertValue(wrapper.getData(), OrderStatusEventData.class);
-
-            NotificationCommand command = new NotificationCommand();
-            command.setUserId(data.getUserId());
-            command.setOrderId(data.getOrderId());
-            command.setOrderStatus(data.getNewStatus());
-
-            eventServicePort.processOrderStatusChange(command);
-
-            log.info("Notificación de cambio de estado procesada: {} -> {}",
-                    data.getOldStatus(), data.getNewStatus());
-
-        } catch (Exception e) {
-            log.error("Error en handleOrderStatusChange: {}", e.getMessage(), e);
+    /**
+     * Procesa un evento de forma sincrona en el hilo que llama. Las fallas se propagan para que
+     * ingestas con confirmacion (Redis Streams) solo confirmen eventos ya persistidos.
+     *
+     * @return el eventId reclamado, o null si el evento se descarto como duplicado o no trae id
+     */
+    public String processEvent(byte[] body) throws IOException {
+        EventWrapper eventWrapper = eventReader.readValue(body);
+        if (!eventDeduplicator.tryClaim(eventWrapper.getEventId())) {
+            log.info("Evento duplicado descartado - Tipo: {}, ID: {}",
+                    eventWrapper.getEventType(), eventWrapper.getEventId());
+            return null;
         }
+        routeClaimed(eventWrapper);
+        return eventWrapper.getEventId();
     }
 
-    private void handleUserRegistered(EventWrapper wrapper) {
-        try {
-            UserRegisteredEventData data = objectMapper.convertValue(wrapper.getData(), UserRegisteredEventData.class);
-
-            NotificationCommand command = new NotificationCommand();
-            command.setUserId(data.getUserId());
-            command.setEmail(data.getEmail());
-            command.setName(data.getName());
-
-            log.info("Notificación de registro procesada para: {}", data.getEmail());
-
-        } catch (Exception e) {
-            log.error("Error en handleUserRegistered: {}", e.getMessage(), e);
-        }
+    /**
+     * Libera un evento ya procesado cuyo resultado no llego a persistirse (fallo el flush del
+     * write-behind), para que la reentrega no se descarte como duplicado.
+     */
+    public void releaseClaim(String eventId) {
+        eventDeduplicator.release(eventId);
     }
 
-    private void handlePasswordResetRequested(EventWrapper wrapper) {
+    // Pub/sub no reentrega: lo que falla aqui solo se recupera desde la dead-letter
+    private void processClaimed(String channel, byte[] body, EventWrapper eventWrapper) {
         try {
-            PasswordResetRequestEventData data = objectMapper.convertValue(wrapper.getData(), PasswordResetRequestEventData.class);
-
-            PasswordResetNotificationCommand command = new PasswordResetNotificationCommand();
-            command.setUserId(data.getUserId());
-            command.setEmail(data.getEmail());
-            command.setName(data.getName());
-            command.setVerificationCode(data.getVerificationCode());
-
-            eventServicePort.processPasswordResetRequest(command);
-
-            log.info("Notificación de password reset procesada para: {}", data.getEmail());
-
-        } catch (Exception e) {
-            log.error("Error en handlePasswordResetRequested: {}", e.getMessage(), e);
+            routeClaimed(eventWrapper);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            failed(channel, body, eventWrapper, e);
         }
     }
 
-    private void handlePasswordResetVerified(EventWrapper wrapper) {
-        try {
-            PasswordResetVerifiedEventData data = objectMapper.convertValue(wrapper.getData(), PasswordResetVerifiedEventData.class);
-
-            PasswordResetNotificationCommand command = new PasswordResetNotificationCommand();
-            command.setEmail(data.getEmail());
-            command.setVerificationCode(data.getVerificationCode());
-
-            eventServicePort.processPasswordResetVerified(command);
-
-            log.info("Notificación de password reset verificado para: {}", data.getEmail());
-
-        } catch (Exception e) {
-            log.error("Error en handlePasswordResetVerified: {}", e.getMessage(), e);
-        }
+    private void failed(String channel, byte[] body, EventWrapper eventWrapper, RuntimeException e) {
+        log.error("Error procesando evento {} ({}) del canal {}: {}",
+                eventWrapper.getEventId(), eventWrapper.getEventType(), channel, e.getMessage(), e);
+        deadLetterQueue.deadLetter(channel, body, eventWrapper.getEventId(), eventWrapper.getEventType(), e);
     }
 
-    private void handlePasswordResetCompleted(EventWrapper wrapper) {
+    // Si el procesamiento falla se libera el id para que la reentrega no se tome como duplicado
+    private void routeClaimed(EventWrapper eventWrapper) {
         try {
-            PasswordResetCompletedEventData data = objectMapper.convertValue(wrapper.getData(), PasswordResetCompletedEventData.class);
-
-            PasswordResetNotificationCommand command = new PasswordResetNotificationCommand();
-            command.setUserId(data.getUserId());
-            command.setEmail(data.getEmail());
-            command.setName(data.getName());
-
-            eventServicePort.processPasswordResetCompleted(command);
-
-            log.info("Notificación de password reset completado para: {}", data.getEmail());
-
-        } catch (Exception e) {
-            log.error("Error en handlePasswordResetCompleted: {}", e.getMessage(), e);
+            route(eventWrapper);
+        } catch (RuntimeException e) {
+            eventDeduplicator.release(eventWrapper.getEventId());
+            throw e;
         }
     }
 
+    private void route(EventWrapper eventWrapper) {
+        log.info("Procesando evento - Tipo: {}, ID: {}",
+                eventWrapper.getEventType(), eventWrapper.getEventId());
 
-    private void handlePaymentCompleted(EventWrapper wrapper) {
-        try {
-            PaymentEventData data = objectMapper.convertValue(wrapper.getData(), PaymentEventData.class);
-
-            PaymentCommand command = new PaymentCommand();
-            command.setUserId(data.getClientId());
-            command.setEmail(data.getCustomerEmail()); // Necesitamos agregar este campo
-            command.setName("Cliente"); // Podemos obtenerlo de otra fuente o usar un valor por defecto
-            command.setOrderId(data.getOrderId());
-            command.setAmount(data.getFinalAmount());
-            command.setPaymentStatus("COMPLETED");
-            command.setPaymentMethod(extractPaymentMethod(data.getPaymentMethod()));
-
-            eventServicePort.processPaymentCompleted(command);
-
-            log.info("Notificación de pago completado - Order: {}, Client: {}, Amount: {}",
-                    data.getOrderId(), data.getClientId(), data.getFinalAmount());
-
-        } catch (Exception e) {
-            log.error("Error en handlePaymentCompleted: {}", e.getMessage(), e);
+        if (!handlerRegistry.dispatch(eventWrapper.getEventType(), eventWrapper.getData())) {
+            log.warn("Tipo de evento no manejado: {}", eventWrapper.getEventType());
+            handleUnknownEvent(eventWrapper);
         }
-    }
-
-    private void handlePaymentFailed(EventWrapper wrapper) {
-        try {
-            PaymentEventData data = objectMapper.convertValue(wrapper.getData(), PaymentEventData.class);
-
-            PaymentCommand command = new PaymentCommand();
-            command.setUserId(data.getClientId());
-            command.setEmail(data.getCustomerEmail()); // Necesitamos agregar este campo
-            command.setName("Cliente");
-            command.setOrderId(data.getOrderId());
-            command.setAmount(data.getFinalAmount());
-            command.setPaymentStatus("FAILED");
-            command.setPaymentMethod(extractPaymentMethod(data.getPaymentMethod()));
-
-            eventServicePort.processPaymentFailed(command);
 
-            log.info("Notificación de pago fallido - Order: {}, Client: {}",
-                    data.getOrderId(), data.getClientId());
-
-        } catch (Exception e) {
-            log.error("Error en handlePaymentFailed: {}", e.getMessage(), e);
-        }
+        log.info("Evento procesado - Tipo: {}, ID: {}",
+                eventWrapper.getEventType(), eventWrapper.getEventId());
     }
 
-    // Método auxiliar para extraer el método de pago como String
-    private String extractPaymentMethod(Object paymentMethod) {
-        if (paymentMethod == null) {
-            return "UNKNOWN";
+    // Los eventos de un mismo usuario (o de una misma orden si no hay usuario) se procesan en orden
+    private String partitionKey(EventWrapper wrapper) {
+        if (wrapper.getData() instanceof EventData data) {
+            return data.partitionKey();
         }
-        if (paymentMethod instanceof String) {
-            return (String) paymentMethod;
+        if (!(wrapper.getData() instanceof java.util.Map<?, ?> data)) {
+            return null;
         }
-        // Si es un objeto, intenta extraer el tipo
-        try {
-            return objectMapper.convertValue(paymentMethod, java.util.Map.class)
-                    .getOrDefault("methodType", "UNKNOWN")
-                    .toString();
-        } catch (Exception e) {
-            return paymentMethod.toString();
+        for (String field : PARTITION_KEY_FIELDS) {
+            Object value = data.get(field);
+            if (value != null) {
+                return value.toString();
+            }
         }
+        return null;
     }
 
     private void handleUnknownEvent(EventWrapper wrapper) {
-        log.info("Evento desconocido recibido - Tipo: {}, Datos: {}",
-                wrapper.getEventType(), wrapper.getData());
+        log.info("Evento desconocido recibido - Tipo: {}, ID: {}",
+                wrapper.getEventType(), wrapper.getEventId());
+    }
+
+    /** Datos tipados de un evento; la clave de particion sigue el orden userId, clientId, orderId, email. */
+    public interface EventData {
+        String partitionKey();
+    }
+
+    private static String firstNonNull(String... values) {
+        for (String value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
     }
 
     @lombok.Data
+    @JsonDeserialize(using = EventWrapperDeserializer.class)
     public static class EventWrapper {
         private String eventId;
         private String eventType;
@@ -280,66 +184,101 @@ public class GeneralEventListener implements MessageListener {
     }
 
     @lombok.Data
-    public static class LoginEventData {
+    public static class LoginEventData implements EventData {
         private String email;
         private String userId;
         private String name;
         private String ip;
         private String userAgent;
+
+        @Override
+        public String partitionKey() {
+            return firstNonNull(userId, email);
+        }
     }
 
     @lombok.Data
-    public static class OrderEventData {
+    public static class OrderEventData implements EventData {
         private String orderId;
         private String userId;
         private String customerEmail;
         private Double amount;
         private String currency;
+
+        @Override
+        public String partitionKey() {
+            return firstNonNull(userId, orderId);
+        }
     }
 
     @lombok.Data
-    public static class OrderStatusEventData {
+    public static class OrderStatusEventData implements EventData {
         private String orderId;
         private String userId;
         private String oldStatus;
         private String newStatus;
         private String changedAt;
+
+        @Override
+        public String partitionKey() {
+            return firstNonNull(userId, orderId);
+        }
     }
 
     @lombok.Data
-    public static class UserRegisteredEventData {
+    public static class UserRegisteredEventData implements EventData {
         private String email;
         private String userId;
         private String name;
         private String role;
         private String registrationDate;
+
+        @Override
+        public String partitionKey() {
+            return firstNonNull(userId, email);
+        }
     }
 
     @lombok.Data
-    public static class PasswordResetRequestEventData {
+    public static class PasswordResetRequestEventData implements EventData {
         private String email;
         private String userId;
         private String name;
         private String verificationCode;
+
+        @Override
+        public String partitionKey() {
+            return firstNonNull(userId, email);
+        }
     }
 
     @lombok.Data
-    public static class PasswordResetVerifiedEventData {
+    public static class PasswordResetVerifiedEventData implements EventData {
         private String email;
         private String verificationCode;
+
+        @Override
+        public String partitionKey() {
+            return email;
+        }
     }
 
     @lombok.Data
-    public static class PasswordResetCompletedEventData {
+    public static class PasswordResetCompletedEventData implements EventData {
         private String email;
         private String userId;
         private String name;
         private boolean success;
+
+        @Override
+        public String partitionKey() {
+            return firstNonNull(userId, email);
+        }
     }
 
 
     @lombok.Data
-    public static class PaymentEventData {
+    public static class PaymentEventData implements EventData {
         private String orderId;
         private String clientId;
         private String storeId;
@@ -350,5 +289,10 @@ public class GeneralEventListener implements MessageListener {
         private Object timeStamps;
         private java.util.List<String> appliedPromotions;
         private String customerEmail;
+
+        @Override
+        public String partitionKey() {
+            return firstNonNull(clientId, orderId);
+        }
     }
 }
\ No newline at end of file
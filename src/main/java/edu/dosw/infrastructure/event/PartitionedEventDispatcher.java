@@ -0,0 +1,119 @@
+package edu.dosw.infrastructure.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans events out to N single-threaded partitions. Events sharing a key always land on
+ * the same partition, so they are processed in arrival order while different keys run in
+ * parallel. A full partition queue blocks the caller, pushing back on the Redis listener.
+ * If the partition is stopped or the caller is interrupted while waiting, the event is rejected
+ * with {@link RejectedExecutionException} so the caller can hand it to the dead-letter path.
+ */
+@Slf4j
+public class PartitionedEventDispatcher {
+
+    private final ThreadPoolExecutor[] partitions;
+    private final AtomicInteger unkeyedSequence = new AtomicInteger();
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public PartitionedEventDispatcher(int workers, int queueCapacity, MeterRegistry meterRegistry) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Event dispatcher needs at least one worker");
+        }
+        this.partitions = new ThreadPoolExecutor[workers];
+        for (int i = 0; i < workers; i++) {
+            partitions[i] = newPartition(i, queueCapacity);
+            Gauge.builder("notifications.events.partition.queue.depth", partitions[i], p -> p.getQueue().size())
+                    .description("Events waiting in a dispatcher partition")
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+
+        Gauge.builder("notifications.events.partition.workers", partitions, p -> p.length)
+                .register(meterRegistry);
+        Gauge.builder("notifications.events.partition.queue.capacity", () -> queueCapacity)
+                .register(meterRegistry);
+        this.dispatchedCounter = Counter.builder("notifications.events.dispatched").register(meterRegistry);
+        this.failedCounter = Counter.builder("notifications.events.failed").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("notifications.events.rejected").register(meterRegistry);
+    }
+
+    public void dispatch(String partitionKey, Runnable task) {
+        try {
+            partitions[partitionFor(partitionKey)].execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    log.error("Error procesando evento en la particion de la clave {}: {}", partitionKey, e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+        // Solo cuenta lo que entro en la cola de la particion
+        dispatchedCounter.increment();
+    }
+
+    int partitionFor(String partitionKey) {
+        if (partitionKey == null || partitionKey.isEmpty()) {
+            return Math.floorMod(unkeyedSequence.getAndIncrement(), partitions.length);
+        }
+        return Math.floorMod(partitionKey.hashCode(), partitions.length);
+    }
+
+    public int getWorkerCount() {
+        return partitions.length;
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor partition : partitions) {
+                if (!partition.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Particion de eventos sin drenar, {} eventos descartados",
+                            partition.shutdownNow().size());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadPoolExecutor newPartition(int index, int queueCapacity) {
+        return new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "events-partition-" + index);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Event partition " + index + " is stopped");
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted waiting for space in event partition " + index, e);
+                    }
+                });
+    }
+}
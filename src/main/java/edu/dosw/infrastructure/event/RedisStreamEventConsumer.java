@@ -0,0 +1,283 @@
+package edu.dosw.infrastructure.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.infrastructure.event.deadletter.DeadLetterQueue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ingesta alternativa a {@link GeneralEventListener} basada en grupos de consumidores de Redis Streams.
+ * Cada entrada se confirma (XACK) solo despues de procesarse, asi que lo publicado mientras el pod
+ * reinicia queda pendiente y otra replica lo reclama cuando supera el tiempo de inactividad. Las
+ * entradas venenosas se confirman y pasan a la cuarentena de la dead-letter en vez de perderse.
+ */
+@Slf4j
+public class RedisStreamEventConsumer implements SmartLifecycle {
+
+    public static final String PAYLOAD_FIELD = "payload";
+
+    private final StringRedisTemplate redisTemplate;
+    private final StreamOperations<String, Object, Object> streamOperations;
+    private final GeneralEventListener eventListener;
+    private final NotificationRepositoryPort notificationRepositoryPort;
+    private final DeadLetterQueue deadLetterQueue;
+    private final Settings settings;
+
+    private final Counter ackedCounter;
+    private final Counter failedCounter;
+    private final Counter poisonCounter;
+    private final Counter reclaimedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public RedisStreamEventConsumer(StringRedisTemplate redisTemplate, GeneralEventListener eventListener,
+                                    NotificationRepositoryPort notificationRepositoryPort,
+                                    DeadLetterQueue deadLetterQueue,
+                                    Settings settings, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.streamOperations = redisTemplate.opsForStream();
+        this.eventListener = eventListener;
+        this.notificationRepositoryPort = notificationRepositoryPort;
+        this.deadLetterQueue = deadLetterQueue;
+        this.settings = settings;
+        this.ackedCounter = counter(meterRegistry, "acked");
+        this.failedCounter = counter(meterRegistry, "failed");
+        this.poisonCounter = counter(meterRegistry, "poison");
+        this.reclaimedCounter = counter(meterRegistry, "reclaimed");
+    }
+
+    public void ensureGroup() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands().xGroupCreate(
+                    settings.getStreamKey().getBytes(StandardCharsets.UTF_8),
+                    settings.getGroup(),
+                    ReadOffset.from("0-0"),
+                    true));
+            log.info("Grupo {} creado sobre el stream {}", settings.getGroup(), settings.getStreamKey());
+        } catch (RedisSystemException e) {
+            Throwable cause = e.getMostSpecificCause();
+            if (cause.getMessage() == null || !cause.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /** XREADGROUP de un lote de entradas nuevas para este consumidor. */
+    public int pollOnce() {
+        List<MapRecord<String, Object, Object>> records = streamOperations.read(
+                Consumer.from(settings.getGroup(), settings.getConsumerName()),
+                StreamReadOptions.empty().count(settings.getBatchSize()).block(settings.getBlockTimeout()),
+                StreamOffset.create(settings.getStreamKey(), ReadOffset.lastConsumed()));
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        processBatch(records);
+        return records.size();
+    }
+
+    /** Reclama entradas pendientes de consumidores caidos o atascados mas alla del tiempo minimo de inactividad. */
+    public int reclaimStuck() {
+        PendingMessages pending = streamOperations.pending(
+                settings.getStreamKey(), settings.getGroup(), Range.unbounded(), settings.getBatchSize());
+        if (pending == null || pending.isEmpty()) {
+            return 0;
+        }
+
+        List<RecordId> claimable = new ArrayList<>();
+        List<RecordId> exhausted = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(settings.getClaimMinIdle()) < 0) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() >= settings.getMaxDeliveries()) {
+                exhausted.add(message.getId());
+            } else {
+                claimable.add(message.getId());
+            }
+        }
+
+        if (!exhausted.isEmpty()) {
+            log.error("Moviendo a cuarentena {} eventos del stream {} tras {} entregas fallidas: {}",
+                    exhausted.size(), settings.getStreamKey(), settings.getMaxDeliveries(), exhausted);
+            for (RecordId id : exhausted) {
+                quarantineExhausted(id);
+            }
+            acknowledge(exhausted);
+            poisonCounter.increment(exhausted.size());
+        }
+        if (claimable.isEmpty()) {
+            return 0;
+        }
+
+        List<MapRecord<String, Object, Object>> claimed = streamOperations.claim(
+                settings.getStreamKey(), settings.getGroup(), settings.getConsumerName(),
+                XClaimOptions.minIdle(settings.getClaimMinIdle()).ids(claimable));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        reclaimedCounter.increment(claimed.size());
+        processBatch(claimed);
+        return claimed.size();
+    }
+
+    private void processBatch(List<MapRecord<String, Object, Object>> records) {
+        List<RecordId> processed = new ArrayList<>(records.size());
+        List<String> claimedEventIds = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            Object payload = record.getValue().get(PAYLOAD_FIELD);
+            if (payload == null) {
+                log.warn("Entrada {} del stream sin campo {}, se descarta", record.getId(), PAYLOAD_FIELD);
+                poisonCounter.increment();
+                processed.add(record.getId());
+                continue;
+            }
+            try {
+                String eventId = eventListener.processEvent(payload.toString().getBytes(StandardCharsets.UTF_8));
+                if (eventId != null) {
+                    claimedEventIds.add(eventId);
+                }
+                processed.add(record.getId());
+            } catch (JsonProcessingException e) {
+                log.error("Entrada {} del stream no es JSON valido, pasa a cuarentena: {}", record.getId(), e.getMessage());
+                deadLetterQueue.quarantine(settings.getStreamKey(), payload.toString().getBytes(StandardCharsets.UTF_8), e);
+                poisonCounter.increment();
+                processed.add(record.getId());
+            } catch (Exception e) {
+                // Sin XACK: queda pendiente y se reintenta via reclaimStuck
+                failedCounter.increment();
+                log.error("Error procesando entrada {} del stream: {}", record.getId(), e.getMessage(), e);
+            }
+        }
+        if (processed.isEmpty()) {
+            return;
+        }
+        try {
+            // El lote solo se confirma cuando las notificaciones en write-behind ya estan en Mongo
+            notificationRepositoryPort.flushPendingWrites();
+        } catch (Exception e) {
+            // Sin liberar los ids, la reentrega se tomaria como duplicado y se confirmaria sin persistir
+            claimedEventIds.forEach(eventListener::releaseClaim);
+            failedCounter.increment(processed.size());
+            log.error("No se pudo persistir el lote del stream, {} entradas quedan pendientes: {}",
+                    processed.size(), e.getMessage());
+            return;
+        }
+        acknowledge(processed);
+        ackedCounter.increment(processed.size());
+    }
+
+    // El pending solo trae ids; el cuerpo se relee con XRANGE antes de confirmar la entrada
+    private void quarantineExhausted(RecordId id) {
+        List<MapRecord<String, Object, Object>> records = streamOperations.range(
+                settings.getStreamKey(), Range.closed(id.getValue(), id.getValue()));
+        if (records == null || records.isEmpty() || records.get(0).getValue().get(PAYLOAD_FIELD) == null) {
+            return;
+        }
+        byte[] body = records.get(0).getValue().get(PAYLOAD_FIELD).toString().getBytes(StandardCharsets.UTF_8);
+        deadLetterQueue.quarantine(settings.getStreamKey(), body, new IllegalStateException(
+                "Stream entry " + id.getValue() + " exceeded " + settings.getMaxDeliveries() + " deliveries"));
+    }
+
+    private void acknowledge(List<RecordId> ids) {
+        streamOperations.acknowledge(settings.getStreamKey(), settings.getGroup(), ids.toArray(RecordId[]::new));
+    }
+
+    private void runLoop() {
+        long nextReclaim = 0;
+        while (running) {
+            try {
+                if (System.currentTimeMillis() >= nextReclaim) {
+                    reclaimStuck();
+                    nextReclaim = System.currentTimeMillis() + settings.getClaimInterval().toMillis();
+                }
+                pollOnce();
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Error leyendo el stream {}: {}", settings.getStreamKey(), e.getMessage());
+                sleepQuietly(settings.getErrorBackoff());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        ensureGroup();
+        running = true;
+        worker = new Thread(this::runLoop, "redis-stream-" + settings.getConsumerName());
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Consumidor {} escuchando el stream {} (grupo {})",
+                settings.getConsumerName(), settings.getStreamKey(), settings.getGroup());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(settings.getBlockTimeout().toMillis() + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notifications.events.stream.records")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @lombok.Value
+    @lombok.Builder
+    public static class Settings {
+        String streamKey;
+        String group;
+        String consumerName;
+        int batchSize;
+        Duration blockTimeout;
+        Duration claimMinIdle;
+        Duration claimInterval;
+        int maxDeliveries;
+        @lombok.Builder.Default
+        Duration errorBackoff = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,34 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento que fallo al procesarse. Se guarda el cuerpo original tal como llego para poder
+ * reprocesarlo; eventId y eventType solo estan si el sobre se pudo leer.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class DeadLetterEvent {
+
+    public enum Status {
+        PENDING,
+        QUARANTINED
+    }
+
+    private String id;
+    private String eventId;
+    private String eventType;
+    private String channel;
+    private String payload;
+    private String error;
+    private int attempts;
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime nextAttemptAt;
+}
@@ -0,0 +1,175 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cola de eventos fallidos. Un evento que falla queda pendiente y se reintenta con backoff
+ * exponencial con jitter; al agotar {@code max-attempts} pasa a cuarentena, donde solo sale con un
+ * replay manual. Lo que no se puede ni leer como sobre va directo a cuarentena: reintentarlo no
+ * cambia el resultado.
+ */
+@Slf4j
+@Component
+public class DeadLetterQueue {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final DeadLetterStore store;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public DeadLetterQueue(DeadLetterStore store,
+                           MeterRegistry meterRegistry,
+                           @Value("${notifications.events.dead-letter.max-attempts:5}") int maxAttempts,
+                           @Value("${notifications.events.dead-letter.initial-backoff-ms:30000}") long initialBackoffMs,
+                           @Value("${notifications.events.dead-letter.max-backoff-ms:1800000}") long maxBackoffMs) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+    }
+
+    /**
+     * Registra el primer fallo de un evento; queda pendiente para reintento. Si el propio almacen
+     * falla solo queda el log, sin el cuerpo.
+     */
+    public void deadLetter(String channel, byte[] body, String eventId, String eventType, Exception error) {
+        DeadLetterEvent event = newEntry(channel, body, eventId, eventType, error);
+        event.setStatus(DeadLetterEvent.Status.PENDING);
+        event.setNextAttemptAt(event.getCreatedAt().plus(jitteredBackoff(1)));
+        persist(event);
+    }
+
+    /** Registra un mensaje venenoso (ilegible o sin entregas restantes) directo en cuarentena. */
+    public void quarantine(String channel, byte[] body, Exception error) {
+        DeadLetterEvent event = newEntry(channel, body, null, null, error);
+        event.setStatus(DeadLetterEvent.Status.QUARANTINED);
+        persist(event);
+    }
+
+    /** Registra un reintento fallido: reprograma la entrada o la pasa a cuarentena. */
+    public void retryFailed(DeadLetterEvent event, Exception error, boolean retryable) {
+        LocalDateTime now = LocalDateTime.now();
+        event.setAttempts(event.getAttempts() + 1);
+        event.setError(describe(error));
+        event.setUpdatedAt(now);
+        if (!retryable || event.getAttempts() >= maxAttempts) {
+            event.setStatus(DeadLetterEvent.Status.QUARANTINED);
+            event.setNextAttemptAt(null);
+        } else {
+            event.setNextAttemptAt(now.plus(jitteredBackoff(event.getAttempts())));
+        }
+        persist(event);
+    }
+
+    public void resolved(DeadLetterEvent event) {
+        store.remove(event.getId());
+        count("resolved");
+        log.info("Evento {} ({}) reprocesado tras {} intentos", event.getEventId(), event.getEventType(), event.getAttempts());
+    }
+
+    private static DeadLetterEvent newEntry(String channel, byte[] body, String eventId, String eventType, Exception error) {
+        LocalDateTime now = LocalDateTime.now();
+        return DeadLetterEvent.builder()
+                .id(UUID.randomUUID().toString())
+                .eventId(eventId)
+                .eventType(eventType)
+                .channel(channel)
+                .payload(new String(body, StandardCharsets.UTF_8))
+                .error(describe(error))
+                .attempts(1)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    public List<DeadLetterEvent> claimDue(int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        return store.claimDue(now, now.plus(lease), limit);
+    }
+
+    public List<DeadLetterEvent> list(DeadLetterEvent.Status status, int limit) {
+        return store.findByStatus(status, limit);
+    }
+
+    public boolean replay(String id) {
+        boolean requeued = store.requeue(id, LocalDateTime.now());
+        if (requeued) {
+            count("replayed");
+        }
+        return requeued;
+    }
+
+    public long replayQuarantined() {
+        long requeued = store.requeueQuarantined(LocalDateTime.now());
+        if (requeued > 0) {
+            meterRegistry.counter("notifications.events.dead_letters", "outcome", "replayed").increment(requeued);
+        }
+        return requeued;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    private void persist(DeadLetterEvent event) {
+        try {
+            store.save(event);
+        } catch (Exception e) {
+            count("store_error");
+            log.error("No se pudo guardar el evento fallido {} ({}) del canal {}, {} bytes: {}",
+                    event.getEventId(), event.getEventType(), event.getChannel(), event.getPayload().length(), e.getMessage());
+            return;
+        }
+        if (event.getStatus() == DeadLetterEvent.Status.QUARANTINED) {
+            count("quarantined");
+            log.error("Evento {} ({}) en cuarentena tras {} intentos: {}",
+                    event.getEventId(), event.getEventType(), event.getAttempts(), event.getError());
+        } else {
+            count("queued");
+            log.warn("Evento {} ({}) en dead-letter, intento {} de {}, proximo {}: {}",
+                    event.getEventId(), event.getEventType(), event.getAttempts(), maxAttempts,
+                    event.getNextAttemptAt(), event.getError());
+        }
+    }
+
+    // Jitter uniforme sobre la mitad superior del backoff, igual que los reintentos de email
+    Duration jitteredBackoff(int attempts) {
+        long backoffMs = backoff(attempts).toMillis();
+        long half = backoffMs / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(backoffMs - half + 1));
+    }
+
+    Duration backoff(int attempts) {
+        int exponent = Math.max(0, attempts - 1);
+        if (exponent >= 62 || initialBackoff.toMillis() > (maxBackoff.toMillis() >> exponent)) {
+            return maxBackoff;
+        }
+        return Duration.ofMillis(initialBackoff.toMillis() << exponent);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("notifications.events.dead_letters", "outcome", outcome).increment();
+    }
+
+    private static String describe(Exception error) {
+        String description = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+}
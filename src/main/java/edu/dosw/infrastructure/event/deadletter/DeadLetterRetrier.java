@@ -0,0 +1,86 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.infrastructure.event.GeneralEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reprocesa en segundo plano los eventos de la dead-letter cuyo backoff ya vencio. Una entrada solo
+ * se borra cuando las notificaciones en write-behind que genero ya estan en Mongo.
+ */
+@Slf4j
+@Component
+public class DeadLetterRetrier {
+
+    private final DeadLetterQueue deadLetterQueue;
+    private final GeneralEventListener eventListener;
+    private final NotificationRepositoryPort notificationRepositoryPort;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+
+    public DeadLetterRetrier(DeadLetterQueue deadLetterQueue,
+                             GeneralEventListener eventListener,
+                             NotificationRepositoryPort notificationRepositoryPort,
+                             @Value("${notifications.events.dead-letter.retry.enabled:true}") boolean enabled,
+                             @Value("${notifications.events.dead-letter.retry.batch-size:50}") int batchSize,
+                             @Value("${notifications.events.dead-letter.retry.lease-ms:300000}") long leaseMs) {
+        this.deadLetterQueue = deadLetterQueue;
+        this.eventListener = eventListener;
+        this.notificationRepositoryPort = notificationRepositoryPort;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.events.dead-letter.retry.poll-interval-ms:15000}")
+    public void retryDue() {
+        if (!enabled) {
+            return;
+        }
+        List<DeadLetterEvent> due;
+        try {
+            due = deadLetterQueue.claimDue(batchSize, lease);
+        } catch (Exception e) {
+            log.error("Error reclamando eventos de la dead-letter: {}", e.getMessage());
+            return;
+        }
+        for (DeadLetterEvent event : due) {
+            retry(event);
+        }
+    }
+
+    private void retry(DeadLetterEvent event) {
+        try {
+            String eventId = eventListener.processEvent(event.getPayload().getBytes(StandardCharsets.UTF_8));
+            flush(eventId);
+        } catch (JsonProcessingException e) {
+            deadLetterQueue.retryFailed(event, e, false);
+            return;
+        } catch (Exception e) {
+            deadLetterQueue.retryFailed(event, e, true);
+            return;
+        }
+        deadLetterQueue.resolved(event);
+    }
+
+    // Si el flush falla se libera el id para que el siguiente reintento no lo tome como duplicado
+    private void flush(String eventId) {
+        try {
+            notificationRepositoryPort.flushPendingWrites();
+        } catch (RuntimeException e) {
+            if (eventId != null) {
+                eventListener.releaseClaim(eventId);
+            }
+            throw e;
+        }
+    }
+}
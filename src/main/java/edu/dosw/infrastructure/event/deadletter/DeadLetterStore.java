@@ -0,0 +1,28 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface DeadLetterStore {
+
+    void save(DeadLetterEvent event);
+
+    /**
+     * Reclama hasta {@code limit} entradas pendientes con {@code nextAttemptAt <= now}, moviendo su
+     * proximo intento a {@code leaseUntil} para que otra replica no las tome a la vez.
+     */
+    List<DeadLetterEvent> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+
+    void remove(String id);
+
+    Optional<DeadLetterEvent> findById(String id);
+
+    List<DeadLetterEvent> findByStatus(DeadLetterEvent.Status status, int limit);
+
+    /** Vuelve a dejar pendiente una entrada con el contador de intentos en cero. */
+    boolean requeue(String id, LocalDateTime now);
+
+    /** Vuelve a dejar pendientes todas las entradas en cuarentena; devuelve cuantas se movieron. */
+    long requeueQuarantined(LocalDateTime now);
+}
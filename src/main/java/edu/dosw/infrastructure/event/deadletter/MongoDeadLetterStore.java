@@ -0,0 +1,120 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import edu.dosw.infrastructure.persistence.documents.DeadLetterEventDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class MongoDeadLetterStore implements DeadLetterStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void save(DeadLetterEvent event) {
+        mongoTemplate.save(toDocument(event));
+    }
+
+    // Mismo esquema que el outbox: cada findAndModify mueve nextAttemptAt a la concesion
+    @Override
+    public List<DeadLetterEvent> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        Query query = new Query(Criteria.where("status").is(DeadLetterEvent.Status.PENDING.name())
+                .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update update = new Update().set("nextAttemptAt", leaseUntil);
+        FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true);
+        List<DeadLetterEvent> claimed = new ArrayList<>();
+        while (claimed.size() < limit) {
+            DeadLetterEventDocument document = mongoTemplate.findAndModify(query, update, options, DeadLetterEventDocument.class);
+            if (document == null) {
+                break;
+            }
+            claimed.add(toDomain(document));
+        }
+        return claimed;
+    }
+
+    @Override
+    public void remove(String id) {
+        mongoTemplate.remove(byId(id), DeadLetterEventDocument.class);
+    }
+
+    @Override
+    public Optional<DeadLetterEvent> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, DeadLetterEventDocument.class)).map(this::toDomain);
+    }
+
+    @Override
+    public List<DeadLetterEvent> findByStatus(DeadLetterEvent.Status status, int limit) {
+        Query query = new Query(Criteria.where("status").is(status.name()))
+                .with(Sort.by(Sort.Direction.DESC, "updatedAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, DeadLetterEventDocument.class).stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    public boolean requeue(String id, LocalDateTime now) {
+        return mongoTemplate.updateFirst(byId(id), requeueUpdate(now), DeadLetterEventDocument.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public long requeueQuarantined(LocalDateTime now) {
+        Query query = new Query(Criteria.where("status").is(DeadLetterEvent.Status.QUARANTINED.name()));
+        return mongoTemplate.updateMulti(query, requeueUpdate(now), DeadLetterEventDocument.class).getModifiedCount();
+    }
+
+    private static Update requeueUpdate(LocalDateTime now) {
+        return new Update()
+                .set("status", DeadLetterEvent.Status.PENDING.name())
+                .set("attempts", 0)
+                .set("nextAttemptAt", now)
+                .set("updatedAt", now);
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    private DeadLetterEventDocument toDocument(DeadLetterEvent event) {
+        return DeadLetterEventDocument.builder()
+                .id(event.getId())
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .channel(event.getChannel())
+                .payload(event.getPayload())
+                .error(event.getError())
+                .attempts(event.getAttempts())
+                .status(event.getStatus().name())
+                .createdAt(event.getCreatedAt())
+                .updatedAt(event.getUpdatedAt())
+                .nextAttemptAt(event.getNextAttemptAt())
+                .build();
+    }
+
+    private DeadLetterEvent toDomain(DeadLetterEventDocument document) {
+        return DeadLetterEvent.builder()
+                .id(document.getId())
+                .eventId(document.getEventId())
+                .eventType(document.getEventType())
+                .channel(document.getChannel())
+                .payload(document.getPayload())
+                .error(document.getError())
+                .attempts(document.getAttempts())
+                .status(DeadLetterEvent.Status.valueOf(document.getStatus()))
+                .createdAt(document.getCreatedAt())
+                .updatedAt(document.getUpdatedAt())
+                .nextAttemptAt(document.getNextAttemptAt())
+                .build();
+    }
+}
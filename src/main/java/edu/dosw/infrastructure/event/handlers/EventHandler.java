@@ -0,0 +1,11 @@
+package edu.dosw.infrastructure.event.handlers;
+
+/**
+ * Maneja un tipo de evento. {@link #dataType()} es la clase a la que se enlaza {@code data} al
+ * deserializar, asi el handler recibe el objeto ya tipado.
+ */
+public interface EventHandler<T> {
+    String eventType();
+    Class<T> dataType();
+    void handle(T data);
+}
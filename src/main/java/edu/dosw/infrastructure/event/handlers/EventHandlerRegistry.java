@@ -0,0 +1,105 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabla de handlers por tipo de evento, resuelta una sola vez al arrancar. Cada entrada lleva sus
+ * propias metricas: {@code notifications.events.handled{type}} (conteo y latencia) y
+ * {@code notifications.events.errors{type}}.
+ */
+@Slf4j
+@Component
+public class EventHandlerRegistry {
+
+    private final Map<String, Route<?>> routes;
+    private final Map<String, Class<?>> dataTypes;
+    private final Counter unhandledCounter;
+
+    public EventHandlerRegistry(List<EventHandler<?>> handlers, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        Map<String, Route<?>> routes = new HashMap<>(capacityFor(handlers.size()));
+        Map<String, Class<?>> dataTypes = new HashMap<>(capacityFor(handlers.size()));
+        for (EventHandler<?> handler : handlers) {
+            Route<?> route = new Route<>(handler, objectMapper, meterRegistry);
+            if (routes.putIfAbsent(handler.eventType(), route) != null) {
+                throw new IllegalStateException("Duplicate event handler for type " + handler.eventType());
+            }
+            dataTypes.put(handler.eventType(), handler.dataType());
+        }
+        this.routes = Collections.unmodifiableMap(routes);
+        this.dataTypes = Collections.unmodifiableMap(dataTypes);
+        this.unhandledCounter = Counter.builder("notifications.events.unhandled").register(meterRegistry);
+        log.info("{} handlers de eventos registrados: {}", routes.size(), routes.keySet());
+    }
+
+    /** Clase de {@code data} por tipo de evento, para el deserializador del sobre. */
+    public Map<String, Class<?>> dataTypes() {
+        return dataTypes;
+    }
+
+    /**
+     * Ejecuta el handler del tipo. Devuelve false si no hay handler registrado. Las excepciones del
+     * handler se cuentan y se propagan.
+     */
+    public boolean dispatch(String eventType, Object data) {
+        Route<?> route = eventType != null ? routes.get(eventType) : null;
+        if (route == null) {
+            unhandledCounter.increment();
+            return false;
+        }
+        route.handle(data);
+        return true;
+    }
+
+    // Capacidad inicial para que el mapa no se redimensione con el factor de carga por defecto
+    private static int capacityFor(int entries) {
+        return (int) Math.ceil(entries / 0.75);
+    }
+
+    private static final class Route<T> {
+
+        private final EventHandler<T> handler;
+        private final ObjectMapper objectMapper;
+        private final Timer timer;
+        private final Counter errors;
+
+        private Route(EventHandler<T> handler, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            this.handler = handler;
+            this.objectMapper = objectMapper;
+            this.timer = Timer.builder("notifications.events.handled")
+                    .tag("type", handler.eventType())
+                    .register(meterRegistry);
+            this.errors = Counter.builder("notifications.events.errors")
+                    .tag("type", handler.eventType())
+                    .register(meterRegistry);
+        }
+
+        private void handle(Object data) {
+            long start = System.nanoTime();
+            try {
+                handler.handle(bind(data));
+            } catch (RuntimeException e) {
+                errors.increment();
+                throw e;
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // data ya llega enlazado a su clase; la conversion solo cubre sobres construidos a mano
+        private T bind(Object data) {
+            Class<T> type = handler.dataType();
+            return type.isInstance(data) ? type.cast(data) : objectMapper.convertValue(data, type);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.application.dto.command.LoginEventCommand;
+import edu.dosw.infrastructure.event.GeneralEventListener.LoginEventData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginSuccessEventHandler implements EventHandler<LoginEventData> {
+
+    private final EventServicePort eventServicePort;
+
+    @Override
+    public String eventType() {
+        return "login.success";
+    }
+
+    @Override
+    public Class<LoginEventData> dataType() {
+        return LoginEventData.class;
+    }
+
+    @Override
+    public void handle(LoginEventData data) {
+        LoginEventCommand command = new LoginEventCommand();
+        command.setUserId(data.getUserId());
+        command.setEmail(data.getEmail());
+        command.setName(data.getName());
+        command.setIp(data.getIp());
+
+        eventServicePort.processSuccessfulLogin(command);
+
+        log.info("Notificación de login procesada para: {}", data.getEmail());
+    }
+}
@@ -0,0 +1,37 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.application.dto.command.NotificationCommand;
+import edu.dosw.infrastructure.event.GeneralEventListener.OrderEventData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NewOrderEventHandler implements EventHandler<OrderEventData> {
+
+    private final EventServicePort eventServicePort;
+
+    @Override
+    public String eventType() {
+        return "order.new";
+    }
+
+    @Override
+    public Class<OrderEventData> dataType() {
+        return OrderEventData.class;
+    }
+
+    @Override
+    public void handle(OrderEventData data) {
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId(data.getUserId());
+        command.setOrderId(data.getOrderId());
+
+        eventServicePort.processNewOrder(command);
+
+        log.info("Notificación de nueva orden procesada: {}", data.getOrderId());
+    }
+}
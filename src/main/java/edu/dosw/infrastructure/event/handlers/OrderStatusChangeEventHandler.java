@@ -0,0 +1,39 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.application.dto.command.NotificationCommand;
+import edu.dosw.infrastructure.event.GeneralEventListener.OrderStatusEventData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatusChangeEventHandler implements EventHandler<OrderStatusEventData> {
+
+    private final EventServicePort eventServicePort;
+
+    @Override
+    public String eventType() {
+        return "order.status.change";
+    }
+
+    @Override
+    public Class<OrderStatusEventData> dataType() {
+        return OrderStatusEventData.class;
+    }
+
+    @Override
+    public void handle(OrderStatusEventData data) {
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId(data.getUserId());
+        command.setOrderId(data.getOrderId());
+        command.setOrderStatus(data.getNewStatus());
+
+        eventServicePort.processOrderStatusChange(command);
+
+        log.info("Notificación de cambio de estado procesada: {} -> {}",
+                data.getOldStatus(), data.getNewStatus());
+    }
+}
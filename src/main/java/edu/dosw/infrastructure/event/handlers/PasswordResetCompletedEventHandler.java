@@ -0,0 +1,38 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.application.dto.command.PasswordResetNotificationCommand;
+import edu.dosw.infrastructure.event.GeneralEventListener.PasswordResetCompletedEventData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordResetCompletedEventHandler implements EventHandler<PasswordResetCompletedEventData> {
+
+    private final EventServicePort eventServicePort;
+
+    @Override
+    public String eventType() {
+        return "password.reset.completed";
+    }
+
+    @Override
+    public Class<PasswordResetCompletedEventData> dataType() {
+        return PasswordResetCompletedEventData.class;
+    }
+
+    @Override
+    public void handle(PasswordResetCompletedEventData data) {
+        PasswordResetNotificationCommand command = new PasswordResetNotificationCommand();
+        command.setUserId(data.getUserId());
+        command.setEmail(data.getEmail());
+        command.setName(data.getName());
+
+        eventServicePort.processPasswordResetCompleted(command);
+
+        log.info("Notificación de password reset completado para: {}", data.getEmail());
+    }
+}
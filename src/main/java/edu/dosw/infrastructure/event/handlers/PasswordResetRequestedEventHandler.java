@@ -0,0 +1,39 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.application.dto.command.PasswordResetNotificationCommand;
+import edu.dosw.infrastructure.event.GeneralEventListener.PasswordResetRequestEventData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordResetRequestedEventHandler implements EventHandler<PasswordResetRequestEventData> {
+
+    private final EventServicePort eventServicePort;
+
+    @Override
+    public String eventType() {
+        return "password.reset.requested";
+    }
+
+    @Override
+    public Class<PasswordResetRequestEventData> dataType() {
+        return PasswordResetRequestEventData.class;
+    }
+
+    @Override
+    public void handle(PasswordResetRequestEventData data) {
+        PasswordResetNotificationCommand command = new PasswordResetNotificationCommand();
+        command.setUserId(data.getUserId());
+        command.setEmail(data.getEmail());
+        command.setName(data.getName());
+        command.setVerificationCode(data.getVerificationCode());
+
+        eventServicePort.processPasswordResetRequest(command);
+
+        log.info("Notificación de password reset procesada para: {}", data.getEmail());
+    }
+}
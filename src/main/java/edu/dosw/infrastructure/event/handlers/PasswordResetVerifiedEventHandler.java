@@ -0,0 +1,37 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.application.dto.command.PasswordResetNotificationCommand;
+import edu.dosw.infrastructure.event.GeneralEventListener.PasswordResetVerifiedEventData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordResetVerifiedEventHandler implements EventHandler<PasswordResetVerifiedEventData> {
+
+    private final EventServicePort eventServicePort;
+
+    @Override
+    public String eventType() {
+        return "password.reset.verified";
+    }
+
+    @Override
+    public Class<PasswordResetVerifiedEventData> dataType() {
+        return PasswordResetVerifiedEventData.class;
+    }
+
+    @Override
+    public void handle(PasswordResetVerifiedEventData data) {
+        PasswordResetNotificationCommand command = new PasswordResetNotificationCommand();
+        command.setEmail(data.getEmail());
+        command.setVerificationCode(data.getVerificationCode());
+
+        eventServicePort.processPasswordResetVerified(command);
+
+        log.info("Notificación de password reset verificado para: {}", data.getEmail());
+    }
+}
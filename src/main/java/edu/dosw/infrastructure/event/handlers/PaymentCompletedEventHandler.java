@@ -0,0 +1,29 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.infrastructure.event.GeneralEventListener.PaymentEventData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class PaymentCompletedEventHandler extends PaymentEventHandler {
+
+    public PaymentCompletedEventHandler(EventServicePort eventServicePort, ObjectMapper objectMapper) {
+        super(eventServicePort, objectMapper);
+    }
+
+    @Override
+    public String eventType() {
+        return "payment.completed";
+    }
+
+    @Override
+    public void handle(PaymentEventData data) {
+        eventServicePort.processPaymentCompleted(toCommand(data, "COMPLETED"));
+
+        log.info("Notificación de pago completado - Order: {}, Client: {}, Amount: {}",
+                data.getOrderId(), data.getClientId(), data.getFinalAmount());
+    }
+}
@@ -0,0 +1,55 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.dosw.application.dto.command.PaymentCommand;
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.infrastructure.event.GeneralEventListener.PaymentEventData;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Base de los eventos de pago: ambos comparten el mapeo a {@link PaymentCommand} y solo difieren
+ * en el estado y el caso de uso que invocan.
+ */
+@RequiredArgsConstructor
+abstract class PaymentEventHandler implements EventHandler<PaymentEventData> {
+
+    protected final EventServicePort eventServicePort;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Class<PaymentEventData> dataType() {
+        return PaymentEventData.class;
+    }
+
+    protected PaymentCommand toCommand(PaymentEventData data, String paymentStatus) {
+        PaymentCommand command = new PaymentCommand();
+        command.setUserId(data.getClientId());
+        command.setEmail(data.getCustomerEmail());
+        command.setName("Cliente");
+        command.setOrderId(data.getOrderId());
+        command.setAmount(data.getFinalAmount());
+        command.setPaymentStatus(paymentStatus);
+        command.setPaymentMethod(extractPaymentMethod(data.getPaymentMethod()));
+        return command;
+    }
+
+    // Método auxiliar para extraer el método de pago como String
+    private String extractPaymentMethod(Object paymentMethod) {
+        if (paymentMethod == null) {
+            return "UNKNOWN";
+        }
+        if (paymentMethod instanceof String) {
+            return (String) paymentMethod;
+        }
+        // Si es un objeto, intenta extraer el tipo
+        try {
+            return objectMapper.convertValue(paymentMethod, Map.class)
+                    .getOrDefault("methodType", "UNKNOWN")
+                    .toString();
+        } catch (Exception e) {
+            return paymentMethod.toString();
+        }
+    }
+}
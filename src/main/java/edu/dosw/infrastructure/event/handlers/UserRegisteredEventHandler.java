@@ -0,0 +1,29 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import edu.dosw.infrastructure.event.GeneralEventListener.UserRegisteredEventData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * El registro todavia no genera notificacion; el handler existe para que el evento no se cuente
+ * como no manejado.
+ */
+@Slf4j
+@Component
+public class UserRegisteredEventHandler implements EventHandler<UserRegisteredEventData> {
+
+    @Override
+    public String eventType() {
+        return "user.registered";
+    }
+
+    @Override
+    public Class<UserRegisteredEventData> dataType() {
+        return UserRegisteredEventData.class;
+    }
+
+    @Override
+    public void handle(UserRegisteredEventData data) {
+        log.info("Notificación de registro procesada para: {}", data.getEmail());
+    }
+}
@@ -0,0 +1,96 @@
+package edu.dosw.infrastructure.event.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * Descarta eventos repetidos por eventId antes de despacharlos. Una ventana local acotada resuelve
+ * las reentregas a la misma replica sin salir del proceso; el almacen compartido, si esta
+ * configurado, solo se consulta para ids que la ventana no conoce.
+ */
+@Slf4j
+public class EventDeduplicator {
+
+    private final Cache<String, Boolean> window;
+    private final ProcessedEventStore store;
+
+    private final Counter windowDuplicates;
+    private final Counter storeDuplicates;
+    private final Counter storeErrors;
+
+    /**
+     * @param store almacen compartido entre replicas, o null para deduplicar solo en memoria
+     */
+    public EventDeduplicator(long windowSize, Duration ttl, ProcessedEventStore store, MeterRegistry meterRegistry) {
+        this.window = Caffeine.newBuilder()
+                .maximumSize(windowSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.store = store;
+
+        this.windowDuplicates = Counter.builder("notifications.events.duplicates")
+                .tag("tier", "window")
+                .description("Events dropped because their eventId was already processed")
+                .register(meterRegistry);
+        this.storeDuplicates = Counter.builder("notifications.events.duplicates")
+                .tag("tier", "store")
+                .description("Events dropped because their eventId was already processed")
+                .register(meterRegistry);
+        this.storeErrors = Counter.builder("notifications.events.idempotency.store_errors").register(meterRegistry);
+        Gauge.builder("notifications.events.idempotency.window", window, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reclama el evento para procesarlo. Devuelve false si es un duplicado. Eventos sin id siempre
+     * se procesan. Si el almacen compartido falla se procesa igual: preferimos un duplicado a perder
+     * la notificacion.
+     */
+    public boolean tryClaim(String eventId) {
+        if (eventId == null || eventId.isEmpty()) {
+            return true;
+        }
+        if (window.asMap().putIfAbsent(eventId, Boolean.TRUE) != null) {
+            windowDuplicates.increment();
+            return false;
+        }
+        if (store == null) {
+            return true;
+        }
+        try {
+            if (!store.markIfAbsent(eventId)) {
+                storeDuplicates.increment();
+                return false;
+            }
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("No se pudo consultar el almacen de idempotencia para el evento {}: {}", eventId, e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Libera un evento cuyo procesamiento fallo, para que una reentrega lo procese de nuevo.
+     */
+    public void release(String eventId) {
+        if (eventId == null || eventId.isEmpty()) {
+            return;
+        }
+        window.invalidate(eventId);
+        if (store == null) {
+            return;
+        }
+        try {
+            store.remove(eventId);
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("No se pudo liberar el evento {} en el almacen de idempotencia: {}", eventId, e.getMessage());
+        }
+    }
+}
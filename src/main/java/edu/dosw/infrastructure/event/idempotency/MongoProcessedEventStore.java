@@ -0,0 +1,46 @@
+package edu.dosw.infrastructure.event.idempotency;
+
+import edu.dosw.infrastructure.persistence.documents.ProcessedEventDocument;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * El id del evento es el _id del documento, asi la unicidad la garantiza el indice primario y el
+ * insert falla con clave duplicada. Un indice TTL sobre processedAt limpia los registros viejos.
+ */
+public class MongoProcessedEventStore implements ProcessedEventStore {
+
+    static final String TTL_INDEX = "processed_at_ttl_idx";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoProcessedEventStore(MongoTemplate mongoTemplate, Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        mongoTemplate.indexOps(ProcessedEventDocument.class).ensureIndex(new Index()
+                .on("processedAt", Sort.Direction.ASC)
+                .named(TTL_INDEX)
+                .expire(ttl));
+    }
+
+    @Override
+    public boolean markIfAbsent(String eventId) {
+        try {
+            mongoTemplate.insert(new ProcessedEventDocument(eventId, LocalDateTime.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void remove(String eventId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(eventId)), ProcessedEventDocument.class);
+    }
+}
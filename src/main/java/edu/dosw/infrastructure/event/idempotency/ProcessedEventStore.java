@@ -0,0 +1,9 @@
+package edu.dosw.infrastructure.event.idempotency;
+
+/** Registro compartido de eventos ya procesados, para deduplicar entre replicas. */
+public interface ProcessedEventStore {
+    /** Marca el evento como procesado; devuelve false si ya estaba marcado. */
+    boolean markIfAbsent(String eventId);
+    /** Quita la marca para que una reentrega del evento vuelva a procesarse. */
+    void remove(String eventId);
+}
@@ -0,0 +1,29 @@
+package edu.dosw.infrastructure.event.idempotency;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/** SET NX con TTL: una sola operacion atomica por evento nuevo. */
+public class RedisProcessedEventStore implements ProcessedEventStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final Duration ttl;
+
+    public RedisProcessedEventStore(StringRedisTemplate redisTemplate, String keyPrefix, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean markIfAbsent(String eventId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(keyPrefix + eventId, "1", ttl));
+    }
+
+    @Override
+    public void remove(String eventId) {
+        redisTemplate.delete(keyPrefix + eventId);
+    }
+}
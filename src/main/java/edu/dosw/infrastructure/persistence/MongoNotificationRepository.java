@@ -3,15 +3,43 @@ package edu.dosw.infrastructure.persistence;
 
 import edu.dosw.domain.ports.NotificationRepositoryPort;
 import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.DeliveryAttempt;
+import edu.dosw.domain.model.ValueObject.NotificationCursor;
+import edu.dosw.domain.model.ValueObject.NotificationStats;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.domain.model.ValueObject.ReadReceipt;
+import edu.dosw.infrastructure.persistence.documents.DeliveryAttemptDocument;
 import edu.dosw.infrastructure.persistence.documents.NotificationDocument;
 import edu.dosw.infrastructure.persistence.mappers.NotificationMongoMapper;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Repository
@@ -20,35 +48,189 @@ public class MongoNotificationRepository implements NotificationRepositoryPort {
 
     private final MongoTemplate mongoTemplate;
     private final NotificationMongoMapper notificationMongoMapper;
+    private final NotificationWriteBuffer writeBuffer;
 
     @Override
     public Notification save(Notification notification) {
         NotificationDocument document = notificationMongoMapper.toDocument(notification);
+        if (writeBuffer.isEnabled()) {
+            writeBuffer.add(document);
+            return notification;
+        }
         NotificationDocument saved = mongoTemplate.save(document);
         return notificationMongoMapper.toDomain(saved);
     }
 
+    @Override
+    public List<Notification> saveAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationDocument.class);
+        FindAndReplaceOptions upsert = FindAndReplaceOptions.options().upsert();
+        for (Notification notification : notifications) {
+            NotificationDocument document = notificationMongoMapper.toDocument(notification);
+            bulkOperations.replaceOne(Query.query(Criteria.where("_id").is(document.getId())), document, upsert);
+        }
+        bulkOperations.execute();
+        return notifications;
+    }
+
+    /**
+     * El intento se agrega siempre, pero el estado solo se escribe si la notificacion no esta READ: una
+     * lectura concurrente no se pisa con SENT/FAILED. Devuelve el estado previo solo si se aplico el nuevo.
+     */
+    @Override
+    public Optional<NotificationStatus> appendDeliveryAttempt(String id, DeliveryAttempt attempt, NotificationStatus newStatus, LocalDateTime nextAttemptAt) {
+        DeliveryAttemptDocument attemptDocument = notificationMongoMapper.toDeliveryAttemptDocument(attempt);
+        Optional<String> buffered = writeBuffer.coalesceDeliveryAttempt(id, attemptDocument, newStatus.name(), nextAttemptAt);
+        if (buffered.isPresent()) {
+            return buffered.filter(status -> !NotificationStatus.READ.name().equals(status)).map(NotificationStatus::valueOf);
+        }
+
+        // Un solo findAndModify con pipeline: el intento, el estado (salvo READ) y la fecha del proximo
+        // intento se aplican juntos y se devuelve el estado previo. El literal va ya convertido a BSON
+        Object attemptBson = mongoTemplate.getConverter().convertToMongoType(attemptDocument);
+        AggregationUpdate update = AggregationUpdate.update()
+                .set(SetOperation.set("deliveryAttempts").toValue(ArrayOperators.ConcatArrays
+                                .arrayOf(ConditionalOperators.ifNull("deliveryAttempts").then(List.of()))
+                                .concat(LiteralOperators.Literal.asLiteral(List.of(attemptBson))))
+                        .and().set("status").toValue(ConditionalOperators
+                                .when(ComparisonOperators.valueOf("status").notEqualToValue(NotificationStatus.READ.name()))
+                                .then(newStatus.name())
+                                .otherwiseValueOf("status"))
+                        .and().set("updatedAt").toValue(LocalDateTime.now()));
+        if (nextAttemptAt != null) {
+            update.set("nextAttemptAt").toValue(nextAttemptAt);
+        } else {
+            update.unset("nextAttemptAt");
+        }
+        Query byId = Query.query(Criteria.where("_id").is(id));
+        byId.fields().include("status");
+        NotificationDocument previous = mongoTemplate.findAndModify(byId, update, NotificationDocument.class);
+        return Optional.ofNullable(previous)
+                .map(NotificationDocument::getStatus)
+                .filter(status -> !NotificationStatus.READ.name().equals(status))
+                .map(NotificationStatus::valueOf);
+    }
+
+    /**
+     * Reclama hasta {@code limit} notificaciones vencidas moviendo su nextAttemptAt a {@code leaseUntil}.
+     * Cada findAndModify es atomico, asi que dos replicas nunca reclaman el mismo documento; si el
+     * proceso muere antes de registrar el intento, la notificacion vuelve a vencer al expirar la concesion.
+     */
+    @Override
+    public List<Notification> claimDueEmailRetries(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        Query query = NotificationQueries.dueForRetry(now);
+        Update update = new Update()
+                .set("nextAttemptAt", leaseUntil)
+                .set("updatedAt", now);
+        FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true);
+        List<Notification> claimed = new ArrayList<>();
+        while (claimed.size() < limit) {
+            NotificationDocument document = mongoTemplate.findAndModify(query, update, options, NotificationDocument.class);
+            if (document == null) {
+                break;
+            }
+            claimed.add(notificationMongoMapper.toDomain(document));
+        }
+        return claimed;
+    }
+
+    // findAndModify devuelve el documento previo proyectado a userId y status en el mismo round-trip
+    @Override
+    public Optional<ReadReceipt> markRead(String id) {
+        LocalDateTime readAt = LocalDateTime.now();
+        ReadReceipt[] bufferedReceipt = new ReadReceipt[1];
+        boolean buffered = writeBuffer.coalesce(id, document -> {
+            if (!NotificationStatus.READ.name().equals(document.getStatus())) {
+                bufferedReceipt[0] = new ReadReceipt(id, document.getUserId(),
+                        NotificationStatus.valueOf(document.getStatus()), readAt);
+                document.setStatus(NotificationStatus.READ.name());
+                document.setReadAt(readAt);
+                document.setUpdatedAt(readAt);
+            }
+        });
+        if (buffered) {
+            return Optional.ofNullable(bufferedReceipt[0]);
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(id).and("status").ne(NotificationStatus.READ.name()));
+        query.fields().include("userId").include("status");
+        Update update = new Update()
+                .set("status", NotificationStatus.READ.name())
+                .set("readAt", readAt)
+                .set("updatedAt", readAt);
+        NotificationDocument previous = mongoTemplate.findAndModify(query, update, NotificationDocument.class);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ReadReceipt(id, previous.getUserId(),
+                NotificationStatus.valueOf(previous.getStatus()), readAt));
+    }
+
+    @Override
+    public long markAllRead(String userId) {
+        // Las notificaciones aun en el buffer deben existir en Mongo antes del updateMulti
+        writeBuffer.flush();
+        LocalDateTime readAt = LocalDateTime.now();
+        Query query = NotificationQueries.unreadByUser(userId);
+        Update update = new Update()
+                .set("status", NotificationStatus.READ.name())
+                .set("readAt", readAt)
+                .set("updatedAt", readAt);
+        UpdateResult result = mongoTemplate.updateMulti(query, update, NotificationDocument.class);
+        return result.getModifiedCount();
+    }
+
+    @Override
+    public void flushPendingWrites() {
+        writeBuffer.flush();
+    }
+
     @Override
     public Optional<Notification> findById(String id) {
-        NotificationDocument document = mongoTemplate.findById(id, NotificationDocument.class);
+        Optional<NotificationDocument> buffered = writeBuffer.get(id);
+        if (buffered.isPresent()) {
+            return buffered.map(notificationMongoMapper::toDomain);
+        }
+        NotificationDocument document = mongoTemplate.findOne(
+                NotificationQueries.withoutRenderedEmail(NotificationQueries.byId(id)), NotificationDocument.class);
         return Optional.ofNullable(notificationMongoMapper.toDomain(document));
     }
 
     @Override
     public List<Notification> findByUserId(String userId) {
-        Query query = new Query(Criteria.where("userId").is(userId));
-        query.with(org.springframework.data.domain.Sort.by("createdAt").descending());
-
-        List<NotificationDocument> documents = mongoTemplate.find(query, NotificationDocument.class);
+        List<NotificationDocument> documents = mongoTemplate.find(
+                NotificationQueries.withoutRenderedEmail(NotificationQueries.byUserNewestFirst(userId)), NotificationDocument.class);
         return documents.stream()
                 .map(notificationMongoMapper::toDomain)
                 .collect(Collectors.toList());
     }
 
+    // Keyset sobre (createdAt, _id) descendente: cada pagina es un rango del indice, sin skip
+    @Override
+    public List<Notification> findPageByUserId(String userId, String status, String type,
+                                               NotificationCursor after, int limit) {
+        Query query = NotificationQueries.withoutRenderedEmail(NotificationQueries.page(userId, status, type, after, limit));
+        return mongoTemplate.find(query, NotificationDocument.class).stream()
+                .map(notificationMongoMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    // Mismo keyset en orden ascendente: lo emitido despues del cursor, para reanudar una sesion WebSocket
+    @Override
+    public List<Notification> findByUserIdAfter(String userId, NotificationCursor after, int limit) {
+        Query query = NotificationQueries.withoutRenderedEmail(NotificationQueries.after(userId, after, limit));
+        return mongoTemplate.find(query, NotificationDocument.class).stream()
+                .map(notificationMongoMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Notification> findPendingNotifications() {
-        Query query = new Query(Criteria.where("status").is("PENDING"));
-        List<NotificationDocument> documents = mongoTemplate.find(query, NotificationDocument.class);
+        List<NotificationDocument> documents = mongoTemplate.find(
+                NotificationQueries.withoutRenderedEmail(NotificationQueries.byStatus(NotificationStatus.PENDING.name())), NotificationDocument.class);
         return documents.stream()
                 .map(notificationMongoMapper::toDomain)
                 .collect(Collectors.toList());
@@ -56,13 +238,8 @@ public class MongoNotificationRepository implements NotificationRepositoryPort {
 
     @Override
     public List<Notification> findByUserIdAndStatus(String userId, String status) {
-        Query query = new Query(
-                Criteria.where("userId").is(userId)
-                        .and("status").is(status)
-        );
-        query.with(org.springframework.data.domain.Sort.by("createdAt").descending());
-
-        List<NotificationDocument> documents = mongoTemplate.find(query, NotificationDocument.class);
+        List<NotificationDocument> documents = mongoTemplate.find(
+                NotificationQueries.withoutRenderedEmail(NotificationQueries.byUserAndStatus(userId, status)), NotificationDocument.class);
         return documents.stream()
                 .map(notificationMongoMapper::toDomain)
                 .collect(Collectors.toList());
@@ -70,19 +247,69 @@ public class MongoNotificationRepository implements NotificationRepositoryPort {
 
     @Override
     public boolean existsByUserIdAndType(String userId, String type) {
-        Query query = new Query(
-                Criteria.where("userId").is(userId)
-                        .and("type").is(type)
-        );
-        return mongoTemplate.exists(query, NotificationDocument.class);
+        return mongoTemplate.exists(NotificationQueries.byUserAndType(userId, type), NotificationDocument.class);
     }
 
     @Override
     public long countByUserIdAndStatus(String userId, String status) {
-        Query query = new Query(
-                Criteria.where("userId").is(userId)
-                        .and("status").is(status)
-        );
-        return mongoTemplate.count(query, NotificationDocument.class);
+        return mongoTemplate.count(NotificationQueries.byUserAndStatus(userId, status), NotificationDocument.class);
+    }
+
+    // Incluye las notificaciones aun en el buffer de escritura para no subcontar justo despues de crearlas
+    @Override
+    public long countUnreadByUserId(String userId) {
+        long stored = mongoTemplate.count(NotificationQueries.unreadByUser(userId), NotificationDocument.class);
+        long buffered = writeBuffer.countPending(document -> userId.equals(document.getUserId())
+                && NotificationStatus.valueOf(document.getStatus()).isUnread());
+        return stored + buffered;
+    }
+
+    /**
+     * Una sola agregacion: $match por userId (prefijo de los indices compuestos) y un $facet con los
+     * conteos por estado, tipo y, si se pide, por dia desde dailySince.
+     */
+    @Override
+    public NotificationStats aggregateStatsByUserId(String userId, LocalDateTime dailySince) {
+        FacetOperation facet = Aggregation.facet(Aggregation.group("status").count().as("count")).as("byStatus")
+                .and(Aggregation.group("type").count().as("count")).as("byType");
+        if (dailySince != null) {
+            facet = facet.and(
+                    Aggregation.match(Criteria.where("createdAt").gte(dailySince)),
+                    Aggregation.project().and(DateOperators.DateToString.dateOf("createdAt")
+                            .toString("%Y-%m-%d")
+                            .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId())))
+                            .as("day"),
+                    Aggregation.group("day").count().as("count")).as("byDay");
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(NotificationQueries.byUser(userId)),
+                Aggregation.project("status", "type", "createdAt"),
+                facet);
+
+        Document result = mongoTemplate.aggregate(aggregation, NotificationDocument.class, Document.class)
+                .getUniqueMappedResult();
+        if (result == null) {
+            return new NotificationStats(Map.of(), Map.of(), dailySince != null ? Map.of() : null);
+        }
+
+        Map<LocalDate, Long> byDay = null;
+        if (dailySince != null) {
+            byDay = new TreeMap<>();
+            for (Map.Entry<String, Long> entry : facetCounts(result, "byDay").entrySet()) {
+                byDay.put(LocalDate.parse(entry.getKey()), entry.getValue());
+            }
+        }
+        return new NotificationStats(facetCounts(result, "byStatus"), facetCounts(result, "byType"), byDay);
+    }
+
+    private Map<String, Long> facetCounts(Document result, String facet) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document bucket : result.getList(facet, Document.class, List.of())) {
+            Object key = bucket.get("_id");
+            if (key != null) {
+                counts.put(key.toString(), ((Number) bucket.get("count")).longValue());
+            }
+        }
+        return counts;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package edu.dosw.infrastructure.persistence;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.OutboxMessage;
+import edu.dosw.domain.ports.OutboxPort;
+import edu.dosw.infrastructure.persistence.documents.OutboxDocument;
+import edu.dosw.infrastructure.persistence.mappers.OutboxMongoMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class MongoOutboxRepository implements OutboxPort {
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxMongoMapper outboxMongoMapper;
+    private final NotificationWriteBuffer writeBuffer;
+
+    // Con write-behind los mensajes se escriben en el mismo flush que su notificacion, despues de ella
+    @Override
+    public void append(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<OutboxDocument> documents = messages.stream().map(outboxMongoMapper::toDocument).toList();
+        if (writeBuffer.isEnabled()) {
+            writeBuffer.addOutbox(documents);
+            return;
+        }
+        mongoTemplate.insert(documents, OutboxDocument.class);
+    }
+
+    // Mismo esquema que los reintentos de email: cada findAndModify mueve availableAt a la concesion
+    @Override
+    public List<OutboxMessage> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        Query query = new Query(Criteria.where("availableAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "availableAt"));
+        Update update = new Update()
+                .set("availableAt", leaseUntil)
+                .inc("deliveries", 1);
+        FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true);
+        List<OutboxMessage> claimed = new ArrayList<>();
+        while (claimed.size() < limit) {
+            OutboxDocument document = mongoTemplate.findAndModify(query, update, options, OutboxDocument.class);
+            if (document == null) {
+                break;
+            }
+            claimed.add(outboxMongoMapper.toDomain(document));
+        }
+        return claimed;
+    }
+
+    @Override
+    public void complete(String id) {
+        // Un efecto que termino antes del flush no deja fila que el relay reclame despues
+        if (writeBuffer.removeOutbox(id)) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), OutboxDocument.class);
+    }
+
+    @Override
+    public Set<String> findNotificationsWithPendingEmail(Collection<String> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return Set.of();
+        }
+        Query query = Query.query(Criteria.where("notificationId").in(notificationIds)
+                .and("channel").is(Channel.EMAIL.name()));
+        query.fields().include("notificationId");
+        Set<String> pending = new HashSet<>();
+        for (OutboxDocument document : writeBuffer.findPendingOutbox(document ->
+                Channel.EMAIL.name().equals(document.getChannel()) && notificationIds.contains(document.getNotificationId()))) {
+            pending.add(document.getNotificationId());
+        }
+        for (OutboxDocument document : mongoTemplate.find(query, OutboxDocument.class)) {
+            pending.add(document.getNotificationId());
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,127 @@
+package edu.dosw.infrastructure.persistence;
+
+import com.mongodb.client.FindIterable;
+import edu.dosw.infrastructure.persistence.documents.NotificationDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ejecuta explain() sobre cada forma de {@link NotificationQueries} y reporta planes con COLLSCAN o SORT en
+ * memoria. Tambien elimina los indices de un solo campo que los compuestos de {@link NotificationDocument}
+ * ya cubren.
+ */
+@Slf4j
+@Component
+public class NotificationIndexVerifier {
+
+    static final Set<String> FORBIDDEN_STAGES = Set.of("COLLSCAN", "SORT");
+    static final Set<String> REDUNDANT_SINGLE_FIELD_INDEXES = Set.of("userId", "userEmail", "type", "status", "createdAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean dropRedundant;
+    private final boolean verifyOnStartup;
+    private final boolean failOnViolation;
+
+    public NotificationIndexVerifier(MongoTemplate mongoTemplate,
+                                     @Value("${notifications.persistence.indexes.drop-redundant:false}") boolean dropRedundant,
+                                     @Value("${notifications.persistence.indexes.verify-on-startup:false}") boolean verifyOnStartup,
+                                     @Value("${notifications.persistence.indexes.fail-on-violation:true}") boolean failOnViolation) {
+        this.mongoTemplate = mongoTemplate;
+        this.dropRedundant = dropRedundant;
+        this.verifyOnStartup = verifyOnStartup;
+        this.failOnViolation = failOnViolation;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (dropRedundant) {
+            dropRedundantIndexes();
+        }
+        if (!verifyOnStartup) {
+            return;
+        }
+        Map<String, List<String>> violations = verify();
+        if (violations.isEmpty()) {
+            log.info("Todas las consultas de notificaciones usan indice");
+        } else if (failOnViolation) {
+            throw new IllegalStateException("Notification queries without a usable index: " + violations);
+        } else {
+            log.warn("Consultas de notificaciones sin indice adecuado: {}", violations);
+        }
+    }
+
+    /** Devuelve, por forma de consulta, las etapas prohibidas del plan ganador. */
+    public Map<String, List<String>> verify() {
+        Map<String, List<String>> violations = new LinkedHashMap<>();
+        NotificationQueries.representativeShapes().forEach((name, query) -> {
+            List<String> stages = planViolations(explain(query));
+            if (!stages.isEmpty()) {
+                violations.put(name, stages);
+            }
+        });
+        return violations;
+    }
+
+    public List<String> dropRedundantIndexes() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(NotificationDocument.class);
+        List<String> dropped = new ArrayList<>();
+        for (IndexInfo indexInfo : indexOperations.getIndexInfo()) {
+            List<IndexField> fields = indexInfo.getIndexFields();
+            if (fields.size() == 1 && REDUNDANT_SINGLE_FIELD_INDEXES.contains(fields.get(0).getKey())) {
+                indexOperations.dropIndex(indexInfo.getName());
+                dropped.add(indexInfo.getName());
+            }
+        }
+        if (!dropped.isEmpty()) {
+            log.info("Indices redundantes eliminados de notifications: {}", dropped);
+        }
+        return dropped;
+    }
+
+    private Document explain(Query query) {
+        FindIterable<Document> find = mongoTemplate.getCollection(mongoTemplate.getCollectionName(NotificationDocument.class))
+                .find(query.getQueryObject())
+                .sort(query.getSortObject());
+        if (query.getLimit() > 0) {
+            find.limit(query.getLimit());
+        }
+        return find.explain();
+    }
+
+    static List<String> planViolations(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        List<String> stages = new ArrayList<>();
+        if (queryPlanner != null) {
+            collectStages(queryPlanner.get("winningPlan"), stages);
+        }
+        return stages.stream().filter(FORBIDDEN_STAGES::contains).distinct().toList();
+    }
+
+    // Recorre inputStage/inputStages y el queryPlan de SBE sin depender de la version del servidor
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
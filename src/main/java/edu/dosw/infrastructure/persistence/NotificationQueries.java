@@ -0,0 +1,110 @@
+package edu.dosw.infrastructure.persistence;
+
+import edu.dosw.domain.model.ValueObject.NotificationCursor;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formas de consulta sobre la coleccion de notificaciones. El repositorio y {@link NotificationIndexVerifier}
+ * usan las mismas, asi cada filtro/orden nuevo queda cubierto por la verificacion de indices.
+ */
+final class NotificationQueries {
+
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+    static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "createdAt", "_id");
+
+    // El email renderizado (HTML completo) solo lo usa el reintento de email
+    private static final String[] RENDERED_EMAIL_FIELDS = {"emailTo", "emailSubject", "emailBody", "emailHtml"};
+
+    private NotificationQueries() {
+    }
+
+    static Criteria byUser(String userId) {
+        return Criteria.where("userId").is(userId);
+    }
+
+    /** Proyeccion de las lecturas de bandeja, REST y replay: todo menos el email renderizado. */
+    static Query withoutRenderedEmail(Query query) {
+        query.fields().exclude(RENDERED_EMAIL_FIELDS);
+        return query;
+    }
+
+    static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    static Query byUserNewestFirst(String userId) {
+        return new Query(byUser(userId)).with(NEWEST_FIRST);
+    }
+
+    static Query page(String userId, String status, String type, NotificationCursor after, int limit) {
+        Criteria criteria = byUser(userId);
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (type != null) {
+            criteria.and("type").is(type);
+        }
+        if (after != null) {
+            criteria.orOperator(
+                    Criteria.where("createdAt").lt(after.getCreatedAt()),
+                    Criteria.where("createdAt").is(after.getCreatedAt()).and("_id").lt(after.getId()));
+        }
+        return new Query(criteria).with(NEWEST_FIRST).limit(limit);
+    }
+
+    // Rango posterior al cursor en orden de emision; user_created_idx se recorre hacia atras
+    static Query after(String userId, NotificationCursor after, int limit) {
+        Criteria criteria = byUser(userId).orOperator(
+                Criteria.where("createdAt").gt(after.getCreatedAt()),
+                Criteria.where("createdAt").is(after.getCreatedAt()).and("_id").gt(after.getId()));
+        return new Query(criteria).with(OLDEST_FIRST).limit(limit);
+    }
+
+    static Query byStatus(String status) {
+        return new Query(Criteria.where("status").is(status));
+    }
+
+    static Query byUserAndStatus(String userId, String status) {
+        return new Query(byUser(userId).and("status").is(status)).with(NEWEST_FIRST);
+    }
+
+    static Query byUserAndType(String userId, String type) {
+        return new Query(byUser(userId).and("type").is(type));
+    }
+
+    static Query unreadByUser(String userId) {
+        return new Query(byUser(userId)
+                .and("status").in(NotificationStatus.PENDING.name(), NotificationStatus.SENT.name()));
+    }
+
+    // Igualdad sobre status y rango sobre nextAttemptAt, que tambien es el orden: status_next_attempt_idx
+    static Query dueForRetry(LocalDateTime now) {
+        return new Query(Criteria.where("status").in(NotificationStatus.PENDING.name(), NotificationStatus.FAILED.name())
+                .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+    }
+
+    /** Una instancia con valores de ejemplo de cada forma usada por el repositorio. */
+    static Map<String, Query> representativeShapes() {
+        NotificationCursor cursor = new NotificationCursor(LocalDateTime.now(), "sample-id");
+        Map<String, Query> shapes = new LinkedHashMap<>();
+        shapes.put("byUser", byUserNewestFirst("sample-user"));
+        shapes.put("page", page("sample-user", null, null, cursor, 51));
+        shapes.put("pageByStatus", page("sample-user", NotificationStatus.SENT.name(), null, cursor, 51));
+        shapes.put("pageByType", page("sample-user", null, "ORDER_CONFIRMED", cursor, 51));
+        shapes.put("after", after("sample-user", cursor, 101));
+        shapes.put("pending", byStatus(NotificationStatus.PENDING.name()));
+        shapes.put("byUserAndStatus", byUserAndStatus("sample-user", NotificationStatus.SENT.name()));
+        shapes.put("byUserAndType", byUserAndType("sample-user", "ORDER_CONFIRMED"));
+        shapes.put("unreadByUser", unreadByUser("sample-user"));
+        shapes.put("dueForRetry", dueForRetry(LocalDateTime.now()));
+        return shapes;
+    }
+}
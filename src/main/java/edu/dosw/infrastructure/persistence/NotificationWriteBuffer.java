@@ -0,0 +1,252 @@
+package edu.dosw.infrastructure.persistence;
+
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.infrastructure.persistence.documents.DeliveryAttemptDocument;
+import edu.dosw.infrastructure.persistence.documents.NotificationDocument;
+import edu.dosw.infrastructure.persistence.documents.OutboxDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind de notificaciones nuevas. Los documentos se acumulan por id y se escriben con un solo
+ * BulkOperations cuando se alcanza el tamano de lote o vence el intervalo. Las actualizaciones que
+ * llegan antes del flush (intentos de entrega) se fusionan en el documento pendiente. Los mensajes
+ * del outbox viajan en el mismo flush, despues de las notificaciones, para que un mensaje escrito
+ * siempre encuentre su notificacion en Mongo.
+ */
+@Slf4j
+@Component
+public class NotificationWriteBuffer {
+
+    private static final String READ = NotificationStatus.READ.name();
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPending;
+
+    private final Map<String, NotificationDocument> pending = new LinkedHashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final Map<String, OutboxDocument> pendingOutbox = new LinkedHashMap<>();
+    private final Set<String> outboxInFlight = new HashSet<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter flushedCounter;
+    private final Counter coalescedCounter;
+    private final Timer flushTimer;
+
+    public NotificationWriteBuffer(MongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${notifications.persistence.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${notifications.persistence.write-behind.batch-size:100}") int batchSize,
+                                   @Value("${notifications.persistence.write-behind.max-pending:10000}") int maxPending) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+
+        Gauge.builder("notifications.persistence.write_behind.pending", this, NotificationWriteBuffer::size)
+                .description("Notifications buffered and not yet written to Mongo")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("notifications.persistence.write_behind.flushed").register(meterRegistry);
+        this.coalescedCounter = Counter.builder("notifications.persistence.write_behind.coalesced").register(meterRegistry);
+        this.flushTimer = Timer.builder("notifications.persistence.write_behind.flush").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(NotificationDocument document) {
+        int size;
+        synchronized (this) {
+            if (pending.size() >= maxPending) {
+                throw new IllegalStateException("Write-behind buffer full (" + maxPending + " pending notifications)");
+            }
+            pending.put(document.getId(), document);
+            size = pending.size();
+        }
+        if (size >= batchSize) {
+            flushQuietly();
+        }
+    }
+
+    public synchronized Optional<NotificationDocument> get(String id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    /**
+     * Agrega el intento al documento pendiente. El estado solo cambia si el usuario no la leyo
+     * mientras tanto. Devuelve el estado previo, o vacio si el documento no esta en el buffer.
+     */
+    public Optional<String> coalesceDeliveryAttempt(String id, DeliveryAttemptDocument attempt, String status, LocalDateTime nextAttemptAt) {
+        String[] previousStatus = new String[1];
+        boolean coalesced = coalesce(id, document -> {
+            previousStatus[0] = document.getStatus();
+            document.getDeliveryAttempts().add(attempt);
+            if (!READ.equals(document.getStatus())) {
+                document.setStatus(status);
+            }
+            document.setNextAttemptAt(nextAttemptAt);
+            document.setUpdatedAt(LocalDateTime.now());
+        });
+        return coalesced ? Optional.of(previousStatus[0]) : Optional.empty();
+    }
+
+    /**
+     * Aplica la actualizacion sobre el documento pendiente. Devuelve false si el documento ya no
+     * esta en el buffer; si esta en un lote en vuelo espera a que termine para que el update dirigido
+     * que haga el llamador encuentre el documento.
+     */
+    public boolean coalesce(String id, Consumer<NotificationDocument> mutation) {
+        while (true) {
+            synchronized (this) {
+                NotificationDocument document = pending.get(id);
+                if (document != null) {
+                    mutation.accept(document);
+                    coalescedCounter.increment();
+                    return true;
+                }
+                if (!inFlight.contains(id)) {
+                    return false;
+                }
+            }
+            // Si el lote falla el documento vuelve a pending y no esta en Mongo: se revisa de nuevo
+            flushLock.lock();
+            flushLock.unlock();
+        }
+    }
+
+    public synchronized void addOutbox(List<OutboxDocument> documents) {
+        documents.forEach(document -> pendingOutbox.put(document.getId(), document));
+    }
+
+    /**
+     * Quita un mensaje del outbox que aun no se escribio. Devuelve false si no esta en el buffer; si
+     * esta en un lote en vuelo espera a que termine, asi el delete que haga el llamador lo encuentra.
+     */
+    public boolean removeOutbox(String id) {
+        while (true) {
+            synchronized (this) {
+                if (pendingOutbox.remove(id) != null) {
+                    return true;
+                }
+                if (!outboxInFlight.contains(id)) {
+                    return false;
+                }
+            }
+            flushLock.lock();
+            flushLock.unlock();
+        }
+    }
+
+    public synchronized List<OutboxDocument> findPendingOutbox(Predicate<OutboxDocument> filter) {
+        return pendingOutbox.values().stream().filter(filter).toList();
+    }
+
+    public synchronized long countPending(Predicate<NotificationDocument> filter) {
+        return pending.values().stream().filter(filter).count();
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.persistence.write-behind.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flushQuietly();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushQuietly();
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<NotificationDocument> batch;
+            List<OutboxDocument> outboxBatch;
+            synchronized (this) {
+                if (pending.isEmpty() && pendingOutbox.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                batch.forEach(document -> inFlight.add(document.getId()));
+                outboxBatch = new ArrayList<>(pendingOutbox.values());
+                pendingOutbox.clear();
+                outboxBatch.forEach(document -> outboxInFlight.add(document.getId()));
+            }
+
+            try {
+                flushTimer.record(() -> {
+                    write(batch, NotificationDocument.class, NotificationDocument::getId);
+                    write(outboxBatch, OutboxDocument.class, OutboxDocument::getId);
+                });
+                flushedCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    batch.forEach(document -> pending.putIfAbsent(document.getId(), document));
+                    outboxBatch.forEach(document -> pendingOutbox.putIfAbsent(document.getId(), document));
+                }
+                throw e;
+            } finally {
+                synchronized (this) {
+                    batch.forEach(document -> inFlight.remove(document.getId()));
+                    outboxBatch.forEach(document -> outboxInFlight.remove(document.getId()));
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Error writing buffered notifications, will retry on next flush: {}", e.getMessage());
+        }
+    }
+
+    // replaceOne con upsert es idempotente: reintentar un lote parcialmente escrito no duplica documentos
+    private <T> void write(List<T> batch, Class<T> type, Function<T, String> idOf) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        FindAndReplaceOptions upsert = FindAndReplaceOptions.options().upsert();
+        for (T document : batch) {
+            bulkOperations.replaceOne(Query.query(Criteria.where("_id").is(idOf.apply(document))), document, upsert);
+        }
+        bulkOperations.execute();
+    }
+}
@@ -4,40 +4,49 @@ import edu.dosw.infrastructure.persistence.documents.DeliveryAttemptDocument;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 @Data
 @Document(collection = "notifications")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_created_idx", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_status_created_idx", def = "{'userId': 1, 'status': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_type_created_idx", def = "{'userId': 1, 'type': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_created_idx", def = "{'status': 1, 'createdAt': 1}"),
+        @CompoundIndex(name = "status_next_attempt_idx", def = "{'status': 1, 'nextAttemptAt': 1}")
+})
 public class NotificationDocument {
     @Id
     private String id;
 
-    @Indexed
     private String userId;
 
-    @Indexed
     private String userEmail;    // ← NUEVO CAMPO
 
     private String title;
     private String message;
 
-    @Indexed
     private String type;
 
-    @Indexed
     private String status;
 
     private List<String> channels;
     private List<DeliveryAttemptDocument> deliveryAttempts;
 
-    @Indexed
     private LocalDateTime createdAt;
 
     private LocalDateTime readAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime nextAttemptAt;
     private String metadata;
+
+    private String emailTo;
+    private String emailSubject;
+    private String emailBody;
+    private boolean emailHtml;
     private Map<String, Object> additionalData;
 }
\ No newline at end of file
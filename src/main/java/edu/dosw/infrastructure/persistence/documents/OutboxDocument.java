@@ -0,0 +1,30 @@
+package edu.dosw.infrastructure.persistence.documents;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "notification_outbox")
+public class OutboxDocument {
+    @Id
+    private String id;
+
+    @Indexed(name = "notification_idx")
+    private String notificationId;
+    private String userId;
+    private String channel;
+
+    private String emailTo;
+    private String emailSubject;
+    private String emailBody;
+    private boolean emailHtml;
+
+    private int deliveries;
+    private LocalDateTime createdAt;
+
+    @Indexed(name = "available_at_idx")
+    private LocalDateTime availableAt;
+}
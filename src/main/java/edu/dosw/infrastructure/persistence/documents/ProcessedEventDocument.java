@@ -0,0 +1,19 @@
+package edu.dosw.infrastructure.persistence.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "processed_events")
+public class ProcessedEventDocument {
+    @Id
+    private String id;
+
+    private LocalDateTime processedAt;
+}
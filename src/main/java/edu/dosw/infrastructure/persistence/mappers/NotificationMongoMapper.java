@@ -32,6 +32,14 @@ public class NotificationMongoMapper {
         document.setCreatedAt(notification.getCreatedAt());
         document.setReadAt(notification.getReadAt());
         document.setMetadata(notification.getMetadata());
+        document.setNextAttemptAt(notification.getNextAttemptAt());
+        EmailMessage email = notification.getRenderedEmail();
+        if (email != null) {
+            document.setEmailTo(email.getTo());
+            document.setEmailSubject(email.getSubject());
+            document.setEmailBody(email.getBody());
+            document.setEmailHtml(email.isHtml());
+        }
         return document;
     }
 
@@ -57,10 +65,15 @@ public class NotificationMongoMapper {
                 .createdAt(document.getCreatedAt())
                 .readAt(document.getReadAt())
                 .metadata(document.getMetadata())
+                .nextAttemptAt(document.getNextAttemptAt())
+                .renderedEmail(document.getEmailTo() != null
+                        ? new EmailMessage(document.getEmailTo(), document.getEmailSubject(),
+                                document.getEmailBody(), document.isEmailHtml())
+                        : null)
                 .build();
     }
 
-    private DeliveryAttemptDocument toDeliveryAttemptDocument(DeliveryAttempt attempt) {
+    public DeliveryAttemptDocument toDeliveryAttemptDocument(DeliveryAttempt attempt) {
         return new DeliveryAttemptDocument(
                 attempt.getChannel().name(),
                 attempt.isSuccessful(),
@@ -0,0 +1,54 @@
+package edu.dosw.infrastructure.persistence.mappers;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.OutboxMessage;
+import edu.dosw.infrastructure.persistence.documents.OutboxDocument;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxMongoMapper {
+
+    public OutboxDocument toDocument(OutboxMessage message) {
+        if (message == null) {
+            return null;
+        }
+
+        OutboxDocument document = new OutboxDocument();
+        document.setId(message.getId());
+        document.setNotificationId(message.getNotificationId());
+        document.setUserId(message.getUserId());
+        document.setChannel(message.getChannel().name());
+        EmailMessage email = message.getEmail();
+        if (email != null) {
+            document.setEmailTo(email.getTo());
+            document.setEmailSubject(email.getSubject());
+            document.setEmailBody(email.getBody());
+            document.setEmailHtml(email.isHtml());
+        }
+        document.setDeliveries(message.getDeliveries());
+        document.setCreatedAt(message.getCreatedAt());
+        document.setAvailableAt(message.getAvailableAt());
+        return document;
+    }
+
+    public OutboxMessage toDomain(OutboxDocument document) {
+        if (document == null) {
+            return null;
+        }
+
+        return OutboxMessage.builder()
+                .id(document.getId())
+                .notificationId(document.getNotificationId())
+                .userId(document.getUserId())
+                .channel(Channel.valueOf(document.getChannel()))
+                .email(document.getEmailTo() != null
+                        ? new EmailMessage(document.getEmailTo(), document.getEmailSubject(),
+                                document.getEmailBody(), document.isEmailHtml())
+                        : null)
+                .deliveries(document.getDeliveries())
+                .createdAt(document.getCreatedAt())
+                .availableAt(document.getAvailableAt())
+                .build();
+    }
+}
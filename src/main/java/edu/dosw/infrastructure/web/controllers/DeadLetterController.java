@@ -0,0 +1,96 @@
+package edu.dosw.infrastructure.web.controllers;
+
+import edu.dosw.infrastructure.event.deadletter.DeadLetterEvent;
+import edu.dosw.infrastructure.event.deadletter.DeadLetterQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Administracion de la dead-letter de eventos. El listado no expone el cuerpo del evento; el replay
+ * solo reprograma las entradas y el reintento lo hace el proceso de fondo.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterController {
+
+    static final int MAX_LIMIT = 500;
+
+    private final DeadLetterQueue deadLetterQueue;
+
+    @GetMapping
+    public ResponseEntity<List<DeadLetterView>> list(
+            @RequestParam(defaultValue = "QUARANTINED") String status,
+            @RequestParam(defaultValue = "50") int limit) {
+        DeadLetterEvent.Status parsedStatus;
+        try {
+            parsedStatus = DeadLetterEvent.Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(deadLetterQueue.list(parsedStatus, limit).stream().map(DeadLetterView::of).toList());
+        } catch (Exception e) {
+            log.error("Error listing dead letters: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<Map<String, String>> replay(@PathVariable String id) {
+        try {
+            if (!deadLetterQueue.replay(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            log.info("Dead letter {} requeued for replay", id);
+            return ResponseEntity.accepted().body(Map.of("message", "Dead letter requeued"));
+        } catch (Exception e) {
+            log.error("Error replaying dead letter {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to replay dead letter"));
+        }
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replayQuarantined() {
+        try {
+            long requeued = deadLetterQueue.replayQuarantined();
+            log.info("{} quarantined dead letters requeued for replay", requeued);
+            return ResponseEntity.accepted().body(Map.of("requeued", requeued));
+        } catch (Exception e) {
+            log.error("Error replaying quarantined dead letters: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to replay dead letters"));
+        }
+    }
+
+    @lombok.Value
+    public static class DeadLetterView {
+        String id;
+        String eventId;
+        String eventType;
+        String channel;
+        String error;
+        int attempts;
+        String status;
+        int payloadSize;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+        LocalDateTime nextAttemptAt;
+
+        static DeadLetterView of(DeadLetterEvent event) {
+            return new DeadLetterView(event.getId(), event.getEventId(), event.getEventType(), event.getChannel(),
+                    event.getError(), event.getAttempts(), event.getStatus().name(),
+                    event.getPayload() != null ? event.getPayload().length() : 0,
+                    event.getCreatedAt(), event.getUpdatedAt(), event.getNextAttemptAt());
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package edu.dosw.infrastructure.web.controllers;
 
 import edu.dosw.application.ports.NotificationQueryPort;
+import edu.dosw.application.dto.query.NotificationPageResponse;
 import edu.dosw.application.dto.query.NotificationResponse;
+import edu.dosw.application.dto.query.NotificationStatsResponse;
 import edu.dosw.infrastructure.web.mappers.NotificationWebMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +19,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_STATS_DAYS = 366;
+
     private final NotificationQueryPort notificationQueryPort;
     private final NotificationWebMapper notificationWebMapper;
 
@@ -23,23 +29,19 @@ public class NotificationController {
     public ResponseEntity<List<NotificationResponse>> getUserNotifications(
             @PathVariable String userId,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String type) {
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<NotificationResponse> notifications = notificationQueryPort.getByUserId(userId);
-
-            if (status != null && !status.isEmpty()) {
-                notifications = notifications.stream()
-                        .filter(notification -> notification.getStatus().equalsIgnoreCase(status))
-                        .toList();
-            }
+            NotificationPageResponse page = notificationQueryPort.getPageByUserId(userId, status, type, cursor, limit);
 
-            if (type != null && !type.isEmpty()) {
-                notifications = notifications.stream()
-                        .filter(notification -> notification.getType().equalsIgnoreCase(type))
-                        .toList();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
             }
-
-            return ResponseEntity.ok(notifications);
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -56,6 +58,16 @@ public class NotificationController {
         }
     }
 
+    @GetMapping("/user/{userId}/unread/count")
+    public ResponseEntity<Map<String, Object>> getUnreadCount(@PathVariable String userId) {
+        try {
+            long unreadCount = notificationQueryPort.getUnreadCount(userId);
+            return ResponseEntity.ok(Map.of("userId", userId, "unreadCount", unreadCount));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<NotificationResponse> getNotification(@PathVariable String id) {
         try {
@@ -77,6 +89,17 @@ public class NotificationController {
         }
     }
 
+    @PutMapping("/user/{userId}/read-all")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@PathVariable String userId) {
+        try {
+            long updated = notificationQueryPort.markAllAsRead(userId);
+            return ResponseEntity.ok(Map.of("userId", userId, "markedAsRead", updated));
+        } catch (Exception e) {
+            log.error("Error marking notifications as read for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable String id) {
         try {
@@ -87,24 +110,25 @@ public class NotificationController {
     }
 
     @GetMapping("/stats/user/{userId}")
-    public ResponseEntity<Object> getUserNotificationStats(@PathVariable String userId) {
+    public ResponseEntity<Object> getUserNotificationStats(
+            @PathVariable String userId,
+            @RequestParam(required = false) Integer days) {
+        if (days != null && (days < 1 || days > MAX_STATS_DAYS)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<NotificationResponse> notifications = notificationQueryPort.getByUserId(userId);
-
-            long total = notifications.size();
-            long unread = notifications.stream()
-                    .filter(n -> "SENT".equals(n.getStatus()) || "PENDING".equals(n.getStatus()))
-                    .count();
-            long read = notifications.stream()
-                    .filter(n -> "READ".equals(n.getStatus()))
-                    .count();
-
-            Map<String, Object> stats = Map.of(
-                    "totalNotifications", total,
-                    "unreadNotifications", unread,
-                    "readNotifications", read,
-                    "userId", userId
-            );
+            NotificationStatsResponse summary = notificationQueryPort.getStatsByUserId(userId, days);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("totalNotifications", summary.getTotalNotifications());
+            stats.put("unreadNotifications", summary.getUnreadNotifications());
+            stats.put("readNotifications", summary.getReadNotifications());
+            stats.put("userId", userId);
+            stats.put("byStatus", summary.getByStatus());
+            stats.put("byType", summary.getByType());
+            if (summary.getByDay() != null) {
+                stats.put("byDay", summary.getByDay());
+            }
 
             return ResponseEntity.ok().body(stats);
 
@@ -1,10 +1,14 @@
 package edu.dosw.infrastructure.web.controllers;
 
+import edu.dosw.application.ports.NotificationQueryPort;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
+import edu.dosw.infrastructure.websocket.WebSocketFanout;
+import edu.dosw.infrastructure.websocket.WebSocketFrameEncoder;
+import edu.dosw.infrastructure.websocket.replay.NotificationReplayer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -14,19 +18,44 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class WebSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketFanout webSocketFanout;
+    private final WebSocketFrameEncoder frameEncoder;
+    private final NotificationQueryPort notificationQueryPort;
+    private final NotificationReplayer notificationReplayer;
+    private final WebSocketEmitterPort webSocketEmitterPort;
 
+    /**
+     * Con {@code lastSeenId} el cliente reanuda: las notificaciones posteriores se reenvian a su topic
+     * como frames normales (puede recibir alguna repetida, se deduplica por id). Si el hueco es
+     * demasiado grande la respuesta lleva {@code resyncRequired} y el cliente recarga por REST.
+     */
     @MessageMapping("/notifications.subscribe")
     @SendTo("/topic/notifications.status")
     public Map<String, Object> handleSubscription(Map<String, Object> message) {
         String userId = (String) message.get("userId");
+        String lastSeenId = (String) message.get("lastSeenId");
         log.info("User {} subscribed to notifications", userId);
 
+        int replayed = 0;
+        boolean resyncRequired = false;
+        if (lastSeenId != null && !lastSeenId.isBlank()) {
+            NotificationReplayer.Replay replay = notificationReplayer.missedSince(userId, lastSeenId);
+            if (!replay.getNotifications().isEmpty()) {
+                webSocketEmitterPort.emitBatchNotifications(replay.getNotifications());
+            }
+            replayed = replay.getNotifications().size();
+            resyncRequired = replay.isResyncRequired();
+            log.info("User {} resumed after {}: {} notifications replayed, resync required: {}",
+                    userId, lastSeenId, replayed, resyncRequired);
+        }
+
         return Map.of(
                 "type", "SUBSCRIPTION_CONFIRMED",
                 "userId", userId,
                 "timestamp", LocalDateTime.now(),
-                "message", "Successfully subscribed to notifications"
+                "message", "Successfully subscribed to notifications",
+                "replayed", replayed,
+                "resyncRequired", resyncRequired
         );
     }
 
@@ -37,14 +66,16 @@ public class WebSocketController {
 
         log.info("User {} marked notification {} as read via WebSocket", userId, notificationId);
 
-        // Aquí podrías integrar con el servicio para marcar como leída
-        messagingTemplate.convertAndSend("/topic/notifications/" + userId,
-                Map.of(
+        // El servicio emite el frame UNREAD_COUNT con el contador actualizado; la confirmacion
+        // llega tambien a las sesiones del usuario en otras replicas
+        notificationQueryPort.markAsRead(notificationId);
+        webSocketFanout.sendToUser(userId, "/topic/notifications/" + userId,
+                () -> frameEncoder.encode(Map.of(
                         "type", "NOTIFICATION_READ",
                         "notificationId", notificationId,
                         "userId", userId,
                         "timestamp", LocalDateTime.now()
-                )
+                ))
         );
     }
 
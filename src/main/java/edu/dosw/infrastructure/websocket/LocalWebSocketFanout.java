@@ -0,0 +1,31 @@
+package edu.dosw.infrastructure.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.function.Supplier;
+
+/** Modo de una sola replica: el broker en memoria de esta JVM tiene todas las sesiones. */
+@RequiredArgsConstructor
+public class LocalWebSocketFanout implements WebSocketFanout {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    @Override
+    public boolean isUserOnline(String userId) {
+        return sessionRegistry.isUserConnected(userId);
+    }
+
+    @Override
+    public void sendToUser(String userId, String destination, Supplier<byte[]> frame) {
+        if (sessionRegistry.isUserConnected(userId)) {
+            messagingTemplate.send(destination, WebSocketFrames.json(frame.get()));
+        }
+    }
+
+    @Override
+    public void sendToAll(String destination, byte[] frame) {
+        messagingTemplate.send(destination, WebSocketFrames.json(frame));
+    }
+}
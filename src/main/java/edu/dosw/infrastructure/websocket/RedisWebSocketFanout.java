@@ -0,0 +1,297 @@
+package edu.dosw.infrastructure.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Fan-out entre replicas sobre Redis pub/sub. Cada usuario cae en uno de {@code shards} canales
+ * segun el hash de su id, y una replica solo esta suscrita a los shards donde tiene usuarios
+ * conectados. La presencia de cada usuario es un SET de Redis con los ids de las replicas que tienen
+ * sesiones suyas; con TTL para que una replica caida no deje usuarios fantasma.
+ * <p>
+ * Un frame de usuario solo sale a Redis si el usuario tiene sesiones en otra replica: sin presencia
+ * no se serializa nada y si solo esta conectado aqui se entrega al broker local directamente.
+ * El mensaje publicado es {@code userId \n destino \n json}, asi el receptor reenvia el JSON sin
+ * volver a leerlo.
+ */
+@Slf4j
+public class RedisWebSocketFanout implements WebSocketFanout, WebSocketSessionRegistry.PresenceListener, MessageListener {
+
+    private static final byte SEPARATOR = '\n';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final Settings settings;
+
+    private final ChannelTopic[] shardTopics;
+    private final int[] shardUsers;
+    private final boolean[] shardSubscribed;
+    private final ChannelTopic globalTopic;
+
+    private final Counter publishedCounter;
+    private final Counter localCounter;
+    private final Counter offlineCounter;
+    private final Counter deliveredCounter;
+    private final Counter ignoredCounter;
+
+    public RedisWebSocketFanout(StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                SimpMessagingTemplate messagingTemplate,
+                                WebSocketSessionRegistry sessionRegistry,
+                                Settings settings,
+                                MeterRegistry meterRegistry) {
+        if (settings.getShards() <= 0) {
+            throw new IllegalArgumentException("shards must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.messagingTemplate = messagingTemplate;
+        this.sessionRegistry = sessionRegistry;
+        this.settings = settings;
+        this.shardTopics = new ChannelTopic[settings.getShards()];
+        for (int i = 0; i < shardTopics.length; i++) {
+            shardTopics[i] = new ChannelTopic(settings.getKeyPrefix() + "shard:" + i);
+        }
+        this.shardUsers = new int[settings.getShards()];
+        this.shardSubscribed = new boolean[settings.getShards()];
+        this.globalTopic = new ChannelTopic(settings.getKeyPrefix() + "global");
+        this.publishedCounter = frames(meterRegistry, "published");
+        this.localCounter = frames(meterRegistry, "local");
+        this.offlineCounter = frames(meterRegistry, "offline");
+        this.deliveredCounter = frames(meterRegistry, "delivered");
+        this.ignoredCounter = frames(meterRegistry, "ignored");
+
+        listenerContainer.addMessageListener(this, globalTopic);
+        sessionRegistry.addPresenceListener(this);
+    }
+
+    @Override
+    public boolean isUserOnline(String userId) {
+        if (sessionRegistry.isUserConnected(userId)) {
+            return true;
+        }
+        return userId != null && Boolean.TRUE.equals(redisTemplate.hasKey(presenceKey(userId)));
+    }
+
+    @Override
+    public void sendToUser(String userId, String destination, Supplier<byte[]> frame) {
+        Set<String> nodes = redisTemplate.opsForSet().members(presenceKey(userId));
+        if (nodes == null || nodes.isEmpty()) {
+            offlineCounter.increment();
+            return;
+        }
+        byte[] json = frame.get();
+        if (nodes.size() == 1 && nodes.contains(settings.getNodeId())) {
+            deliverLocally(destination, json);
+            localCounter.increment();
+            return;
+        }
+        publish(shardTopics[shardOf(userId)], encode(userId, destination, json));
+    }
+
+    @Override
+    public void sendToAll(String destination, byte[] frame) {
+        publish(globalTopic, encode("", destination, frame));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        byte[] body = message.getBody();
+        int first = indexOf(body, 0);
+        int second = first < 0 ? -1 : indexOf(body, first + 1);
+        if (second < 0) {
+            log.warn("Frame de relay WebSocket malformado en {}", new String(message.getChannel(), StandardCharsets.UTF_8));
+            return;
+        }
+        String userId = new String(body, 0, first, StandardCharsets.UTF_8);
+        // Otra replica tambien tiene sesiones de este shard; solo se entrega a usuarios conectados aqui
+        if (!userId.isEmpty() && !sessionRegistry.isUserConnected(userId)) {
+            ignoredCounter.increment();
+            return;
+        }
+        String destination = new String(body, first + 1, second - first - 1, StandardCharsets.UTF_8);
+        deliverLocally(destination, Arrays.copyOfRange(body, second + 1, body.length));
+        deliveredCounter.increment();
+    }
+
+    @Override
+    public void userConnected(String userId) {
+        if (sessionRegistry.isUserConnected(userId)) {
+            markPresent(userId);
+        }
+        updateShard(shardOf(userId), 1);
+    }
+
+    @Override
+    public void userDisconnected(String userId) {
+        updateShard(shardOf(userId), -1);
+        if (!sessionRegistry.isUserConnected(userId)) {
+            try {
+                redisTemplate.opsForSet().remove(presenceKey(userId), settings.getNodeId());
+            } catch (Exception e) {
+                log.warn("No se pudo retirar la presencia de {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Renueva el TTL de la presencia de todos los usuarios locales y recalcula las suscripciones por
+     * shard desde el registro, corrigiendo avisos de presencia que hayan llegado desordenados.
+     */
+    @Scheduled(fixedDelayString = "${notifications.websocket.relay.heartbeat-ms:30000}")
+    public void refreshPresence() {
+        Set<String> users = sessionRegistry.getConnectedUsers();
+        int[] counts = new int[shardTopics.length];
+        for (String userId : users) {
+            counts[shardOf(userId)]++;
+        }
+        synchronized (shardUsers) {
+            for (int shard = 0; shard < counts.length; shard++) {
+                shardUsers[shard] = counts[shard];
+                syncSubscription(shard);
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            long ttlSeconds = settings.getPresenceTtl().toSeconds();
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                for (String userId : users) {
+                    commands.sAdd(presenceKey(userId), settings.getNodeId());
+                    commands.expire(presenceKey(userId), ttlSeconds);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("No se pudo renovar la presencia de {} usuarios: {}", users.size(), e.getMessage());
+        }
+    }
+
+    /** Retira esta replica de la presencia de sus usuarios para no esperar al TTL. */
+    public void shutdown() {
+        Set<String> users = sessionRegistry.getConnectedUsers();
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                for (String userId : users) {
+                    commands.sRem(presenceKey(userId), settings.getNodeId());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("No se pudo retirar la presencia al detener la replica: {}", e.getMessage());
+        }
+    }
+
+    int shardOf(String userId) {
+        return Math.floorMod(userId.hashCode(), shardTopics.length);
+    }
+
+    boolean isSubscribed(int shard) {
+        synchronized (shardUsers) {
+            return shardSubscribed[shard];
+        }
+    }
+
+    private void markPresent(String userId) {
+        try {
+            redisTemplate.opsForSet().add(presenceKey(userId), settings.getNodeId());
+            redisTemplate.expire(presenceKey(userId), settings.getPresenceTtl());
+        } catch (Exception e) {
+            log.warn("No se pudo registrar la presencia de {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void updateShard(int shard, int delta) {
+        synchronized (shardUsers) {
+            shardUsers[shard] = Math.max(0, shardUsers[shard] + delta);
+            syncSubscription(shard);
+        }
+    }
+
+    private void syncSubscription(int shard) {
+        boolean wanted = shardUsers[shard] > 0;
+        if (wanted == shardSubscribed[shard]) {
+            return;
+        }
+        if (wanted) {
+            listenerContainer.addMessageListener(this, shardTopics[shard]);
+        } else {
+            listenerContainer.removeMessageListener(this, shardTopics[shard]);
+        }
+        shardSubscribed[shard] = wanted;
+    }
+
+    private void deliverLocally(String destination, byte[] json) {
+        messagingTemplate.send(destination, WebSocketFrames.json(json));
+    }
+
+    private void publish(ChannelTopic topic, byte[] message) {
+        redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.publish(topic.getTopic().getBytes(StandardCharsets.UTF_8), message));
+        publishedCounter.increment();
+    }
+
+    private String presenceKey(String userId) {
+        return settings.getKeyPrefix() + "presence:" + userId;
+    }
+
+    private static byte[] encode(String userId, String destination, byte[] json) {
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] target = destination.getBytes(StandardCharsets.UTF_8);
+        byte[] message = new byte[user.length + target.length + json.length + 2];
+        System.arraycopy(user, 0, message, 0, user.length);
+        message[user.length] = SEPARATOR;
+        System.arraycopy(target, 0, message, user.length + 1, target.length);
+        message[user.length + 1 + target.length] = SEPARATOR;
+        System.arraycopy(json, 0, message, user.length + target.length + 2, json.length);
+        return message;
+    }
+
+    private static int indexOf(byte[] body, int from) {
+        for (int i = from; i < body.length; i++) {
+            if (body[i] == SEPARATOR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Counter frames(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notifications.websocket.relay.frames")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @lombok.Value
+    @lombok.Builder
+    public static class Settings {
+        String nodeId;
+        String keyPrefix;
+        int shards;
+        Duration presenceTtl;
+    }
+}
@@ -0,0 +1,47 @@
+package edu.dosw.infrastructure.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Decorador del handler STOMP que expone las sesiones expulsadas por superar el limite de buffer o de
+ * tiempo de envio. Spring cierra esas sesiones con {@link CloseStatus#SESSION_NOT_RELIABLE}; el
+ * contador sale de las estadisticas del {@link SubProtocolWebSocketHandler}.
+ */
+@Slf4j
+public class SlowConsumerMonitor extends WebSocketHandlerDecorator {
+
+    private final Counter transportErrorCounter;
+
+    public SlowConsumerMonitor(WebSocketHandler delegate, MeterRegistry meterRegistry) {
+        super(delegate);
+        if (getLastHandler() instanceof SubProtocolWebSocketHandler subProtocolHandler) {
+            FunctionCounter.builder("notifications.websocket.evictions", subProtocolHandler,
+                            handler -> handler.getStats().getLimitExceededSessions())
+                    .description("Sessions closed because they exceeded the send buffer or send time limit")
+                    .register(meterRegistry);
+        }
+        this.transportErrorCounter = Counter.builder("notifications.websocket.transport_errors").register(meterRegistry);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        transportErrorCounter.increment();
+        super.handleTransportError(session, exception);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+            log.warn("WebSocket session {} evicted as slow consumer", session.getId());
+        }
+        super.afterConnectionClosed(session, closeStatus);
+    }
+}
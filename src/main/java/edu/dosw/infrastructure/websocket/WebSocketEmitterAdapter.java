@@ -2,34 +2,92 @@ package edu.dosw.infrastructure.websocket;
 
 import edu.dosw.domain.ports.WebSocketEmitterPort;
 import edu.dosw.domain.model.Notification;
-import lombok.RequiredArgsConstructor;
+import edu.dosw.infrastructure.websocket.replay.RecentNotificationBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Emite los frames de notificacion por el fan-out. Con la coalescencia activa, las notificaciones y
+ * contadores de un mismo usuario se acumulan durante una ventana corta y salen como un solo frame
+ * {@code NOTIFICATION_BATCH} (troceado a {@code max-frame-size}) seguido del ultimo contador.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class WebSocketEmitterAdapter implements WebSocketEmitterPort {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final String USER_DESTINATION = "/topic/notifications/";
+    private static final String GLOBAL_DESTINATION = "/topic/notifications";
+
+    private final WebSocketFanout fanout;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final WebSocketFrameEncoder frameEncoder;
+    private final RecentNotificationBuffer recentNotifications;
+    private final boolean coalesce;
+    private final int maxFrameSize;
+
+    private final Object lock = new Object();
+    private Map<String, PendingFrames> pending = new LinkedHashMap<>();
+
+    private final Counter framesCounter;
+    private final Counter coalescedCounter;
+
+    public WebSocketEmitterAdapter(WebSocketFanout fanout,
+                                   WebSocketSessionRegistry sessionRegistry,
+                                   WebSocketFrameEncoder frameEncoder,
+                                   RecentNotificationBuffer recentNotifications,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${notifications.websocket.coalesce.enabled:true}") boolean coalesce,
+                                   @Value("${notifications.websocket.coalesce.max-frame-size:50}") int maxFrameSize) {
+        if (maxFrameSize <= 0) {
+            throw new IllegalArgumentException("maxFrameSize must be positive");
+        }
+        this.fanout = fanout;
+        this.sessionRegistry = sessionRegistry;
+        this.frameEncoder = frameEncoder;
+        this.recentNotifications = recentNotifications;
+        this.coalesce = coalesce;
+        this.maxFrameSize = maxFrameSize;
+        this.framesCounter = Counter.builder("notifications.websocket.frames").register(meterRegistry);
+        this.coalescedCounter = Counter.builder("notifications.websocket.coalesced").register(meterRegistry);
+    }
 
     @Override
     public void emitUserNotification(String userId, Notification notification) {
-        try {
-            String destination = "/topic/notifications/" + userId;
-            messagingTemplate.convertAndSend(destination, toWebSocketMessage(notification));
-            log.info("WebSocket notification sent to user: {}", userId);
-        } catch (Exception e) {
-            log.error("Error sending WebSocket notification to user {}: {}", userId, e.getMessage());
+        if (!coalesce) {
+            sendNotifications(userId, List.of(notification), LocalDateTime.now());
+            return;
+        }
+        PendingFrames full = null;
+        synchronized (lock) {
+            PendingFrames frames = pending.computeIfAbsent(userId, id -> new PendingFrames());
+            frames.notifications.add(notification);
+            // Un frame lleno sale ya, sin esperar a la ventana
+            if (frames.notifications.size() >= maxFrameSize) {
+                full = pending.remove(userId);
+            }
+        }
+        if (full != null) {
+            send(userId, full, LocalDateTime.now());
         }
     }
 
     @Override
     public void emitGlobalNotification(Notification notification) {
         try {
-            messagingTemplate.convertAndSend("/topic/notifications", toWebSocketMessage(notification));
+            // Un solo JSON compartido por todas las sesiones y replicas suscritas al topic global
+            fanout.sendToAll(GLOBAL_DESTINATION, frameEncoder.encode(toWebSocketMessage(notification, LocalDateTime.now())));
+            framesCounter.increment();
             log.info("Global WebSocket notification sent");
         } catch (Exception e) {
             log.error("Error sending global WebSocket notification: {}", e.getMessage());
@@ -38,27 +96,125 @@ public class WebSocketEmitterAdapter implements WebSocketEmitterPort {
 
     @Override
     public void emitBatchNotifications(List<Notification> notifications) {
-        try {
-            for (Notification notification : notifications) {
-                emitUserNotification(notification.getUserId(), notification);
+        Map<String, List<Notification>> byUser = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            byUser.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>()).add(notification);
+        }
+        LocalDateTime timestamp = LocalDateTime.now();
+        byUser.forEach((userId, userNotifications) -> sendNotifications(userId, userNotifications, timestamp));
+        log.info("Batch of {} WebSocket notifications dispatched to {} users", notifications.size(), byUser.size());
+    }
+
+    // El contador es absoluto: dentro de la ventana solo importa el ultimo y sale despues de las notificaciones
+    @Override
+    public void emitUnreadCount(String userId, long unreadCount) {
+        if (!coalesce) {
+            sendUnreadCount(userId, unreadCount, LocalDateTime.now());
+            return;
+        }
+        synchronized (lock) {
+            pending.computeIfAbsent(userId, id -> new PendingFrames()).unreadCount = unreadCount;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.websocket.coalesce.window-ms:50}", scheduler = "frameFlushScheduler")
+    public void scheduledFlush() {
+        if (coalesce) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        Map<String, PendingFrames> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
             }
-            log.info("Batch of {} WebSocket notifications sent", notifications.size());
-        } catch (Exception e) {
-            log.error("Error sending batch WebSocket notifications: {}", e.getMessage());
+            batch = pending;
+            pending = new LinkedHashMap<>();
         }
+        LocalDateTime timestamp = LocalDateTime.now();
+        batch.forEach((userId, frames) -> send(userId, frames, timestamp));
+    }
+
+    @Override
+    public void retainForResume(Notification notification) {
+        recentNotifications.record(notification);
     }
 
     @Override
     public boolean isUserConnected(String userId) {
-        return false;
+        return fanout.isUserOnline(userId);
     }
 
     @Override
+    // Usuarios con sesiones en esta instancia
     public int getConnectedUsersCount() {
-        return 0;
+        return sessionRegistry.getConnectedUsersCount();
+    }
+
+    public int pendingUsers() {
+        synchronized (lock) {
+            return pending.size();
+        }
     }
 
-    private WebSocketMessage toWebSocketMessage(Notification notification) {
+    private void send(String userId, PendingFrames frames, LocalDateTime timestamp) {
+        if (!frames.notifications.isEmpty()) {
+            sendNotifications(userId, frames.notifications, timestamp);
+        }
+        if (frames.unreadCount != null) {
+            sendUnreadCount(userId, frames.unreadCount, timestamp);
+        }
+    }
+
+    // El fan-out solo serializa el frame si el usuario tiene sesiones abiertas en alguna replica
+    private void sendNotifications(String userId, List<Notification> notifications, LocalDateTime timestamp) {
+        for (int from = 0; from < notifications.size(); from += maxFrameSize) {
+            List<Notification> chunk = notifications.subList(from, Math.min(from + maxFrameSize, notifications.size()));
+            try {
+                fanout.sendToUser(userId, USER_DESTINATION + userId, () -> frameEncoder.encode(chunk.size() == 1
+                        ? toWebSocketMessage(chunk.get(0), timestamp)
+                        : toBatchMessage(userId, chunk, timestamp)));
+                framesCounter.increment();
+                coalescedCounter.increment(chunk.size() - 1);
+                log.debug("WebSocket frame with {} notifications dispatched for user: {}", chunk.size(), userId);
+            } catch (Exception e) {
+                log.error("Error sending WebSocket notification to user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private void sendUnreadCount(String userId, long unreadCount, LocalDateTime timestamp) {
+        try {
+            fanout.sendToUser(userId, USER_DESTINATION + userId, () -> frameEncoder.encode(UnreadCountMessage.builder()
+                    .type("UNREAD_COUNT")
+                    .userId(userId)
+                    .unreadCount(unreadCount)
+                    .timestamp(timestamp)
+                    .build()));
+            framesCounter.increment();
+            log.debug("Unread count {} dispatched for user: {}", unreadCount, userId);
+        } catch (Exception e) {
+            log.error("Error sending unread count to user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private BatchMessage toBatchMessage(String userId, List<Notification> notifications, LocalDateTime timestamp) {
+        List<WebSocketMessage> messages = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            messages.add(toWebSocketMessage(notification, timestamp));
+        }
+        return BatchMessage.builder()
+                .type("NOTIFICATION_BATCH")
+                .userId(userId)
+                .notifications(messages)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private WebSocketMessage toWebSocketMessage(Notification notification, LocalDateTime timestamp) {
         return WebSocketMessage.builder()
                 .id(notification.getId().getValue())
                 .type("NOTIFICATION")
@@ -69,7 +225,7 @@ public class WebSocketEmitterAdapter implements WebSocketEmitterPort {
                 .status(notification.getStatus().name())
                 .createdAt(notification.getCreatedAt())
                 .metadata(notification.getMetadata())
-                .timestamp(java.time.LocalDateTime.now())
+                .timestamp(timestamp)
                 .build();
     }
 
@@ -83,8 +239,31 @@ public class WebSocketEmitterAdapter implements WebSocketEmitterPort {
         private String message;
         private String notificationType;
         private String status;
-        private java.time.LocalDateTime createdAt;
-        private java.time.LocalDateTime timestamp;
+        private LocalDateTime createdAt;
+        private LocalDateTime timestamp;
         private String metadata;
     }
-}
\ No newline at end of file
+
+    @lombok.Data
+    @lombok.Builder
+    private static class BatchMessage {
+        private String type;
+        private String userId;
+        private List<WebSocketMessage> notifications;
+        private LocalDateTime timestamp;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    private static class UnreadCountMessage {
+        private String type;
+        private String userId;
+        private long unreadCount;
+        private LocalDateTime timestamp;
+    }
+
+    private static class PendingFrames {
+        private final List<Notification> notifications = new ArrayList<>();
+        private Long unreadCount;
+    }
+}
@@ -0,0 +1,17 @@
+package edu.dosw.infrastructure.websocket;
+
+import java.util.function.Supplier;
+
+/**
+ * Entrega de frames STOMP a los usuarios, esten conectados a esta instancia o a otra replica.
+ * Los frames llegan ya serializados a JSON; el de un usuario se pide con un {@link Supplier} para no
+ * serializar nada si el usuario no tiene sesiones abiertas.
+ */
+public interface WebSocketFanout {
+
+    boolean isUserOnline(String userId);
+
+    void sendToUser(String userId, String destination, Supplier<byte[]> frame);
+
+    void sendToAll(String destination, byte[] frame);
+}
@@ -0,0 +1,25 @@
+package edu.dosw.infrastructure.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializa los payloads WebSocket a JSON una sola vez; los bytes resultantes se comparten entre todos
+ * los destinos y replicas que reciben el frame, sin pasar de nuevo por los convertidores de mensajes.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketFrameEncoder {
+
+    private final ObjectMapper objectMapper;
+
+    public byte[] encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("WebSocket payload is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package edu.dosw.infrastructure.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Frames ya serializados a JSON. Se envian con {@code SimpMessagingTemplate#send}, que no pasa por
+ * los convertidores, asi el broker reenvia los bytes tal cual.
+ */
+public final class WebSocketFrames {
+
+    private WebSocketFrames() {
+    }
+
+    public static Message<byte[]> json(byte[] body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,167 @@
+package edu.dosw.infrastructure.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sesiones STOMP por usuario, alimentado por los eventos de conexion, suscripcion y desconexion.
+ * Un usuario cuenta como conectado mientras alguna sesion este suscrita a
+ * {@code /topic/notifications/<userId>}. Los cambios usan {@code compute} sobre mapas concurrentes,
+ * asi que solo se serializan operaciones sobre el mismo usuario o la misma sesion.
+ */
+@Slf4j
+@Component
+public class WebSocketSessionRegistry {
+
+    static final String USER_TOPIC_PREFIX = "/topic/notifications/";
+
+    // userId -> sesiones suscritas a su topico
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    // sessionId -> (subscriptionId -> userId)
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+    private final List<PresenceListener> presenceListeners = new CopyOnWriteArrayList<>();
+
+    public WebSocketSessionRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("notifications.websocket.sessions", subscriptionsBySession, Map::size)
+                .description("Open STOMP sessions on this instance")
+                .register(meterRegistry);
+        Gauge.builder("notifications.websocket.users", sessionsByUser, Map::size)
+                .description("Users with at least one session subscribed to their topic")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (sessionId != null) {
+            subscriptionsBySession.putIfAbsent(sessionId, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscribed(accessor.getSessionId(), accessor.getSubscriptionId(), userIdOf(accessor.getDestination()));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        unsubscribed(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnected(event.getSessionId());
+    }
+
+    /**
+     * Avisa cuando un usuario pasa a tener su primera sesion o pierde la ultima. Los avisos se
+     * entregan fuera de los mapas, asi que dos avisos del mismo usuario pueden llegar desordenados:
+     * el listener debe confirmar el estado con {@link #isUserConnected}.
+     */
+    public void addPresenceListener(PresenceListener listener) {
+        presenceListeners.add(listener);
+    }
+
+    public boolean isUserConnected(String userId) {
+        return userId != null && sessionsByUser.containsKey(userId);
+    }
+
+    public int getConnectedUsersCount() {
+        return sessionsByUser.size();
+    }
+
+    public int getSessionCount() {
+        return subscriptionsBySession.size();
+    }
+
+    public Set<String> getConnectedUsers() {
+        return Set.copyOf(sessionsByUser.keySet());
+    }
+
+    void subscribed(String sessionId, String subscriptionId, String userId) {
+        if (sessionId == null || subscriptionId == null || userId == null) {
+            return;
+        }
+        subscriptionsBySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, userId);
+        boolean[] firstSession = new boolean[1];
+        sessionsByUser.compute(userId, (id, sessions) -> {
+            firstSession[0] = sessions == null;
+            Set<String> updated = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            updated.add(sessionId);
+            return updated;
+        });
+        log.debug("Sesion {} suscrita a las notificaciones de {}", sessionId, userId);
+        if (firstSession[0]) {
+            presenceListeners.forEach(listener -> listener.userConnected(userId));
+        }
+    }
+
+    void unsubscribed(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        Map<String, String> subscriptions = subscriptionsBySession.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String userId = subscriptions.remove(subscriptionId);
+        // La sesion sigue asociada al usuario si tiene otra suscripcion a su mismo topico
+        if (userId != null && !subscriptions.containsValue(userId)) {
+            removeSession(userId, sessionId);
+        }
+    }
+
+    void disconnected(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Map<String, String> subscriptions = subscriptionsBySession.remove(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        for (String userId : Set.copyOf(subscriptions.values())) {
+            removeSession(userId, sessionId);
+        }
+    }
+
+    private void removeSession(String userId, String sessionId) {
+        boolean[] lastSession = new boolean[1];
+        sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            lastSession[0] = sessions.isEmpty();
+            return lastSession[0] ? null : sessions;
+        });
+        if (lastSession[0]) {
+            presenceListeners.forEach(listener -> listener.userDisconnected(userId));
+        }
+    }
+
+    static String userIdOf(String destination) {
+        if (destination == null || !destination.startsWith(USER_TOPIC_PREFIX)) {
+            return null;
+        }
+        String userId = destination.substring(USER_TOPIC_PREFIX.length());
+        return userId.isEmpty() || userId.indexOf('/') >= 0 ? null : userId;
+    }
+
+    public interface PresenceListener {
+        void userConnected(String userId);
+        void userDisconnected(String userId);
+    }
+}
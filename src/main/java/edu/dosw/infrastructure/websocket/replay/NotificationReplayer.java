@@ -0,0 +1,100 @@
+package edu.dosw.infrastructure.websocket.replay;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.NotificationCursor;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resuelve las notificaciones que un cliente se perdio mientras estaba desconectado, a partir de la
+ * ultima que vio. Primero mira el anillo en memoria y si no, consulta el rango posterior en Mongo por
+ * {@code (createdAt, _id)}. Si el hueco supera {@code max-notifications} no se reenvia nada y el
+ * cliente debe recargar por REST.
+ * <p>
+ * El anillo solo ve lo publicado por esta instancia, asi que con fan-out entre replicas siempre se usa Mongo.
+ */
+@Slf4j
+@Component
+public class NotificationReplayer {
+
+    private final RecentNotificationBuffer recentNotifications;
+    private final NotificationRepositoryPort notificationRepositoryPort;
+    private final boolean useBuffer;
+    private final int maxNotifications;
+
+    private final Counter bufferCounter;
+    private final Counter storeCounter;
+    private final Counter resyncCounter;
+    private final Counter replayedCounter;
+
+    public NotificationReplayer(RecentNotificationBuffer recentNotifications,
+                                NotificationRepositoryPort notificationRepositoryPort,
+                                MeterRegistry meterRegistry,
+                                @Value("${notifications.websocket.fanout:local}") String fanout,
+                                @Value("${notifications.websocket.replay.max-notifications:100}") int maxNotifications) {
+        this.recentNotifications = recentNotifications;
+        this.notificationRepositoryPort = notificationRepositoryPort;
+        this.useBuffer = "local".equals(fanout);
+        this.maxNotifications = maxNotifications;
+        this.bufferCounter = replays(meterRegistry, "buffer");
+        this.storeCounter = replays(meterRegistry, "store");
+        this.resyncCounter = replays(meterRegistry, "resync");
+        this.replayedCounter = Counter.builder("notifications.websocket.replay.notifications").register(meterRegistry);
+    }
+
+    public Replay missedSince(String userId, String lastSeenId) {
+        if (useBuffer) {
+            Optional<List<Notification>> buffered = recentNotifications.after(userId, lastSeenId);
+            if (buffered.isPresent() && buffered.get().size() <= maxNotifications) {
+                bufferCounter.increment();
+                return replayed(buffered.get());
+            }
+        }
+
+        Optional<Notification> lastSeen = notificationRepositoryPort.findById(lastSeenId)
+                .filter(notification -> userId.equals(notification.getUserId()));
+        if (lastSeen.isEmpty()) {
+            log.debug("Last seen notification {} not found for user {}, resync required", lastSeenId, userId);
+            resyncCounter.increment();
+            return Replay.resync();
+        }
+        // Las notificaciones aun en el write-behind no son visibles para la consulta de rango
+        notificationRepositoryPort.flushPendingWrites();
+        NotificationCursor cursor = new NotificationCursor(lastSeen.get().getCreatedAt(), lastSeenId);
+        List<Notification> missed = notificationRepositoryPort.findByUserIdAfter(userId, cursor, maxNotifications + 1);
+        if (missed.size() > maxNotifications) {
+            resyncCounter.increment();
+            return Replay.resync();
+        }
+        storeCounter.increment();
+        return replayed(missed);
+    }
+
+    private Replay replayed(List<Notification> notifications) {
+        replayedCounter.increment(notifications.size());
+        return new Replay(notifications, false);
+    }
+
+    private static Counter replays(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("notifications.websocket.replays")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @lombok.Value
+    public static class Replay {
+        List<Notification> notifications;
+        boolean resyncRequired;
+
+        static Replay resync() {
+            return new Replay(List.of(), true);
+        }
+    }
+}
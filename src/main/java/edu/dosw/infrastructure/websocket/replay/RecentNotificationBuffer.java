@@ -0,0 +1,85 @@
+package edu.dosw.infrastructure.websocket.replay;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.dosw.domain.model.Notification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ultimas notificaciones publicadas por esta instancia para cada usuario, en orden de publicacion,
+ * estuviera o no conectado. Sirve para reanudar una sesion WebSocket sin ir a Mongo cuando el cliente
+ * estuvo desconectado poco tiempo.
+ */
+@Component
+public class RecentNotificationBuffer {
+
+    private final int capacityPerUser;
+    private final Cache<String, Ring> rings;
+
+    public RecentNotificationBuffer(@Value("${notifications.websocket.replay.buffer.capacity-per-user:32}") int capacityPerUser,
+                                    @Value("${notifications.websocket.replay.buffer.maximum-users:10000}") long maximumUsers,
+                                    @Value("${notifications.websocket.replay.buffer.expire-after-write-ms:600000}") long expireAfterWriteMs) {
+        if (capacityPerUser <= 0) {
+            throw new IllegalArgumentException("capacityPerUser must be positive");
+        }
+        this.capacityPerUser = capacityPerUser;
+        this.rings = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .build();
+    }
+
+    public void record(Notification notification) {
+        Ring ring = rings.asMap().computeIfAbsent(notification.getUserId(), userId -> new Ring(capacityPerUser));
+        ring.add(notification);
+        // Renueva la expiracion: el anillo vive mientras el usuario siga recibiendo notificaciones
+        rings.put(notification.getUserId(), ring);
+    }
+
+    /**
+     * Notificaciones posteriores a {@code lastSeenId}. Vacio si el id ya no esta en el anillo; en ese
+     * caso no se puede saber si se perdio algo y hay que ir al almacenamiento.
+     */
+    public Optional<List<Notification>> after(String userId, String lastSeenId) {
+        Ring ring = rings.getIfPresent(userId);
+        return ring == null ? Optional.empty() : ring.after(lastSeenId);
+    }
+
+    private static final class Ring {
+
+        private final int capacity;
+        private final ArrayDeque<Notification> entries;
+
+        Ring(int capacity) {
+            this.capacity = capacity;
+            this.entries = new ArrayDeque<>(capacity);
+        }
+
+        synchronized void add(Notification notification) {
+            if (entries.size() == capacity) {
+                entries.pollFirst();
+            }
+            entries.addLast(notification);
+        }
+
+        synchronized Optional<List<Notification>> after(String lastSeenId) {
+            Iterator<Notification> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getId().getValue().equals(lastSeenId)) {
+                    List<Notification> missed = new ArrayList<>();
+                    iterator.forEachRemaining(missed::add);
+                    return Optional.of(missed);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.DeliveryAttempt;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import edu.dosw.domain.model.ValueObject.NotificationId;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.domain.model.ValueObject.NotificationType;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailAttemptRecorderTest {
+
+    @Mock
+    private NotificationRepositoryPort notificationRepositoryPort;
+
+    @Mock
+    private UnreadCounterPort unreadCounterPort;
+
+    @Mock
+    private WebSocketEmitterPort webSocketEmitterPort;
+
+    @Mock
+    private DeliveryPipelinePort deliveryPipelinePort;
+
+    private EmailAttemptRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(deliveryPipelinePort).submit(any(Channel.class), any(Runnable.class));
+        recorder = new EmailAttemptRecorder(notificationRepositoryPort, unreadCounterPort, webSocketEmitterPort,
+                deliveryPipelinePort, new EmailRetryPolicy(3, 1_000, 10_000, 300_000));
+    }
+
+    @Test
+    void record_Success_ShouldClearNextAttempt() {
+        // Given
+        Notification notification = notification(NotificationStatus.PENDING, 0);
+
+        // When
+        recorder.record(notification, EmailSendResult.success());
+
+        // Then
+        assertEquals(NotificationStatus.SENT, notification.getStatus());
+        assertNull(notification.getNextAttemptAt());
+        verify(notificationRepositoryPort).appendDeliveryAttempt(eq("notif123"),
+                argThat(DeliveryAttempt::isSuccessful), eq(NotificationStatus.SENT), isNull());
+        verifyNoInteractions(unreadCounterPort, webSocketEmitterPort);
+    }
+
+    @Test
+    void record_Failure_ShouldScheduleRetryAndLeaveUnread() {
+        // Given
+        Notification notification = notification(NotificationStatus.PENDING, 0);
+        when(notificationRepositoryPort.appendDeliveryAttempt(eq("notif123"), any(DeliveryAttempt.class),
+                eq(NotificationStatus.FAILED), any())).thenReturn(Optional.of(NotificationStatus.PENDING));
+        when(unreadCounterPort.getUnreadCount("user123")).thenReturn(2L);
+
+        // When
+        recorder.record(notification, EmailSendResult.failure("Throttled"));
+
+        // Then
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+        assertNotNull(notification.getNextAttemptAt());
+        verify(notificationRepositoryPort).appendDeliveryAttempt(eq("notif123"),
+                argThat(attempt -> "Throttled".equals(attempt.getError())), eq(NotificationStatus.FAILED),
+                eq(notification.getNextAttemptAt()));
+        verify(unreadCounterPort).adjust("user123", -1);
+        verify(webSocketEmitterPort).emitUnreadCount("user123", 2L);
+    }
+
+    @Test
+    void record_FailureAtMaxAttempts_ShouldStopRetrying() {
+        // Given
+        Notification notification = notification(NotificationStatus.FAILED, 2);
+
+        // When
+        recorder.record(notification, EmailSendResult.failure(null));
+
+        // Then
+        assertNull(notification.getNextAttemptAt());
+        assertEquals(3, notification.countDeliveryAttempts(Channel.EMAIL));
+        verify(notificationRepositoryPort).appendDeliveryAttempt(eq("notif123"),
+                argThat(attempt -> "Error sending email".equals(attempt.getError())), eq(NotificationStatus.FAILED), isNull());
+        verifyNoInteractions(unreadCounterPort);
+    }
+
+    @Test
+    void record_RetrySuccess_ShouldRestoreUnreadCount() {
+        // Given
+        Notification notification = notification(NotificationStatus.FAILED, 1);
+        when(notificationRepositoryPort.appendDeliveryAttempt(eq("notif123"), any(DeliveryAttempt.class),
+                eq(NotificationStatus.SENT), isNull())).thenReturn(Optional.of(NotificationStatus.FAILED));
+        when(unreadCounterPort.getUnreadCount("user123")).thenReturn(1L);
+
+        // When
+        recorder.record(notification, EmailSendResult.success());
+
+        // Then
+        assertEquals(NotificationStatus.SENT, notification.getStatus());
+        verify(unreadCounterPort).adjust("user123", 1);
+        verify(webSocketEmitterPort).emitUnreadCount("user123", 1L);
+    }
+
+    @Test
+    void record_FailureAfterUserRead_ShouldNotTouchUnreadCount() {
+        // Given
+        Notification notification = notification(NotificationStatus.PENDING, 0);
+        when(notificationRepositoryPort.appendDeliveryAttempt(eq("notif123"), any(DeliveryAttempt.class),
+                eq(NotificationStatus.FAILED), any())).thenReturn(Optional.empty());
+
+        // When
+        recorder.record(notification, EmailSendResult.failure("Throttled"));
+
+        // Then
+        verifyNoInteractions(unreadCounterPort, webSocketEmitterPort);
+    }
+
+    private Notification notification(NotificationStatus status, int failedEmailAttempts) {
+        List<DeliveryAttempt> attempts = new ArrayList<>();
+        attempts.add(new DeliveryAttempt(Channel.WEB_SOCKET, true, null, LocalDateTime.now()));
+        for (int i = 0; i < failedEmailAttempts; i++) {
+            attempts.add(new DeliveryAttempt(Channel.EMAIL, false, "Error sending email", LocalDateTime.now()));
+        }
+        return Notification.builder()
+                .id(new NotificationId("notif123"))
+                .userId("user123")
+                .userEmail("user@example.com")
+                .title("Order Status Update")
+                .message("Order #1 is now ready for pickup")
+                .type(NotificationType.ORDER_CONFIRMED)
+                .status(status)
+                .channels(List.of(Channel.EMAIL, Channel.WEB_SOCKET))
+                .deliveryAttempts(attempts)
+                .createdAt(LocalDateTime.now())
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.EmailServicePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBatchCollectorTest {
+
+    @Mock
+    private EmailServicePort emailServicePort;
+
+    @Mock
+    private DeliveryPipelinePort deliveryPipelinePort;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(deliveryPipelinePort).submit(any(Channel.class), any(Runnable.class));
+    }
+
+    @Test
+    void enqueue_ShouldSendBatchWhenMaxSizeIsReached() {
+        // Given
+        EmailBatchCollector collector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 3);
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(
+                EmailSendResult.success(), EmailSendResult.success(), EmailSendResult.success()));
+        List<EmailSendResult> results = new ArrayList<>();
+
+        // When
+        collector.enqueue(message("a@example.com"), results::add);
+        collector.enqueue(message("b@example.com"), results::add);
+        verifyNoInteractions(emailServicePort);
+        collector.enqueue(message("c@example.com"), results::add);
+
+        // Then
+        verify(emailServicePort, times(1)).sendBatch(argThat(messages -> messages.size() == 3));
+        verify(deliveryPipelinePort, times(1)).submit(eq(Channel.EMAIL), any(Runnable.class));
+        assertEquals(3, results.size());
+        assertEquals(0, collector.pendingCount());
+    }
+
+    @Test
+    void flush_ShouldSendPartialBatch() {
+        // Given
+        EmailBatchCollector collector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 50);
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(EmailSendResult.success()));
+        collector.enqueue(message("a@example.com"), result -> { });
+
+        // When
+        collector.flush();
+
+        // Then
+        verify(emailServicePort, times(1)).sendBatch(argThat(messages -> messages.size() == 1));
+        assertEquals(0, collector.pendingCount());
+    }
+
+    @Test
+    void flush_ShouldDoNothingWhenEmpty() {
+        // Given
+        EmailBatchCollector collector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 50);
+
+        // When
+        collector.flush();
+
+        // Then
+        verifyNoInteractions(emailServicePort, deliveryPipelinePort);
+    }
+
+    @Test
+    void flush_ShouldDeliverEachResultToItsCallback() {
+        // Given
+        EmailBatchCollector collector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 50);
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(
+                EmailSendResult.success(), EmailSendResult.failure("Invalid address")));
+        List<EmailSendResult> first = new ArrayList<>();
+        List<EmailSendResult> second = new ArrayList<>();
+        collector.enqueue(message("a@example.com"), first::add);
+        collector.enqueue(message("invalid"), second::add);
+
+        // When
+        collector.flush();
+
+        // Then
+        assertTrue(first.get(0).isSuccessful());
+        assertFalse(second.get(0).isSuccessful());
+        assertEquals("Invalid address", second.get(0).getError());
+    }
+
+    @Test
+    void flush_ShouldFailEveryMessageWhenBatchSendThrows() {
+        // Given
+        EmailBatchCollector collector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 50);
+        when(emailServicePort.sendBatch(anyList())).thenThrow(new IllegalStateException("SMTP down"));
+        List<EmailSendResult> results = new ArrayList<>();
+        collector.enqueue(message("a@example.com"), results::add);
+        collector.enqueue(message("b@example.com"), results::add);
+
+        // When
+        collector.flush();
+
+        // Then
+        assertEquals(2, results.size());
+        assertTrue(results.stream().noneMatch(EmailSendResult::isSuccessful));
+    }
+
+    @Test
+    void flush_CallbackFailure_ShouldNotAffectOtherMessages() {
+        // Given
+        EmailBatchCollector collector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 50);
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(
+                EmailSendResult.success(), EmailSendResult.success()));
+        List<EmailSendResult> results = new ArrayList<>();
+        collector.enqueue(message("a@example.com"), result -> {
+            throw new IllegalStateException("Mongo down");
+        });
+        collector.enqueue(message("b@example.com"), results::add);
+
+        // When
+        collector.flush();
+
+        // Then
+        assertEquals(1, results.size());
+    }
+
+    private EmailMessage message(String to) {
+        return EmailMessage.html(to, "Subject", "<p>Body</p>");
+    }
+}
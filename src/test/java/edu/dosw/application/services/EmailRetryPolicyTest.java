@@ -0,0 +1,63 @@
+package edu.dosw.application.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailRetryPolicyTest {
+
+    private final EmailRetryPolicy policy = new EmailRetryPolicy(5, 1_000, 10_000, 300_000);
+
+    @Test
+    void backoff_ShouldDoubleUntilMaximum() {
+        // When & Then
+        assertEquals(Duration.ofSeconds(1), policy.backoff(1));
+        assertEquals(Duration.ofSeconds(2), policy.backoff(2));
+        assertEquals(Duration.ofSeconds(4), policy.backoff(3));
+        assertEquals(Duration.ofSeconds(8), policy.backoff(4));
+        assertEquals(Duration.ofSeconds(10), policy.backoff(5));
+        assertEquals(Duration.ofSeconds(10), policy.backoff(200));
+    }
+
+    @Test
+    void nextAttemptAt_ShouldStayWithinJitterBounds() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When & Then
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime next = policy.nextAttemptAt(3, now).orElseThrow();
+            Duration delay = Duration.between(now, next);
+            assertFalse(delay.compareTo(Duration.ofSeconds(2)) < 0, "delay below half backoff: " + delay);
+            assertFalse(delay.compareTo(Duration.ofSeconds(4)) > 0, "delay above backoff: " + delay);
+        }
+    }
+
+    @Test
+    void nextAttemptAt_ShouldGiveUpAtMaxAttempts() {
+        // When
+        Optional<LocalDateTime> next = policy.nextAttemptAt(5, LocalDateTime.now());
+
+        // Then
+        assertTrue(next.isEmpty());
+    }
+
+    @Test
+    void deliveryDeadline_ShouldAddGracePeriod() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        // When & Then
+        assertEquals(LocalDateTime.of(2024, 1, 1, 12, 5), policy.deliveryDeadline(createdAt));
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveMaxAttempts() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new EmailRetryPolicy(0, 1_000, 10_000, 300_000));
+    }
+}
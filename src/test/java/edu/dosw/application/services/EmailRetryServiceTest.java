@@ -0,0 +1,211 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import edu.dosw.domain.model.ValueObject.NotificationId;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.domain.model.ValueObject.NotificationType;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.EmailServicePort;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.OutboxPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailRetryServiceTest {
+
+    @Mock
+    private NotificationRepositoryPort notificationRepositoryPort;
+
+    @Mock
+    private OutboxPort outboxPort;
+
+    @Mock
+    private EmailServicePort emailServicePort;
+
+    @Mock
+    private DeliveryPipelinePort deliveryPipelinePort;
+
+    @Mock
+    private EmailAttemptRecorder emailAttemptRecorder;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(deliveryPipelinePort).submit(any(Channel.class), any(Runnable.class));
+    }
+
+    @Test
+    void retryDueEmails_ShouldClaimUnderLeaseAndResend() {
+        // Given
+        EmailRetryService service = service(true);
+        Notification first = notification("n1");
+        Notification second = notification("n2");
+        when(notificationRepositoryPort.claimDueEmailRetries(any(LocalDateTime.class), any(LocalDateTime.class), eq(10)))
+                .thenReturn(List.of(first, second));
+        when(emailServicePort.sendBatch(anyList()))
+                .thenReturn(List.of(EmailSendResult.success(), EmailSendResult.failure("Throttled")));
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verify(notificationRepositoryPort).claimDueEmailRetries(nowCaptor.capture(), leaseCaptor.capture(), eq(10));
+        assertEquals(Duration.ofMinutes(5), Duration.between(nowCaptor.getValue(), leaseCaptor.getValue()));
+        verify(deliveryPipelinePort).submit(eq(Channel.EMAIL), any(Runnable.class));
+        verify(emailServicePort).sendBatch(argThat(messages -> messages.size() == 2
+                && messages.get(0).getTo().equals("n1@example.com") && !messages.get(0).isHtml()));
+        verify(emailAttemptRecorder).record(first, EmailSendResult.success());
+        verify(emailAttemptRecorder).record(second, EmailSendResult.failure("Throttled"));
+    }
+
+    @Test
+    void retryDueEmails_ShouldResendRenderedEmail() {
+        // Given
+        EmailRetryService service = service(true);
+        Notification notification = notification("n1");
+        notification.setRenderedEmail(EmailMessage.html("n1@example.com", "Pago Fallido", "<p>Hola</p>"));
+        when(notificationRepositoryPort.claimDueEmailRetries(any(), any(), anyInt())).thenReturn(List.of(notification));
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(EmailSendResult.success()));
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verify(emailServicePort).sendBatch(List.of(EmailMessage.html("n1@example.com", "Pago Fallido", "<p>Hola</p>")));
+    }
+
+    @Test
+    void retryDueEmails_PendingOutboxEmail_ShouldLeaveItToRelay() {
+        // Given
+        EmailRetryService service = service(true);
+        Notification first = notification("n1");
+        Notification second = notification("n2");
+        when(notificationRepositoryPort.claimDueEmailRetries(any(), any(), anyInt())).thenReturn(List.of(first, second));
+        when(outboxPort.findNotificationsWithPendingEmail(List.of("n1", "n2"))).thenReturn(Set.of("n1"));
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(EmailSendResult.success()));
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verify(emailServicePort).sendBatch(argThat(messages -> messages.size() == 1
+                && messages.get(0).getTo().equals("n2@example.com")));
+        verify(emailAttemptRecorder).record(second, EmailSendResult.success());
+        verify(emailAttemptRecorder, never()).record(eq(first), any());
+    }
+
+    @Test
+    void retryDueEmails_AllStillInOutbox_ShouldNotSubmit() {
+        // Given
+        EmailRetryService service = service(true);
+        when(notificationRepositoryPort.claimDueEmailRetries(any(), any(), anyInt())).thenReturn(List.of(notification("n1")));
+        when(outboxPort.findNotificationsWithPendingEmail(List.of("n1"))).thenReturn(Set.of("n1"));
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verifyNoInteractions(deliveryPipelinePort, emailServicePort, emailAttemptRecorder);
+    }
+
+    @Test
+    void retryDueEmails_BatchException_ShouldRecordFailureForEveryNotification() {
+        // Given
+        EmailRetryService service = service(true);
+        Notification first = notification("n1");
+        Notification second = notification("n2");
+        when(notificationRepositoryPort.claimDueEmailRetries(any(), any(), anyInt())).thenReturn(List.of(first, second));
+        when(emailServicePort.sendBatch(anyList())).thenThrow(new RuntimeException("SMTP down"));
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verify(emailAttemptRecorder).record(eq(first), argThat(result -> !result.isSuccessful()));
+        verify(emailAttemptRecorder).record(eq(second), argThat(result -> !result.isSuccessful()));
+    }
+
+    @Test
+    void retryDueEmails_RecorderFailure_ShouldNotStopOtherNotifications() {
+        // Given
+        EmailRetryService service = service(true);
+        Notification first = notification("n1");
+        Notification second = notification("n2");
+        when(notificationRepositoryPort.claimDueEmailRetries(any(), any(), anyInt())).thenReturn(List.of(first, second));
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(EmailSendResult.success(), EmailSendResult.success()));
+        when(emailAttemptRecorder.record(eq(first), any())).thenThrow(new RuntimeException("Mongo down"));
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verify(emailAttemptRecorder).record(second, EmailSendResult.success());
+    }
+
+    @Test
+    void retryDueEmails_NothingDue_ShouldNotSubmit() {
+        // Given
+        EmailRetryService service = service(true);
+        when(notificationRepositoryPort.claimDueEmailRetries(any(), any(), anyInt())).thenReturn(List.of());
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verifyNoInteractions(deliveryPipelinePort, emailServicePort, emailAttemptRecorder);
+    }
+
+    @Test
+    void retryDueEmails_Disabled_ShouldNotQueryRepository() {
+        // Given
+        EmailRetryService service = service(false);
+
+        // When
+        service.retryDueEmails();
+
+        // Then
+        verifyNoInteractions(notificationRepositoryPort, deliveryPipelinePort, emailServicePort);
+    }
+
+    private EmailRetryService service(boolean enabled) {
+        return new EmailRetryService(notificationRepositoryPort, outboxPort, emailServicePort, deliveryPipelinePort,
+                emailAttemptRecorder, enabled, 10, 300_000);
+    }
+
+    private Notification notification(String id) {
+        return Notification.builder()
+                .id(new NotificationId(id))
+                .userId("user123")
+                .userEmail(id + "@example.com")
+                .title("Order Status Update")
+                .message("Order #1 is now ready for pickup")
+                .type(NotificationType.ORDER_CONFIRMED)
+                .status(NotificationStatus.FAILED)
+                .channels(List.of(Channel.EMAIL, Channel.WEB_SOCKET))
+                .deliveryAttempts(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -6,18 +6,29 @@ import edu.dosw.application.dto.command.PasswordResetNotificationCommand;
 import edu.dosw.application.dto.command.PaymentCommand;
 import edu.dosw.domain.model.Notification;
 import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.DeliveryAttempt;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
 import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.domain.model.ValueObject.NotificationType;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
 import edu.dosw.domain.ports.EmailServicePort;
+import edu.dosw.domain.ports.EmailTemplatePort;
 import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.OutboxPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
 import edu.dosw.domain.ports.WebSocketEmitterPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -34,12 +45,42 @@ class NotificationApplicationServiceTest {
     @Mock
     private WebSocketEmitterPort webSocketEmitterPort;
 
-    @InjectMocks
+    @Mock
+    private DeliveryPipelinePort deliveryPipelinePort;
+
+    @Mock
+    private UnreadCounterPort unreadCounterPort;
+
+    @Mock
+    private EmailTemplatePort emailTemplatePort;
+
+    @Mock
+    private OutboxPort outboxPort;
+
     private NotificationApplicationService notificationApplicationService;
 
     @BeforeEach
     void setUp() {
-        // This method intentionally left empty
+        // Run pipeline stages inline so delivery side effects are observable synchronously
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(deliveryPipelinePort).submit(any(Channel.class), any(Runnable.class));
+
+        // Lotes de un mensaje: cada email se envia en cuanto se encola
+        EmailBatchCollector emailBatchCollector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 1);
+        EmailRetryPolicy emailRetryPolicy = new EmailRetryPolicy(5, 60_000, 3_600_000, 300_000);
+        EmailAttemptRecorder emailAttemptRecorder = new EmailAttemptRecorder(notificationRepositoryPort,
+                unreadCounterPort, webSocketEmitterPort, deliveryPipelinePort, emailRetryPolicy);
+        OutboxRelay outboxRelay = new OutboxRelay(outboxPort, notificationRepositoryPort, emailBatchCollector,
+                emailAttemptRecorder, webSocketEmitterPort, unreadCounterPort, deliveryPipelinePort,
+                new SimpleMeterRegistry(), true, 100, 10, 60_000);
+        notificationApplicationService = new NotificationApplicationService(notificationRepositoryPort,
+                unreadCounterPort, emailTemplatePort, emailRetryPolicy, outboxRelay, webSocketEmitterPort);
+        lenient().when(webSocketEmitterPort.isUserConnected(anyString())).thenReturn(true);
+        lenient().when(emailTemplatePort.render(any(), any(NotificationType.class), any(), any(), anyMap()))
+                .thenAnswer(invocation -> EmailMessage.html(invocation.getArgument(0),
+                        "Subject " + invocation.getArgument(1), "<html></html>"));
     }
 
     @Test
@@ -52,19 +93,16 @@ class NotificationApplicationServiceTest {
         command.setIp("192.168.1.1");
 
         when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendHtmlEmail(anyString(), anyString(), anyString())).thenReturn(true);
+        stubEmailResult(true);
         doNothing().when(webSocketEmitterPort).emitUserNotification(anyString(), any(Notification.class));
 
         // When
         notificationApplicationService.processSuccessfulLogin(command);
 
         // Then
-        verify(notificationRepositoryPort, times(2)).save(any(Notification.class));
-        verify(emailServicePort, times(1)).sendHtmlEmail(
-                eq("test@example.com"),
-                eq(" Nueva Actividad de Inicio de Sesión - ECI Express"),
-                anyString()
-        );
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.SENT), isNull());
+        verifyTemplateEmailSent("test@example.com", NotificationType.SECURITY_LOGIN, null);
         verify(webSocketEmitterPort, times(1)).emitUserNotification(eq("user123"), any(Notification.class));
     }
 
@@ -79,13 +117,16 @@ class NotificationApplicationServiceTest {
 
         ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
         when(notificationRepositoryPort.save(notificationCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendHtmlEmail(anyString(), anyString(), anyString())).thenReturn(false);
+        stubEmailResult(false);
 
         // When
         notificationApplicationService.processSuccessfulLogin(command);
 
         // Then
-        Notification savedNotification = notificationCaptor.getAllValues().get(1);
+        Notification savedNotification = notificationCaptor.getValue();
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(
+                eq(savedNotification.getId().getValue()), argThat(attempt -> !attempt.isSuccessful()), eq(NotificationStatus.FAILED), notNull());
         assertEquals(NotificationStatus.FAILED, savedNotification.getStatus());
         assertEquals(1, savedNotification.getDeliveryAttempts().size());
         assertFalse(savedNotification.getDeliveryAttempts().get(0).isSuccessful());
@@ -155,14 +196,15 @@ class NotificationApplicationServiceTest {
         command.setOrderStatus("confirmed");
 
         when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendNotificationEmail(any(Notification.class))).thenReturn(true);
+        stubEmailResult(true);
 
         // When
         notificationApplicationService.processOrderStatusChange(command);
 
         // Then
-        verify(notificationRepositoryPort, times(2)).save(any(Notification.class));
-        verify(emailServicePort, times(1)).sendNotificationEmail(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.SENT), isNull());
+        verifyEmailSent("user@example.com", "Order Status Update", false);
         verify(webSocketEmitterPort, times(1)).emitUserNotification(eq("user123"), any(Notification.class));
     }
 
@@ -177,13 +219,16 @@ class NotificationApplicationServiceTest {
 
         ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
         when(notificationRepositoryPort.save(notificationCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendNotificationEmail(any(Notification.class))).thenReturn(false);
+        stubEmailResult(false);
 
         // When
         notificationApplicationService.processOrderStatusChange(command);
 
         // Then
-        Notification savedNotification = notificationCaptor.getAllValues().get(1);
+        Notification savedNotification = notificationCaptor.getValue();
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(
+                eq(savedNotification.getId().getValue()), argThat(attempt -> !attempt.isSuccessful()), eq(NotificationStatus.FAILED), notNull());
         assertEquals(NotificationStatus.FAILED, savedNotification.getStatus());
         assertFalse(savedNotification.getDeliveryAttempts().get(0).isSuccessful());
     }
@@ -198,18 +243,15 @@ class NotificationApplicationServiceTest {
         command.setVerificationCode("123456");
 
         when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendHtmlEmail(anyString(), anyString(), anyString())).thenReturn(true);
+        stubEmailResult(true);
 
         // When
         notificationApplicationService.processPasswordResetRequest(command);
 
         // Then
-        verify(notificationRepositoryPort, times(2)).save(any(Notification.class));
-        verify(emailServicePort, times(1)).sendHtmlEmail(
-                eq("user@example.com"),
-                eq("Código de Verificación - Recuperación de Contraseña"),
-                anyString()
-        );
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.SENT), isNull());
+        verifyTemplateEmailSent("user@example.com", NotificationType.SECURITY_PASSWORD_RESET, "request");
         verify(webSocketEmitterPort, times(1)).emitUserNotification(eq("user123"), any(Notification.class));
     }
 
@@ -241,18 +283,15 @@ class NotificationApplicationServiceTest {
         command.setName("Test User");
 
         when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendHtmlEmail(anyString(), anyString(), anyString())).thenReturn(true);
+        stubEmailResult(true);
 
         // When
         notificationApplicationService.processPasswordResetCompleted(command);
 
         // Then
-        verify(notificationRepositoryPort, times(2)).save(any(Notification.class));
-        verify(emailServicePort, times(1)).sendHtmlEmail(
-                eq("user@example.com"),
-                eq("Contraseña Actualizada Exitosamente"),
-                anyString()
-        );
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.SENT), isNull());
+        verifyTemplateEmailSent("user@example.com", NotificationType.SECURITY_PASSWORD_RESET, "completed");
         verify(webSocketEmitterPort, times(1)).emitUserNotification(eq("user123"), any(Notification.class));
     }
 
@@ -269,18 +308,15 @@ class NotificationApplicationServiceTest {
         command.setCurrency("COP");
 
         when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendHtmlEmail(anyString(), anyString(), anyString())).thenReturn(true);
+        stubEmailResult(true);
 
         // When
         notificationApplicationService.processPaymentCompleted(command);
 
         // Then
-        verify(notificationRepositoryPort, times(2)).save(any(Notification.class));
-        verify(emailServicePort, times(1)).sendHtmlEmail(
-                eq("user@example.com"),
-                eq("Pago Completado Exitosamente - Orden #order456"),
-                anyString()
-        );
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.SENT), isNull());
+        verifyTemplateEmailSent("user@example.com", NotificationType.PAYMENT_COMPLETED, null);
         verify(webSocketEmitterPort, times(1)).emitUserNotification(eq("user123"), any(Notification.class));
     }
 
@@ -295,18 +331,15 @@ class NotificationApplicationServiceTest {
         command.setPaymentMethod("Credit Card");
 
         when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendHtmlEmail(anyString(), anyString(), anyString())).thenReturn(true);
+        stubEmailResult(true);
 
         // When
         notificationApplicationService.processPaymentFailed(command);
 
         // Then
-        verify(notificationRepositoryPort, times(2)).save(any(Notification.class));
-        verify(emailServicePort, times(1)).sendHtmlEmail(
-                eq("user@example.com"),
-                eq("Problema con tu Pago - Orden #order456"),
-                anyString()
-        );
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(notificationRepositoryPort, times(1)).appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.SENT), isNull());
+        verifyTemplateEmailSent("user@example.com", NotificationType.PAYMENT_FAILED, null);
         verify(webSocketEmitterPort, times(1)).emitUserNotification(eq("user123"), any(Notification.class));
     }
 
@@ -348,7 +381,7 @@ class NotificationApplicationServiceTest {
 
         ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
         when(notificationRepositoryPort.save(notificationCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emailServicePort.sendNotificationEmail(any(Notification.class))).thenReturn(true);
+        stubEmailResult(true);
 
         // When
         notificationApplicationService.processOrderStatusChange(command);
@@ -360,5 +393,309 @@ class NotificationApplicationServiceTest {
         assertNotNull(capturedNotification.getMetadata());
         assertTrue(capturedNotification.getMetadata().contains("delivered"));
     }
-}
 
+    @Test
+    void processSuccessfulLogin_ShouldPersistAndHandOffDeliveryToPipeline() {
+        // Given
+        LoginEventCommand command = new LoginEventCommand();
+        command.setUserId("user123");
+        command.setEmail("test@example.com");
+        command.setName("Test User");
+        command.setIp("192.168.1.1");
+
+        reset(deliveryPipelinePort);
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        notificationApplicationService.processSuccessfulLogin(command);
+
+        // Then
+        verify(notificationRepositoryPort, times(1)).save(any(Notification.class));
+        verify(deliveryPipelinePort, times(1)).submit(eq(Channel.EMAIL), any(Runnable.class));
+        verify(deliveryPipelinePort, times(1)).submit(eq(Channel.WEB_SOCKET), any(Runnable.class));
+        verifyNoInteractions(emailServicePort);
+        verify(webSocketEmitterPort, never()).emitUserNotification(anyString(), any(Notification.class));
+        verify(webSocketEmitterPort, never()).emitUnreadCount(anyString(), anyLong());
+    }
+
+    @Test
+    void processNewOrder_ShouldIncrementUnreadCounter() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setOrderId("order456");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        notificationApplicationService.processNewOrder(command);
+
+        // Then
+        verify(unreadCounterPort, times(1)).adjust("user123", 1);
+    }
+
+    @Test
+    void processOrderStatusChange_ShouldPersistWithDeliveryDeadline() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setOrderId("order456");
+        command.setOrderStatus("ready");
+        ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
+        when(notificationRepositoryPort.save(notificationCaptor.capture())).thenAnswer(invocation -> {
+            Notification saved = invocation.getArgument(0);
+            // El plazo se fija antes de guardar para que un caido antes del envio se reintente
+            assertEquals(saved.getCreatedAt().plusMinutes(5), saved.getNextAttemptAt());
+            return saved;
+        });
+        stubEmailResult(false);
+
+        // When
+        notificationApplicationService.processOrderStatusChange(command);
+
+        // Then
+        Notification savedNotification = notificationCaptor.getValue();
+        assertNotNull(savedNotification.getNextAttemptAt());
+        assertTrue(savedNotification.getNextAttemptAt().isAfter(savedNotification.getDeliveryAttempts().get(0).getTimestamp()));
+    }
+
+    @Test
+    void processPaymentFailed_ShouldPersistRenderedEmailForRetries() {
+        // Given
+        PaymentCommand command = new PaymentCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setOrderId("order456");
+        ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
+        when(notificationRepositoryPort.save(notificationCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+        stubEmailResult(true);
+
+        // When
+        notificationApplicationService.processPaymentFailed(command);
+
+        // Then
+        EmailMessage renderedEmail = notificationCaptor.getValue().getRenderedEmail();
+        assertNotNull(renderedEmail);
+        assertTrue(renderedEmail.isHtml());
+        assertEquals("user@example.com", renderedEmail.getTo());
+    }
+
+    @Test
+    void processPaymentFailed_ShouldAppendOutboxMessagesBeforeDelivery() {
+        // Given
+        PaymentCommand command = new PaymentCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setOrderId("order456");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubEmailResult(true);
+
+        // When
+        notificationApplicationService.processPaymentFailed(command);
+
+        // Then
+        var inOrder = inOrder(outboxPort, emailServicePort);
+        inOrder.verify(outboxPort).append(argThat(messages -> messages.size() == 2
+                && messages.get(0).getChannel() == Channel.EMAIL
+                && "user@example.com".equals(messages.get(0).getEmail().getTo())
+                && messages.get(1).getChannel() == Channel.WEB_SOCKET));
+        inOrder.verify(emailServicePort).sendBatch(anyList());
+        verify(outboxPort, times(2)).complete(anyString());
+    }
+
+    @Test
+    void processNewOrder_ShouldAppendOnlyWebSocketOutboxMessage() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setOrderId("order456");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        notificationApplicationService.processNewOrder(command);
+
+        // Then
+        verify(outboxPort).append(argThat(messages -> messages.size() == 1
+                && messages.get(0).getChannel() == Channel.WEB_SOCKET
+                && "user123".equals(messages.get(0).getUserId())));
+        verify(outboxPort).complete(anyString());
+    }
+
+    @Test
+    void processPaymentFailed_OfflineUser_ShouldAppendOnlyEmailOutboxMessage() {
+        // Given
+        PaymentCommand command = new PaymentCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setOrderId("order456");
+        when(webSocketEmitterPort.isUserConnected("user123")).thenReturn(false);
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubEmailResult(true);
+
+        // When
+        notificationApplicationService.processPaymentFailed(command);
+
+        // Then
+        verify(outboxPort).append(argThat(messages -> messages.size() == 1
+                && messages.get(0).getChannel() == Channel.EMAIL));
+        verify(webSocketEmitterPort, never()).emitUserNotification(anyString(), any(Notification.class));
+    }
+
+    @Test
+    void processNewOrder_OfflineUser_ShouldSkipOutbox() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setOrderId("order456");
+        when(webSocketEmitterPort.isUserConnected("user123")).thenReturn(false);
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        notificationApplicationService.processNewOrder(command);
+
+        // Then
+        verify(notificationRepositoryPort).save(any(Notification.class));
+        verify(webSocketEmitterPort).retainForResume(any(Notification.class));
+        verifyNoInteractions(outboxPort);
+    }
+
+    @Test
+    void processNewOrder_ShouldNotScheduleEmailRetry() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setOrderId("order456");
+        ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
+        when(notificationRepositoryPort.save(notificationCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        notificationApplicationService.processNewOrder(command);
+
+        // Then
+        assertNull(notificationCaptor.getValue().getNextAttemptAt());
+    }
+
+    @Test
+    void processOrderStatusChange_FailedEmail_ShouldRemoveNotificationFromUnreadCount() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setOrderId("order456");
+        command.setOrderStatus("ready");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationRepositoryPort.appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.FAILED), any()))
+                .thenReturn(Optional.of(NotificationStatus.PENDING));
+        stubEmailResult(false);
+
+        // When
+        notificationApplicationService.processOrderStatusChange(command);
+
+        // Then
+        verify(unreadCounterPort, times(1)).adjust("user123", 1);
+        verify(unreadCounterPort, times(1)).adjust("user123", -1);
+    }
+
+    @Test
+    void processOrderStatusChange_SentEmail_ShouldKeepNotificationUnread() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setOrderId("order456");
+        command.setOrderStatus("ready");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubEmailResult(true);
+
+        // When
+        notificationApplicationService.processOrderStatusChange(command);
+
+        // Then
+        verify(unreadCounterPort, times(1)).adjust("user123", 1);
+        verify(unreadCounterPort, never()).adjust("user123", -1);
+    }
+
+    @Test
+    void processNewOrder_ShouldPushUnreadCountAfterNotification() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setOrderId("order456");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(unreadCounterPort.getUnreadCount("user123")).thenReturn(3L);
+
+        // When
+        notificationApplicationService.processNewOrder(command);
+
+        // Then
+        var inOrder = inOrder(webSocketEmitterPort);
+        inOrder.verify(webSocketEmitterPort).emitUserNotification(eq("user123"), any(Notification.class));
+        inOrder.verify(webSocketEmitterPort).emitUnreadCount("user123", 3L);
+    }
+
+    @Test
+    void processOrderStatusChange_FailedEmail_ShouldPushCorrectedUnreadCount() {
+        // Given
+        NotificationCommand command = new NotificationCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setOrderId("order456");
+        command.setOrderStatus("ready");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationRepositoryPort.appendDeliveryAttempt(anyString(), any(DeliveryAttempt.class), eq(NotificationStatus.FAILED), any()))
+                .thenReturn(Optional.of(NotificationStatus.PENDING));
+        stubEmailResult(false);
+
+        // When
+        notificationApplicationService.processOrderStatusChange(command);
+
+        // Then
+        verify(webSocketEmitterPort, times(2)).emitUnreadCount(eq("user123"), anyLong());
+    }
+
+    private void stubEmailResult(boolean successful) {
+        when(emailServicePort.sendBatch(anyList())).thenAnswer(invocation -> {
+            List<EmailMessage> messages = invocation.getArgument(0);
+            return messages.stream()
+                    .map(message -> successful ? EmailSendResult.success() : EmailSendResult.failure("SMTP error"))
+                    .toList();
+        });
+    }
+
+    private void verifyEmailSent(String to, String subject, boolean html) {
+        verify(emailServicePort, times(1)).sendBatch(argThat(messages -> messages.size() == 1
+                && to.equals(messages.get(0).getTo())
+                && subject.equals(messages.get(0).getSubject())
+                && messages.get(0).isHtml() == html));
+    }
+
+    private void verifyTemplateEmailSent(String to, NotificationType type, String variant) {
+        verify(emailTemplatePort, times(1)).render(eq(to), eq(type), eq(variant), any(), anyMap());
+        verifyEmailSent(to, "Subject " + type, true);
+    }
+
+    @Test
+    void processPaymentCompleted_ShouldPassTemplateVariables() {
+        // Given
+        PaymentCommand command = new PaymentCommand();
+        command.setUserId("user123");
+        command.setEmail("user@example.com");
+        command.setName("Test User");
+        command.setOrderId("order456");
+        command.setAmount(15000.5);
+        command.setPaymentMethod("CARD");
+        when(notificationRepositoryPort.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubEmailResult(true);
+
+        // When
+        notificationApplicationService.processPaymentCompleted(command);
+
+        // Then
+        verify(emailTemplatePort).render(eq("user@example.com"), eq(NotificationType.PAYMENT_COMPLETED), isNull(), any(),
+                argThat(variables -> "Test User".equals(variables.get("name"))
+                        && "order456".equals(variables.get("orderId"))
+                        && String.format("%.2f", 15000.5).equals(variables.get("amount"))
+                        && "CARD".equals(variables.get("paymentMethod"))
+                        && variables.containsKey("date")));
+    }
+}
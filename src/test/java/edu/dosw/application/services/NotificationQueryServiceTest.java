@@ -1,9 +1,13 @@
 package edu.dosw.application.services;
 
+import edu.dosw.application.dto.query.NotificationPageResponse;
 import edu.dosw.application.dto.query.NotificationResponse;
+import edu.dosw.application.dto.query.NotificationStatsResponse;
 import edu.dosw.domain.model.Notification;
 import edu.dosw.domain.model.ValueObject.*;
 import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,14 +15,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +36,12 @@ class NotificationQueryServiceTest {
     @Mock
     private NotificationRepositoryPort notificationRepositoryPort;
 
+    @Mock
+    private UnreadCounterPort unreadCounterPort;
+
+    @Mock
+    private WebSocketEmitterPort webSocketEmitterPort;
+
     @InjectMocks
     private NotificationQueryService notificationQueryService;
 
@@ -133,35 +148,201 @@ class NotificationQueryServiceTest {
     }
 
     @Test
-    void markAsRead_ShouldMarkNotificationAsReadAndSave() {
+    void getPageByUserId_ShouldReturnNextCursorWhenMoreResultsExist() {
         // Given
-        when(notificationRepositoryPort.findById(testNotificationId)).thenReturn(Optional.of(notification));
-        when(notificationRepositoryPort.save(any(Notification.class))).thenReturn(notification);
+        Notification second = Notification.builder()
+                .id(new NotificationId("notif122"))
+                .userId(testUserId)
+                .type(NotificationType.ORDER_CONFIRMED)
+                .status(NotificationStatus.SENT)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 10, 0))
+                .build();
+        notification.setCreatedAt(LocalDateTime.of(2025, 1, 1, 11, 0));
+        when(notificationRepositoryPort.findPageByUserId(testUserId, "SENT", "ORDER_CONFIRMED", null, 2))
+                .thenReturn(Arrays.asList(notification, second));
+
+        // When
+        NotificationPageResponse result = notificationQueryService.getPageByUserId(testUserId, "sent", "order_confirmed", null, 1);
+
+        // Then
+        assertEquals(1, result.getItems().size());
+        assertEquals(testNotificationId, result.getItems().get(0).getId());
+        NotificationCursor cursor = NotificationQueryService.decodeCursor(result.getNextCursor());
+        assertEquals(testNotificationId, cursor.getId());
+        assertEquals(notification.getCreatedAt(), cursor.getCreatedAt());
+    }
+
+    @Test
+    void getPageByUserId_ShouldOmitCursorOnLastPageAndForwardDecodedCursor() {
+        // Given
+        NotificationCursor after = new NotificationCursor(LocalDateTime.of(2025, 1, 1, 12, 0), "notif999");
+        String cursor = NotificationQueryService.encodeCursor(Notification.builder()
+                .id(new NotificationId("notif999"))
+                .createdAt(after.getCreatedAt())
+                .build());
+        when(notificationRepositoryPort.findPageByUserId(testUserId, null, null, after, 51))
+                .thenReturn(List.of(notification));
+
+        // When
+        NotificationPageResponse result = notificationQueryService.getPageByUserId(testUserId, null, "", cursor, 0);
+
+        // Then
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getPageByUserId_ShouldCapPageSize() {
+        // Given
+        when(notificationRepositoryPort.findPageByUserId(testUserId, null, null, null, 201)).thenReturn(List.of());
+
+        // When
+        NotificationPageResponse result = notificationQueryService.getPageByUserId(testUserId, null, null, null, 10_000);
+
+        // Then
+        assertTrue(result.getItems().isEmpty());
+        verify(notificationRepositoryPort).findPageByUserId(testUserId, null, null, null, 201);
+    }
+
+    @Test
+    void getPageByUserId_ShouldRejectInvalidCursor() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationQueryService.getPageByUserId(testUserId, null, null, "not-a-cursor", 10));
+        verifyNoInteractions(notificationRepositoryPort);
+    }
+
+    @Test
+    void getStatsByUserId_ShouldDeriveTotalsFromStatusCounts() {
+        // Given
+        when(notificationRepositoryPort.aggregateStatsByUserId(testUserId, null)).thenReturn(new NotificationStats(
+                Map.of("SENT", 4L, "PENDING", 1L, "READ", 3L, "FAILED", 2L),
+                Map.of("ORDER_CONFIRMED", 10L),
+                null));
+
+        // When
+        NotificationStatsResponse result = notificationQueryService.getStatsByUserId(testUserId, null);
+
+        // Then
+        assertEquals(10L, result.getTotalNotifications());
+        assertEquals(5L, result.getUnreadNotifications());
+        assertEquals(3L, result.getReadNotifications());
+        assertEquals(Map.of("ORDER_CONFIRMED", 10L), result.getByType());
+        assertNull(result.getByDay());
+        verify(notificationRepositoryPort, never()).findByUserId(anyString());
+    }
+
+    @Test
+    void getStatsByUserId_ShouldRequestDailyCountsFromStartOfWindow() {
+        // Given
+        LocalDateTime since = LocalDate.now().minusDays(6).atStartOfDay();
+        when(notificationRepositoryPort.aggregateStatsByUserId(testUserId, since)).thenReturn(new NotificationStats(
+                Map.of(), Map.of(), Map.of(LocalDate.of(2025, 1, 1), 2L)));
+
+        // When
+        NotificationStatsResponse result = notificationQueryService.getStatsByUserId(testUserId, 7);
+
+        // Then
+        assertEquals(0L, result.getTotalNotifications());
+        assertEquals(Map.of("2025-01-01", 2L), result.getByDay());
+    }
+
+    @Test
+    void markAsRead_ShouldUseTargetedUpdateInsteadOfFullSave() {
+        // Given
+        when(notificationRepositoryPort.markRead(testNotificationId)).thenReturn(Optional.of(
+                new ReadReceipt(testNotificationId, testUserId, NotificationStatus.SENT, LocalDateTime.now())));
 
         // When
         notificationQueryService.markAsRead(testNotificationId);
 
         // Then
-        assertEquals(NotificationStatus.READ, notification.getStatus());
-        assertNotNull(notification.getReadAt());
+        verify(notificationRepositoryPort, times(1)).markRead(testNotificationId);
+        verify(notificationRepositoryPort, never()).findById(anyString());
+        verify(notificationRepositoryPort, never()).save(any(Notification.class));
+        verify(unreadCounterPort, times(1)).adjust(testUserId, -1);
+    }
 
-        verify(notificationRepositoryPort, times(1)).findById(testNotificationId);
-        verify(notificationRepositoryPort, times(1)).save(notification);
+    @Test
+    void markAsRead_ShouldPushUpdatedUnreadCount() {
+        // Given
+        when(notificationRepositoryPort.markRead(testNotificationId)).thenReturn(Optional.of(
+                new ReadReceipt(testNotificationId, testUserId, NotificationStatus.PENDING, LocalDateTime.now())));
+        when(unreadCounterPort.getUnreadCount(testUserId)).thenReturn(2L);
+
+        // When
+        notificationQueryService.markAsRead(testNotificationId);
+
+        // Then
+        verify(webSocketEmitterPort, times(1)).emitUnreadCount(testUserId, 2L);
+    }
+
+    @Test
+    void markAsRead_AlreadyRead_ShouldNotPushUnreadCount() {
+        // Given
+        when(notificationRepositoryPort.markRead(testNotificationId)).thenReturn(Optional.empty());
+
+        // When
+        notificationQueryService.markAsRead(testNotificationId);
+
+        // Then
+        verifyNoInteractions(webSocketEmitterPort);
+    }
+
+    @Test
+    void markAsRead_FailedNotification_ShouldNotDecrementUnreadCounter() {
+        // Given
+        when(notificationRepositoryPort.markRead(testNotificationId)).thenReturn(Optional.of(
+                new ReadReceipt(testNotificationId, testUserId, NotificationStatus.FAILED, LocalDateTime.now())));
+
+        // When
+        notificationQueryService.markAsRead(testNotificationId);
+
+        // Then
+        verifyNoInteractions(unreadCounterPort);
     }
 
     @Test
     void markAsRead_ShouldDoNothingWhenNotificationNotFound() {
         // Given
-        when(notificationRepositoryPort.findById(testNotificationId)).thenReturn(Optional.empty());
+        when(notificationRepositoryPort.markRead(testNotificationId)).thenReturn(Optional.empty());
 
         // When
         notificationQueryService.markAsRead(testNotificationId);
 
         // Then
-        verify(notificationRepositoryPort, times(1)).findById(testNotificationId);
+        verify(notificationRepositoryPort, times(1)).markRead(testNotificationId);
         verify(notificationRepositoryPort, never()).save(any(Notification.class));
     }
 
+    @Test
+    void markAllAsRead_ShouldReturnModifiedCount() {
+        // Given
+        when(notificationRepositoryPort.markAllRead(testUserId)).thenReturn(4L);
+
+        // When
+        long result = notificationQueryService.markAllAsRead(testUserId);
+
+        // Then
+        assertEquals(4L, result);
+        verify(notificationRepositoryPort, times(1)).markAllRead(testUserId);
+        verify(unreadCounterPort, times(1)).invalidate(testUserId);
+        verify(webSocketEmitterPort, times(1)).emitUnreadCount(eq(testUserId), anyLong());
+    }
+
+    @Test
+    void getUnreadCount_ShouldReadFromCounterCache() {
+        // Given
+        when(unreadCounterPort.getUnreadCount(testUserId)).thenReturn(7L);
+
+        // When
+        long result = notificationQueryService.getUnreadCount(testUserId);
+
+        // Then
+        assertEquals(7L, result);
+        verifyNoInteractions(notificationRepositoryPort);
+    }
+
     @Test
     void getUnreadByUserId_ShouldReturnOnlyUnreadNotifications() {
         // Given
@@ -0,0 +1,236 @@
+package edu.dosw.application.services;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.DeliveryAttempt;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
+import edu.dosw.domain.model.ValueObject.NotificationId;
+import edu.dosw.domain.model.ValueObject.NotificationStatus;
+import edu.dosw.domain.model.ValueObject.NotificationType;
+import edu.dosw.domain.model.ValueObject.OutboxMessage;
+import edu.dosw.domain.ports.DeliveryPipelinePort;
+import edu.dosw.domain.ports.EmailServicePort;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.domain.ports.OutboxPort;
+import edu.dosw.domain.ports.UnreadCounterPort;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxPort outboxPort;
+
+    @Mock
+    private NotificationRepositoryPort notificationRepositoryPort;
+
+    @Mock
+    private EmailServicePort emailServicePort;
+
+    @Mock
+    private WebSocketEmitterPort webSocketEmitterPort;
+
+    @Mock
+    private UnreadCounterPort unreadCounterPort;
+
+    @Mock
+    private DeliveryPipelinePort deliveryPipelinePort;
+
+    private MeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(deliveryPipelinePort).submit(any(Channel.class), any(Runnable.class));
+        meterRegistry = new SimpleMeterRegistry();
+        relay = relay(true);
+    }
+
+    @Test
+    void publish_ShouldAppendWithLeaseAndDeliverImmediately() {
+        // Given
+        Notification notification = notification(NotificationStatus.PENDING);
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(EmailSendResult.success()));
+        when(unreadCounterPort.getUnreadCount("user123")).thenReturn(4L);
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        relay.publish(notification, List.of(
+                OutboxMessage.email(notification, EmailMessage.html("user@example.com", "Subject", "<p>Hi</p>")),
+                OutboxMessage.webSocket(notification)));
+
+        // Then
+        verify(outboxPort).append(argThat(messages -> messages.stream().allMatch(message ->
+                !message.getAvailableAt().isBefore(before.plus(Duration.ofMinutes(1))))));
+        verify(emailServicePort).sendBatch(argThat(messages -> messages.get(0).isHtml()));
+        verify(notificationRepositoryPort).appendDeliveryAttempt(eq("notif123"), any(DeliveryAttempt.class),
+                eq(NotificationStatus.SENT), isNull());
+        verify(webSocketEmitterPort).emitUserNotification("user123", notification);
+        verify(webSocketEmitterPort).emitUnreadCount("user123", 4L);
+        verify(outboxPort, times(2)).complete(anyString());
+        assertEquals(1.0, relayedCount("EMAIL", "direct"));
+        assertEquals(1.0, relayedCount("WEB_SOCKET", "direct"));
+        assertEquals(2, meterRegistry.get("notifications.outbox.lag").timer().count());
+    }
+
+    @Test
+    void publish_FailedSideEffect_ShouldKeepMessageForRelay() {
+        // Given
+        Notification notification = notification(NotificationStatus.PENDING);
+        doThrow(new RuntimeException("Broker down")).when(webSocketEmitterPort).emitUserNotification(anyString(), any());
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> relay.publish(notification, List.of(OutboxMessage.webSocket(notification))));
+        verify(outboxPort).append(anyList());
+        verify(outboxPort, never()).complete(anyString());
+    }
+
+    @Test
+    void publish_ShouldNotFlushBufferedNotifications() {
+        // Given
+        Notification notification = notification(NotificationStatus.PENDING);
+        when(unreadCounterPort.getUnreadCount("user123")).thenReturn(1L);
+
+        // When
+        relay.publish(notification, List.of(OutboxMessage.webSocket(notification)));
+
+        // Then
+        verify(outboxPort).append(anyList());
+        verify(notificationRepositoryPort, never()).flushPendingWrites();
+    }
+
+    @Test
+    void relayDue_ShouldRedeliverExpiredMessages() {
+        // Given
+        Notification notification = notification(NotificationStatus.PENDING);
+        OutboxMessage message = claimed(OutboxMessage.email(notification,
+                EmailMessage.html("user@example.com", "Subject", "<p>Hi</p>")), 1);
+        when(outboxPort.claimDue(any(LocalDateTime.class), any(LocalDateTime.class), eq(100))).thenReturn(List.of(message));
+        when(notificationRepositoryPort.findById("notif123")).thenReturn(Optional.of(notification));
+        when(emailServicePort.sendBatch(anyList())).thenReturn(List.of(EmailSendResult.success()));
+
+        // When
+        relay.relayDue();
+
+        // Then
+        verify(emailServicePort).sendBatch(argThat(messages -> "Subject".equals(messages.get(0).getSubject())));
+        verify(outboxPort).complete(message.getId());
+        assertEquals(1.0, relayedCount("EMAIL", "relay"));
+        assertEquals(1.0, meterRegistry.get("notifications.outbox.claimed").counter().count());
+    }
+
+    @Test
+    void relayDue_EmailAlreadyAttempted_ShouldCompleteWithoutResending() {
+        // Given
+        Notification notification = notification(NotificationStatus.SENT);
+        notification.getDeliveryAttempts().add(new DeliveryAttempt(Channel.EMAIL, true, null, LocalDateTime.now()));
+        OutboxMessage message = claimed(OutboxMessage.email(notification,
+                EmailMessage.html("user@example.com", "Subject", "<p>Hi</p>")), 1);
+        when(outboxPort.claimDue(any(), any(), anyInt())).thenReturn(List.of(message));
+        when(notificationRepositoryPort.findById("notif123")).thenReturn(Optional.of(notification));
+
+        // When
+        relay.relayDue();
+
+        // Then
+        verifyNoInteractions(emailServicePort);
+        verify(outboxPort).complete(message.getId());
+    }
+
+    @Test
+    void relayDue_MissingNotification_ShouldDiscardMessage() {
+        // Given
+        OutboxMessage message = claimed(OutboxMessage.webSocket(notification(NotificationStatus.PENDING)), 1);
+        when(outboxPort.claimDue(any(), any(), anyInt())).thenReturn(List.of(message));
+        when(notificationRepositoryPort.findById("notif123")).thenReturn(Optional.empty());
+
+        // When
+        relay.relayDue();
+
+        // Then
+        verify(outboxPort).complete(message.getId());
+        verifyNoInteractions(webSocketEmitterPort);
+        assertEquals(1.0, meterRegistry.get("notifications.outbox.discarded").counter().count());
+    }
+
+    @Test
+    void relayDue_TooManyDeliveries_ShouldDiscardMessage() {
+        // Given
+        OutboxMessage message = claimed(OutboxMessage.webSocket(notification(NotificationStatus.PENDING)), 11);
+        when(outboxPort.claimDue(any(), any(), anyInt())).thenReturn(List.of(message));
+
+        // When
+        relay.relayDue();
+
+        // Then
+        verify(outboxPort).complete(message.getId());
+        verifyNoInteractions(notificationRepositoryPort, webSocketEmitterPort);
+    }
+
+    @Test
+    void relayDue_Disabled_ShouldNotClaim() {
+        // Given
+        OutboxRelay disabled = relay(false);
+
+        // When
+        disabled.relayDue();
+
+        // Then
+        verifyNoInteractions(outboxPort);
+    }
+
+    private OutboxRelay relay(boolean relayEnabled) {
+        EmailBatchCollector collector = new EmailBatchCollector(emailServicePort, deliveryPipelinePort, 1);
+        EmailAttemptRecorder recorder = new EmailAttemptRecorder(notificationRepositoryPort, unreadCounterPort,
+                webSocketEmitterPort, deliveryPipelinePort, new EmailRetryPolicy(5, 60_000, 3_600_000, 300_000));
+        return new OutboxRelay(outboxPort, notificationRepositoryPort, collector, recorder, webSocketEmitterPort,
+                unreadCounterPort, deliveryPipelinePort, meterRegistry, relayEnabled, 100, 10, 60_000);
+    }
+
+    private OutboxMessage claimed(OutboxMessage message, int deliveries) {
+        message.setDeliveries(deliveries);
+        message.setAvailableAt(LocalDateTime.now().plusMinutes(1));
+        return message;
+    }
+
+    private Notification notification(NotificationStatus status) {
+        return Notification.builder()
+                .id(new NotificationId("notif123"))
+                .userId("user123")
+                .userEmail("user@example.com")
+                .title("Pago Fallido")
+                .message("Hubo un problema con tu pago")
+                .type(NotificationType.PAYMENT_FAILED)
+                .status(status)
+                .channels(List.of(Channel.EMAIL, Channel.WEB_SOCKET))
+                .deliveryAttempts(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private double relayedCount(String channel, String path) {
+        return meterRegistry.get("notifications.outbox.relayed").tag("channel", channel).tag("path", path).counter().count();
+    }
+}
@@ -95,5 +95,13 @@ class NotificationStatusTest {
         // Then
         assertEquals(status1, status2);
     }
-}
 
+    @Test
+    void isUnread_ShouldOnlyIncludePendingAndSent() {
+        // Then
+        assertTrue(NotificationStatus.PENDING.isUnread());
+        assertTrue(NotificationStatus.SENT.isUnread());
+        assertFalse(NotificationStatus.READ.isUnread());
+        assertFalse(NotificationStatus.FAILED.isUnread());
+    }
+}
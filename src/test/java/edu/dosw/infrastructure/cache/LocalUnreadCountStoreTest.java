@@ -0,0 +1,38 @@
+package edu.dosw.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalUnreadCountStoreTest {
+
+    @Test
+    void adjustIfPresent_ShouldNeverGoBelowZero() {
+        // Given
+        LocalUnreadCountStore store = new LocalUnreadCountStore(10, Duration.ofMinutes(1));
+        store.put("user123", 1L);
+
+        // When
+        store.adjustIfPresent("user123", -3);
+
+        // Then
+        assertEquals(0L, store.get("user123").getAsLong());
+    }
+
+    @Test
+    void trackedUsers_ShouldListLoadedCounters() {
+        // Given
+        LocalUnreadCountStore store = new LocalUnreadCountStore(10, Duration.ofMinutes(1));
+        store.put("user123", 1L);
+        store.put("user456", 2L);
+
+        // When
+        store.invalidate("user456");
+
+        // Then
+        assertEquals(1, store.trackedUsers().size());
+        assertTrue(store.trackedUsers().contains("user123"));
+    }
+}
@@ -0,0 +1,105 @@
+package edu.dosw.infrastructure.cache;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisUnreadCountStoreTest {
+
+    private static final String PREFIX = "test:unread:";
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+    private RedisUnreadCountStore store;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.delete(redisTemplate.keys(PREFIX + "*"));
+        store = new RedisUnreadCountStore(redisTemplate, PREFIX, Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void adjustIfPresent_ShouldNotCreateMissingCounter() {
+        // When
+        store.adjustIfPresent("user123", 1);
+
+        // Then
+        assertTrue(store.get("user123").isEmpty());
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(PREFIX + "user123")));
+    }
+
+    @Test
+    void adjustIfPresent_ShouldIncrementSharedCounterAndKeepTtl() {
+        // Given
+        store.put("user123", 2L);
+
+        // When
+        store.adjustIfPresent("user123", 1);
+        store.adjustIfPresent("user123", -5);
+
+        // Then
+        assertEquals(0L, store.get("user123").getAsLong());
+        assertTrue(redisTemplate.getExpire(PREFIX + "user123") > 0);
+    }
+
+    @Test
+    void counters_ShouldBeVisibleAcrossReplicas() {
+        // Given
+        RedisUnreadCountStore otherReplica = new RedisUnreadCountStore(redisTemplate, PREFIX, Duration.ofMinutes(5), 100);
+        store.put("user123", 4L);
+
+        // When
+        otherReplica.adjustIfPresent("user123", -1);
+
+        // Then
+        assertEquals(3L, store.get("user123").getAsLong());
+        assertEquals(3L, otherReplica.get("user123").getAsLong());
+        assertTrue(otherReplica.trackedUsers().contains("user123"));
+    }
+
+    @Test
+    void invalidate_ShouldDeleteCounter() {
+        // Given
+        store.put("user123", 4L);
+
+        // When
+        store.invalidate("user123");
+
+        // Then
+        assertTrue(store.get("user123").isEmpty());
+        assertTrue(store.trackedUsers().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package edu.dosw.infrastructure.cache;
+
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCountCacheTest {
+
+    @Mock
+    private NotificationRepositoryPort notificationRepositoryPort;
+
+    private MeterRegistry meterRegistry;
+    private LocalUnreadCountStore store;
+    private UnreadCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new LocalUnreadCountStore(100, Duration.ofMinutes(5));
+        cache = new UnreadCountCache(store, notificationRepositoryPort, 10, meterRegistry);
+    }
+
+    @Test
+    void getUnreadCount_ShouldLoadOnMissAndServeHitsFromCache() {
+        // Given
+        when(notificationRepositoryPort.countUnreadByUserId("user123")).thenReturn(3L);
+
+        // When
+        long first = cache.getUnreadCount("user123");
+        long second = cache.getUnreadCount("user123");
+
+        // Then
+        assertEquals(3L, first);
+        assertEquals(3L, second);
+        verify(notificationRepositoryPort, times(1)).countUnreadByUserId("user123");
+        assertEquals(1.0, requests("miss"));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    void adjust_ShouldUpdateLoadedCounter() {
+        // Given
+        when(notificationRepositoryPort.countUnreadByUserId("user123")).thenReturn(3L);
+        cache.getUnreadCount("user123");
+
+        // When
+        cache.adjust("user123", 1);
+        cache.adjust("user123", 1);
+        cache.adjust("user123", -1);
+
+        // Then
+        assertEquals(4L, cache.getUnreadCount("user123"));
+        verify(notificationRepositoryPort, times(1)).countUnreadByUserId("user123");
+    }
+
+    @Test
+    void adjust_ShouldIgnoreUsersWithoutLoadedCounter() {
+        // When
+        cache.adjust("user123", 1);
+
+        // Then
+        assertTrue(store.get("user123").isEmpty());
+        verifyNoInteractions(notificationRepositoryPort);
+    }
+
+    @Test
+    void invalidate_ShouldForceReloadFromRepository() {
+        // Given
+        when(notificationRepositoryPort.countUnreadByUserId("user123")).thenReturn(3L, 0L);
+        cache.getUnreadCount("user123");
+
+        // When
+        cache.invalidate("user123");
+
+        // Then
+        assertEquals(0L, cache.getUnreadCount("user123"));
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftAndRecordMetrics() {
+        // Given
+        store.put("user123", 5L);
+        store.put("user456", 2L);
+        when(notificationRepositoryPort.countUnreadByUserId("user123")).thenReturn(3L);
+        when(notificationRepositoryPort.countUnreadByUserId("user456")).thenReturn(2L);
+
+        // When
+        int corrected = cache.reconcile();
+
+        // Then
+        assertEquals(1, corrected);
+        assertEquals(3L, store.get("user123").getAsLong());
+        assertEquals(1.0, meterRegistry.get("notifications.unread_cache.drift").counter().count());
+        assertEquals(2.0, meterRegistry.get("notifications.unread_cache.drift.magnitude").summary().totalAmount());
+        assertEquals(2.0, meterRegistry.get("notifications.unread_cache.reconciled").counter().count());
+    }
+
+    @Test
+    void reconcile_ShouldRespectBatchSize() {
+        // Given
+        UnreadCountCache smallBatch = new UnreadCountCache(store, notificationRepositoryPort, 1, new SimpleMeterRegistry());
+        store.put("user123", 1L);
+        store.put("user456", 1L);
+        when(notificationRepositoryPort.countUnreadByUserId(anyString())).thenReturn(1L);
+
+        // When
+        smallBatch.reconcile();
+
+        // Then
+        verify(notificationRepositoryPort, times(1)).countUnreadByUserId(anyString());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("notifications.unread_cache.requests").tag("result", result).counter().count();
+    }
+}
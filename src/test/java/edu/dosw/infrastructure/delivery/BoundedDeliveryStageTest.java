@@ -0,0 +1,141 @@
+package edu.dosw.infrastructure.delivery;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedDeliveryStageTest {
+
+    private MeterRegistry meterRegistry;
+    private BoundedDeliveryStage stage;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (stage != null) {
+            stage.shutdown(1000);
+        }
+    }
+
+    @Test
+    void submit_ShouldRunTaskOnWorkerThread() throws Exception {
+        // Given
+        stage = new BoundedDeliveryStage("email", 1, 10, OverflowPolicy.BLOCK, 100, meterRegistry);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        stage.submit(() -> {
+            threadName.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        // Then
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertTrue(threadName.get().startsWith("delivery-email-"));
+    }
+
+    @Test
+    void submit_WithDropPolicy_ShouldRejectWhenQueueIsFull() throws Exception {
+        // Given
+        stage = new BoundedDeliveryStage("websocket", 1, 1, OverflowPolicy.DROP, 100, meterRegistry);
+        occupyWorkerAndQueue();
+
+        // When
+        stage.submit(() -> fail("Task should have been dropped"));
+
+        // Then
+        assertEquals(1.0, taskCount("websocket", "rejected"));
+        assertEquals(1, stage.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("notifications.delivery.queue.depth")
+                .tag("stage", "websocket").gauge().value());
+    }
+
+    @Test
+    void submit_WithCallerRunsPolicy_ShouldRunOnProducerThreadWhenQueueIsFull() throws Exception {
+        // Given
+        stage = new BoundedDeliveryStage("email", 1, 1, OverflowPolicy.CALLER_RUNS, 100, meterRegistry);
+        occupyWorkerAndQueue();
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        // When
+        stage.submit(() -> runner.set(Thread.currentThread()));
+
+        // Then
+        assertSame(Thread.currentThread(), runner.get());
+        assertEquals(0.0, taskCount("email", "rejected"));
+    }
+
+    @Test
+    void submit_WithBlockPolicy_ShouldRejectAfterOfferTimeout() throws Exception {
+        // Given
+        stage = new BoundedDeliveryStage("email", 1, 1, OverflowPolicy.BLOCK, 50, meterRegistry);
+        occupyWorkerAndQueue();
+
+        // When
+        long start = System.nanoTime();
+        stage.submit(() -> fail("Task should have timed out"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsedMs >= 40, "Producer should have waited for queue space");
+        assertEquals(1.0, taskCount("email", "rejected"));
+    }
+
+    @Test
+    void submit_ShouldCountFailedTasksWithoutKillingWorker() throws Exception {
+        // Given
+        stage = new BoundedDeliveryStage("email", 1, 10, OverflowPolicy.BLOCK, 100, meterRegistry);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        stage.submit(() -> {
+            throw new IllegalStateException("SMTP down");
+        });
+        stage.submit(done::countDown);
+
+        // Then
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(1.0, taskCount("email", "failed"));
+    }
+
+    private void occupyWorkerAndQueue() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        stage.submit(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        stage.submit(this::awaitRelease);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double taskCount(String stageName, String outcome) {
+        return meterRegistry.get("notifications.delivery.tasks")
+                .tag("stage", stageName)
+                .tag("outcome", outcome)
+                .counter().count();
+    }
+}
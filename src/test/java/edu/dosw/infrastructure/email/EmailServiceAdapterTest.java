@@ -2,7 +2,11 @@ package edu.dosw.infrastructure.email;
 
 import edu.dosw.domain.model.Notification;
 import edu.dosw.domain.model.ValueObject.*;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.EmailSendResult;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -18,6 +23,8 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -137,5 +144,63 @@ class EmailServiceAdapterTest {
         assertFalse(result);
         verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
     }
+
+    @Test
+    void sendBatch_ShouldSendAllMessagesInASingleCall() {
+        // Given
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        List<EmailMessage> messages = List.of(
+                EmailMessage.html("a@example.com", "Subject A", "<p>A</p>"),
+                EmailMessage.plainText(notification));
+
+        // When
+        List<EmailSendResult> results = emailServiceAdapter.sendBatch(messages);
+
+        // Then
+        verify(mailSender, times(1)).send(any(MimeMessage.class), any(MimeMessage.class));
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(EmailSendResult::isSuccessful));
+    }
+
+    @Test
+    void sendBatch_ShouldReportPerMessageFailures() {
+        // Given
+        List<MimeMessage> created = new ArrayList<>();
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> {
+            MimeMessage message = new MimeMessage((Session) null);
+            created.add(message);
+            return message;
+        });
+        doAnswer(invocation -> {
+            throw new MailSendException(Map.of(created.get(1), new SendFailedException("Invalid address")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        List<EmailSendResult> results = emailServiceAdapter.sendBatch(List.of(
+                EmailMessage.html("a@example.com", "A", "<p>A</p>"),
+                EmailMessage.html("invalid", "B", "<p>B</p>"),
+                EmailMessage.html("c@example.com", "C", "<p>C</p>")));
+
+        // Then
+        assertTrue(results.get(0).isSuccessful());
+        assertFalse(results.get(1).isSuccessful());
+        assertEquals("Invalid address", results.get(1).getError());
+        assertTrue(results.get(2).isSuccessful());
+    }
+
+    @Test
+    void sendBatch_ShouldFailEveryMessageWhenConnectionFails() {
+        // Given
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doThrow(new MailException("Authentication failed") {}).when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        List<EmailSendResult> results = emailServiceAdapter.sendBatch(List.of(
+                EmailMessage.html("a@example.com", "A", "<p>A</p>"),
+                EmailMessage.html("b@example.com", "B", "<p>B</p>")));
+
+        // Then
+        assertTrue(results.stream().noneMatch(EmailSendResult::isSuccessful));
+    }
 }
 
@@ -0,0 +1,153 @@
+package edu.dosw.infrastructure.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private MeterRegistry meterRegistry;
+    private PooledJavaMailSender mailSender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (mailSender != null) {
+            mailSender.close();
+        }
+    }
+
+    @Test
+    void send_ShouldReuseSingleConnectionAcrossMessages() throws Exception {
+        // Given
+        mailSender = sender(2, 100, Duration.ofMinutes(1));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            mailSender.send(message("user" + i + "@example.com"));
+        }
+
+        // Then
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, openedCount());
+        assertEquals(1, mailSender.getPool().getIdleConnections());
+    }
+
+    @Test
+    void send_ShouldRecycleConnectionAfterMaxMessages() {
+        // Given
+        mailSender = sender(1, 2, Duration.ofMinutes(1));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            mailSender.send(message("user" + i + "@example.com"));
+        }
+
+        // Then
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(3.0, openedCount());
+        assertEquals(2.0, meterRegistry.get("notifications.email.smtp.connections.closed")
+                .tag("reason", "recycled").counter().count());
+    }
+
+    @Test
+    void send_ShouldReconnectWhenServerDroppedIdleConnection() {
+        // Given
+        mailSender = sender(1, 100, Duration.ZERO);
+        mailSender.send(message("first@example.com"));
+        greenMail.reset();
+        // El reinicio cierra las conexiones abiertas y, con puerto dinamico, escucha en otro puerto
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        // When
+        mailSender.send(message("second@example.com"));
+
+        // Then
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(2.0, openedCount());
+        assertEquals(1.0, meterRegistry.get("notifications.email.smtp.health_checks")
+                .tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void send_BatchShouldUseOneConnection() {
+        // Given
+        mailSender = sender(2, 100, Duration.ofMinutes(1));
+
+        // When
+        mailSender.send(message("a@example.com"), message("b@example.com"), message("c@example.com"));
+
+        // Then
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, openedCount());
+    }
+
+    @Test
+    void send_ConcurrentSendersShouldNotExceedPoolSize() throws Exception {
+        // Given
+        mailSender = sender(2, 100, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 16; i++) {
+            String to = "user" + i + "@example.com";
+            futures.add(executor.submit(() -> mailSender.send(message(to))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(16, greenMail.getReceivedMessages().length);
+        assertTrue(openedCount() <= 2.0);
+    }
+
+    private PooledJavaMailSender sender(int maxConnections, int maxMessages, Duration validateAfterIdle) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(SmtpConnectionPool.Settings.builder()
+                .maxConnections(maxConnections)
+                .maxMessagesPerConnection(maxMessages)
+                .validateAfterIdle(validateAfterIdle)
+                .borrowTimeout(Duration.ofSeconds(5))
+                .build(), meterRegistry);
+        sender.setHost("localhost");
+        sender.setPort(greenMail.getSmtp().getPort());
+        return sender;
+    }
+
+    private SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@eciexpress.test");
+        message.setTo(to);
+        message.setSubject("Pool test");
+        message.setText("Hello");
+        return message;
+    }
+
+    private double openedCount() {
+        return meterRegistry.get("notifications.email.smtp.connections.opened").counter().count();
+    }
+}
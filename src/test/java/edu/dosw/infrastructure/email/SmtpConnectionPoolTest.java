@@ -0,0 +1,170 @@
+package edu.dosw.infrastructure.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SmtpConnectionPoolTest {
+
+    private MeterRegistry meterRegistry;
+    private List<Transport> transports;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transports = new ArrayList<>();
+    }
+
+    @Test
+    void borrow_ShouldReuseReleasedConnection() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(2, 100, Duration.ofMinutes(1));
+        SmtpConnectionPool.PooledConnection first = pool.borrow();
+        pool.release(first, false);
+
+        // When
+        SmtpConnectionPool.PooledConnection second = pool.borrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, transports.size());
+        assertEquals(1.0, meterRegistry.get("notifications.email.smtp.connections.opened").counter().count());
+    }
+
+    @Test
+    void release_ShouldRecycleConnectionAfterMaxMessages() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(1, 2, Duration.ofMinutes(1));
+        SmtpConnectionPool.PooledConnection connection = pool.borrow();
+        connection.send(mock(MimeMessage.class), new Address[0]);
+        connection.send(mock(MimeMessage.class), new Address[0]);
+
+        // When
+        pool.release(connection, false);
+
+        // Then
+        verify(transports.get(0), times(1)).close();
+        assertEquals(0, pool.getOpenConnections());
+        assertEquals(1.0, closedCount("recycled"));
+        assertNotSame(connection, pool.borrow());
+    }
+
+    @Test
+    void borrow_ShouldReplaceConnectionThatFailsNoop() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(1, 100, Duration.ZERO);
+        SmtpConnectionPool.PooledConnection stale = pool.borrow();
+        pool.release(stale, false);
+        when(transports.get(0).isConnected()).thenReturn(false);
+
+        // When
+        SmtpConnectionPool.PooledConnection fresh = pool.borrow();
+
+        // Then
+        assertNotSame(stale, fresh);
+        verify(transports.get(0), times(1)).close();
+        assertEquals(1.0, closedCount("unhealthy"));
+        assertEquals(1.0, meterRegistry.get("notifications.email.smtp.health_checks").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void borrow_ShouldSkipNoopForRecentlyUsedConnection() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(1, 100, Duration.ofMinutes(1));
+        pool.release(pool.borrow(), false);
+
+        // When
+        pool.borrow();
+
+        // Then
+        verify(transports.get(0), never()).isConnected();
+    }
+
+    @Test
+    void release_BrokenConnection_ShouldBeClosed() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(1, 100, Duration.ofMinutes(1));
+        SmtpConnectionPool.PooledConnection connection = pool.borrow();
+
+        // When
+        pool.release(connection, true);
+
+        // Then
+        assertEquals(0, pool.getIdleConnections());
+        assertEquals(1.0, closedCount("broken"));
+    }
+
+    @Test
+    void borrow_ShouldTimeOutWhenAllConnectionsAreLeased() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(1, 100, Duration.ofMinutes(1));
+        pool.borrow();
+
+        // When & Then
+        assertThrows(MessagingException.class, pool::borrow);
+        assertEquals(1, transports.size());
+    }
+
+    @Test
+    void borrow_ConnectFailure_ShouldReturnPermit() throws Exception {
+        // Given
+        SmtpConnectionPool pool = new SmtpConnectionPool(() -> {
+            throw new MessagingException("Connection refused");
+        }, settings(1, 100, Duration.ofMinutes(1)), meterRegistry);
+
+        // When & Then
+        assertThrows(MessagingException.class, pool::borrow);
+        assertThrows(MessagingException.class, pool::borrow);
+        assertEquals(0.0, meterRegistry.get("notifications.email.smtp.connections.leased").gauge().value());
+    }
+
+    @Test
+    void close_ShouldCloseIdleConnectionsAndRejectNewBorrows() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(2, 100, Duration.ofMinutes(1));
+        pool.release(pool.borrow(), false);
+
+        // When
+        pool.close();
+
+        // Then
+        verify(transports.get(0), times(1)).close();
+        assertEquals(1.0, closedCount("shutdown"));
+        assertThrows(MessagingException.class, pool::borrow);
+    }
+
+    private SmtpConnectionPool pool(int maxConnections, int maxMessages, Duration validateAfterIdle) {
+        return new SmtpConnectionPool(() -> {
+            Transport transport = mock(Transport.class);
+            lenient().doNothing().when(transport).sendMessage(any(), any());
+            transports.add(transport);
+            return transport;
+        }, settings(maxConnections, maxMessages, validateAfterIdle), meterRegistry);
+    }
+
+    private SmtpConnectionPool.Settings settings(int maxConnections, int maxMessages, Duration validateAfterIdle) {
+        return SmtpConnectionPool.Settings.builder()
+                .maxConnections(maxConnections)
+                .maxMessagesPerConnection(maxMessages)
+                .validateAfterIdle(validateAfterIdle)
+                .borrowTimeout(Duration.ofMillis(50))
+                .build();
+    }
+
+    private double closedCount(String reason) {
+        return meterRegistry.get("notifications.email.smtp.connections.closed").tag("reason", reason).counter().count();
+    }
+}
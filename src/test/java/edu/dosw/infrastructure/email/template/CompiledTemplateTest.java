@@ -0,0 +1,74 @@
+package edu.dosw.infrastructure.email.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateTest {
+
+    @Test
+    void renderTo_ShouldInterpolateVariablesBetweenStaticSegments() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("<h2>Hola {{name}},</h2><p>#{{ orderId }}</p>");
+        StringBuilder out = new StringBuilder();
+
+        // When
+        template.renderTo(out, Map.of("name", "Ana", "orderId", "42"), true);
+
+        // Then
+        assertEquals("<h2>Hola Ana,</h2><p>#42</p>", out.toString());
+    }
+
+    @Test
+    void renderTo_ShouldEscapeHtmlInValues() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("<h2>Hola {{name}}</h2>");
+        StringBuilder out = new StringBuilder();
+
+        // When
+        template.renderTo(out, Map.of("name", "<script>alert('x')</script> & \"co\""), true);
+
+        // Then
+        assertEquals("<h2>Hola &lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;co&quot;</h2>", out.toString());
+    }
+
+    @Test
+    void renderTo_ShouldLeaveValuesUntouchedWhenNotEscaping() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("Orden #{{orderId}} & more");
+        StringBuilder out = new StringBuilder();
+
+        // When
+        template.renderTo(out, Map.of("orderId", "<1>"), false);
+
+        // Then
+        assertEquals("Orden #<1> & more", out.toString());
+    }
+
+    @Test
+    void renderTo_ShouldRenderMissingVariablesAsEmpty() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("a{{missing}}b");
+        StringBuilder out = new StringBuilder();
+
+        // When
+        template.renderTo(out, Map.of(), true);
+
+        // Then
+        assertEquals("ab", out.toString());
+    }
+
+    @Test
+    void compile_ShouldRejectUnclosedVariable() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Hola {{name"));
+    }
+
+    @Test
+    void compile_ShouldRejectEmptyVariable() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Hola {{ }}"));
+    }
+}
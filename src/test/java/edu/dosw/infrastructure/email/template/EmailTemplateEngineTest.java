@@ -0,0 +1,106 @@
+package edu.dosw.infrastructure.email.template;
+
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.NotificationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateEngineTest {
+
+    private static final Locale SPANISH = Locale.forLanguageTag("es");
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new EmailTemplateEngine("classpath*:templates/email/*.html", "es", 4);
+    }
+
+    @Test
+    void render_ShouldProduceSubjectAndEscapedHtmlBody() {
+        // When
+        EmailMessage message = engine.render("user@example.com", NotificationType.SECURITY_LOGIN, null, SPANISH,
+                Map.of("name", "<b>Ana</b>", "ip", "10.0.0.1", "date", "01/01/2025 a las 10:00"));
+
+        // Then
+        assertEquals("user@example.com", message.getTo());
+        assertEquals("Nueva Actividad de Inicio de Sesión - ECI Express", message.getSubject());
+        assertTrue(message.isHtml());
+        assertTrue(message.getBody().startsWith("<!DOCTYPE html>"));
+        assertTrue(message.getBody().endsWith("</html>"));
+        assertTrue(message.getBody().contains("&lt;b&gt;Ana&lt;/b&gt;"));
+        assertTrue(message.getBody().contains("10.0.0.1"));
+        assertFalse(message.getBody().contains("{{"));
+    }
+
+    @Test
+    void render_ShouldInterpolateSubjectVariables() {
+        // When
+        EmailMessage message = engine.render("user@example.com", NotificationType.PAYMENT_FAILED, null, SPANISH,
+                Map.of("name", "Ana", "orderId", "order456", "paymentMethod", "CARD"));
+
+        // Then
+        assertEquals("Problema con tu Pago - Orden #order456", message.getSubject());
+    }
+
+    @Test
+    void render_ShouldResolveVariantsOfTheSameType() {
+        // When
+        EmailMessage request = engine.render("a@example.com", NotificationType.SECURITY_PASSWORD_RESET, "request", SPANISH,
+                Map.of("name", "Ana", "verificationCode", "123456"));
+        EmailMessage completed = engine.render("a@example.com", NotificationType.SECURITY_PASSWORD_RESET, "completed", SPANISH,
+                Map.of("name", "Ana"));
+
+        // Then
+        assertTrue(request.getBody().contains("123456"));
+        assertEquals("Contraseña Actualizada Exitosamente", completed.getSubject());
+    }
+
+    @Test
+    void render_ShouldFallBackToLanguageAndDefaultLocale() {
+        // When
+        EmailMessage regional = engine.render("a@example.com", NotificationType.PAYMENT_COMPLETED, null,
+                Locale.forLanguageTag("es-CO"), Map.of("orderId", "1"));
+        EmailMessage other = engine.render("a@example.com", NotificationType.PAYMENT_COMPLETED, null,
+                Locale.ENGLISH, Map.of("orderId", "1"));
+
+        // Then
+        assertEquals(regional.getSubject(), other.getSubject());
+    }
+
+    @Test
+    void render_ShouldRejectUnknownTemplate() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> engine.render("a@example.com",
+                NotificationType.ORDER_REFUNDED, null, SPANISH, Map.of()));
+    }
+
+    @Test
+    void render_ShouldBeRepeatableWithPooledBuffers() {
+        // When
+        EmailMessage first = engine.render("a@example.com", NotificationType.SECURITY_PASSWORD_RESET, "completed", SPANISH,
+                Map.of("name", "Ana"));
+        EmailMessage second = engine.render("a@example.com", NotificationType.SECURITY_PASSWORD_RESET, "completed", SPANISH,
+                Map.of("name", "Ana"));
+
+        // Then
+        assertEquals(first, second);
+    }
+
+    @Test
+    void keyFromFilename_ShouldRejectUnknownNotificationType() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> EmailTemplateEngine.keyFromFilename("unknown_type_es.html"));
+    }
+
+    @Test
+    void parse_ShouldRequireSubjectHeader() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> EmailTemplateEngine.parse("x_es.html", "<html></html>"));
+    }
+}
@@ -0,0 +1,91 @@
+package edu.dosw.infrastructure.event;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el camino anterior (String, Map generico y convertValue) con el enlace en una pasada desde
+ * byte[]. Ejecutar {@link #main} desde el IDE o con:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main EventDeserializationBenchmark -prof gc
+ * </pre>
+ * La columna {@code gc.alloc.rate.norm} da los bytes asignados por evento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDeserializationBenchmark {
+
+    private static final String PAYMENT_EVENT = "{\"eventId\":\"8f2c1e4a-5b7d-4c3e-9a1f-2d6b8e0c4a71\","
+            + "\"eventType\":\"payment.completed\",\"timestamp\":\"2024-05-01T12:30:00Z\",\"version\":\"1.0\","
+            + "\"data\":{\"orderId\":\"ORD-20240501-0042\",\"clientId\":\"client-7781\",\"storeId\":\"store-12\","
+            + "\"originalAmount\":45000.0,\"finalAmount\":40500.0,"
+            + "\"paymentMethod\":{\"methodType\":\"CREDIT_CARD\",\"lastDigits\":\"4242\"},"
+            + "\"paymentStatus\":\"COMPLETED\",\"timeStamps\":{\"createdAt\":\"2024-05-01T12:29:10Z\"},"
+            + "\"appliedPromotions\":[\"PROMO10\"],\"customerEmail\":\"cliente@example.com\"}}";
+
+    private ObjectMapper objectMapper;
+    private ObjectReader eventReader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        eventReader = objectMapper.readerFor(GeneralEventListener.EventWrapper.class)
+                .withAttribute(EventWrapperDeserializer.DATA_TYPES_ATTRIBUTE,
+                        Map.of("payment.completed", GeneralEventListener.PaymentEventData.class));
+        body = PAYMENT_EVENT.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public GeneralEventListener.PaymentEventData mapThenConvert() throws IOException {
+        LegacyEventWrapper wrapper = objectMapper.readValue(new String(body), LegacyEventWrapper.class);
+        return objectMapper.convertValue(wrapper.getData(), GeneralEventListener.PaymentEventData.class);
+    }
+
+    @Benchmark
+    public GeneralEventListener.PaymentEventData singlePass() throws IOException {
+        GeneralEventListener.EventWrapper wrapper = eventReader.readValue(body);
+        return (GeneralEventListener.PaymentEventData) wrapper.getData();
+    }
+
+    // Forma del sobre antes del deserializador: data como Map generico
+    @lombok.Data
+    public static class LegacyEventWrapper {
+        private String eventId;
+        private String eventType;
+        private String timestamp;
+        private String version;
+        private Object data;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EventDeserializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package edu.dosw.infrastructure.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import edu.dosw.infrastructure.event.GeneralEventListener.EventWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventWrapperDeserializerTest {
+
+    private static final Map<String, Class<?>> DATA_TYPES = Map.of(
+            "login.success", GeneralEventListener.LoginEventData.class,
+            "order.new", GeneralEventListener.OrderEventData.class,
+            "order.status.change", GeneralEventListener.OrderStatusEventData.class,
+            "payment.completed", GeneralEventListener.PaymentEventData.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader reader = objectMapper.readerFor(EventWrapper.class)
+            .withAttribute(EventWrapperDeserializer.DATA_TYPES_ATTRIBUTE, DATA_TYPES);
+
+    @Test
+    void deserialize_ShouldBindDataToConcreteType() throws Exception {
+        // Given
+        byte[] body = json("{\"eventId\":\"evt-1\",\"eventType\":\"payment.completed\",\"version\":\"1\","
+                + "\"data\":{\"orderId\":\"order1\",\"clientId\":\"client1\",\"finalAmount\":12.5,"
+                + "\"paymentMethod\":{\"methodType\":\"CARD\"}}}");
+
+        // When
+        EventWrapper wrapper = reader.readValue(body);
+
+        // Then
+        assertEquals("evt-1", wrapper.getEventId());
+        assertEquals("1", wrapper.getVersion());
+        GeneralEventListener.PaymentEventData data = assertInstanceOf(GeneralEventListener.PaymentEventData.class, wrapper.getData());
+        assertEquals("order1", data.getOrderId());
+        assertEquals(12.5, data.getFinalAmount());
+        assertEquals("client1", data.partitionKey());
+    }
+
+    @Test
+    void deserialize_DataBeforeEventType_ShouldStillBindConcreteType() throws Exception {
+        // Given
+        byte[] body = json("{\"data\":{\"userId\":\"user1\",\"ip\":\"10.0.0.1\"},\"eventType\":\"login.success\",\"eventId\":\"evt-2\"}");
+
+        // When
+        EventWrapper wrapper = reader.readValue(body);
+
+        // Then
+        GeneralEventListener.LoginEventData data = assertInstanceOf(GeneralEventListener.LoginEventData.class, wrapper.getData());
+        assertEquals("user1", data.getUserId());
+        assertEquals("10.0.0.1", data.getIp());
+        assertEquals("evt-2", wrapper.getEventId());
+    }
+
+    @Test
+    void deserialize_UnknownEventType_ShouldKeepGenericData() throws Exception {
+        // Given
+        byte[] body = json("{\"eventType\":\"inventory.low\",\"data\":{\"sku\":\"A1\",\"stock\":2}}");
+
+        // When
+        EventWrapper wrapper = reader.readValue(body);
+
+        // Then
+        assertEquals(Map.of("sku", "A1", "stock", 2), wrapper.getData());
+    }
+
+    @Test
+    void deserialize_WithoutDataTypesAttribute_ShouldKeepGenericData() throws Exception {
+        // Given
+        byte[] body = json("{\"eventType\":\"login.success\",\"data\":{\"userId\":\"user1\"}}");
+
+        // When
+        EventWrapper wrapper = objectMapper.readValue(body, EventWrapper.class);
+
+        // Then
+        assertEquals(Map.of("userId", "user1"), wrapper.getData());
+    }
+
+    @Test
+    void deserialize_ShouldSkipUnknownFieldsAndNullData() throws Exception {
+        // Given
+        byte[] body = json("{\"eventType\":\"order.new\",\"source\":{\"service\":\"orders\",\"tags\":[1,2]},\"data\":null}");
+
+        // When
+        EventWrapper wrapper = reader.readValue(body);
+
+        // Then
+        assertEquals("order.new", wrapper.getEventType());
+        assertNull(wrapper.getData());
+    }
+
+    @Test
+    void deserialize_RoundTripOfSerializedWrapper_ShouldMatch() throws Exception {
+        // Given
+        GeneralEventListener.OrderStatusEventData statusData = new GeneralEventListener.OrderStatusEventData();
+        statusData.setOrderId("order1");
+        statusData.setNewStatus("ready");
+        EventWrapper original = new EventWrapper();
+        original.setEventId("evt-3");
+        original.setEventType("order.status.change");
+        original.setData(statusData);
+
+        // When
+        EventWrapper wrapper = reader.readValue(objectMapper.writeValueAsBytes(original));
+
+        // Then
+        assertEquals(original, wrapper);
+    }
+
+    @Test
+    void deserialize_NotAnObject_ShouldFail() {
+        // When & Then
+        assertThrows(Exception.class, () -> reader.readValue(json("[1,2]")));
+    }
+
+    private static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -6,17 +6,24 @@ import edu.dosw.application.dto.command.NotificationCommand;
 import edu.dosw.application.dto.command.PasswordResetNotificationCommand;
 import edu.dosw.application.dto.command.PaymentCommand;
 import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.infrastructure.event.deadletter.DeadLetterQueue;
+import edu.dosw.infrastructure.event.handlers.*;
+import edu.dosw.infrastructure.event.idempotency.EventDeduplicator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.connection.Message;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,15 +35,38 @@ class GeneralEventListenerTest {
     @Mock
     private Message message;
 
-    @InjectMocks
+    @Mock
+    private PartitionedEventDispatcher eventDispatcher;
+
+    @Mock
+    private DeadLetterQueue deadLetterQueue;
+
     private GeneralEventListener generalEventListener;
 
     private ObjectMapper objectMapper;
+    private EventDeduplicator eventDeduplicator;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
-        generalEventListener = new GeneralEventListener(eventServicePort, objectMapper);
+        meterRegistry = new SimpleMeterRegistry();
+        eventDeduplicator = new EventDeduplicator(100, Duration.ofMinutes(5), null, new SimpleMeterRegistry());
+        EventHandlerRegistry handlerRegistry = new EventHandlerRegistry(List.of(
+                new LoginSuccessEventHandler(eventServicePort),
+                new NewOrderEventHandler(eventServicePort),
+                new OrderStatusChangeEventHandler(eventServicePort),
+                new UserRegisteredEventHandler(),
+                new PasswordResetRequestedEventHandler(eventServicePort),
+                new PasswordResetVerifiedEventHandler(eventServicePort),
+                new PasswordResetCompletedEventHandler(eventServicePort),
+                new PaymentCompletedEventHandler(eventServicePort, objectMapper),
+                new PaymentFailedEventHandler(eventServicePort, objectMapper)), objectMapper, new SimpleMeterRegistry());
+        generalEventListener = new GeneralEventListener(objectMapper, handlerRegistry, eventDispatcher, eventDeduplicator, deadLetterQueue, meterRegistry);
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(eventDispatcher).dispatch(any(), any(Runnable.class));
     }
 
     @Test
@@ -227,5 +257,149 @@ class GeneralEventListenerTest {
 
         // When & Then
         assertDoesNotThrow(() -> generalEventListener.onMessage(message, channel));
+        verify(deadLetterQueue).quarantine(eq("events:general"), eq("invalid json".getBytes()), any());
+    }
+
+    @Test
+    void onMessage_HandlerFailure_ShouldDeadLetterEvent() throws Exception {
+        // Given
+        byte[] body = "{\"eventId\":\"evt-9\",\"eventType\":\"order.new\",\"data\":{\"userId\":\"user1\",\"orderId\":\"order1\"}}".getBytes();
+        when(message.getBody()).thenReturn(body);
+        doThrow(new RuntimeException("Mongo caido")).when(eventServicePort).processNewOrder(any(NotificationCommand.class));
+
+        // When
+        generalEventListener.onMessage(message, "events:general".getBytes());
+
+        // Then
+        verify(deadLetterQueue).deadLetter(eq("events:general"), eq(body), eq("evt-9"), eq("order.new"), any(RuntimeException.class));
+        assertEquals(1.0, meterRegistry.get("notifications.events.failed").counter().count());
+    }
+
+    @Test
+    void onMessage_DispatchRejected_ShouldReleaseAndDeadLetterEvent() throws Exception {
+        // Given
+        byte[] body = "{\"eventId\":\"evt-10\",\"eventType\":\"order.new\",\"data\":{\"userId\":\"user1\"}}".getBytes();
+        when(message.getBody()).thenReturn(body);
+        doThrow(new IllegalStateException("Particion detenida")).when(eventDispatcher).dispatch(any(), any(Runnable.class));
+
+        // When
+        generalEventListener.onMessage(message, "events:general".getBytes());
+
+        // Then
+        verify(deadLetterQueue).deadLetter(eq("events:general"), eq(body), eq("evt-10"), eq("order.new"), any(IllegalStateException.class));
+        assertTrue(eventDeduplicator.tryClaim("evt-10"));
+        assertEquals(0.0, meterRegistry.get("notifications.events.failed").counter().count());
+    }
+
+    @Test
+    void onMessage_ShouldPartitionByUserId() throws Exception {
+        // Given
+        byte[] channel = "events:general".getBytes();
+        GeneralEventListener.EventWrapper eventWrapper = new GeneralEventListener.EventWrapper();
+        eventWrapper.setEventType("order.status.change");
+
+        GeneralEventListener.OrderStatusEventData statusData = new GeneralEventListener.OrderStatusEventData();
+        statusData.setOrderId("order123");
+        statusData.setUserId("user123");
+        eventWrapper.setData(statusData);
+
+        when(message.getBody()).thenReturn(objectMapper.writeValueAsBytes(eventWrapper));
+
+        // When
+        generalEventListener.onMessage(message, channel);
+
+        // Then
+        verify(eventDispatcher).dispatch(eq("user123"), any(Runnable.class));
+    }
+
+    @Test
+    void onMessage_PaymentEvent_ShouldPartitionByClientId() throws Exception {
+        // Given
+        byte[] channel = "events:general".getBytes();
+        GeneralEventListener.EventWrapper eventWrapper = new GeneralEventListener.EventWrapper();
+        eventWrapper.setEventType("payment.completed");
+
+        GeneralEventListener.PaymentEventData payData = new GeneralEventListener.PaymentEventData();
+        payData.setOrderId("order123");
+        payData.setClientId("client123");
+        eventWrapper.setData(payData);
+
+        when(message.getBody()).thenReturn(objectMapper.writeValueAsBytes(eventWrapper));
+
+        // When
+        generalEventListener.onMessage(message, channel);
+
+        // Then
+        verify(eventDispatcher).dispatch(eq("client123"), any(Runnable.class));
+    }
+
+    @Test
+    void onMessage_DuplicateEventId_ShouldDispatchOnce() throws Exception {
+        // Given
+        byte[] channel = "events:general".getBytes();
+        when(message.getBody()).thenReturn(newOrderEvent("evt-dup"));
+
+        // When
+        generalEventListener.onMessage(message, channel);
+        generalEventListener.onMessage(message, channel);
+
+        // Then
+        verify(eventDispatcher, times(1)).dispatch(any(), any(Runnable.class));
+        verify(eventServicePort, times(1)).processNewOrder(any(NotificationCommand.class));
+    }
+
+    @Test
+    void processEvent_DuplicateEventId_ShouldBeSkipped() throws Exception {
+        // Given
+        byte[] body = newOrderEvent("evt-stream");
+
+        // When
+        generalEventListener.processEvent(body);
+        generalEventListener.processEvent(body);
+
+        // Then
+        verify(eventServicePort, times(1)).processNewOrder(any(NotificationCommand.class));
+    }
+
+    @Test
+    void processEvent_Failure_ShouldReleaseEventIdForRedelivery() throws Exception {
+        // Given
+        byte[] body = newOrderEvent("evt-retry");
+        doThrow(new RuntimeException("Mongo down")).doNothing()
+                .when(eventServicePort).processNewOrder(any(NotificationCommand.class));
+
+        // When
+        assertThrows(RuntimeException.class, () -> generalEventListener.processEvent(body));
+        generalEventListener.processEvent(body);
+
+        // Then
+        verify(eventServicePort, times(2)).processNewOrder(any(NotificationCommand.class));
+    }
+
+    @Test
+    void processEvent_ReleasedClaim_ShouldProcessRedelivery() throws Exception {
+        // Given
+        byte[] body = newOrderEvent("evt-unflushed");
+
+        // When
+        String claimed = generalEventListener.processEvent(body);
+        generalEventListener.releaseClaim(claimed);
+        String redelivered = generalEventListener.processEvent(body);
+
+        // Then
+        assertEquals("evt-unflushed", claimed);
+        assertEquals("evt-unflushed", redelivered);
+        verify(eventServicePort, times(2)).processNewOrder(any(NotificationCommand.class));
+    }
+
+    private byte[] newOrderEvent(String eventId) throws Exception {
+        GeneralEventListener.EventWrapper eventWrapper = new GeneralEventListener.EventWrapper();
+        eventWrapper.setEventId(eventId);
+        eventWrapper.setEventType("order.new");
+        GeneralEventListener.OrderEventData orderData = new GeneralEventListener.OrderEventData();
+        orderData.setOrderId("order123");
+        orderData.setUserId("user123");
+        eventWrapper.setData(orderData);
+        return objectMapper.writeValueAsBytes(eventWrapper);
     }
 }
@@ -0,0 +1,136 @@
+package edu.dosw.infrastructure.event;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedEventDispatcherTest {
+
+    private MeterRegistry meterRegistry;
+    private PartitionedEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new PartitionedEventDispatcher(4, 16, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_SameKey_ShouldPreserveOrder() throws Exception {
+        // Given
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(100);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            int sequence = i;
+            dispatcher.dispatch("user123", () -> {
+                processed.add(sequence);
+                done.countDown();
+            });
+        }
+
+        // Then
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, processed.get(i));
+        }
+    }
+
+    @Test
+    void dispatch_DifferentKeys_ShouldRunInParallel() throws Exception {
+        // Given
+        String slowKey = "user-a";
+        String fastKey = findKeyOnOtherPartition(slowKey);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+
+        // When
+        dispatcher.dispatch(slowKey, () -> {
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(fastKey, fastDone::countDown);
+
+        // Then
+        assertTrue(fastDone.await(1, TimeUnit.SECONDS), "A blocked partition must not stall other keys");
+        release.countDown();
+    }
+
+    @Test
+    void dispatch_FailingTask_ShouldKeepPartitionAlive() throws Exception {
+        // Given
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        dispatcher.dispatch("user123", () -> {
+            throw new IllegalStateException("boom");
+        });
+        dispatcher.dispatch("user123", done::countDown);
+
+        // Then
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("notifications.events.failed").counter().count());
+    }
+
+    @Test
+    void dispatch_StoppedPartition_ShouldRejectAndNotCountAsDispatched() throws Exception {
+        // Given
+        CountDownLatch done = new CountDownLatch(1);
+        dispatcher.dispatch("user123", done::countDown);
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+
+        // When & Then
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.dispatch("user123", () -> { }));
+        assertEquals(1.0, meterRegistry.get("notifications.events.dispatched").counter().count());
+        assertEquals(1.0, meterRegistry.get("notifications.events.rejected").counter().count());
+    }
+
+    @Test
+    void partitionFor_ShouldBeStableForSameKey() {
+        assertEquals(dispatcher.partitionFor("user123"), dispatcher.partitionFor("user123"));
+        assertTrue(dispatcher.partitionFor("user123") < dispatcher.getWorkerCount());
+    }
+
+    @Test
+    void constructor_ShouldExposeWorkerAndQueueMetrics() {
+        assertEquals(4.0, meterRegistry.get("notifications.events.partition.workers").gauge().value());
+        assertEquals(16.0, meterRegistry.get("notifications.events.partition.queue.capacity").gauge().value());
+        assertEquals(4, meterRegistry.get("notifications.events.partition.queue.depth").gauges().size());
+    }
+
+    @Test
+    void constructor_ShouldRejectZeroWorkers() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PartitionedEventDispatcher(0, 16, new SimpleMeterRegistry()));
+    }
+
+    private String findKeyOnOtherPartition(String key) {
+        int partition = dispatcher.partitionFor(key);
+        for (int i = 0; ; i++) {
+            String candidate = "user-" + i;
+            if (dispatcher.partitionFor(candidate) != partition) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package edu.dosw.infrastructure.event;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.infrastructure.event.deadletter.DeadLetterQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RedisStreamEventConsumerTest {
+
+    private static final String STREAM = "events.stream.test";
+    private static final String GROUP = "notifications-test";
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+    private GeneralEventListener eventListener;
+    private NotificationRepositoryPort notificationRepositoryPort;
+    private DeadLetterQueue deadLetterQueue;
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.delete(STREAM);
+        eventListener = mock(GeneralEventListener.class);
+        notificationRepositoryPort = mock(NotificationRepositoryPort.class);
+        deadLetterQueue = mock(DeadLetterQueue.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(STREAM);
+    }
+
+    @Test
+    void pollOnce_ShouldProcessBatchAndAcknowledge() throws Exception {
+        // Given
+        RedisStreamEventConsumer consumer = consumer("consumer-a", Duration.ofMinutes(1));
+        consumer.ensureGroup();
+        publish("{\"eventType\":\"order.new\"}");
+        publish("{\"eventType\":\"order.new\"}");
+
+        // When
+        int processed = consumer.pollOnce();
+
+        // Then
+        assertEquals(2, processed);
+        verify(eventListener, times(2)).processEvent(any());
+        assertEquals(0, pendingCount());
+        assertEquals(2.0, recordCount("acked"));
+    }
+
+    @Test
+    void pollOnce_FailedEvent_ShouldStayPendingUntilReclaimed() throws Exception {
+        // Given
+        RedisStreamEventConsumer crashed = consumer("consumer-a", Duration.ZERO);
+        RedisStreamEventConsumer survivor = consumer("consumer-b", Duration.ZERO);
+        crashed.ensureGroup();
+        publish("{\"eventType\":\"login.success\"}");
+        doThrow(new IllegalStateException("Mongo down")).doReturn(null).when(eventListener).processEvent(any());
+
+        // When
+        crashed.pollOnce();
+        long pendingAfterFailure = pendingCount();
+        int reclaimed = survivor.reclaimStuck();
+
+        // Then
+        assertEquals(1, pendingAfterFailure);
+        assertEquals(1, reclaimed);
+        verify(eventListener, times(2)).processEvent(any());
+        assertEquals(0, pendingCount());
+    }
+
+    @Test
+    void reclaimStuck_ShouldIgnoreEntriesBelowMinIdle() throws Exception {
+        // Given
+        RedisStreamEventConsumer consumer = consumer("consumer-a", Duration.ofMinutes(5));
+        consumer.ensureGroup();
+        publish("{\"eventType\":\"login.success\"}");
+        doThrow(new IllegalStateException("Mongo down")).when(eventListener).processEvent(any());
+        consumer.pollOnce();
+
+        // When
+        int reclaimed = consumer.reclaimStuck();
+
+        // Then
+        assertEquals(0, reclaimed);
+        assertEquals(1, pendingCount());
+    }
+
+    @Test
+    void pollOnce_InvalidJson_ShouldAcknowledgeAsPoison() throws Exception {
+        // Given
+        RedisStreamEventConsumer consumer = consumer("consumer-a", Duration.ofMinutes(1));
+        consumer.ensureGroup();
+        publish("invalid json");
+        doThrow(new JsonParseException(null, "invalid")).when(eventListener).processEvent(any());
+
+        // When
+        consumer.pollOnce();
+
+        // Then
+        assertEquals(0, pendingCount());
+        assertEquals(1.0, recordCount("poison"));
+        verify(deadLetterQueue).quarantine(eq(STREAM), eq("invalid json".getBytes(StandardCharsets.UTF_8)), any());
+    }
+
+    @Test
+    void reclaimStuck_ShouldQuarantineEntriesThatExceededMaxDeliveries() throws Exception {
+        // Given
+        RedisStreamEventConsumer consumer = consumer("consumer-a", Duration.ZERO);
+        consumer.ensureGroup();
+        publish("{\"eventType\":\"login.success\"}");
+        doThrow(new IllegalStateException("Mongo down")).when(eventListener).processEvent(any());
+
+        // When
+        consumer.pollOnce();
+        consumer.reclaimStuck();
+        consumer.reclaimStuck();
+
+        // Then
+        verify(eventListener, times(2)).processEvent(any());
+        assertEquals(0, pendingCount());
+        assertEquals(1.0, recordCount("poison"));
+        verify(deadLetterQueue).quarantine(eq(STREAM),
+                eq("{\"eventType\":\"login.success\"}".getBytes(StandardCharsets.UTF_8)), any());
+    }
+
+    @Test
+    void pollOnce_ShouldNotAcknowledgeWhenBufferedWritesFail() throws Exception {
+        // Given
+        RedisStreamEventConsumer consumer = consumer("consumer-a", Duration.ofMinutes(1));
+        consumer.ensureGroup();
+        publish("{\"eventType\":\"order.new\"}");
+        doThrow(new IllegalStateException("Mongo down")).when(notificationRepositoryPort).flushPendingWrites();
+
+        // When
+        consumer.pollOnce();
+
+        // Then
+        verify(eventListener, times(1)).processEvent(any());
+        assertEquals(1, pendingCount());
+    }
+
+    @Test
+    void pollOnce_FlushFailure_ShouldReleaseClaimsSoRedeliveryIsProcessed() throws Exception {
+        // Given
+        RedisStreamEventConsumer crashed = consumer("consumer-a", Duration.ZERO);
+        RedisStreamEventConsumer survivor = consumer("consumer-b", Duration.ZERO);
+        crashed.ensureGroup();
+        publish("{\"eventId\":\"evt-1\",\"eventType\":\"order.new\"}");
+        when(eventListener.processEvent(any())).thenReturn("evt-1");
+        doThrow(new IllegalStateException("Mongo down")).doNothing().when(notificationRepositoryPort).flushPendingWrites();
+
+        // When
+        crashed.pollOnce();
+        int reclaimed = survivor.reclaimStuck();
+
+        // Then
+        verify(eventListener).releaseClaim("evt-1");
+        assertEquals(1, reclaimed);
+        verify(eventListener, times(2)).processEvent(any());
+        assertEquals(0, pendingCount());
+        assertEquals(1.0, recordCount("acked"));
+    }
+
+    @Test
+    void ensureGroup_ShouldBeIdempotent() {
+        // Given
+        RedisStreamEventConsumer consumer = consumer("consumer-a", Duration.ofMinutes(1));
+
+        // When & Then
+        assertDoesNotThrow(() -> {
+            consumer.ensureGroup();
+            consumer.ensureGroup();
+        });
+    }
+
+    private RedisStreamEventConsumer consumer(String name, Duration claimMinIdle) {
+        RedisStreamEventConsumer.Settings settings = RedisStreamEventConsumer.Settings.builder()
+                .streamKey(STREAM)
+                .group(GROUP)
+                .consumerName(name)
+                .batchSize(10)
+                .blockTimeout(Duration.ofMillis(100))
+                .claimMinIdle(claimMinIdle)
+                .claimInterval(Duration.ofSeconds(1))
+                .maxDeliveries(2)
+                .build();
+        return new RedisStreamEventConsumer(redisTemplate, eventListener,
+                notificationRepositoryPort, deadLetterQueue, settings, meterRegistry);
+    }
+
+    private void publish(String payload) {
+        redisTemplate.opsForStream().add(STREAM, Map.of(RedisStreamEventConsumer.PAYLOAD_FIELD, payload));
+    }
+
+    private long pendingCount() {
+        return redisTemplate.opsForStream().pending(STREAM, GROUP).getTotalPendingMessages();
+    }
+
+    private double recordCount(String outcome) {
+        return meterRegistry.get("notifications.events.stream.records").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,161 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterQueueTest {
+
+    @Mock
+    private DeadLetterStore store;
+
+    private MeterRegistry meterRegistry;
+    private DeadLetterQueue deadLetterQueue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deadLetterQueue = new DeadLetterQueue(store, meterRegistry, 3, 1000, 8000);
+    }
+
+    @Test
+    void deadLetter_ShouldStorePendingEntryWithBackoff() {
+        // Given
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        deadLetterQueue.deadLetter("events:general", "{\"eventType\":\"order.new\"}".getBytes(), "evt-1", "order.new",
+                new IllegalStateException("Mongo down"));
+
+        // Then
+        DeadLetterEvent saved = captureSaved();
+        assertEquals(DeadLetterEvent.Status.PENDING, saved.getStatus());
+        assertEquals("evt-1", saved.getEventId());
+        assertEquals("events:general", saved.getChannel());
+        assertEquals("{\"eventType\":\"order.new\"}", saved.getPayload());
+        assertEquals("IllegalStateException: Mongo down", saved.getError());
+        assertEquals(1, saved.getAttempts());
+        assertFalse(saved.getNextAttemptAt().isBefore(before.plus(Duration.ofMillis(500))));
+        assertEquals(1.0, outcome("queued"));
+    }
+
+    @Test
+    void quarantine_ShouldStoreEntryWithoutNextAttempt() {
+        // When
+        deadLetterQueue.quarantine("events:general", "invalid".getBytes(), new IllegalArgumentException("bad json"));
+
+        // Then
+        DeadLetterEvent saved = captureSaved();
+        assertEquals(DeadLetterEvent.Status.QUARANTINED, saved.getStatus());
+        assertNull(saved.getNextAttemptAt());
+        assertEquals(1.0, outcome("quarantined"));
+    }
+
+    @Test
+    void retryFailed_BelowMaxAttempts_ShouldReschedule() {
+        // Given
+        DeadLetterEvent event = pending(1);
+
+        // When
+        deadLetterQueue.retryFailed(event, new IllegalStateException("SMTP down"), true);
+
+        // Then
+        assertEquals(2, event.getAttempts());
+        assertEquals(DeadLetterEvent.Status.PENDING, event.getStatus());
+        assertNotNull(event.getNextAttemptAt());
+        verify(store).save(event);
+    }
+
+    @Test
+    void retryFailed_AtMaxAttempts_ShouldQuarantine() {
+        // Given
+        DeadLetterEvent event = pending(2);
+
+        // When
+        deadLetterQueue.retryFailed(event, new IllegalStateException("SMTP down"), true);
+
+        // Then
+        assertEquals(DeadLetterEvent.Status.QUARANTINED, event.getStatus());
+        assertNull(event.getNextAttemptAt());
+    }
+
+    @Test
+    void retryFailed_NotRetryable_ShouldQuarantineImmediately() {
+        // Given
+        DeadLetterEvent event = pending(1);
+
+        // When
+        deadLetterQueue.retryFailed(event, new IllegalArgumentException("bad json"), false);
+
+        // Then
+        assertEquals(DeadLetterEvent.Status.QUARANTINED, event.getStatus());
+    }
+
+    @Test
+    void deadLetter_StoreFailure_ShouldNotThrow() {
+        // Given
+        doThrow(new IllegalStateException("Mongo down")).when(store).save(any());
+
+        // When & Then
+        assertDoesNotThrow(() -> deadLetterQueue.deadLetter("events:general", "{}".getBytes(), "evt-1", "order.new",
+                new IllegalStateException("Mongo down")));
+        assertEquals(1.0, outcome("store_error"));
+    }
+
+    @Test
+    void backoff_ShouldGrowExponentiallyUpToMax() {
+        // When & Then
+        assertEquals(Duration.ofMillis(1000), deadLetterQueue.backoff(1));
+        assertEquals(Duration.ofMillis(4000), deadLetterQueue.backoff(3));
+        assertEquals(Duration.ofMillis(8000), deadLetterQueue.backoff(10));
+        assertEquals(Duration.ofMillis(8000), deadLetterQueue.backoff(100));
+    }
+
+    @Test
+    void replay_ShouldRequeueAndCount() {
+        // Given
+        when(store.requeue(eq("dl-1"), any())).thenReturn(true);
+        when(store.requeue(eq("missing"), any())).thenReturn(false);
+
+        // When & Then
+        assertTrue(deadLetterQueue.replay("dl-1"));
+        assertFalse(deadLetterQueue.replay("missing"));
+        assertEquals(1.0, outcome("replayed"));
+    }
+
+    private DeadLetterEvent captureSaved() {
+        ArgumentCaptor<DeadLetterEvent> captor = ArgumentCaptor.forClass(DeadLetterEvent.class);
+        verify(store).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private DeadLetterEvent pending(int attempts) {
+        return DeadLetterEvent.builder()
+                .id("dl-1")
+                .eventId("evt-1")
+                .eventType("order.new")
+                .channel("events:general")
+                .payload("{}")
+                .attempts(attempts)
+                .status(DeadLetterEvent.Status.PENDING)
+                .build();
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("notifications.events.dead_letters").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,116 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.infrastructure.event.GeneralEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterRetrierTest {
+
+    @Mock
+    private DeadLetterQueue deadLetterQueue;
+
+    @Mock
+    private GeneralEventListener eventListener;
+
+    @Mock
+    private NotificationRepositoryPort notificationRepositoryPort;
+
+    private DeadLetterRetrier retrier;
+    private DeadLetterEvent event;
+
+    @BeforeEach
+    void setUp() {
+        retrier = new DeadLetterRetrier(deadLetterQueue, eventListener, notificationRepositoryPort, true, 10, 60000);
+        event = DeadLetterEvent.builder()
+                .id("dl-1")
+                .eventId("evt-1")
+                .eventType("order.new")
+                .payload("{\"eventType\":\"order.new\"}")
+                .attempts(1)
+                .status(DeadLetterEvent.Status.PENDING)
+                .build();
+    }
+
+    @Test
+    void retryDue_Success_ShouldFlushAndResolve() throws Exception {
+        // Given
+        when(deadLetterQueue.claimDue(10, Duration.ofMinutes(1))).thenReturn(List.of(event));
+
+        // When
+        retrier.retryDue();
+
+        // Then
+        verify(eventListener).processEvent("{\"eventType\":\"order.new\"}".getBytes());
+        verify(notificationRepositoryPort).flushPendingWrites();
+        verify(deadLetterQueue).resolved(event);
+    }
+
+    @Test
+    void retryDue_Failure_ShouldRescheduleAsRetryable() throws Exception {
+        // Given
+        when(deadLetterQueue.claimDue(10, Duration.ofMinutes(1))).thenReturn(List.of(event));
+        IllegalStateException error = new IllegalStateException("Mongo down");
+        doThrow(error).when(eventListener).processEvent(any());
+
+        // When
+        retrier.retryDue();
+
+        // Then
+        verify(deadLetterQueue).retryFailed(event, error, true);
+        verify(deadLetterQueue, never()).resolved(any());
+    }
+
+    @Test
+    void retryDue_FlushFailure_ShouldNotResolve() throws Exception {
+        // Given
+        when(deadLetterQueue.claimDue(10, Duration.ofMinutes(1))).thenReturn(List.of(event));
+        when(eventListener.processEvent(any())).thenReturn("evt-1");
+        doThrow(new IllegalStateException("Mongo down")).when(notificationRepositoryPort).flushPendingWrites();
+
+        // When
+        retrier.retryDue();
+
+        // Then
+        verify(eventListener).releaseClaim("evt-1");
+        verify(deadLetterQueue).retryFailed(eq(event), any(IllegalStateException.class), eq(true));
+        verify(deadLetterQueue, never()).resolved(any());
+    }
+
+    @Test
+    void retryDue_InvalidJson_ShouldQuarantine() throws Exception {
+        // Given
+        when(deadLetterQueue.claimDue(10, Duration.ofMinutes(1))).thenReturn(List.of(event));
+        doThrow(new JsonParseException(null, "invalid")).when(eventListener).processEvent(any());
+
+        // When
+        retrier.retryDue();
+
+        // Then
+        verify(deadLetterQueue).retryFailed(eq(event), any(JsonParseException.class), eq(false));
+    }
+
+    @Test
+    void retryDue_Disabled_ShouldNotClaim() {
+        // Given
+        retrier = new DeadLetterRetrier(deadLetterQueue, eventListener, notificationRepositoryPort, false, 10, 60000);
+
+        // When
+        retrier.retryDue();
+
+        // Then
+        verifyNoInteractions(deadLetterQueue);
+    }
+}
@@ -0,0 +1,115 @@
+package edu.dosw.infrastructure.event.deadletter;
+
+import com.mongodb.client.result.UpdateResult;
+import edu.dosw.infrastructure.persistence.documents.DeadLetterEventDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoDeadLetterStoreTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private MongoDeadLetterStore store;
+
+    @Test
+    void save_ShouldMapAllFields() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        DeadLetterEvent event = DeadLetterEvent.builder()
+                .id("dl-1").eventId("evt-1").eventType("order.new").channel("events:general")
+                .payload("{}").error("boom").attempts(2).status(DeadLetterEvent.Status.PENDING)
+                .createdAt(now).updatedAt(now).nextAttemptAt(now.plusMinutes(1))
+                .build();
+        ArgumentCaptor<DeadLetterEventDocument> captor = ArgumentCaptor.forClass(DeadLetterEventDocument.class);
+
+        // When
+        store.save(event);
+
+        // Then
+        verify(mongoTemplate).save(captor.capture());
+        DeadLetterEventDocument document = captor.getValue();
+        assertEquals("dl-1", document.getId());
+        assertEquals("PENDING", document.getStatus());
+        assertEquals(2, document.getAttempts());
+        assertEquals(now.plusMinutes(1), document.getNextAttemptAt());
+    }
+
+    @Test
+    void claimDue_ShouldLeasePendingEntriesOnly() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusMinutes(5);
+        DeadLetterEventDocument document = DeadLetterEventDocument.builder().id("dl-1").status("PENDING").build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DeadLetterEventDocument.class)))
+                .thenReturn(document, (DeadLetterEventDocument) null);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        List<DeadLetterEvent> claimed = store.claimDue(now, leaseUntil, 10);
+
+        // Then
+        assertEquals(1, claimed.size());
+        assertEquals(DeadLetterEvent.Status.PENDING, claimed.get(0).getStatus());
+        verify(mongoTemplate, times(2)).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(DeadLetterEventDocument.class));
+        assertEquals("PENDING", queryCaptor.getValue().getQueryObject().get("status"));
+        assertEquals(leaseUntil, ((Document) updateCaptor.getValue().getUpdateObject().get("$set")).get("nextAttemptAt"));
+    }
+
+    @Test
+    void requeue_ShouldResetAttemptsAndReportMatch() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DeadLetterEventDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        boolean requeued = store.requeue("dl-1", now);
+
+        // Then
+        assertTrue(requeued);
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(DeadLetterEventDocument.class));
+        Document set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertEquals("PENDING", set.get("status"));
+        assertEquals(0, set.get("attempts"));
+        assertEquals(now, set.get("nextAttemptAt"));
+    }
+
+    @Test
+    void requeueQuarantined_ShouldUpdateAllQuarantined() {
+        // Given
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(DeadLetterEventDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(3, 3L, null));
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        long requeued = store.requeueQuarantined(LocalDateTime.now());
+
+        // Then
+        assertEquals(3, requeued);
+        verify(mongoTemplate).updateMulti(queryCaptor.capture(), any(Update.class), eq(DeadLetterEventDocument.class));
+        assertEquals("QUARANTINED", queryCaptor.getValue().getQueryObject().get("status"));
+    }
+}
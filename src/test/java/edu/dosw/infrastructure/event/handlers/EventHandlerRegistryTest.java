@@ -0,0 +1,128 @@
+package edu.dosw.infrastructure.event.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.dosw.application.dto.command.NotificationCommand;
+import edu.dosw.application.dto.command.PaymentCommand;
+import edu.dosw.application.ports.EventServicePort;
+import edu.dosw.infrastructure.event.GeneralEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventHandlerRegistryTest {
+
+    @Mock
+    private EventServicePort eventServicePort;
+
+    private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
+    private EventHandlerRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new EventHandlerRegistry(List.of(
+                new NewOrderEventHandler(eventServicePort),
+                new UserRegisteredEventHandler(),
+                new PaymentCompletedEventHandler(eventServicePort, objectMapper)), objectMapper, meterRegistry);
+    }
+
+    @Test
+    void dataTypes_ShouldExposeClassPerEventType() {
+        // When
+        Map<String, Class<?>> dataTypes = registry.dataTypes();
+
+        // Then
+        assertEquals(3, dataTypes.size());
+        assertEquals(GeneralEventListener.OrderEventData.class, dataTypes.get("order.new"));
+        assertEquals(GeneralEventListener.PaymentEventData.class, dataTypes.get("payment.completed"));
+    }
+
+    @Test
+    void dispatch_TypedData_ShouldInvokeHandlerAndRecordLatency() {
+        // Given
+        GeneralEventListener.OrderEventData data = new GeneralEventListener.OrderEventData();
+        data.setUserId("user1");
+        data.setOrderId("order1");
+
+        // When
+        boolean handled = registry.dispatch("order.new", data);
+
+        // Then
+        assertTrue(handled);
+        ArgumentCaptor<NotificationCommand> captor = ArgumentCaptor.forClass(NotificationCommand.class);
+        verify(eventServicePort).processNewOrder(captor.capture());
+        assertEquals("order1", captor.getValue().getOrderId());
+        assertEquals(1, meterRegistry.get("notifications.events.handled").tag("type", "order.new").timer().count());
+    }
+
+    @Test
+    void dispatch_GenericData_ShouldConvertToHandlerType() {
+        // Given
+        Map<String, Object> data = Map.of("clientId", "client1", "orderId", "order1",
+                "paymentMethod", Map.of("methodType", "CARD"));
+
+        // When
+        registry.dispatch("payment.completed", data);
+
+        // Then
+        ArgumentCaptor<PaymentCommand> captor = ArgumentCaptor.forClass(PaymentCommand.class);
+        verify(eventServicePort).processPaymentCompleted(captor.capture());
+        assertEquals("client1", captor.getValue().getUserId());
+        assertEquals("CARD", captor.getValue().getPaymentMethod());
+        assertEquals("COMPLETED", captor.getValue().getPaymentStatus());
+    }
+
+    @Test
+    void dispatch_UserRegistered_ShouldNotCallService() {
+        // When
+        boolean handled = registry.dispatch("user.registered", new GeneralEventListener.UserRegisteredEventData());
+
+        // Then
+        assertTrue(handled);
+        verifyNoInteractions(eventServicePort);
+    }
+
+    @Test
+    void dispatch_UnknownType_ShouldReturnFalseAndCount() {
+        // When
+        boolean handled = registry.dispatch("inventory.low", Map.of());
+
+        // Then
+        assertFalse(handled);
+        assertEquals(1.0, meterRegistry.get("notifications.events.unhandled").counter().count());
+    }
+
+    @Test
+    void dispatch_HandlerFailure_ShouldCountErrorAndRethrow() {
+        // Given
+        doThrow(new RuntimeException("Mongo caido")).when(eventServicePort).processNewOrder(any(NotificationCommand.class));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> registry.dispatch("order.new", new GeneralEventListener.OrderEventData()));
+        assertEquals(1.0, meterRegistry.get("notifications.events.errors").tag("type", "order.new").counter().count());
+        assertEquals(1, meterRegistry.get("notifications.events.handled").tag("type", "order.new").timer().count());
+    }
+
+    @Test
+    void constructor_DuplicateEventType_ShouldFail() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> new EventHandlerRegistry(List.of(
+                new NewOrderEventHandler(eventServicePort),
+                new NewOrderEventHandler(eventServicePort)), objectMapper, meterRegistry));
+    }
+}
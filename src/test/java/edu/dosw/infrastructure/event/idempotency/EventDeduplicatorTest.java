@@ -0,0 +1,114 @@
+package edu.dosw.infrastructure.event.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventDeduplicatorTest {
+
+    @Mock
+    private ProcessedEventStore store;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void tryClaim_RepeatedId_ShouldHitWindowWithoutStore() {
+        // Given
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofMinutes(5), store, meterRegistry);
+        when(store.markIfAbsent("evt-1")).thenReturn(true);
+
+        // When
+        boolean first = deduplicator.tryClaim("evt-1");
+        boolean second = deduplicator.tryClaim("evt-1");
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        verify(store, times(1)).markIfAbsent("evt-1");
+        assertEquals(1.0, duplicates("window"));
+    }
+
+    @Test
+    void tryClaim_IdSeenByOtherReplica_ShouldHitStore() {
+        // Given
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofMinutes(5), store, meterRegistry);
+        when(store.markIfAbsent("evt-1")).thenReturn(false);
+
+        // When
+        boolean claimed = deduplicator.tryClaim("evt-1");
+
+        // Then
+        assertFalse(claimed);
+        assertEquals(1.0, duplicates("store"));
+    }
+
+    @Test
+    void tryClaim_StoreFailure_ShouldProcessEvent() {
+        // Given
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofMinutes(5), store, meterRegistry);
+        when(store.markIfAbsent("evt-1")).thenThrow(new RuntimeException("Redis down"));
+
+        // When
+        boolean claimed = deduplicator.tryClaim("evt-1");
+
+        // Then
+        assertTrue(claimed);
+        assertEquals(1.0, meterRegistry.get("notifications.events.idempotency.store_errors").counter().count());
+    }
+
+    @Test
+    void tryClaim_MissingId_ShouldAlwaysProcess() {
+        // Given
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofMinutes(5), store, meterRegistry);
+
+        // When & Then
+        assertTrue(deduplicator.tryClaim(null));
+        assertTrue(deduplicator.tryClaim(null));
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void release_ShouldAllowReprocessing() {
+        // Given
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofMinutes(5), store, meterRegistry);
+        when(store.markIfAbsent("evt-1")).thenReturn(true);
+        deduplicator.tryClaim("evt-1");
+
+        // When
+        deduplicator.release("evt-1");
+
+        // Then
+        verify(store).remove("evt-1");
+        assertTrue(deduplicator.tryClaim("evt-1"));
+    }
+
+    @Test
+    void tryClaim_WithoutStore_ShouldUseWindowOnly() {
+        // Given
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofMinutes(5), null, meterRegistry);
+
+        // When & Then
+        assertTrue(deduplicator.tryClaim("evt-1"));
+        assertFalse(deduplicator.tryClaim("evt-1"));
+        assertTrue(deduplicator.tryClaim("evt-2"));
+    }
+
+    private double duplicates(String tier) {
+        return meterRegistry.get("notifications.events.duplicates").tag("tier", tier).counter().count();
+    }
+}
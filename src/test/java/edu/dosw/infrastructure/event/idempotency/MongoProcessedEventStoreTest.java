@@ -0,0 +1,79 @@
+package edu.dosw.infrastructure.event.idempotency;
+
+import edu.dosw.infrastructure.persistence.documents.ProcessedEventDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoProcessedEventStoreTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private MongoProcessedEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(ProcessedEventDocument.class)).thenReturn(indexOperations);
+        store = new MongoProcessedEventStore(mongoTemplate, Duration.ofHours(24));
+    }
+
+    @Test
+    void constructor_ShouldEnsureTtlIndex() {
+        // Then
+        ArgumentCaptor<Index> indexCaptor = ArgumentCaptor.forClass(Index.class);
+        verify(indexOperations).ensureIndex(indexCaptor.capture());
+        assertEquals(MongoProcessedEventStore.TTL_INDEX, indexCaptor.getValue().getIndexOptions().get("name"));
+        assertEquals(86400L, indexCaptor.getValue().getIndexOptions().get("expireAfterSeconds"));
+    }
+
+    @Test
+    void markIfAbsent_NewEvent_ShouldInsert() {
+        // When
+        boolean marked = store.markIfAbsent("evt-1");
+
+        // Then
+        assertTrue(marked);
+        verify(mongoTemplate).insert(argThat((ProcessedEventDocument document) -> "evt-1".equals(document.getId())));
+    }
+
+    @Test
+    void markIfAbsent_DuplicateKey_ShouldReturnFalse() {
+        // Given
+        when(mongoTemplate.insert(any(ProcessedEventDocument.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        // When
+        boolean marked = store.markIfAbsent("evt-1");
+
+        // Then
+        assertFalse(marked);
+    }
+
+    @Test
+    void remove_ShouldDeleteById() {
+        // When
+        store.remove("evt-1");
+
+        // Then
+        verify(mongoTemplate).remove(any(Query.class), eq(ProcessedEventDocument.class));
+    }
+}
@@ -0,0 +1,84 @@
+package edu.dosw.infrastructure.event.idempotency;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisProcessedEventStoreTest {
+
+    private static final String PREFIX = "test:events:processed:";
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+    private RedisProcessedEventStore store;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.delete(redisTemplate.keys(PREFIX + "*"));
+        store = new RedisProcessedEventStore(redisTemplate, PREFIX, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void markIfAbsent_ShouldAcceptOnlyFirstMark() {
+        // When & Then
+        assertTrue(store.markIfAbsent("evt-1"));
+        assertFalse(store.markIfAbsent("evt-1"));
+        assertTrue(store.markIfAbsent("evt-2"));
+    }
+
+    @Test
+    void markIfAbsent_ShouldSetTtl() {
+        // When
+        store.markIfAbsent("evt-1");
+
+        // Then
+        Long ttl = redisTemplate.getExpire(PREFIX + "evt-1");
+        assertNotNull(ttl);
+        assertTrue(ttl > 0 && ttl <= 300);
+    }
+
+    @Test
+    void remove_ShouldAllowMarkingAgain() {
+        // Given
+        store.markIfAbsent("evt-1");
+
+        // When
+        store.remove("evt-1");
+
+        // Then
+        assertTrue(store.markIfAbsent("evt-1"));
+    }
+}
@@ -2,17 +2,30 @@ package edu.dosw.infrastructure.persistence;
 
 import edu.dosw.domain.model.Notification;
 import edu.dosw.domain.model.ValueObject.*;
+import com.mongodb.client.result.UpdateResult;
+import edu.dosw.infrastructure.persistence.documents.DeliveryAttemptDocument;
 import edu.dosw.infrastructure.persistence.documents.NotificationDocument;
 import edu.dosw.infrastructure.persistence.mappers.NotificationMongoMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.bson.Document;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,6 +35,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +47,9 @@ class MongoNotificationRepositoryTest {
     @Mock
     private NotificationMongoMapper notificationMongoMapper;
 
+    @Mock
+    private NotificationWriteBuffer writeBuffer;
+
     @InjectMocks
     private MongoNotificationRepository mongoNotificationRepository;
 
@@ -85,12 +102,420 @@ class MongoNotificationRepositoryTest {
         verify(notificationMongoMapper, times(1)).toDomain(notificationDocument);
     }
 
+    @Test
+    void save_WithWriteBehindEnabled_ShouldBufferInsteadOfWriting() {
+        // Given
+        when(writeBuffer.isEnabled()).thenReturn(true);
+        when(notificationMongoMapper.toDocument(notification)).thenReturn(notificationDocument);
+
+        // When
+        Notification result = mongoNotificationRepository.save(notification);
+
+        // Then
+        assertSame(notification, result);
+        verify(writeBuffer, times(1)).add(notificationDocument);
+        verify(mongoTemplate, never()).save(any(NotificationDocument.class));
+    }
+
+    @Test
+    void saveAll_ShouldWriteAllNotificationsInOneBulkOperation() {
+        // Given
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationDocument.class)).thenReturn(bulkOperations);
+        when(notificationMongoMapper.toDocument(any(Notification.class))).thenReturn(notificationDocument);
+
+        // When
+        List<Notification> result = mongoNotificationRepository.saveAll(List.of(notification, notification));
+
+        // Then
+        assertEquals(2, result.size());
+        verify(bulkOperations, times(2)).replaceOne(any(Query.class), eq(notificationDocument), any(FindAndReplaceOptions.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(mongoTemplate, never()).save(any(NotificationDocument.class));
+    }
+
+    @Test
+    void saveAll_ShouldSkipEmptyBatch() {
+        // When
+        List<Notification> result = mongoNotificationRepository.saveAll(List.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void appendDeliveryAttempt_ShouldPushAttemptAndGuardStatusAgainstReadInOneRoundTrip() {
+        // Given
+        DeliveryAttempt attempt = new DeliveryAttempt(Channel.EMAIL, true, null, LocalDateTime.now());
+        DeliveryAttemptDocument attemptDocument = new DeliveryAttemptDocument("EMAIL", true, null, LocalDateTime.now());
+        when(notificationMongoMapper.toDeliveryAttemptDocument(attempt)).thenReturn(attemptDocument);
+        when(writeBuffer.coalesceDeliveryAttempt("notif123", attemptDocument, "SENT", null)).thenReturn(Optional.empty());
+        Document attemptBson = givenConvertedAttempt(attemptDocument);
+        NotificationDocument previous = new NotificationDocument();
+        previous.setStatus("PENDING");
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class), eq(NotificationDocument.class))).thenReturn(previous);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<AggregationUpdate> updateCaptor = ArgumentCaptor.forClass(AggregationUpdate.class);
+
+        // When
+        Optional<NotificationStatus> result = mongoNotificationRepository.appendDeliveryAttempt("notif123", attempt, NotificationStatus.SENT, null);
+
+        // Then
+        assertEquals(Optional.of(NotificationStatus.PENDING), result);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), eq(NotificationDocument.class));
+        assertEquals("notif123", queryCaptor.getValue().getQueryObject().get("_id"));
+        List<Document> pipeline = updateCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        Document set = pipeline.get(0).get("$set", Document.class);
+        Document concat = set.get("deliveryAttempts", Document.class);
+        assertEquals(new Document("$literal", List.of(attemptBson)), concat.getList("$concatArrays", Object.class).get(1));
+        Document condition = set.get("status", Document.class).get("$cond", Document.class);
+        assertEquals(new Document("$ne", List.of("$status", "READ")), condition.get("if"));
+        assertEquals("SENT", condition.get("then"));
+        assertEquals("$status", condition.get("else"));
+        assertEquals(new Document("$unset", "nextAttemptAt"), pipeline.get(1));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(NotificationDocument.class));
+    }
+
+    @Test
+    void appendDeliveryAttempt_AlreadyRead_ShouldKeepReadStatus() {
+        // Given
+        DeliveryAttempt attempt = new DeliveryAttempt(Channel.EMAIL, false, "Error sending email", LocalDateTime.now());
+        DeliveryAttemptDocument attemptDocument = new DeliveryAttemptDocument("EMAIL", false, "Error sending email", LocalDateTime.now());
+        when(notificationMongoMapper.toDeliveryAttemptDocument(attempt)).thenReturn(attemptDocument);
+        when(writeBuffer.coalesceDeliveryAttempt(eq("notif123"), eq(attemptDocument), eq("FAILED"), any())).thenReturn(Optional.empty());
+        givenConvertedAttempt(attemptDocument);
+        NotificationDocument previous = new NotificationDocument();
+        previous.setStatus("READ");
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class), eq(NotificationDocument.class))).thenReturn(previous);
+
+        // When
+        Optional<NotificationStatus> result = mongoNotificationRepository.appendDeliveryAttempt(
+                "notif123", attempt, NotificationStatus.FAILED, LocalDateTime.now().plusMinutes(1));
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void appendDeliveryAttempt_ShouldScheduleNextAttemptForFailure() {
+        // Given
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusMinutes(2);
+        DeliveryAttempt attempt = new DeliveryAttempt(Channel.EMAIL, false, "Error sending email", LocalDateTime.now());
+        DeliveryAttemptDocument attemptDocument = new DeliveryAttemptDocument("EMAIL", false, "Error sending email", LocalDateTime.now());
+        when(notificationMongoMapper.toDeliveryAttemptDocument(attempt)).thenReturn(attemptDocument);
+        when(writeBuffer.coalesceDeliveryAttempt("notif123", attemptDocument, "FAILED", nextAttemptAt)).thenReturn(Optional.empty());
+        givenConvertedAttempt(attemptDocument);
+        ArgumentCaptor<AggregationUpdate> updateCaptor = ArgumentCaptor.forClass(AggregationUpdate.class);
+
+        // When
+        mongoNotificationRepository.appendDeliveryAttempt("notif123", attempt, NotificationStatus.FAILED, nextAttemptAt);
+
+        // Then
+        verify(mongoTemplate).findAndModify(any(Query.class), updateCaptor.capture(), eq(NotificationDocument.class));
+        List<Document> pipeline = updateCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(nextAttemptAt, pipeline.get(1).get("$set", Document.class).get("nextAttemptAt"));
+    }
+
+    @Test
+    void appendDeliveryAttempt_NotFound_ShouldReturnEmpty() {
+        // Given
+        DeliveryAttempt attempt = new DeliveryAttempt(Channel.EMAIL, true, null, LocalDateTime.now());
+        DeliveryAttemptDocument attemptDocument = new DeliveryAttemptDocument("EMAIL", true, null, LocalDateTime.now());
+        when(notificationMongoMapper.toDeliveryAttemptDocument(attempt)).thenReturn(attemptDocument);
+        when(writeBuffer.coalesceDeliveryAttempt(eq("missing"), any(), eq("SENT"), isNull())).thenReturn(Optional.empty());
+        givenConvertedAttempt(attemptDocument);
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class), eq(NotificationDocument.class))).thenReturn(null);
+
+        // When
+        Optional<NotificationStatus> result = mongoNotificationRepository.appendDeliveryAttempt("missing", attempt, NotificationStatus.SENT, null);
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void appendDeliveryAttempt_ShouldCoalesceIntoBufferedNotification() {
+        // Given
+        DeliveryAttempt attempt = new DeliveryAttempt(Channel.EMAIL, false, "Error sending email", LocalDateTime.now());
+        DeliveryAttemptDocument attemptDocument = new DeliveryAttemptDocument("EMAIL", true, null, LocalDateTime.now());
+        when(notificationMongoMapper.toDeliveryAttemptDocument(attempt)).thenReturn(attemptDocument);
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusMinutes(1);
+        when(writeBuffer.coalesceDeliveryAttempt("notif123", attemptDocument, "FAILED", nextAttemptAt)).thenReturn(Optional.of("PENDING"));
+
+        // When
+        Optional<NotificationStatus> result = mongoNotificationRepository.appendDeliveryAttempt("notif123", attempt, NotificationStatus.FAILED, nextAttemptAt);
+
+        // Then
+        assertEquals(Optional.of(NotificationStatus.PENDING), result);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void appendDeliveryAttempt_BufferedAndRead_ShouldReportStatusNotApplied() {
+        // Given
+        DeliveryAttempt attempt = new DeliveryAttempt(Channel.EMAIL, true, null, LocalDateTime.now());
+        when(writeBuffer.coalesceDeliveryAttempt(eq("notif123"), any(), eq("SENT"), isNull())).thenReturn(Optional.of("READ"));
+
+        // When
+        Optional<NotificationStatus> result = mongoNotificationRepository.appendDeliveryAttempt("notif123", attempt, NotificationStatus.SENT, null);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void claimDueEmailRetries_ShouldLeaseUntilNoneRemain() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusMinutes(5);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(NotificationDocument.class)))
+                .thenReturn(notificationDocument, (NotificationDocument) null);
+        when(notificationMongoMapper.toDomain(notificationDocument)).thenReturn(notification);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        List<Notification> result = mongoNotificationRepository.claimDueEmailRetries(now, leaseUntil, 10);
+
+        // Then
+        assertEquals(List.of(notification), result);
+        verify(mongoTemplate, times(2)).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(NotificationDocument.class));
+        Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertEquals(List.of("PENDING", "FAILED"), queryObject.get("status", Document.class).get("$in"));
+        assertEquals(now, queryObject.get("nextAttemptAt", Document.class).get("$lte"));
+        assertEquals(leaseUntil, updateCaptor.getValue().getUpdateObject().get("$set", Document.class).get("nextAttemptAt"));
+    }
+
+    @Test
+    void claimDueEmailRetries_ShouldStopAtLimit() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(NotificationDocument.class)))
+                .thenReturn(notificationDocument);
+        when(notificationMongoMapper.toDomain(notificationDocument)).thenReturn(notification);
+
+        // When
+        List<Notification> result = mongoNotificationRepository.claimDueEmailRetries(now, now.plusMinutes(5), 2);
+
+        // Then
+        assertEquals(2, result.size());
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(NotificationDocument.class));
+    }
+
+    @Test
+    void markRead_ShouldReturnReceiptFromPreviousDocument() {
+        // Given
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(NotificationDocument.class)))
+                .thenReturn(notificationDocument);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        Optional<ReadReceipt> result = mongoNotificationRepository.markRead("notif123");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals("user123", result.get().getUserId());
+        assertEquals(NotificationStatus.SENT, result.get().getPreviousStatus());
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), any(Update.class), eq(NotificationDocument.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("userId", 1).append("status", 1), query.getFieldsObject());
+        verify(mongoTemplate, never()).save(any(NotificationDocument.class));
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(NotificationDocument.class));
+    }
+
+    @Test
+    void markRead_ShouldReturnEmptyWhenMissingOrAlreadyRead() {
+        // Given
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(NotificationDocument.class)))
+                .thenReturn(null);
+
+        // When
+        Optional<ReadReceipt> result = mongoNotificationRepository.markRead("notif123");
+
+        // Then
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void markRead_ShouldApplyToBufferedNotification() {
+        // Given
+        notificationDocument.setStatus("PENDING");
+        when(writeBuffer.coalesce(eq("notif123"), any())).thenAnswer(invocation -> {
+            invocation.<java.util.function.Consumer<NotificationDocument>>getArgument(1).accept(notificationDocument);
+            return true;
+        });
+
+        // When
+        Optional<ReadReceipt> result = mongoNotificationRepository.markRead("notif123");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(NotificationStatus.PENDING, result.get().getPreviousStatus());
+        assertEquals("READ", notificationDocument.getStatus());
+        assertNotNull(notificationDocument.getReadAt());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void markAllRead_ShouldUpdateUnreadNotificationsInOneCall() {
+        // Given
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(NotificationDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(5, 5L, null));
+
+        // When
+        long result = mongoNotificationRepository.markAllRead("user123");
+
+        // Then
+        assertEquals(5L, result);
+        verify(writeBuffer, times(1)).flush();
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(NotificationDocument.class));
+    }
+
+    @Test
+    void findById_ShouldReturnBufferedNotificationBeforeQueryingMongo() {
+        // Given
+        when(writeBuffer.get("notif123")).thenReturn(Optional.of(notificationDocument));
+        when(notificationMongoMapper.toDomain(notificationDocument)).thenReturn(notification);
+
+        // When
+        Optional<Notification> result = mongoNotificationRepository.findById("notif123");
+
+        // Then
+        assertTrue(result.isPresent());
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(NotificationDocument.class));
+    }
+
+    @Test
+    void findPageByUserId_ShouldPushFiltersAndKeysetIntoQuery() {
+        // Given
+        NotificationCursor after = new NotificationCursor(LocalDateTime.of(2025, 1, 1, 12, 0), "notif200");
+        when(mongoTemplate.find(any(Query.class), eq(NotificationDocument.class))).thenReturn(List.of(notificationDocument));
+        when(notificationMongoMapper.toDomain(notificationDocument)).thenReturn(notification);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        List<Notification> result = mongoNotificationRepository.findPageByUserId("user123", "SENT", "ORDER_CONFIRMED", after, 21);
+
+        // Then
+        assertEquals(1, result.size());
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(NotificationDocument.class));
+        Query query = queryCaptor.getValue();
+        Document filter = query.getQueryObject();
+        assertEquals("user123", filter.get("userId"));
+        assertEquals("SENT", filter.get("status"));
+        assertEquals("ORDER_CONFIRMED", filter.get("type"));
+        assertTrue(filter.containsKey("$or"));
+        assertEquals(new Document("createdAt", -1).append("_id", -1), query.getSortObject());
+        assertEquals(21, query.getLimit());
+        assertRenderedEmailExcluded(query);
+    }
+
+    @Test
+    void findPageByUserId_FirstPageWithoutFilters_ShouldOnlyMatchUser() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(NotificationDocument.class))).thenReturn(List.of());
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        mongoNotificationRepository.findPageByUserId("user123", null, null, null, 51);
+
+        // Then
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(NotificationDocument.class));
+        assertEquals(new Document("userId", "user123"), queryCaptor.getValue().getQueryObject());
+    }
+
+    @Test
+    void findByUserIdAfter_ShouldQueryRangeAfterCursorOldestFirst() {
+        // Given
+        NotificationCursor after = new NotificationCursor(LocalDateTime.of(2025, 1, 1, 12, 0), "notif200");
+        when(mongoTemplate.find(any(Query.class), eq(NotificationDocument.class))).thenReturn(List.of(notificationDocument));
+        when(notificationMongoMapper.toDomain(notificationDocument)).thenReturn(notification);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        List<Notification> result = mongoNotificationRepository.findByUserIdAfter("user123", after, 101);
+
+        // Then
+        assertEquals(List.of(notification), result);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(NotificationDocument.class));
+        Query query = queryCaptor.getValue();
+        assertEquals("user123", query.getQueryObject().get("userId"));
+        assertTrue(query.getQueryObject().containsKey("$or"));
+        assertEquals(new Document("createdAt", 1).append("_id", 1), query.getSortObject());
+        assertEquals(101, query.getLimit());
+        assertRenderedEmailExcluded(query);
+    }
+
+    @Test
+    void aggregateStatsByUserId_ShouldGroupOnServerInOneAggregation() {
+        // Given
+        Document raw = new Document("byStatus", List.of(
+                        new Document("_id", "SENT").append("count", 2),
+                        new Document("_id", "READ").append("count", 1)))
+                .append("byType", List.of(new Document("_id", "ORDER_CONFIRMED").append("count", 3)))
+                .append("byDay", List.of(new Document("_id", "2025-01-02").append("count", 3)));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(NotificationDocument.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(raw), new Document()));
+        ArgumentCaptor<Aggregation> aggregationCaptor = ArgumentCaptor.forClass(Aggregation.class);
+
+        // When
+        NotificationStats stats = mongoNotificationRepository.aggregateStatsByUserId(
+                "user123", LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        // Then
+        assertEquals(2L, stats.getCountByStatus().get("SENT"));
+        assertEquals(1L, stats.getCountByStatus().get("READ"));
+        assertEquals(3L, stats.getCountByType().get("ORDER_CONFIRMED"));
+        assertEquals(3L, stats.getCountByDay().get(LocalDate.of(2025, 1, 2)));
+        verify(mongoTemplate).aggregate(aggregationCaptor.capture(), eq(NotificationDocument.class), eq(Document.class));
+        List<Document> pipeline = aggregationCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(new Document("$match", new Document("userId", "user123")), pipeline.get(0));
+        assertTrue(pipeline.get(pipeline.size() - 1).get("$facet", Document.class).containsKey("byDay"));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(NotificationDocument.class));
+    }
+
+    @Test
+    void aggregateStatsByUserId_WithoutDailyWindow_ShouldSkipDailyFacet() {
+        // Given
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(NotificationDocument.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        ArgumentCaptor<Aggregation> aggregationCaptor = ArgumentCaptor.forClass(Aggregation.class);
+
+        // When
+        NotificationStats stats = mongoNotificationRepository.aggregateStatsByUserId("user123", null);
+
+        // Then
+        assertTrue(stats.getCountByStatus().isEmpty());
+        assertNull(stats.getCountByDay());
+        verify(mongoTemplate).aggregate(aggregationCaptor.capture(), eq(NotificationDocument.class), eq(Document.class));
+        List<Document> pipeline = aggregationCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertFalse(pipeline.get(pipeline.size() - 1).get("$facet", Document.class).containsKey("byDay"));
+    }
+
+    @Test
+    void countUnreadByUserId_ShouldAddBufferedUnreadNotifications() {
+        // Given
+        when(mongoTemplate.count(any(Query.class), eq(NotificationDocument.class))).thenReturn(4L);
+        when(writeBuffer.countPending(any())).thenReturn(1L);
+
+        // When
+        long result = mongoNotificationRepository.countUnreadByUserId("user123");
+
+        // Then
+        assertEquals(5L, result);
+    }
+
     @Test
     void findById_ShouldReturnNotificationWhenFound() {
         // Given
         String id = "notif123";
-        when(mongoTemplate.findById(id, NotificationDocument.class)).thenReturn(notificationDocument);
+        when(mongoTemplate.findOne(any(Query.class), eq(NotificationDocument.class))).thenReturn(notificationDocument);
         when(notificationMongoMapper.toDomain(notificationDocument)).thenReturn(notification);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
 
         // When
         Optional<Notification> result = mongoNotificationRepository.findById(id);
@@ -98,7 +523,9 @@ class MongoNotificationRepositoryTest {
         // Then
         assertTrue(result.isPresent());
         assertEquals("notif123", result.get().getId().getValue());
-        verify(mongoTemplate, times(1)).findById(id, NotificationDocument.class);
+        verify(mongoTemplate, times(1)).findOne(queryCaptor.capture(), eq(NotificationDocument.class));
+        assertEquals(id, queryCaptor.getValue().getQueryObject().get("_id"));
+        assertRenderedEmailExcluded(queryCaptor.getValue());
         verify(notificationMongoMapper, times(1)).toDomain(notificationDocument);
     }
 
@@ -106,7 +533,7 @@ class MongoNotificationRepositoryTest {
     void findById_ShouldReturnEmptyOptionalWhenNotFound() {
         // Given
         String id = "notif999";
-        when(mongoTemplate.findById(id, NotificationDocument.class)).thenReturn(null);
+        when(mongoTemplate.findOne(any(Query.class), eq(NotificationDocument.class))).thenReturn(null);
         when(notificationMongoMapper.toDomain(null)).thenReturn(null);
 
         // When
@@ -114,7 +541,7 @@ class MongoNotificationRepositoryTest {
 
         // Then
         assertFalse(result.isPresent());
-        verify(mongoTemplate, times(1)).findById(id, NotificationDocument.class);
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(NotificationDocument.class));
     }
 
     @Test
@@ -124,6 +551,7 @@ class MongoNotificationRepositoryTest {
         List<NotificationDocument> documents = Arrays.asList(notificationDocument);
         when(mongoTemplate.find(any(Query.class), eq(NotificationDocument.class))).thenReturn(documents);
         when(notificationMongoMapper.toDomain(notificationDocument)).thenReturn(notification);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
 
         // When
         List<Notification> result = mongoNotificationRepository.findByUserId(userId);
@@ -132,7 +560,8 @@ class MongoNotificationRepositoryTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("user123", result.get(0).getUserId());
-        verify(mongoTemplate, times(1)).find(any(Query.class), eq(NotificationDocument.class));
+        verify(mongoTemplate, times(1)).find(queryCaptor.capture(), eq(NotificationDocument.class));
+        assertRenderedEmailExcluded(queryCaptor.getValue());
         verify(notificationMongoMapper, times(1)).toDomain(notificationDocument);
     }
 
@@ -286,5 +715,20 @@ class MongoNotificationRepositoryTest {
         assertEquals(2, result.size());
         verify(mongoTemplate, times(1)).find(any(Query.class), eq(NotificationDocument.class));
     }
-}
 
+    private Document givenConvertedAttempt(DeliveryAttemptDocument attemptDocument) {
+        Document attemptBson = new Document("channel", attemptDocument.getChannel())
+                .append("successful", attemptDocument.isSuccessful());
+        MongoConverter converter = mock(MongoConverter.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(converter.convertToMongoType(attemptDocument)).thenReturn(attemptBson);
+        return attemptBson;
+    }
+
+    private static void assertRenderedEmailExcluded(Query query) {
+        Document fields = query.getFieldsObject();
+        for (String field : List.of("emailTo", "emailSubject", "emailBody", "emailHtml")) {
+            assertEquals(0, fields.get(field));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package edu.dosw.infrastructure.persistence;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.OutboxMessage;
+import edu.dosw.infrastructure.persistence.documents.OutboxDocument;
+import edu.dosw.infrastructure.persistence.mappers.OutboxMongoMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoOutboxRepositoryTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private OutboxMongoMapper outboxMongoMapper;
+
+    @Mock
+    private NotificationWriteBuffer writeBuffer;
+
+    @InjectMocks
+    private MongoOutboxRepository repository;
+
+    @Test
+    void append_ShouldInsertAllMessagesInOneCall() {
+        // Given
+        OutboxMessage first = message("m1");
+        OutboxMessage second = message("m2");
+        when(outboxMongoMapper.toDocument(any(OutboxMessage.class))).thenReturn(new OutboxDocument());
+
+        // When
+        repository.append(List.of(first, second));
+
+        // Then
+        verify(mongoTemplate, times(1)).insert(argThat((Collection<OutboxDocument> documents) -> documents.size() == 2),
+                eq(OutboxDocument.class));
+    }
+
+    @Test
+    void append_WriteBehind_ShouldBufferMessagesWithTheNotification() {
+        // Given
+        OutboxDocument document = new OutboxDocument();
+        when(outboxMongoMapper.toDocument(any(OutboxMessage.class))).thenReturn(document);
+        when(writeBuffer.isEnabled()).thenReturn(true);
+
+        // When
+        repository.append(List.of(message("m1")));
+
+        // Then
+        verify(writeBuffer).addOutbox(List.of(document));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void append_EmptyList_ShouldNotTouchMongo() {
+        // When
+        repository.append(List.of());
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void claimDue_ShouldLeaseAndCountDeliveries() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusMinutes(1);
+        OutboxDocument document = new OutboxDocument();
+        OutboxMessage message = message("m1");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(OutboxDocument.class)))
+                .thenReturn(document, (OutboxDocument) null);
+        when(outboxMongoMapper.toDomain(document)).thenReturn(message);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        List<OutboxMessage> claimed = repository.claimDue(now, leaseUntil, 10);
+
+        // Then
+        assertEquals(List.of(message), claimed);
+        verify(mongoTemplate, times(2)).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(OutboxDocument.class));
+        assertEquals(now, queryCaptor.getValue().getQueryObject().get("availableAt", Document.class).get("$lte"));
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertEquals(leaseUntil, update.get("$set", Document.class).get("availableAt"));
+        assertEquals(1, update.get("$inc", Document.class).get("deliveries"));
+    }
+
+    @Test
+    void complete_ShouldRemoveMessageById() {
+        // Given
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        repository.complete("m1");
+
+        // Then
+        verify(mongoTemplate).remove(queryCaptor.capture(), eq(OutboxDocument.class));
+        assertEquals("m1", queryCaptor.getValue().getQueryObject().get("_id"));
+    }
+
+    @Test
+    void complete_BufferedMessage_ShouldDropItWithoutTouchingMongo() {
+        // Given
+        when(writeBuffer.removeOutbox("m1")).thenReturn(true);
+
+        // When
+        repository.complete("m1");
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void findNotificationsWithPendingEmail_ShouldIncludeBufferedEmailRows() {
+        // Given
+        OutboxDocument buffered = new OutboxDocument();
+        buffered.setNotificationId("n2");
+        buffered.setChannel("EMAIL");
+        when(writeBuffer.findPendingOutbox(any())).thenReturn(List.of(buffered));
+        when(mongoTemplate.find(any(Query.class), eq(OutboxDocument.class))).thenReturn(List.of());
+
+        // When
+        Set<String> pending = repository.findNotificationsWithPendingEmail(List.of("n1", "n2"));
+
+        // Then
+        assertEquals(Set.of("n2"), pending);
+    }
+
+    @Test
+    void findNotificationsWithPendingEmail_ShouldQueryEmailRowsOfTheGivenNotifications() {
+        // Given
+        OutboxDocument document = new OutboxDocument();
+        document.setNotificationId("n1");
+        when(mongoTemplate.find(any(Query.class), eq(OutboxDocument.class))).thenReturn(List.of(document));
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        Set<String> pending = repository.findNotificationsWithPendingEmail(List.of("n1", "n2"));
+
+        // Then
+        assertEquals(Set.of("n1"), pending);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(OutboxDocument.class));
+        Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertEquals("EMAIL", queryObject.get("channel"));
+        assertEquals(List.of("n1", "n2"), queryObject.get("notificationId", Document.class).get("$in"));
+    }
+
+    @Test
+    void findNotificationsWithPendingEmail_NoIds_ShouldNotTouchMongo() {
+        // When
+        Set<String> pending = repository.findNotificationsWithPendingEmail(List.of());
+
+        // Then
+        assertTrue(pending.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private OutboxMessage message(String id) {
+        return OutboxMessage.builder()
+                .id(id)
+                .notificationId("notif123")
+                .userId("user123")
+                .channel(Channel.WEB_SOCKET)
+                .createdAt(LocalDateTime.now())
+                .availableAt(LocalDateTime.now())
+                .build();
+    }
+}
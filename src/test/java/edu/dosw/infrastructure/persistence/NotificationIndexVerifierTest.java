@@ -0,0 +1,218 @@
+package edu.dosw.infrastructure.persistence;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import edu.dosw.infrastructure.persistence.documents.NotificationDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationIndexVerifierTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void everyQueryShape_ShouldBeServedByACompoundIndex() {
+        // Given
+        List<Document> indexes = Arrays.stream(NotificationDocument.class.getAnnotation(CompoundIndexes.class).value())
+                .map(CompoundIndex::def)
+                .map(Document::parse)
+                .toList();
+
+        // When
+        List<String> uncovered = new ArrayList<>();
+        NotificationQueries.representativeShapes().forEach((name, query) -> {
+            if (indexes.stream().noneMatch(index -> serves(index, query))) {
+                uncovered.add(name);
+            }
+        });
+
+        // Then
+        assertTrue(uncovered.isEmpty(), "Query shapes without a matching compound index: " + uncovered);
+    }
+
+    @Test
+    void planViolations_ShouldDetectCollectionScan() {
+        // Given
+        Document explain = explainWithPlan(new Document("stage", "COLLSCAN"));
+
+        // When & Then
+        assertEquals(List.of("COLLSCAN"), NotificationIndexVerifier.planViolations(explain));
+    }
+
+    @Test
+    void planViolations_ShouldDetectInMemorySortBelowLimit() {
+        // Given
+        Document explain = explainWithPlan(new Document("stage", "LIMIT")
+                .append("inputStage", new Document("stage", "SORT")
+                        .append("inputStage", new Document("stage", "FETCH")
+                                .append("inputStage", new Document("stage", "IXSCAN")))));
+
+        // When & Then
+        assertEquals(List.of("SORT"), NotificationIndexVerifier.planViolations(explain));
+    }
+
+    @Test
+    void planViolations_ShouldAcceptIndexScanIncludingOrBranches() {
+        // Given
+        Document explain = explainWithPlan(new Document("queryPlan", new Document("stage", "SUBPLAN")
+                .append("inputStage", new Document("stage", "SORT_MERGE")
+                        .append("inputStages", List.of(
+                                new Document("stage", "IXSCAN").append("indexName", "user_created_idx"),
+                                new Document("stage", "IXSCAN").append("indexName", "user_created_idx"))))));
+
+        // When & Then
+        assertTrue(NotificationIndexVerifier.planViolations(explain).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void verify_ShouldExplainEveryShapeAndReportViolations() {
+        // Given
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> find = mock(FindIterable.class);
+        when(mongoTemplate.getCollectionName(NotificationDocument.class)).thenReturn("notifications");
+        when(mongoTemplate.getCollection("notifications")).thenReturn(collection);
+        when(collection.find(any(Document.class))).thenReturn(find);
+        when(find.sort(any())).thenReturn(find);
+        lenient().when(find.limit(anyInt())).thenReturn(find);
+        when(find.explain()).thenReturn(
+                explainWithPlan(new Document("stage", "COLLSCAN")),
+                explainWithPlan(new Document("stage", "IXSCAN")));
+        NotificationIndexVerifier verifier = new NotificationIndexVerifier(mongoTemplate, false, true, true);
+
+        // When
+        Map<String, List<String>> violations = verifier.verify();
+
+        // Then
+        verify(find, times(NotificationQueries.representativeShapes().size())).explain();
+        assertEquals(Map.of("byUser", List.of("COLLSCAN")), violations);
+    }
+
+    @Test
+    void dropRedundantIndexes_ShouldOnlyDropLegacySingleFieldIndexes() {
+        // Given
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(NotificationDocument.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                index("_id_", "_id"),
+                index("userId", "userId"),
+                index("status", "status"),
+                index("user_status_created_idx", "userId", "status", "createdAt", "_id")));
+        NotificationIndexVerifier verifier = new NotificationIndexVerifier(mongoTemplate, true, false, true);
+
+        // When
+        List<String> dropped = verifier.dropRedundantIndexes();
+
+        // Then
+        assertEquals(List.of("userId", "status"), dropped);
+        verify(indexOperations, never()).dropIndex("_id_");
+        verify(indexOperations, never()).dropIndex("user_status_created_idx");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onApplicationReady_ShouldFailStartupWhenAQueryScansTheCollection() {
+        // Given
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> find = mock(FindIterable.class);
+        when(mongoTemplate.getCollectionName(NotificationDocument.class)).thenReturn("notifications");
+        when(mongoTemplate.getCollection("notifications")).thenReturn(collection);
+        when(collection.find(any(Document.class))).thenReturn(find);
+        when(find.sort(any())).thenReturn(find);
+        lenient().when(find.limit(anyInt())).thenReturn(find);
+        when(find.explain()).thenReturn(explainWithPlan(new Document("stage", "COLLSCAN")));
+        NotificationIndexVerifier verifier = new NotificationIndexVerifier(mongoTemplate, false, true, true);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, verifier::onApplicationReady);
+    }
+
+    @Test
+    void onApplicationReady_ShouldDoNothingWhenDisabled() {
+        // Given
+        NotificationIndexVerifier verifier = new NotificationIndexVerifier(mongoTemplate, false, false, true);
+
+        // When
+        verifier.onApplicationReady();
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    /**
+     * Regla ESR: los campos de igualdad deben ser el prefijo del indice y a continuacion las claves
+     * de orden en la misma direccion (o toda invertida).
+     */
+    private static boolean serves(Document index, Query query) {
+        List<String> indexKeys = new ArrayList<>(index.keySet());
+        Set<String> equality = new HashSet<>();
+        query.getQueryObject().forEach((field, value) -> {
+            if (!field.startsWith("$") && (!(value instanceof Document operators) || operators.containsKey("$in"))) {
+                equality.add(field);
+            }
+        });
+        if (indexKeys.size() < equality.size() || !new HashSet<>(indexKeys.subList(0, equality.size())).equals(equality)) {
+            return false;
+        }
+
+        List<Sort.Order> orders = query.getSortObject().entrySet().stream()
+                .map(e -> new Sort.Order(((Number) e.getValue()).intValue() > 0 ? Sort.Direction.ASC : Sort.Direction.DESC, e.getKey()))
+                .toList();
+        if (orders.isEmpty()) {
+            return true;
+        }
+        if (indexKeys.size() < equality.size() + orders.size()) {
+            return false;
+        }
+        Boolean reversed = null;
+        for (int i = 0; i < orders.size(); i++) {
+            String key = indexKeys.get(equality.size() + i);
+            if (!key.equals(orders.get(i).getProperty())) {
+                return false;
+            }
+            boolean sameDirection = (((Number) index.get(key)).intValue() > 0) == orders.get(i).isAscending();
+            if (reversed == null) {
+                reversed = !sameDirection;
+            } else if (reversed == sameDirection) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Document explainWithPlan(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+
+    private static IndexInfo index(String name, String... keys) {
+        List<IndexField> fields = Arrays.stream(keys)
+                .map(key -> IndexField.create(key, Sort.Direction.ASC))
+                .toList();
+        return new IndexInfo(fields, name, false, false, "");
+    }
+}
@@ -0,0 +1,281 @@
+package edu.dosw.infrastructure.persistence;
+
+import edu.dosw.infrastructure.persistence.documents.DeliveryAttemptDocument;
+import edu.dosw.infrastructure.persistence.documents.NotificationDocument;
+import edu.dosw.infrastructure.persistence.documents.OutboxDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationWriteBufferTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationDocument.class))
+                .thenReturn(bulkOperations);
+    }
+
+    @Test
+    void add_ShouldFlushWhenBatchSizeIsReached() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(2, 100);
+
+        // When
+        buffer.add(document("n1"));
+        buffer.add(document("n2"));
+
+        // Then
+        verify(bulkOperations, times(2)).replaceOne(any(Query.class), any(NotificationDocument.class), any(FindAndReplaceOptions.class));
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(0, buffer.size());
+        assertEquals(2.0, meterRegistry.get("notifications.persistence.write_behind.flushed").counter().count());
+    }
+
+    @Test
+    void add_ShouldRejectWhenBufferIsFull() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 1);
+        buffer.add(document("n1"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> buffer.add(document("n2")));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void coalesceDeliveryAttempt_ShouldMergeIntoPendingDocument() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        buffer.add(document("n1"));
+
+        // When
+        Optional<String> previous = buffer.coalesceDeliveryAttempt("n1", new DeliveryAttemptDocument("EMAIL", true, null, LocalDateTime.now()), "SENT", null);
+        buffer.flush();
+
+        // Then
+        assertEquals(Optional.of("PENDING"), previous);
+        verify(bulkOperations, times(1)).replaceOne(any(Query.class),
+                argThat((NotificationDocument doc) -> "SENT".equals(doc.getStatus()) && doc.getDeliveryAttempts().size() == 1),
+                any(FindAndReplaceOptions.class));
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(1.0, meterRegistry.get("notifications.persistence.write_behind.coalesced").counter().count());
+    }
+
+    @Test
+    void coalesceDeliveryAttempt_ShouldReturnEmptyWhenDocumentIsNotBuffered() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+
+        // When
+        Optional<String> previous = buffer.coalesceDeliveryAttempt("missing", new DeliveryAttemptDocument("EMAIL", true, null, LocalDateTime.now()), "SENT", null);
+
+        // Then
+        assertTrue(previous.isEmpty());
+    }
+
+    @Test
+    void coalesceDeliveryAttempt_ReadDocument_ShouldKeepReadStatus() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        NotificationDocument document = document("n1");
+        document.setStatus("READ");
+        buffer.add(document);
+
+        // When
+        Optional<String> previous = buffer.coalesceDeliveryAttempt("n1", new DeliveryAttemptDocument("EMAIL", false, "Error", LocalDateTime.now()), "FAILED", null);
+
+        // Then
+        assertEquals(Optional.of("READ"), previous);
+        assertEquals("READ", buffer.get("n1").orElseThrow().getStatus());
+        assertEquals(1, buffer.get("n1").orElseThrow().getDeliveryAttempts().size());
+    }
+
+    @Test
+    void countPending_ShouldApplyFilterToBufferedDocuments() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        buffer.add(document("n1"));
+        buffer.add(document("n2"));
+
+        // When
+        long count = buffer.countPending(doc -> "n1".equals(doc.getId()));
+
+        // Then
+        assertEquals(1, count);
+    }
+
+    @Test
+    void flush_ShouldRequeueBatchWhenMongoFails() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        buffer.add(document("n1"));
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("Mongo down"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, buffer::flush);
+        assertEquals(1, buffer.size());
+        assertTrue(buffer.get("n1").isPresent());
+    }
+
+    @Test
+    void coalesceDeliveryAttempt_FailedInFlightFlush_ShouldMergeIntoRequeuedDocument() throws Exception {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        buffer.add(document("n1"));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch failWrite = new CountDownLatch(1);
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            writing.countDown();
+            failWrite.await(1, TimeUnit.SECONDS);
+            throw new IllegalStateException("Mongo down");
+        });
+        Thread flusher = new Thread(() -> assertThrows(IllegalStateException.class, buffer::flush));
+        flusher.start();
+        assertTrue(writing.await(1, TimeUnit.SECONDS));
+
+        // When
+        AtomicReference<Optional<String>> previous = new AtomicReference<>();
+        Thread coalescer = new Thread(() -> previous.set(buffer.coalesceDeliveryAttempt("n1",
+                new DeliveryAttemptDocument("EMAIL", false, "SMTP caido", LocalDateTime.now()), "FAILED", null)));
+        coalescer.start();
+        while (coalescer.getState() != Thread.State.WAITING && coalescer.isAlive()) {
+            Thread.onSpinWait();
+        }
+        failWrite.countDown();
+        flusher.join(1000);
+        coalescer.join(1000);
+
+        // Then
+        assertEquals(Optional.of("PENDING"), previous.get());
+        NotificationDocument requeued = buffer.get("n1").orElseThrow();
+        assertEquals("FAILED", requeued.getStatus());
+        assertEquals(1, requeued.getDeliveryAttempts().size());
+    }
+
+    @Test
+    void flush_ShouldWriteOutboxAfterNotificationsInTheSameFlush() {
+        // Given
+        BulkOperations outboxBulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxDocument.class)).thenReturn(outboxBulk);
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        buffer.add(document("n1"));
+        buffer.addOutbox(List.of(outbox("m1", "n1")));
+
+        // When
+        buffer.flush();
+
+        // Then
+        var inOrder = inOrder(bulkOperations, outboxBulk);
+        inOrder.verify(bulkOperations).execute();
+        inOrder.verify(outboxBulk).replaceOne(any(Query.class), any(OutboxDocument.class), any(FindAndReplaceOptions.class));
+        inOrder.verify(outboxBulk).execute();
+        assertTrue(buffer.findPendingOutbox(document -> true).isEmpty());
+    }
+
+    @Test
+    void flush_ShouldRequeueOutboxWhenMongoFails() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        buffer.add(document("n1"));
+        buffer.addOutbox(List.of(outbox("m1", "n1")));
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("Mongo down"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, buffer::flush);
+        assertEquals(1, buffer.findPendingOutbox(document -> true).size());
+    }
+
+    @Test
+    void removeOutbox_ShouldDropMessageBeforeItIsWritten() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+        buffer.addOutbox(List.of(outbox("m1", "n1")));
+
+        // When
+        boolean removed = buffer.removeOutbox("m1");
+
+        // Then
+        assertTrue(removed);
+        assertFalse(buffer.removeOutbox("m1"));
+        buffer.flush();
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void flush_ShouldDoNothingWhenEmpty() {
+        // Given
+        NotificationWriteBuffer buffer = buffer(10, 100);
+
+        // When
+        buffer.flush();
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void scheduledFlush_ShouldBeSkippedWhenDisabled() {
+        // Given
+        NotificationWriteBuffer buffer = new NotificationWriteBuffer(mongoTemplate, meterRegistry, false, 10, 100);
+        buffer.add(document("n1"));
+
+        // When
+        buffer.scheduledFlush();
+
+        // Then
+        assertEquals(1, buffer.size());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private NotificationWriteBuffer buffer(int batchSize, int maxPending) {
+        return new NotificationWriteBuffer(mongoTemplate, meterRegistry, true, batchSize, maxPending);
+    }
+
+    private OutboxDocument outbox(String id, String notificationId) {
+        OutboxDocument document = new OutboxDocument();
+        document.setId(id);
+        document.setNotificationId(notificationId);
+        document.setChannel("EMAIL");
+        return document;
+    }
+
+    private NotificationDocument document(String id) {
+        NotificationDocument document = new NotificationDocument();
+        document.setId(id);
+        document.setUserId("user123");
+        document.setStatus("PENDING");
+        document.setDeliveryAttempts(new ArrayList<>());
+        return document;
+    }
+}
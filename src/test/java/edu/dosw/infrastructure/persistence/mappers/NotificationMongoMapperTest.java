@@ -342,5 +342,30 @@ class NotificationMongoMapperTest {
         assertNotNull(notification.getDeliveryAttempts());
         assertTrue(notification.getDeliveryAttempts().isEmpty());
     }
-}
 
+    @Test
+    void renderedEmail_ShouldRoundTrip() {
+        // Given
+        Notification notification = Notification.builder()
+                .id(new NotificationId("notif123"))
+                .userId("user123")
+                .title("Title")
+                .message("Message")
+                .type(NotificationType.PAYMENT_FAILED)
+                .status(NotificationStatus.PENDING)
+                .channels(new ArrayList<>())
+                .deliveryAttempts(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .renderedEmail(EmailMessage.html("test@example.com", "Pago Fallido", "<p>Hola</p>"))
+                .build();
+
+        // When
+        NotificationDocument document = mapper.toDocument(notification);
+        Notification mapped = mapper.toDomain(document);
+
+        // Then
+        assertEquals("<p>Hola</p>", document.getEmailBody());
+        assertTrue(document.isEmailHtml());
+        assertEquals(notification.getRenderedEmail(), mapped.getRenderedEmail());
+    }
+}
@@ -0,0 +1,75 @@
+package edu.dosw.infrastructure.persistence.mappers;
+
+import edu.dosw.domain.model.ValueObject.Channel;
+import edu.dosw.domain.model.ValueObject.EmailMessage;
+import edu.dosw.domain.model.ValueObject.OutboxMessage;
+import edu.dosw.infrastructure.persistence.documents.OutboxDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxMongoMapperTest {
+
+    private OutboxMongoMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new OutboxMongoMapper();
+    }
+
+    @Test
+    void emailMessage_ShouldRoundTrip() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage message = OutboxMessage.builder()
+                .id("m1")
+                .notificationId("notif123")
+                .userId("user123")
+                .channel(Channel.EMAIL)
+                .email(EmailMessage.html("user@example.com", "Subject", "<p>Hi</p>"))
+                .deliveries(2)
+                .createdAt(now)
+                .availableAt(now.plusMinutes(1))
+                .build();
+
+        // When
+        OutboxDocument document = mapper.toDocument(message);
+        OutboxMessage result = mapper.toDomain(document);
+
+        // Then
+        assertEquals("EMAIL", document.getChannel());
+        assertEquals("user@example.com", document.getEmailTo());
+        assertTrue(document.isEmailHtml());
+        assertEquals(message, result);
+    }
+
+    @Test
+    void webSocketMessage_ShouldHaveNoEmail() {
+        // Given
+        OutboxMessage message = OutboxMessage.builder()
+                .id("m2")
+                .notificationId("notif123")
+                .userId("user123")
+                .channel(Channel.WEB_SOCKET)
+                .createdAt(LocalDateTime.now())
+                .availableAt(LocalDateTime.now())
+                .build();
+
+        // When
+        OutboxMessage result = mapper.toDomain(mapper.toDocument(message));
+
+        // Then
+        assertEquals(Channel.WEB_SOCKET, result.getChannel());
+        assertNull(result.getEmail());
+    }
+
+    @Test
+    void nullInput_ShouldReturnNull() {
+        // When & Then
+        assertNull(mapper.toDocument(null));
+        assertNull(mapper.toDomain(null));
+    }
+}
@@ -0,0 +1,79 @@
+package edu.dosw.infrastructure.web.controllers;
+
+import edu.dosw.infrastructure.event.deadletter.DeadLetterEvent;
+import edu.dosw.infrastructure.event.deadletter.DeadLetterQueue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterControllerTest {
+
+    @Mock
+    private DeadLetterQueue deadLetterQueue;
+
+    @InjectMocks
+    private DeadLetterController deadLetterController;
+
+    @Test
+    void list_ShouldReturnEntriesWithoutPayload() {
+        // Given
+        DeadLetterEvent event = DeadLetterEvent.builder()
+                .id("dl-1").eventId("evt-1").eventType("order.new").payload("{\"email\":\"a@b.com\"}")
+                .attempts(5).status(DeadLetterEvent.Status.QUARANTINED)
+                .build();
+        when(deadLetterQueue.list(DeadLetterEvent.Status.QUARANTINED, 50)).thenReturn(List.of(event));
+
+        // When
+        ResponseEntity<List<DeadLetterController.DeadLetterView>> response = deadLetterController.list("quarantined", 50);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        DeadLetterController.DeadLetterView view = response.getBody().get(0);
+        assertEquals("dl-1", view.getId());
+        assertEquals("QUARANTINED", view.getStatus());
+        assertEquals(event.getPayload().length(), view.getPayloadSize());
+    }
+
+    @Test
+    void list_InvalidStatusOrLimit_ShouldReturnBadRequest() {
+        // When & Then
+        assertEquals(HttpStatus.BAD_REQUEST, deadLetterController.list("LOST", 50).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, deadLetterController.list("PENDING", 0).getStatusCode());
+        verifyNoInteractions(deadLetterQueue);
+    }
+
+    @Test
+    void replay_ShouldReturnAcceptedOrNotFound() {
+        // Given
+        when(deadLetterQueue.replay("dl-1")).thenReturn(true);
+        when(deadLetterQueue.replay("missing")).thenReturn(false);
+
+        // When & Then
+        assertEquals(HttpStatus.ACCEPTED, deadLetterController.replay("dl-1").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, deadLetterController.replay("missing").getStatusCode());
+    }
+
+    @Test
+    void replayQuarantined_ShouldReturnRequeuedCount() {
+        // Given
+        when(deadLetterQueue.replayQuarantined()).thenReturn(4L);
+
+        // When
+        ResponseEntity<Map<String, Object>> response = deadLetterController.replayQuarantined();
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(4L, response.getBody().get("requeued"));
+    }
+}
@@ -1,6 +1,8 @@
 package edu.dosw.infrastructure.web.controllers;
 
+import edu.dosw.application.dto.query.NotificationPageResponse;
 import edu.dosw.application.dto.query.NotificationResponse;
+import edu.dosw.application.dto.query.NotificationStatsResponse;
 import edu.dosw.application.ports.NotificationQueryPort;
 import edu.dosw.infrastructure.web.mappers.NotificationWebMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -57,117 +59,66 @@ class NotificationControllerTest {
     void getUserNotifications_ShouldReturnNotifications() {
         // Given
         String userId = "user123";
-        List<NotificationResponse> notifications = Arrays.asList(notificationResponse);
-        when(notificationQueryPort.getByUserId(userId)).thenReturn(notifications);
+        NotificationPageResponse page = NotificationPageResponse.builder()
+                .items(Arrays.asList(notificationResponse))
+                .build();
+        when(notificationQueryPort.getPageByUserId(userId, null, null, null, 50)).thenReturn(page);
 
         // When
-        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, null);
+        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, null, null, 50);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         assertEquals("notif123", response.getBody().get(0).getId());
-        verify(notificationQueryPort, times(1)).getByUserId(userId);
+        assertFalse(response.getHeaders().containsKey("X-Next-Cursor"));
+        verify(notificationQueryPort, times(1)).getPageByUserId(userId, null, null, null, 50);
     }
 
     @Test
-    void getUserNotifications_ShouldFilterByStatus() {
+    void getUserNotifications_ShouldPassFiltersAndCursorToQuery() {
         // Given
         String userId = "user123";
-        NotificationResponse sentNotif = NotificationResponse.builder()
-                .id("notif1")
-                .userId(userId)
-                .status("SENT")
+        NotificationPageResponse page = NotificationPageResponse.builder()
+                .items(Arrays.asList(notificationResponse))
+                .nextCursor("next-cursor")
                 .build();
-
-        NotificationResponse readNotif = NotificationResponse.builder()
-                .id("notif2")
-                .userId(userId)
-                .status("READ")
-                .build();
-
-        List<NotificationResponse> notifications = Arrays.asList(sentNotif, readNotif);
-        when(notificationQueryPort.getByUserId(userId)).thenReturn(notifications);
+        when(notificationQueryPort.getPageByUserId(userId, "SENT", "ORDER_CONFIRMED", "cursor", 20)).thenReturn(page);
 
         // When
-        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, "SENT", null);
+        ResponseEntity<List<NotificationResponse>> response =
+                notificationController.getUserNotifications(userId, "SENT", "ORDER_CONFIRMED", "cursor", 20);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
-        assertEquals("SENT", response.getBody().get(0).getStatus());
+        assertEquals("next-cursor", response.getHeaders().getFirst("X-Next-Cursor"));
+        verify(notificationQueryPort, never()).getByUserId(anyString());
     }
 
     @Test
-    void getUserNotifications_ShouldFilterByType() {
+    void getUserNotifications_ShouldReturnBadRequestOnInvalidCursor() {
         // Given
         String userId = "user123";
-        NotificationResponse orderNotif = NotificationResponse.builder()
-                .id("notif1")
-                .userId(userId)
-                .type("ORDER_CONFIRMED")
-                .build();
-
-        NotificationResponse paymentNotif = NotificationResponse.builder()
-                .id("notif2")
-                .userId(userId)
-                .type("PAYMENT_COMPLETED")
-                .build();
-
-        List<NotificationResponse> notifications = Arrays.asList(orderNotif, paymentNotif);
-        when(notificationQueryPort.getByUserId(userId)).thenReturn(notifications);
+        when(notificationQueryPort.getPageByUserId(userId, null, null, "broken", 50))
+                .thenThrow(new IllegalArgumentException("Invalid pagination cursor"));
 
         // When
-        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, "ORDER_CONFIRMED");
+        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, null, "broken", 50);
 
         // Then
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
-        assertEquals("ORDER_CONFIRMED", response.getBody().get(0).getType());
-    }
-
-    @Test
-    void getUserNotifications_ShouldFilterByStatusAndType() {
-        // Given
-        String userId = "user123";
-        NotificationResponse matchingNotif = NotificationResponse.builder()
-                .id("notif1")
-                .userId(userId)
-                .status("SENT")
-                .type("ORDER_CONFIRMED")
-                .build();
-
-        NotificationResponse nonMatchingNotif = NotificationResponse.builder()
-                .id("notif2")
-                .userId(userId)
-                .status("READ")
-                .type("PAYMENT_COMPLETED")
-                .build();
-
-        List<NotificationResponse> notifications = Arrays.asList(matchingNotif, nonMatchingNotif);
-        when(notificationQueryPort.getByUserId(userId)).thenReturn(notifications);
-
-        // When
-        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, "SENT", "ORDER_CONFIRMED");
-
-        // Then
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
-        assertEquals("notif1", response.getBody().get(0).getId());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     @Test
     void getUserNotifications_ShouldReturnInternalServerErrorOnException() {
         // Given
         String userId = "user123";
-        when(notificationQueryPort.getByUserId(userId)).thenThrow(new RuntimeException("Database error"));
+        when(notificationQueryPort.getPageByUserId(userId, null, null, null, 50)).thenThrow(new RuntimeException("Database error"));
 
         // When
-        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, null);
+        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, null, null, 50);
 
         // Then
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -273,6 +224,59 @@ class NotificationControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
+    @Test
+    void getUnreadCount_ShouldReturnCount() {
+        // Given
+        when(notificationQueryPort.getUnreadCount("user123")).thenReturn(5L);
+
+        // When
+        ResponseEntity<Map<String, Object>> response = notificationController.getUnreadCount("user123");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(5L, response.getBody().get("unreadCount"));
+    }
+
+    @Test
+    void getUnreadCount_ShouldReturnInternalServerErrorOnException() {
+        // Given
+        when(notificationQueryPort.getUnreadCount("user123")).thenThrow(new RuntimeException("Redis down"));
+
+        // When
+        ResponseEntity<Map<String, Object>> response = notificationController.getUnreadCount("user123");
+
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    void markAllAsRead_ShouldReturnUpdatedCount() {
+        // Given
+        String userId = "user123";
+        when(notificationQueryPort.markAllAsRead(userId)).thenReturn(3L);
+
+        // When
+        ResponseEntity<Map<String, Object>> response = notificationController.markAllAsRead(userId);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3L, response.getBody().get("markedAsRead"));
+        verify(notificationQueryPort, times(1)).markAllAsRead(userId);
+    }
+
+    @Test
+    void markAllAsRead_ShouldReturnInternalServerErrorOnException() {
+        // Given
+        String userId = "user123";
+        when(notificationQueryPort.markAllAsRead(userId)).thenThrow(new RuntimeException("Database error"));
+
+        // When
+        ResponseEntity<Map<String, Object>> response = notificationController.markAllAsRead(userId);
+
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
     @Test
     void deleteNotification_ShouldReturnOk() {
         // Given
@@ -289,30 +293,18 @@ class NotificationControllerTest {
     void getUserNotificationStats_ShouldReturnStatsCorrectly() {
         // Given
         String userId = "user123";
-
-        NotificationResponse sentNotif1 = NotificationResponse.builder()
-                .id("notif1")
-                .userId(userId)
-                .status("SENT")
-                .build();
-
-        NotificationResponse sentNotif2 = NotificationResponse.builder()
-                .id("notif2")
+        NotificationStatsResponse summary = NotificationStatsResponse.builder()
                 .userId(userId)
-                .status("PENDING")
+                .totalNotifications(3)
+                .unreadNotifications(2)
+                .readNotifications(1)
+                .byStatus(Map.of("SENT", 1L, "PENDING", 1L, "READ", 1L))
+                .byType(Map.of("ORDER_CONFIRMED", 3L))
                 .build();
-
-        NotificationResponse readNotif = NotificationResponse.builder()
-                .id("notif3")
-                .userId(userId)
-                .status("READ")
-                .build();
-
-        List<NotificationResponse> notifications = Arrays.asList(sentNotif1, sentNotif2, readNotif);
-        when(notificationQueryPort.getByUserId(userId)).thenReturn(notifications);
+        when(notificationQueryPort.getStatsByUserId(userId, null)).thenReturn(summary);
 
         // When
-        ResponseEntity<Object> response = notificationController.getUserNotificationStats(userId);
+        ResponseEntity<Object> response = notificationController.getUserNotificationStats(userId, null);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -324,16 +316,54 @@ class NotificationControllerTest {
         assertEquals(2L, stats.get("unreadNotifications"));
         assertEquals(1L, stats.get("readNotifications"));
         assertEquals(userId, stats.get("userId"));
+        assertEquals(Map.of("ORDER_CONFIRMED", 3L), stats.get("byType"));
+        assertFalse(stats.containsKey("byDay"));
+        verify(notificationQueryPort, never()).getByUserId(anyString());
+    }
+
+    @Test
+    void getUserNotificationStats_ShouldIncludeDailyCountsWhenRequested() {
+        // Given
+        String userId = "user123";
+        NotificationStatsResponse summary = NotificationStatsResponse.builder()
+                .userId(userId)
+                .byStatus(Map.of())
+                .byType(Map.of())
+                .byDay(Map.of("2025-01-01", 2L))
+                .build();
+        when(notificationQueryPort.getStatsByUserId(userId, 7)).thenReturn(summary);
+
+        // When
+        ResponseEntity<Object> response = notificationController.getUserNotificationStats(userId, 7);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stats = (Map<String, Object>) response.getBody();
+        assertEquals(Map.of("2025-01-01", 2L), stats.get("byDay"));
+    }
+
+    @Test
+    void getUserNotificationStats_ShouldRejectOutOfRangeDays() {
+        // When
+        ResponseEntity<Object> response = notificationController.getUserNotificationStats("user123", 0);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(notificationQueryPort);
     }
 
     @Test
     void getUserNotificationStats_ShouldReturnZeroStatsWhenNoNotifications() {
         // Given
         String userId = "user123";
-        when(notificationQueryPort.getByUserId(userId)).thenReturn(new ArrayList<>());
+        when(notificationQueryPort.getStatsByUserId(userId, null)).thenReturn(NotificationStatsResponse.builder()
+                .userId(userId)
+                .byStatus(Map.of())
+                .byType(Map.of())
+                .build());
 
         // When
-        ResponseEntity<Object> response = notificationController.getUserNotificationStats(userId);
+        ResponseEntity<Object> response = notificationController.getUserNotificationStats(userId, null);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -350,10 +380,10 @@ class NotificationControllerTest {
     void getUserNotificationStats_ShouldReturnInternalServerErrorOnException() {
         // Given
         String userId = "user123";
-        when(notificationQueryPort.getByUserId(userId)).thenThrow(new RuntimeException("Database error"));
+        when(notificationQueryPort.getStatsByUserId(userId, null)).thenThrow(new RuntimeException("Database error"));
 
         // When
-        ResponseEntity<Object> response = notificationController.getUserNotificationStats(userId);
+        ResponseEntity<Object> response = notificationController.getUserNotificationStats(userId, null);
 
         // Then
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -363,10 +393,11 @@ class NotificationControllerTest {
     void getUserNotifications_ShouldReturnEmptyListWhenNoNotifications() {
         // Given
         String userId = "user123";
-        when(notificationQueryPort.getByUserId(userId)).thenReturn(new ArrayList<>());
+        when(notificationQueryPort.getPageByUserId(userId, null, null, null, 50))
+                .thenReturn(NotificationPageResponse.builder().items(new ArrayList<>()).build());
 
         // When
-        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, null);
+        ResponseEntity<List<NotificationResponse>> response = notificationController.getUserNotifications(userId, null, null, null, 50);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
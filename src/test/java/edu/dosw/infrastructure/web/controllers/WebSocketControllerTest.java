@@ -0,0 +1,107 @@
+package edu.dosw.infrastructure.web.controllers;
+
+import edu.dosw.application.ports.NotificationQueryPort;
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.ports.WebSocketEmitterPort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.dosw.infrastructure.websocket.WebSocketFanout;
+import edu.dosw.infrastructure.websocket.WebSocketFrameEncoder;
+import edu.dosw.infrastructure.websocket.replay.NotificationReplayer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketControllerTest {
+
+    @Mock
+    private WebSocketFanout webSocketFanout;
+
+    @Mock
+    private NotificationQueryPort notificationQueryPort;
+
+    @Mock
+    private NotificationReplayer notificationReplayer;
+
+    @Mock
+    private WebSocketEmitterPort webSocketEmitterPort;
+
+    private WebSocketController webSocketController;
+
+    @BeforeEach
+    void setUp() {
+        webSocketController = new WebSocketController(webSocketFanout,
+                new WebSocketFrameEncoder(new ObjectMapper().findAndRegisterModules()), notificationQueryPort,
+                notificationReplayer, webSocketEmitterPort);
+    }
+
+    @Test
+    void handleMarkAsRead_ShouldMarkNotificationAndConfirmToUser() {
+        // Given
+        Map<String, Object> message = Map.of("notificationId", "notif123", "userId", "user123");
+
+        // When
+        webSocketController.handleMarkAsRead(message);
+
+        // Then
+        var inOrder = inOrder(notificationQueryPort, webSocketFanout);
+        inOrder.verify(notificationQueryPort).markAsRead("notif123");
+        inOrder.verify(webSocketFanout).sendToUser(eq("user123"), eq("/topic/notifications/user123"),
+                argThat((Supplier<byte[]> frame) -> new String(frame.get(), StandardCharsets.UTF_8)
+                        .contains("\"type\":\"NOTIFICATION_READ\"")));
+    }
+
+    @Test
+    void handleSubscription_WithoutLastSeenId_ShouldNotReplay() {
+        // When
+        Map<String, Object> response = webSocketController.handleSubscription(Map.of("userId", "user123"));
+
+        // Then
+        assertEquals("SUBSCRIPTION_CONFIRMED", response.get("type"));
+        assertEquals(0, response.get("replayed"));
+        verifyNoInteractions(notificationReplayer, webSocketEmitterPort);
+    }
+
+    @Test
+    void handleSubscription_WithLastSeenId_ShouldReplayMissedNotifications() {
+        // Given
+        List<Notification> missed = List.of(mock(Notification.class), mock(Notification.class));
+        when(notificationReplayer.missedSince("user123", "notif1"))
+                .thenReturn(new NotificationReplayer.Replay(missed, false));
+
+        // When
+        Map<String, Object> response = webSocketController.handleSubscription(
+                Map.of("userId", "user123", "lastSeenId", "notif1"));
+
+        // Then
+        verify(webSocketEmitterPort).emitBatchNotifications(missed);
+        assertEquals(2, response.get("replayed"));
+        assertEquals(false, response.get("resyncRequired"));
+    }
+
+    @Test
+    void handleSubscription_GapTooLarge_ShouldAskClientToResync() {
+        // Given
+        when(notificationReplayer.missedSince("user123", "notif1"))
+                .thenReturn(new NotificationReplayer.Replay(List.of(), true));
+
+        // When
+        Map<String, Object> response = webSocketController.handleSubscription(
+                Map.of("userId", "user123", "lastSeenId", "notif1"));
+
+        // Then
+        verifyNoInteractions(webSocketEmitterPort);
+        assertEquals(true, response.get("resyncRequired"));
+    }
+}
@@ -0,0 +1,277 @@
+package edu.dosw.infrastructure.websocket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Dos replicas en el mismo proceso, cada una con su registro de sesiones, su broker simulado y su
+ * contenedor de suscripciones, compartiendo un Redis embebido.
+ */
+class RedisWebSocketFanoutTest {
+
+    private static final String PREFIX = "test:ws:";
+    private static final byte[] FRAME = "{\"type\":\"NOTIFICATION\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    void sendToUser_UserOnOtherReplica_ShouldBeDeliveredThere() {
+        // Given
+        nodeB.connect("s1", "user1");
+        awaitSubscribers(nodeB.shardChannel("user1"));
+
+        // When
+        nodeA.fanout.sendToUser("user1", "/topic/notifications/user1", () -> FRAME);
+
+        // Then
+        verify(nodeB.template, timeout(2000)).send(eq("/topic/notifications/user1"),
+                argThat((Message<?> message) -> "{\"type\":\"NOTIFICATION\"}".equals(
+                        new String((byte[]) message.getPayload(), StandardCharsets.UTF_8))));
+        verify(nodeA.template, never()).send(anyString(), any());
+        assertEquals(1.0, nodeA.frames("published"));
+    }
+
+    @Test
+    void sendToUser_UserOnlyOnThisReplica_ShouldNotTouchPubSub() {
+        // Given
+        nodeA.connect("s1", "user1");
+
+        // When
+        nodeA.fanout.sendToUser("user1", "/topic/notifications/user1", () -> FRAME);
+
+        // Then
+        verify(nodeA.template).send(eq("/topic/notifications/user1"), any());
+        assertEquals(1.0, nodeA.frames("local"));
+        assertEquals(0.0, nodeA.frames("published"));
+    }
+
+    @Test
+    void sendToUser_UserOnBothReplicas_ShouldReachEverySession() {
+        // Given
+        nodeA.connect("s1", "user1");
+        nodeB.connect("s2", "user1");
+        awaitSubscribers(nodeA.shardChannel("user1"), 2);
+
+        // When
+        nodeA.fanout.sendToUser("user1", "/topic/notifications/user1", () -> FRAME);
+
+        // Then
+        verify(nodeA.template, timeout(2000)).send(eq("/topic/notifications/user1"), any());
+        verify(nodeB.template, timeout(2000)).send(eq("/topic/notifications/user1"), any());
+    }
+
+    @Test
+    void sendToUser_OfflineUser_ShouldNotSerializeOrPublish() {
+        // Given
+        AtomicInteger built = new AtomicInteger();
+
+        // When
+        nodeA.fanout.sendToUser("ghost", "/topic/notifications/ghost", () -> {
+            built.incrementAndGet();
+            return FRAME;
+        });
+
+        // Then
+        assertEquals(0, built.get());
+        assertEquals(1.0, nodeA.frames("offline"));
+        assertEquals(0.0, nodeA.frames("published"));
+    }
+
+    @Test
+    void isUserOnline_ShouldSeeSessionsOfOtherReplicas() {
+        // Given
+        nodeB.connect("s1", "user1");
+
+        // When & Then
+        assertTrue(nodeA.fanout.isUserOnline("user1"));
+        nodeB.registry.disconnected("s1");
+        assertFalse(nodeA.fanout.isUserOnline("user1"));
+    }
+
+    @Test
+    void sendToAll_ShouldReachEveryReplica() {
+        // Given
+        awaitSubscribers(PREFIX + "global", 2);
+
+        // When
+        nodeA.fanout.sendToAll("/topic/notifications", FRAME);
+
+        // Then
+        verify(nodeA.template, timeout(2000)).send(eq("/topic/notifications"), any());
+        verify(nodeB.template, timeout(2000)).send(eq("/topic/notifications"), any());
+    }
+
+    @Test
+    void shardSubscription_ShouldFollowLocalUsers() {
+        // Given
+        int shard = nodeB.fanout.shardOf("user1");
+
+        // When
+        nodeB.connect("s1", "user1");
+
+        // Then
+        assertTrue(nodeB.fanout.isSubscribed(shard));
+        assertFalse(nodeA.fanout.isSubscribed(shard));
+        nodeB.registry.disconnected("s1");
+        assertFalse(nodeB.fanout.isSubscribed(shard));
+    }
+
+    @Test
+    void refreshPresence_ShouldRestoreExpiredPresence() {
+        // Given
+        nodeB.connect("s1", "user1");
+        redisTemplate.delete(PREFIX + "presence:user1");
+
+        // When
+        nodeB.fanout.refreshPresence();
+
+        // Then
+        assertEquals(java.util.Set.of("node-b"), redisTemplate.opsForSet().members(PREFIX + "presence:user1"));
+        assertTrue(redisTemplate.getExpire(PREFIX + "presence:user1") > 0);
+    }
+
+    @Test
+    void shutdown_ShouldWithdrawPresence() {
+        // Given
+        nodeB.connect("s1", "user1");
+
+        // When
+        nodeB.fanout.shutdown();
+
+        // Then
+        assertFalse(nodeA.fanout.isUserOnline("user1"));
+    }
+
+    private void awaitSubscribers(String channel) {
+        awaitSubscribers(channel, 1);
+    }
+
+    // PUBLISH devuelve cuantos suscriptores recibieron la sonda; un cuerpo sin separadores se descarta
+    private void awaitSubscribers(String channel, long expected) {
+        await(() -> {
+            Long receivers = redisTemplate.convertAndSend(channel, "probe");
+            return receivers != null && receivers >= expected;
+        });
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met in time");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final class Node {
+
+        final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final WebSocketSessionRegistry registry = new WebSocketSessionRegistry(meterRegistry);
+        final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        final RedisWebSocketFanout fanout;
+
+        Node(String nodeId) throws Exception {
+            container.setConnectionFactory(connectionFactory);
+            container.afterPropertiesSet();
+            fanout = new RedisWebSocketFanout(new StringRedisTemplate(connectionFactory), container, template, registry,
+                    RedisWebSocketFanout.Settings.builder()
+                    .nodeId(nodeId)
+                    .keyPrefix(PREFIX)
+                    .shards(4)
+                    .presenceTtl(Duration.ofSeconds(30))
+                    .build(), meterRegistry);
+            container.start();
+        }
+
+        void connect(String sessionId, String userId) {
+            registry.subscribed(sessionId, "sub-0", userId);
+        }
+
+        String shardChannel(String userId) {
+            return PREFIX + "shard:" + fanout.shardOf(userId);
+        }
+
+        double frames(String outcome) {
+            return meterRegistry.get("notifications.websocket.relay.frames").tag("outcome", outcome).counter().count();
+        }
+
+        void stop() throws Exception {
+            container.stop();
+            container.destroy();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package edu.dosw.infrastructure.websocket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlowConsumerMonitorTest {
+
+    @Mock
+    private SubProtocolWebSocketHandler subProtocolHandler;
+
+    @Mock
+    private SubProtocolWebSocketHandler.Stats stats;
+
+    @Mock
+    private WebSocketSession session;
+
+    private MeterRegistry meterRegistry;
+    private SlowConsumerMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new SlowConsumerMonitor(subProtocolHandler, meterRegistry);
+    }
+
+    @Test
+    void evictions_ShouldReportSessionsOverSendLimits() {
+        // Given
+        when(subProtocolHandler.getStats()).thenReturn(stats);
+        when(stats.getLimitExceededSessions()).thenReturn(3);
+
+        // When
+        double evictions = meterRegistry.get("notifications.websocket.evictions").functionCounter().count();
+
+        // Then
+        assertEquals(3.0, evictions);
+    }
+
+    @Test
+    void afterConnectionClosed_ShouldDelegateToStompHandler() throws Exception {
+        // When
+        monitor.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+
+        // Then
+        verify(subProtocolHandler).afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void handleTransportError_ShouldCountAndDelegate() throws Exception {
+        // Given
+        IOException error = new IOException("Broken pipe");
+
+        // When
+        monitor.handleTransportError(session, error);
+
+        // Then
+        verify(subProtocolHandler).handleTransportError(session, error);
+        assertEquals(1.0, meterRegistry.get("notifications.websocket.transport_errors").counter().count());
+    }
+}
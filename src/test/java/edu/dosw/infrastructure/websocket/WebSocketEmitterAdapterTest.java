@@ -1,16 +1,22 @@
 package edu.dosw.infrastructure.websocket;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.dosw.domain.model.Notification;
 import edu.dosw.domain.model.ValueObject.*;
+import edu.dosw.infrastructure.websocket.replay.RecentNotificationBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,13 +32,23 @@ class WebSocketEmitterAdapterTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
-    @InjectMocks
+    @Mock
+    private WebSocketSessionRegistry sessionRegistry;
+
+    @Mock
+    private RecentNotificationBuffer recentNotifications;
+
+    private MeterRegistry meterRegistry;
+
     private WebSocketEmitterAdapter webSocketEmitterAdapter;
 
     private Notification notification;
 
     @BeforeEach
     void setUp() {
+        lenient().when(sessionRegistry.isUserConnected(anyString())).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        webSocketEmitterAdapter = adapter(false, 50);
         notification = Notification.builder()
                 .id(new NotificationId("notif123"))
                 .userId("user123")
@@ -53,54 +69,46 @@ class WebSocketEmitterAdapterTest {
     void emitUserNotification_ShouldSendMessageToUserTopic() {
         // Given
         String userId = "user123";
-        doNothing().when(messagingTemplate).convertAndSend(anyString(), (Object) any());
 
         // When
         webSocketEmitterAdapter.emitUserNotification(userId, notification);
 
         // Then
-        verify(messagingTemplate, times(1)).convertAndSend(
-                eq("/topic/notifications/user123"),
-                (Object) any()
-        );
+        verify(messagingTemplate, times(1)).send(eq("/topic/notifications/user123"), any(Message.class));
     }
 
     @Test
     void emitUserNotification_ShouldHandleException() {
         // Given
         String userId = "user123";
-        doThrow(new RuntimeException("WebSocket error")).when(messagingTemplate).convertAndSend(anyString(), (Object) any());
+        doThrow(new RuntimeException("WebSocket error")).when(messagingTemplate).send(anyString(), any(Message.class));
 
         // When & Then
         assertDoesNotThrow(() -> webSocketEmitterAdapter.emitUserNotification(userId, notification));
 
-        verify(messagingTemplate, times(1)).convertAndSend(anyString(), (Object) any());
+        verify(messagingTemplate, times(1)).send(anyString(), any(Message.class));
     }
 
     @Test
     void emitGlobalNotification_ShouldSendMessageToGlobalTopic() {
         // Given
-        doNothing().when(messagingTemplate).convertAndSend(anyString(), (Object) any());
 
         // When
         webSocketEmitterAdapter.emitGlobalNotification(notification);
 
         // Then
-        verify(messagingTemplate, times(1)).convertAndSend(
-                eq("/topic/notifications"),
-                (Object) any()
-        );
+        verify(messagingTemplate, times(1)).send(eq("/topic/notifications"), any(Message.class));
     }
 
     @Test
     void emitGlobalNotification_ShouldHandleException() {
         // Given
-        doThrow(new RuntimeException("WebSocket error")).when(messagingTemplate).convertAndSend(anyString(), (Object) any());
+        doThrow(new RuntimeException("WebSocket error")).when(messagingTemplate).send(anyString(), any(Message.class));
 
         // When & Then
         assertDoesNotThrow(() -> webSocketEmitterAdapter.emitGlobalNotification(notification));
 
-        verify(messagingTemplate, times(1)).convertAndSend(anyString(), (Object) any());
+        verify(messagingTemplate, times(1)).send(anyString(), any(Message.class));
     }
 
     @Test
@@ -122,15 +130,14 @@ class WebSocketEmitterAdapterTest {
                 .build();
 
         List<Notification> notifications = Arrays.asList(notification, notification2);
-        doNothing().when(messagingTemplate).convertAndSend(anyString(), (Object) any());
 
         // When
         webSocketEmitterAdapter.emitBatchNotifications(notifications);
 
         // Then
-        verify(messagingTemplate, times(2)).convertAndSend(anyString(), (Object) any());
-        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/notifications/user123"), (Object) any());
-        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/notifications/user456"), (Object) any());
+        verify(messagingTemplate, times(2)).send(anyString(), any(Message.class));
+        verify(messagingTemplate, times(1)).send(eq("/topic/notifications/user123"), any(Message.class));
+        verify(messagingTemplate, times(1)).send(eq("/topic/notifications/user456"), any(Message.class));
     }
 
     @Test
@@ -142,7 +149,7 @@ class WebSocketEmitterAdapterTest {
         webSocketEmitterAdapter.emitBatchNotifications(notifications);
 
         // Then
-        verify(messagingTemplate, never()).convertAndSend(anyString(), (Object) any());
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
     }
 
     @Test
@@ -165,44 +172,217 @@ class WebSocketEmitterAdapterTest {
 
         List<Notification> notifications = Arrays.asList(notification, notification2);
 
-        doThrow(new RuntimeException("WebSocket error")).when(messagingTemplate).convertAndSend(anyString(), (Object) any());
+        doThrow(new RuntimeException("WebSocket error")).when(messagingTemplate).send(anyString(), any(Message.class));
 
         // When & Then
         assertDoesNotThrow(() -> webSocketEmitterAdapter.emitBatchNotifications(notifications));
     }
 
     @Test
-    void isUserConnected_ShouldReturnFalse() {
+    void isUserConnected_ShouldDelegateToSessionRegistry() {
+        // Given
+        when(sessionRegistry.isUserConnected("offline")).thenReturn(false);
+
+        // When & Then
+        assertTrue(webSocketEmitterAdapter.isUserConnected("user123"));
+        assertFalse(webSocketEmitterAdapter.isUserConnected("offline"));
+    }
+
+    @Test
+    void getConnectedUsersCount_ShouldDelegateToSessionRegistry() {
+        // Given
+        when(sessionRegistry.getConnectedUsersCount()).thenReturn(3);
+
         // When
-        boolean result = webSocketEmitterAdapter.isUserConnected("user123");
+        int result = webSocketEmitterAdapter.getConnectedUsersCount();
 
         // Then
-        assertFalse(result);
+        assertEquals(3, result);
     }
 
     @Test
-    void getConnectedUsersCount_ShouldReturnZero() {
+    void emitUserNotification_OfflineUser_ShouldNotSerializeOrSend() {
+        // Given
+        when(sessionRegistry.isUserConnected("user123")).thenReturn(false);
+
         // When
-        int result = webSocketEmitterAdapter.getConnectedUsersCount();
+        webSocketEmitterAdapter.emitUserNotification("user123", notification);
+        webSocketEmitterAdapter.emitUnreadCount("user123", 4);
+
+        // Then
+        verifyNoInteractions(messagingTemplate, recentNotifications);
+    }
+
+    @Test
+    void retainForResume_ShouldRecordInRecentBuffer() {
+        // When
+        webSocketEmitterAdapter.retainForResume(notification);
 
         // Then
-        assertEquals(0, result);
+        verify(recentNotifications).record(notification);
+        verifyNoInteractions(messagingTemplate);
     }
 
     @Test
     void emitUserNotification_ShouldCreateCorrectWebSocketMessage() {
         // Given
         String userId = "user123";
-        ArgumentCaptor<Object> messageCaptor = ArgumentCaptor.forClass(Object.class);
-        doNothing().when(messagingTemplate).convertAndSend(anyString(), messageCaptor.capture());
 
         // When
         webSocketEmitterAdapter.emitUserNotification(userId, notification);
 
         // Then
-        Object capturedMessage = messageCaptor.getValue();
-        assertNotNull(capturedMessage);
-        verify(messagingTemplate, times(1)).convertAndSend(anyString(), (Object) any());
+        String payload = sentPayload("/topic/notifications/user123");
+        assertTrue(payload.contains("\"id\":\"notif123\""));
+        assertTrue(payload.contains("\"type\":\"NOTIFICATION\""));
+        assertTrue(payload.contains("\"notificationType\":\"ORDER_CONFIRMED\""));
+    }
+
+    @Test
+    void emitGlobalNotification_ShouldSendPreEncodedJsonFrame() {
+        // Given
+        ArgumentCaptor<Message<?>> frameCaptor = ArgumentCaptor.forClass(Message.class);
+
+        // When
+        webSocketEmitterAdapter.emitGlobalNotification(notification);
+
+        // Then
+        verify(messagingTemplate).send(eq("/topic/notifications"), frameCaptor.capture());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), (Object) any());
+        Message<?> frame = frameCaptor.getValue();
+        assertInstanceOf(byte[].class, frame.getPayload());
+        assertEquals("application/json", String.valueOf(frame.getHeaders().get("contentType")));
+    }
+
+    @Test
+    void emitBatchNotifications_FailureForOneUser_ShouldStillSendTheRest() {
+        // Given
+        Notification other = Notification.builder()
+                .id(new NotificationId("notif789"))
+                .userId("user789")
+                .title("Other")
+                .message("Other message")
+                .type(NotificationType.PAYMENT_COMPLETED)
+                .status(NotificationStatus.SENT)
+                .channels(new ArrayList<>())
+                .deliveryAttempts(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .build();
+        doThrow(new RuntimeException("WebSocket error"))
+                .when(messagingTemplate).send(eq("/topic/notifications/user123"), any(Message.class));
+
+        // When
+        webSocketEmitterAdapter.emitBatchNotifications(Arrays.asList(notification, other));
+
+        // Then
+        verify(messagingTemplate).send(eq("/topic/notifications/user789"), any(Message.class));
     }
-}
 
+    @Test
+    void emitUnreadCount_ShouldSendUnreadCountFrameToUserTopic() {
+        // When
+        webSocketEmitterAdapter.emitUnreadCount("user123", 5L);
+
+        // Then
+        String payload = sentPayload("/topic/notifications/user123");
+        assertTrue(payload.contains("\"type\":\"UNREAD_COUNT\""));
+        assertTrue(payload.contains("\"unreadCount\":5"));
+    }
+
+    @Test
+    void emitUnreadCount_ShouldHandleException() {
+        // Given
+        doThrow(new RuntimeException("WebSocket error")).when(messagingTemplate).send(anyString(), any(Message.class));
+
+        // When & Then
+        assertDoesNotThrow(() -> webSocketEmitterAdapter.emitUnreadCount("user123", 1L));
+    }
+
+    @Test
+    void emitBatchNotifications_SameUser_ShouldSendOneArrayFramePerMaxFrameSize() {
+        // Given
+        webSocketEmitterAdapter = adapter(false, 2);
+        List<Notification> notifications = List.of(notification, notificationFor("user123", "notif2"),
+                notificationFor("user123", "notif3"));
+        ArgumentCaptor<Message<?>> frameCaptor = ArgumentCaptor.forClass(Message.class);
+
+        // When
+        webSocketEmitterAdapter.emitBatchNotifications(notifications);
+
+        // Then
+        verify(messagingTemplate, times(2)).send(eq("/topic/notifications/user123"), frameCaptor.capture());
+        String first = new String((byte[]) frameCaptor.getAllValues().get(0).getPayload(), StandardCharsets.UTF_8);
+        String second = new String((byte[]) frameCaptor.getAllValues().get(1).getPayload(), StandardCharsets.UTF_8);
+        assertTrue(first.contains("\"type\":\"NOTIFICATION_BATCH\""));
+        assertTrue(first.contains("\"id\":\"notif123\"") && first.contains("\"id\":\"notif2\""));
+        assertTrue(second.contains("\"type\":\"NOTIFICATION\"") && second.contains("\"id\":\"notif3\""));
+        assertEquals(1.0, meterRegistry.get("notifications.websocket.coalesced").counter().count());
+    }
+
+    @Test
+    void emitUserNotification_Coalescing_ShouldHoldFramesUntilFlush() {
+        // Given
+        webSocketEmitterAdapter = adapter(true, 50);
+
+        // When
+        webSocketEmitterAdapter.emitUserNotification("user123", notification);
+        webSocketEmitterAdapter.emitUnreadCount("user123", 1L);
+        webSocketEmitterAdapter.emitUserNotification("user123", notificationFor("user123", "notif2"));
+        webSocketEmitterAdapter.emitUnreadCount("user123", 2L);
+
+        // Then
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(1, webSocketEmitterAdapter.pendingUsers());
+
+        webSocketEmitterAdapter.flush();
+
+        ArgumentCaptor<Message<?>> frameCaptor = ArgumentCaptor.forClass(Message.class);
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate, times(2)).send(eq("/topic/notifications/user123"), frameCaptor.capture());
+        String batch = new String((byte[]) frameCaptor.getAllValues().get(0).getPayload(), StandardCharsets.UTF_8);
+        String unread = new String((byte[]) frameCaptor.getAllValues().get(1).getPayload(), StandardCharsets.UTF_8);
+        assertTrue(batch.contains("\"type\":\"NOTIFICATION_BATCH\""));
+        assertTrue(unread.contains("\"type\":\"UNREAD_COUNT\"") && unread.contains("\"unreadCount\":2"));
+        assertEquals(0, webSocketEmitterAdapter.pendingUsers());
+    }
+
+    @Test
+    void emitUserNotification_Coalescing_FullFrameShouldBeSentWithoutWaiting() {
+        // Given
+        webSocketEmitterAdapter = adapter(true, 2);
+
+        // When
+        webSocketEmitterAdapter.emitUserNotification("user123", notification);
+        webSocketEmitterAdapter.emitUserNotification("user123", notificationFor("user123", "notif2"));
+
+        // Then
+        verify(messagingTemplate, times(1)).send(eq("/topic/notifications/user123"), any(Message.class));
+        assertEquals(0, webSocketEmitterAdapter.pendingUsers());
+    }
+
+    private WebSocketEmitterAdapter adapter(boolean coalesce, int maxFrameSize) {
+        return new WebSocketEmitterAdapter(new LocalWebSocketFanout(messagingTemplate, sessionRegistry), sessionRegistry,
+                new WebSocketFrameEncoder(new ObjectMapper().findAndRegisterModules()), recentNotifications, meterRegistry,
+                coalesce, maxFrameSize);
+    }
+
+    private Notification notificationFor(String userId, String id) {
+        return Notification.builder()
+                .id(new NotificationId(id))
+                .userId(userId)
+                .title("Nuevo pedido")
+                .message("Pedido " + id)
+                .type(NotificationType.SELLER_NEW_ORDER)
+                .status(NotificationStatus.SENT)
+                .channels(new ArrayList<>(Arrays.asList(Channel.WEB_SOCKET)))
+                .deliveryAttempts(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private String sentPayload(String destination) {
+        ArgumentCaptor<Message<?>> frameCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(1)).send(eq(destination), frameCaptor.capture());
+        return new String((byte[]) frameCaptor.getValue().getPayload(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+package edu.dosw.infrastructure.websocket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketSessionRegistryTest {
+
+    private MeterRegistry meterRegistry;
+    private WebSocketSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new WebSocketSessionRegistry(meterRegistry);
+    }
+
+    @Test
+    void onSubscribe_UserTopic_ShouldMarkUserConnected() {
+        // When
+        registry.onSubscribe(new SessionSubscribeEvent(this, subscribe("s1", "sub-0", "/topic/notifications/user1")));
+
+        // Then
+        assertTrue(registry.isUserConnected("user1"));
+        assertFalse(registry.isUserConnected("user2"));
+        assertEquals(1, registry.getConnectedUsersCount());
+        assertEquals(1.0, meterRegistry.get("notifications.websocket.users").gauge().value());
+        assertEquals(1.0, meterRegistry.get("notifications.websocket.sessions").gauge().value());
+    }
+
+    @Test
+    void onSubscribe_OtherTopics_ShouldNotConnectAnyUser() {
+        // When
+        registry.subscribed("s1", "sub-0", WebSocketSessionRegistry.userIdOf("/topic/notifications"));
+        registry.subscribed("s1", "sub-1", WebSocketSessionRegistry.userIdOf("/topic/notifications.status"));
+        registry.subscribed("s1", "sub-2", WebSocketSessionRegistry.userIdOf("/topic/notifications/user1/extra"));
+
+        // Then
+        assertEquals(0, registry.getConnectedUsersCount());
+    }
+
+    @Test
+    void onDisconnect_ShouldRemoveOnlyThatSession() {
+        // Given
+        registry.subscribed("s1", "sub-0", "user1");
+        registry.subscribed("s2", "sub-0", "user1");
+
+        // When
+        registry.onDisconnect(new SessionDisconnectEvent(this, disconnect("s1"), "s1", CloseStatus.NORMAL));
+
+        // Then
+        assertTrue(registry.isUserConnected("user1"));
+        registry.disconnected("s2");
+        assertFalse(registry.isUserConnected("user1"));
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test
+    void unsubscribed_ShouldKeepUserWhileAnotherSubscriptionRemains() {
+        // Given
+        registry.subscribed("s1", "sub-0", "user1");
+        registry.subscribed("s1", "sub-1", "user1");
+
+        // When
+        registry.unsubscribed("s1", "sub-0");
+
+        // Then
+        assertTrue(registry.isUserConnected("user1"));
+        registry.unsubscribed("s1", "sub-1");
+        assertFalse(registry.isUserConnected("user1"));
+    }
+
+    @Test
+    void concurrentSubscribeAndDisconnect_ShouldLeaveNoEmptyEntries() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            String sessionId = "s" + i;
+            futures.add(executor.submit(() -> {
+                registry.subscribed(sessionId, "sub-0", "user1");
+                registry.disconnected(sessionId);
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertFalse(registry.isUserConnected("user1"));
+        assertEquals(0, registry.getConnectedUsersCount());
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> disconnect(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
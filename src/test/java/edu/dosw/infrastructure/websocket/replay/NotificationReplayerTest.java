@@ -0,0 +1,171 @@
+package edu.dosw.infrastructure.websocket.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.NotificationCursor;
+import edu.dosw.domain.model.ValueObject.NotificationId;
+import edu.dosw.domain.ports.NotificationRepositoryPort;
+import edu.dosw.infrastructure.websocket.LocalWebSocketFanout;
+import edu.dosw.infrastructure.websocket.WebSocketEmitterAdapter;
+import edu.dosw.infrastructure.websocket.WebSocketFrameEncoder;
+import edu.dosw.infrastructure.websocket.WebSocketSessionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationReplayerTest {
+
+    private static final LocalDateTime SEEN_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private RecentNotificationBuffer recentNotifications;
+
+    @Mock
+    private NotificationRepositoryPort notificationRepositoryPort;
+
+    private MeterRegistry meterRegistry;
+    private NotificationReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replayer = new NotificationReplayer(recentNotifications, notificationRepositoryPort, meterRegistry, "local", 2);
+    }
+
+    @Test
+    void missedSince_BufferHit_ShouldNotQueryStore() {
+        // Given
+        List<Notification> missed = List.of(notification("user1", "n2"));
+        when(recentNotifications.after("user1", "n1")).thenReturn(Optional.of(missed));
+
+        // When
+        NotificationReplayer.Replay replay = replayer.missedSince("user1", "n1");
+
+        // Then
+        assertEquals(missed, replay.getNotifications());
+        assertFalse(replay.isResyncRequired());
+        verifyNoInteractions(notificationRepositoryPort);
+        assertEquals(1.0, replays("buffer"));
+    }
+
+    @Test
+    void missedSince_BufferMiss_ShouldQueryRangeAfterLastSeen() {
+        // Given
+        List<Notification> missed = List.of(notification("user1", "n2"), notification("user1", "n3"));
+        when(recentNotifications.after("user1", "n1")).thenReturn(Optional.empty());
+        when(notificationRepositoryPort.findById("n1")).thenReturn(Optional.of(notification("user1", "n1")));
+        when(notificationRepositoryPort.findByUserIdAfter("user1", new NotificationCursor(SEEN_AT, "n1"), 3))
+                .thenReturn(missed);
+
+        // When
+        NotificationReplayer.Replay replay = replayer.missedSince("user1", "n1");
+
+        // Then
+        assertEquals(missed, replay.getNotifications());
+        verify(notificationRepositoryPort).flushPendingWrites();
+        assertEquals(1.0, replays("store"));
+        assertEquals(2.0, meterRegistry.get("notifications.websocket.replay.notifications").counter().count());
+    }
+
+    @Test
+    void missedSince_GapLargerThanLimit_ShouldRequireResync() {
+        // Given
+        when(recentNotifications.after("user1", "n1")).thenReturn(Optional.empty());
+        when(notificationRepositoryPort.findById("n1")).thenReturn(Optional.of(notification("user1", "n1")));
+        when(notificationRepositoryPort.findByUserIdAfter(eq("user1"), any(), eq(3))).thenReturn(List.of(
+                notification("user1", "n2"), notification("user1", "n3"), notification("user1", "n4")));
+
+        // When
+        NotificationReplayer.Replay replay = replayer.missedSince("user1", "n1");
+
+        // Then
+        assertTrue(replay.isResyncRequired());
+        assertTrue(replay.getNotifications().isEmpty());
+        assertEquals(1.0, replays("resync"));
+    }
+
+    @Test
+    void missedSince_LastSeenOfAnotherUser_ShouldRequireResync() {
+        // Given
+        when(recentNotifications.after("user1", "n1")).thenReturn(Optional.empty());
+        when(notificationRepositoryPort.findById("n1")).thenReturn(Optional.of(notification("user2", "n1")));
+
+        // When
+        NotificationReplayer.Replay replay = replayer.missedSince("user1", "n1");
+
+        // Then
+        assertTrue(replay.isResyncRequired());
+        verify(notificationRepositoryPort, never()).findByUserIdAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    void missedSince_RelayFanout_ShouldSkipLocalBuffer() {
+        // Given
+        replayer = new NotificationReplayer(recentNotifications, notificationRepositoryPort, meterRegistry, "redis", 2);
+        when(notificationRepositoryPort.findById("n1")).thenReturn(Optional.of(notification("user1", "n1")));
+        when(notificationRepositoryPort.findByUserIdAfter(eq("user1"), any(), eq(3))).thenReturn(List.of());
+
+        // When
+        NotificationReplayer.Replay replay = replayer.missedSince("user1", "n1");
+
+        // Then
+        assertTrue(replay.getNotifications().isEmpty());
+        verifyNoInteractions(recentNotifications);
+    }
+
+    @Test
+    void missedSince_NotificationCreatedWhileDisconnected_ShouldBeReplayed() {
+        // Given
+        WebSocketSessionRegistry sessionRegistry = mock(WebSocketSessionRegistry.class);
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        RecentNotificationBuffer buffer = new RecentNotificationBuffer(32, 100, 600_000);
+        WebSocketEmitterAdapter emitter = new WebSocketEmitterAdapter(
+                new LocalWebSocketFanout(messagingTemplate, sessionRegistry), sessionRegistry,
+                new WebSocketFrameEncoder(new ObjectMapper().findAndRegisterModules()), buffer, meterRegistry, false, 50);
+        replayer = new NotificationReplayer(buffer, notificationRepositoryPort, meterRegistry, "local", 2);
+        Notification seen = notification("user1", "n1");
+        Notification createdOffline = notification("user1", "n2");
+
+        emitter.retainForResume(seen);
+        when(sessionRegistry.isUserConnected("user1")).thenReturn(false);
+
+        // When
+        // El cliente ya se desconecto; como en publish() la nueva se conserva aunque no salga frame
+        emitter.retainForResume(createdOffline);
+        boolean connectedAtCreation = emitter.isUserConnected("user1");
+        NotificationReplayer.Replay replay = replayer.missedSince("user1", "n1");
+
+        // Then
+        assertFalse(connectedAtCreation);
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(List.of(createdOffline), replay.getNotifications());
+        assertFalse(replay.isResyncRequired());
+        verifyNoInteractions(notificationRepositoryPort);
+    }
+
+    private Notification notification(String userId, String id) {
+        return Notification.builder()
+                .id(new NotificationId(id))
+                .userId(userId)
+                .createdAt(SEEN_AT)
+                .build();
+    }
+
+    private double replays(String source) {
+        return meterRegistry.get("notifications.websocket.replays").tag("source", source).counter().count();
+    }
+}
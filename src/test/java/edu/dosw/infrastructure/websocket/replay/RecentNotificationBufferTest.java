@@ -0,0 +1,59 @@
+package edu.dosw.infrastructure.websocket.replay;
+
+import edu.dosw.domain.model.Notification;
+import edu.dosw.domain.model.ValueObject.NotificationId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentNotificationBufferTest {
+
+    private final RecentNotificationBuffer buffer = new RecentNotificationBuffer(3, 100, 60000);
+
+    @Test
+    void after_ShouldReturnNotificationsEmittedAfterLastSeen() {
+        // Given
+        Notification first = notification("user1", "n1");
+        Notification second = notification("user1", "n2");
+        Notification third = notification("user1", "n3");
+        buffer.record(first);
+        buffer.record(second);
+        buffer.record(third);
+        buffer.record(notification("user2", "other"));
+
+        // When
+        Optional<List<Notification>> missed = buffer.after("user1", "n1");
+
+        // Then
+        assertEquals(Optional.of(List.of(second, third)), missed);
+        assertEquals(Optional.of(List.of()), buffer.after("user1", "n3"));
+    }
+
+    @Test
+    void after_EvictedLastSeen_ShouldReportUnknown() {
+        // Given
+        for (int i = 1; i <= 4; i++) {
+            buffer.record(notification("user1", "n" + i));
+        }
+
+        // When & Then
+        assertTrue(buffer.after("user1", "n1").isEmpty());
+        assertEquals(1, buffer.after("user1", "n3").orElseThrow().size());
+    }
+
+    @Test
+    void after_UnknownUser_ShouldReportUnknown() {
+        // When & Then
+        assertTrue(buffer.after("ghost", "n1").isEmpty());
+    }
+
+    private Notification notification(String userId, String id) {
+        return Notification.builder()
+                .id(new NotificationId(id))
+                .userId(userId)
+                .build();
+    }
+}